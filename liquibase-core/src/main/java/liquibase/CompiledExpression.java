@@ -0,0 +1,272 @@
+package liquibase;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single {@link ContextExpression} or {@link LabelExpression} entry compiled into an immutable tree, so it can be evaluated many times
+ * without parsing the expression string again.
+ * <p/>
+ * Compiling follows the same steps the expression classes originally took on every evaluation: parenthesized groups are replaced one at a time,
+ * then the rest is split on "or", then on "and", then checked for negation. Where evaluating a group used to insert ":TRUE" or ":FALSE" into the
+ * expression, compiling inserts a placeholder for the group instead, so expressions of any shape evaluate exactly as before, including
+ * expressions that failed to parse.
+ * <p/>
+ * Names are compared against runtime names normalized by {@link #normalize(Set)}, which matches the same names {@link String#equalsIgnoreCase(String)} does.
+ */
+abstract class CompiledExpression {
+
+    private static final Pattern OR_PATTERN = Pattern.compile("\\s+or\\s+");
+    private static final Pattern AND_PATTERN = Pattern.compile("\\s+and\\s+");
+    private static final Pattern CONTEXT_GROUP_PATTERN = Pattern.compile("(.*?)\\((.*?)\\)(.*)");
+    private static final Pattern LABEL_GROUP_PATTERN = Pattern.compile("(.*?)\\(([^\\(\\)]*?)\\)(.*)");
+
+    //expressions are always lower case, so an upper case placeholder cannot be confused with a name
+    private static final String PLACEHOLDER_PREFIX = ":GROUP";
+    private static final String PLACEHOLDER_SUFFIX = ":";
+    private static final Pattern PLACEHOLDER_PATTERN = Pattern.compile(Pattern.quote(PLACEHOLDER_PREFIX) + "(\\d+)" + Pattern.quote(PLACEHOLDER_SUFFIX));
+
+    /**
+     * Returns true if the expression matches the given runtime names, which must have been normalized with {@link #normalize(Set)}.
+     */
+    abstract boolean matches(Set<String> normalizedNames);
+
+    static CompiledExpression compileContext(String expression) {
+        return compile(expression, false);
+    }
+
+    static CompiledExpression compileLabel(String expression) {
+        return compile(expression, true);
+    }
+
+    /**
+     * Returns the given names in the form {@link StringUtils#toCaseInsensitiveKey(String)} returns, the form compiled names are stored in.
+     */
+    static Set<String> normalize(Set<String> names) {
+        Set<String> normalized = new HashSet<String>();
+        for (String name : names) {
+            normalized.add(StringUtils.toCaseInsensitiveKey(name));
+        }
+        return normalized;
+    }
+
+    private static CompiledExpression compile(String expression, boolean label) {
+        List<CompiledExpression> groups = new ArrayList<CompiledExpression>();
+        try {
+            return new Compiler(label, groups).compile(expression);
+        } catch (ParseFailure e) {
+            return new Unparseable(e.getMessage(), e.expression, groups);
+        }
+    }
+
+    private static class Compiler {
+        private final boolean label;
+        private final List<CompiledExpression> groups;
+
+        private Compiler(boolean label, List<CompiledExpression> groups) {
+            this.label = label;
+            this.groups = groups;
+        }
+
+        private CompiledExpression compile(String expression) throws ParseFailure {
+            CompiledExpression group = getGroup(expression.trim());
+            if (group != null) {
+                return group;
+            }
+
+            while (expression.contains("(")) {
+                Matcher matcher = (label ? LABEL_GROUP_PATTERN : CONTEXT_GROUP_PATTERN).matcher(expression);
+                if (!matcher.matches()) {
+                    throw new ParseFailure("Cannot parse " + (label ? "label" : "context") + " pattern ", expression);
+                }
+                groups.add(compile(matcher.group(2)));
+
+                expression = matcher.group(1) + " " + PLACEHOLDER_PREFIX + (groups.size() - 1) + PLACEHOLDER_SUFFIX + " " + matcher.group(3);
+            }
+
+            String[] orSplit = OR_PATTERN.split(expression);
+            if (orSplit.length > 1) {
+                return new Or(compile(orSplit));
+            }
+
+            String[] andSplit = AND_PATTERN.split(expression);
+            if (andSplit.length > 1) {
+                return new And(compile(andSplit));
+            }
+
+            boolean notExpression = false;
+            if (expression.startsWith("!")) {
+                notExpression = true;
+                expression = expression.substring(1);
+            } else if (label && expression.toLowerCase().startsWith("not ")) {
+                notExpression = true;
+                expression = expression.substring(4);
+            }
+
+            CompiledExpression compiled = null;
+            if (label) {
+                compiled = getGroup(expression.trim());
+            }
+            if (compiled == null) {
+                compiled = createName(expression);
+            }
+            if (notExpression) {
+                return new Not(compiled);
+            }
+            return compiled;
+        }
+
+        private CompiledExpression[] compile(String[] expressions) throws ParseFailure {
+            CompiledExpression[] compiled = new CompiledExpression[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                compiled[i] = compile(expressions[i]);
+            }
+            return compiled;
+        }
+
+        private CompiledExpression getGroup(String expression) {
+            Matcher matcher = PLACEHOLDER_PATTERN.matcher(expression);
+            if (matcher.matches()) {
+                return groups.get(Integer.parseInt(matcher.group(1)));
+            }
+            return null;
+        }
+
+        private CompiledExpression createName(String name) {
+            if (!name.contains(PLACEHOLDER_PREFIX)) {
+                return new Name(StringUtils.toCaseInsensitiveKey(name).intern());
+            }
+            return new NameWithGroups(name, groups);
+        }
+    }
+
+    /**
+     * Replaces the group placeholders in the given expression with ":TRUE" or ":FALSE", the way evaluating the expression string used to.
+     */
+    private static String resolvePlaceholders(String expression, List<CompiledExpression> groups, Set<String> normalizedNames) {
+        Matcher matcher = PLACEHOLDER_PATTERN.matcher(expression);
+        StringBuffer resolved = new StringBuffer();
+        while (matcher.find()) {
+            boolean value = groups.get(Integer.parseInt(matcher.group(1))).matches(normalizedNames);
+            matcher.appendReplacement(resolved, ":" + String.valueOf(value).toUpperCase());
+        }
+        matcher.appendTail(resolved);
+        return resolved.toString();
+    }
+
+    private static class Or extends CompiledExpression {
+        private final CompiledExpression[] expressions;
+
+        private Or(CompiledExpression[] expressions) {
+            this.expressions = expressions;
+        }
+
+        @Override
+        boolean matches(Set<String> normalizedNames) {
+            for (CompiledExpression expression : expressions) {
+                if (expression.matches(normalizedNames)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static class And extends CompiledExpression {
+        private final CompiledExpression[] expressions;
+
+        private And(CompiledExpression[] expressions) {
+            this.expressions = expressions;
+        }
+
+        @Override
+        boolean matches(Set<String> normalizedNames) {
+            for (CompiledExpression expression : expressions) {
+                if (!expression.matches(normalizedNames)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    private static class Not extends CompiledExpression {
+        private final CompiledExpression expression;
+
+        private Not(CompiledExpression expression) {
+            this.expression = expression;
+        }
+
+        @Override
+        boolean matches(Set<String> normalizedNames) {
+            return !expression.matches(normalizedNames);
+        }
+    }
+
+    private static class Name extends CompiledExpression {
+        private final String normalizedName;
+
+        private Name(String normalizedName) {
+            this.normalizedName = normalizedName;
+        }
+
+        @Override
+        boolean matches(Set<String> normalizedNames) {
+            return normalizedNames.contains(normalizedName);
+        }
+    }
+
+    /**
+     * A name that contains a group placeholder without being one, such as "! :TRUE " in a context expression. Only compares equal to names that contain ":TRUE" or ":FALSE".
+     */
+    private static class NameWithGroups extends CompiledExpression {
+        private final String name;
+        private final List<CompiledExpression> groups;
+
+        private NameWithGroups(String name, List<CompiledExpression> groups) {
+            this.name = name;
+            this.groups = groups;
+        }
+
+        @Override
+        boolean matches(Set<String> normalizedNames) {
+            return normalizedNames.contains(StringUtils.toCaseInsensitiveKey(resolvePlaceholders(name, groups, normalizedNames)));
+        }
+    }
+
+    /**
+     * An expression that cannot be parsed. Evaluating it throws the exception evaluating the expression string did.
+     */
+    private static class Unparseable extends CompiledExpression {
+        private final String message;
+        private final String expression;
+        private final List<CompiledExpression> groups;
+
+        private Unparseable(String message, String expression, List<CompiledExpression> groups) {
+            this.message = message;
+            this.expression = expression;
+            this.groups = groups;
+        }
+
+        @Override
+        boolean matches(Set<String> normalizedNames) {
+            throw new UnexpectedLiquibaseException(message + resolvePlaceholders(expression, groups, normalizedNames));
+        }
+    }
+
+    private static class ParseFailure extends Exception {
+        private final String expression;
+
+        private ParseFailure(String message, String expression) {
+            super(message);
+            this.expression = expression;
+        }
+    }
+}
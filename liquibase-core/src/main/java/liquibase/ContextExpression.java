@@ -1,12 +1,8 @@
 package liquibase;
 
-import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.util.StringUtils;
 
-import java.text.ParseException;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Encapsulates logic for evaluating if a set of runtime contexts matches a context expression string.
@@ -15,6 +11,7 @@ public class ContextExpression {
 
     private HashSet<String> contexts = new HashSet<String>();
     private String originalString = null;
+    private volatile List<CompiledExpression> compiledContexts;
 
     public ContextExpression() {
     }
@@ -55,6 +52,7 @@ public class ContextExpression {
     }
 
     public boolean add(String context) {
+        compiledContexts = null;
         return this.contexts.add(context.toLowerCase());
     }
 
@@ -81,82 +79,28 @@ public class ContextExpression {
             return true;
         }
 
-        for (String expression : this.contexts) {
-            if (matches(expression, runtimeContexts)) {
+        Set<String> normalizedContexts = runtimeContexts.getNormalizedContexts();
+        for (CompiledExpression expression : getCompiledContexts()) {
+            if (expression.matches(normalizedContexts)) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean matches(String expression, Contexts runtimeContexts) {
-        if (runtimeContexts.isEmpty()) {
-            return true;
-        }
-
-        if (expression.trim().equals(":TRUE")) {
-            return true;
-        }
-        if (expression.trim().equals(":FALSE")) {
-            return false;
-        }
-
-        while (expression.contains("(")) {
-            Pattern pattern = Pattern.compile("(.*?)\\((.*?)\\)(.*)");
-            Matcher matcher = pattern.matcher(expression);
-            if (!matcher.matches()) {
-                throw new UnexpectedLiquibaseException("Cannot parse context pattern "+expression);
-            }
-            String parenExpression = matcher.group(2);
-
-            parenExpression = ":"+String.valueOf(matches(parenExpression, runtimeContexts)).toUpperCase();
-
-            expression = matcher.group(1)+" "+parenExpression+" "+matcher.group(3);
-        }
-
-        String[] orSplit = expression.split("\\s+or\\s+");
-        if (orSplit.length > 1) {
-            for (String split : orSplit) {
-                if (matches(split, runtimeContexts)) {
-                    return true;
-                }
-            }
-            return false;
-        }
-
-        String[] andSplit = expression.split("\\s+and\\s+");
-        if (andSplit.length > 1) {
-            for (String split : andSplit) {
-                if (!matches(split, runtimeContexts)) {
-                    return false;
-                }
-            }
-            return true;
-        }
-
-
-        boolean notExpression = false;
-        if (expression.startsWith("!")) {
-            notExpression = true;
-            expression = expression.substring(1);
-        }
-
-        for (String context : runtimeContexts.getContexts()) {
-            if (context.equalsIgnoreCase(expression)) {
-                if (notExpression) {
-                    return false;
-                } else {
-                    return true;
-                }
+    /**
+     * Returns the entries of this expression compiled in iteration order, compiling them on first use.
+     */
+    private List<CompiledExpression> getCompiledContexts() {
+        List<CompiledExpression> compiled = compiledContexts;
+        if (compiled == null) {
+            compiled = new ArrayList<CompiledExpression>(contexts.size());
+            for (String expression : contexts) {
+                compiled.add(CompiledExpression.compileContext(expression));
             }
+            compiledContexts = compiled;
         }
-        if (notExpression) {
-            return true;
-        } else {
-            return false;
-        }
-
-
+        return compiled;
     }
 
     public boolean isEmpty() {
@@ -10,6 +10,7 @@ import java.util.*;
 public class Contexts {
 
     private HashSet<String> contexts = new HashSet<String>();
+    private volatile Set<String> normalizedContexts;
 
     public Contexts() {
     }
@@ -50,6 +51,7 @@ public class Contexts {
     }
 
     public boolean add(String context) {
+        normalizedContexts = null;
         return this.contexts.add(context.toLowerCase());
     }
 
@@ -66,4 +68,16 @@ public class Contexts {
     public Set<String> getContexts() {
         return Collections.unmodifiableSet(contexts);
     }
+
+    /**
+     * Returns the contexts in the form {@link ContextExpression} compares them in. Computed once until the contexts change.
+     */
+    Set<String> getNormalizedContexts() {
+        Set<String> normalized = normalizedContexts;
+        if (normalized == null) {
+            normalized = CompiledExpression.normalize(contexts);
+            normalizedContexts = normalized;
+        }
+        return normalized;
+    }
 }
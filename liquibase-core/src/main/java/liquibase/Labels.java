@@ -7,6 +7,7 @@ import java.util.*;
 public class Labels {
 
     private Set<String> labels = new LinkedHashSet<String>();
+    private volatile Set<String> normalizedLabels;
 
     public Labels() {
     }
@@ -47,10 +48,12 @@ public class Labels {
     }
 
     public boolean add(String label) {
+        normalizedLabels = null;
         return this.labels.add(label.toLowerCase());
     }
 
     public boolean remove(String label) {
+      normalizedLabels = null;
       return this.labels.remove(label.toLowerCase());
     }
 
@@ -67,4 +70,16 @@ public class Labels {
         return Collections.unmodifiableSet(labels);
     }
 
+    /**
+     * Returns the labels in the form {@link LabelExpression} compares them in. Computed once until the labels change.
+     */
+    Set<String> getNormalizedLabels() {
+        Set<String> normalized = normalizedLabels;
+        if (normalized == null) {
+            normalized = CompiledExpression.normalize(labels);
+            normalizedLabels = normalized;
+        }
+        return normalized;
+    }
+
 }
@@ -2,6 +2,7 @@ package liquibase;
 
 import java.io.*;
 import java.text.DateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
@@ -16,6 +17,8 @@ import liquibase.change.core.RawSQLChange;
 import liquibase.changelog.*;
 import liquibase.changelog.filter.*;
 import liquibase.changelog.visitor.*;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.*;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.OracleDatabase;
@@ -30,6 +33,7 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.executor.LoggingExecutor;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.lockservice.DatabaseChangeLogLock;
 import liquibase.lockservice.LockService;
 import liquibase.lockservice.LockServiceFactory;
@@ -71,6 +75,9 @@ public class Liquibase {
     private ChangeLogParameters changeLogParameters;
     private ChangeExecListener changeExecListener;
     private ChangeLogSyncListener changeLogSyncListener;
+    private DatabaseConnection historyConnection;
+    private List<Database> workerDatabases;
+    private DatabasePool databasePool;
 
     private boolean ignoreClasspathPrefix = true;
 
@@ -215,7 +222,7 @@ public class Liquibase {
 
             ChangeLogIterator changeLogIterator = getStandardChangelogIterator(contexts, labelExpression, changeLog);
 
-            changeLogIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            runUpdateVisitor(changeLogIterator, contexts, labelExpression);
         } finally {
             database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
             try {
@@ -241,6 +248,77 @@ public class Liquibase {
         return new UpdateVisitor(database, changeExecListener);
     }
 
+    /**
+     * Runs the {@link #createUpdateVisitor() update visitor} over the changeLog and writes any history rows still queued.
+     * If a {@link #setHistoryConnection(DatabaseConnection) history connection} is set, the history of changeSets that do not run
+     * in a transaction is written through it by a {@link ChangeLogHistoryPipeline}.
+     * If {@link #setWorkerDatabases(List) worker databases} or a {@link #setDatabasePool(DatabasePool) database pool} are set,
+     * changeSets are run by a {@link ParallelUpdateVisitor} instead.
+     */
+    protected void runUpdateVisitor(ChangeLogIterator changeLogIterator, Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
+        boolean jdbc = ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor;
+        Integer loadDataParallelism = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataParallelism();
+        boolean poolForLoadData = loadDataParallelism != null && loadDataParallelism > 1;
+        if (jdbc && (workerDatabases == null || workerDatabases.isEmpty()) && databasePool != null && !poolForLoadData) {
+            List<Database> leasedDatabases = new ArrayList<Database>();
+            try {
+                for (int i = 0; i < databasePool.getMaxSize(); i++) {
+                    leasedDatabases.add(databasePool.lease());
+                }
+                runParallelUpdateVisitor(changeLogIterator, contexts, labelExpression, leasedDatabases);
+            } finally {
+                for (Database leased : leasedDatabases) {
+                    databasePool.release(leased);
+                }
+            }
+            return;
+        }
+        if (jdbc && workerDatabases != null && !workerDatabases.isEmpty()) {
+            runParallelUpdateVisitor(changeLogIterator, contexts, labelExpression, workerDatabases);
+            return;
+        }
+
+        UpdateVisitor updateVisitor = createUpdateVisitor();
+        ChangeLogHistoryPipeline historyPipeline = null;
+        if (historyConnection != null && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor) {
+            Integer queueDepth = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogQueueDepth();
+            historyPipeline = new ChangeLogHistoryPipeline(historyConnection, queueDepth == null ? 1 : queueDepth);
+            updateVisitor.setHistoryPipeline(historyPipeline);
+        }
+        try {
+            changeLogIterator.run(updateVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+            if (historyPipeline != null) {
+                historyPipeline.await();
+            }
+            flushChangeLogHistory();
+        } finally {
+            if (historyPipeline != null) {
+                historyPipeline.close();
+            }
+        }
+    }
+
+
+    /**
+     * Writes the history rows the change log history service of the database has queued, if it queues them.
+     */
+    private void flushChangeLogHistory() throws DatabaseException {
+        ChangeLogHistoryService changeLogService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database);
+        if (changeLogService instanceof AbstractChangeLogHistoryService) {
+            ((AbstractChangeLogHistoryService) changeLogService).flush();
+        }
+    }
+
+    private void runParallelUpdateVisitor(ChangeLogIterator changeLogIterator, Contexts contexts, LabelExpression labelExpression, List<Database> workerDatabases) throws LiquibaseException {
+        ParallelUpdateVisitor parallelUpdateVisitor = new ParallelUpdateVisitor(database, changeExecListener, workerDatabases);
+        try {
+            changeLogIterator.run(parallelUpdateVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+            parallelUpdateVisitor.finish();
+            flushChangeLogHistory();
+        } finally {
+            parallelUpdateVisitor.close();
+        }
+    }
 
     protected ChangeLogIterator getStandardChangelogIterator(Contexts contexts, LabelExpression labelExpression, DatabaseChangeLog changeLog) throws DatabaseException {
         return new ChangeLogIterator(changeLog,
@@ -315,7 +393,7 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database),
                     new CountChangeSetFilter(changesToApply));
 
-            logIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            runUpdateVisitor(logIterator, contexts, labelExpression);
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -356,7 +434,7 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database),
                     new UpToTagChangeSetFilter(tag, ranChangeSetList));
 
-            logIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            runUpdateVisitor(logIterator, contexts, labelExpression);
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -809,6 +887,7 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database));
 
             logIterator.run(new ChangeLogSyncVisitor(database, changeLogSyncListener), new RuntimeEnvironment(database, contexts, labelExpression));
+            flushChangeLogHistory();
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -868,6 +947,7 @@ public class Liquibase {
                     new CountChangeSetFilter(1));
 
             logIterator.run(new ChangeLogSyncVisitor(database), new RuntimeEnvironment(database, contexts, labelExpression));
+            flushChangeLogHistory();
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -1006,6 +1086,8 @@ public class Liquibase {
     }
 
     protected void resetServices() {
+        log.debug(CheckSumStatistics.getInstance().toString());
+        CheckSumStatistics.reset();
         LockServiceFactory.getInstance().resetAll();
         ChangeLogHistoryServiceFactory.getInstance().resetAll();
         ExecutorService.getInstance().reset();
@@ -1190,6 +1272,8 @@ public class Liquibase {
 
         ChangeLogIterator logIterator = getStandardChangelogIterator(contexts, labelExpression, changeLog);
 
+        ParallelCheckSumCalculator.getInstance().computeCheckSums(changeLog.getChangeSets());
+
         StatusVisitor visitor = new StatusVisitor(database);
         logIterator.run(visitor, new RuntimeEnvironment(database, contexts, labelExpression));
         return visitor.getStatuses();
@@ -1449,6 +1533,51 @@ public class Liquibase {
       this.changeExecListener = listener;
     }
 
+    public DatabaseConnection getHistoryConnection() {
+        return historyConnection;
+    }
+
+    /**
+     * Sets a second connection to the same database used to write the change history of changeSets that do not run in a transaction
+     * while update goes on with the next changeSet. The connection is not closed by Liquibase.
+     * See {@link GlobalConfiguration#getDatabaseChangeLogQueueDepth()}.
+     */
+    public void setHistoryConnection(DatabaseConnection historyConnection) {
+        this.historyConnection = historyConnection;
+    }
+
+    public List<Database> getWorkerDatabases() {
+        return workerDatabases;
+    }
+
+    /**
+     * Sets databases connected to the same database as this one that update uses to run changeSets touching different objects at the same time,
+     * one changeSet per worker database at a time. See {@link ParallelUpdateVisitor}. The databases are not closed by Liquibase.
+     * When set, the {@link #setHistoryConnection(DatabaseConnection) history connection} is not used.
+     */
+    public void setWorkerDatabases(List<Database> workerDatabases) {
+        this.workerDatabases = workerDatabases;
+    }
+
+    public DatabasePool getDatabasePool() {
+        return databasePool;
+    }
+
+    /**
+     * Sets a pool of connections to the same database as this one. If no {@link #setWorkerDatabases(List) worker databases} are set,
+     * update leases up to {@link DatabasePool#getMaxSize()} databases from it to run changeSets in parallel and releases them when done.
+     * If {@link GlobalConfiguration#getLoadDataParallelism()} is above 1 the pool is left to loadData changes instead, which load their files over several connections.
+     * The pool is not closed by Liquibase.
+     */
+    public void setDatabasePool(DatabasePool databasePool) {
+        this.databasePool = databasePool;
+        if (databasePool == null) {
+            DatabasePoolService.getInstance().clearPool(database);
+        } else {
+            DatabasePoolService.getInstance().setPool(database, databasePool);
+        }
+    }
+
     public void setChangeLogSyncListener(ChangeLogSyncListener changeLogSyncListener) {
         this.changeLogSyncListener = changeLogSyncListener;
     }
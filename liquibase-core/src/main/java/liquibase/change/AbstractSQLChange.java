@@ -259,19 +259,28 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
 //        }
 //    }
 
+    /**
+     * Stream used to checksum SQL: returns a header made of the given settings, then the SQL with leading and trailing whitespace removed
+     * and every run of whitespace replaced by a single space.
+     * <p/>
+     * The SQL is read into a buffer a block at a time, and {@link #read(byte[], int, int)} fills the given array from that buffer instead of
+     * calling {@link #read()} for every byte. Both return exactly what reading one byte at a time always returned, including ending a read
+     * early when whitespace is followed by a 0xFF byte.
+     */
     public static class NormalizingStream extends InputStream {
         private ByteArrayInputStream headerStream;
-        private PushbackInputStream stream;
-
-        private byte[] quickBuffer = new byte[100];
-        private List<Byte> resizingBuffer = new ArrayList<Byte>();
+        private InputStream stream;
 
+        private byte[] buffer = new byte[8192];
+        private int bufferPosition;
+        private int bufferLimit;
+        private boolean endOfStream;
 
         private int lastChar = 'X';
         private boolean seenNonSpace = false;
 
         public NormalizingStream(String endDelimiter, Boolean splitStatements, Boolean stripComments, InputStream stream) {
-            this.stream = new PushbackInputStream(stream, 2048);
+            this.stream = stream;
             this.headerStream = new ByteArrayInputStream((endDelimiter+":"+splitStatements+":"+stripComments+":").getBytes());
         }
 
@@ -285,13 +294,13 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
                 headerStream = null;
             }
 
-            int returnChar = stream.read();
+            int returnChar = readByte();
             if (isWhiteSpace(returnChar)) {
                 returnChar = ' ';
             }
 
             while (returnChar == ' ' && (!seenNonSpace || lastChar == ' ')) {
-                returnChar = stream.read();
+                returnChar = readByte();
 
                 if (isWhiteSpace(returnChar)) {
                     returnChar = ' ';
@@ -309,57 +318,101 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
             return returnChar;
         }
 
+        /**
+         * Reads like {@link InputStream#read(byte[], int, int)}: stops at the first -1 returned by {@link #read()}, and returns -1 only if that is the first byte.
+         */
         @Override
-        public int available() throws IOException {
-            return stream.available();
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (off < 0 || len < 0 || len > b.length - off) {
+                throw new IndexOutOfBoundsException();
+            }
+            if (len == 0) {
+                return 0;
+            }
+
+            int read = read();
+            if (read == -1) {
+                return -1;
+            }
+            b[off] = (byte) read;
+
+            int count = 1;
+            for (; count < len; count++) {
+                read = read();
+                if (read == -1) {
+                    break;
+                }
+                b[off + count] = (byte) read;
+            }
+            return count;
         }
 
         @Override
-        public boolean markSupported() {
-            return stream.markSupported();
+        public int available() throws IOException {
+            return (bufferLimit - bufferPosition) + stream.available();
         }
 
-        @Override
-        public void mark(int readlimit) {
-            stream.mark(readlimit);
+        private int readByte() throws IOException {
+            if (bufferPosition == bufferLimit && !fillBuffer()) {
+                return -1;
+            }
+            return buffer[bufferPosition++] & 0xFF;
         }
 
-        @Override
-        public void reset() throws IOException {
-            stream.reset();
+        /**
+         * Reads more of the stream into the buffer, keeping the bytes not read yet. Returns false at the end of the stream.
+         */
+        private boolean fillBuffer() throws IOException {
+            if (endOfStream) {
+                return false;
+            }
+            if (bufferPosition > 0) {
+                System.arraycopy(buffer, bufferPosition, buffer, 0, bufferLimit - bufferPosition);
+                bufferLimit -= bufferPosition;
+                bufferPosition = 0;
+            }
+            if (bufferLimit == buffer.length) {
+                byte[] newBuffer = new byte[buffer.length * 2];
+                System.arraycopy(buffer, 0, newBuffer, 0, bufferLimit);
+                buffer = newBuffer;
+            }
+
+            int read;
+            do {
+                read = stream.read(buffer, bufferLimit, buffer.length - bufferLimit);
+            } while (read == 0);
+            if (read == -1) {
+                endOfStream = true;
+                return false;
+            }
+            bufferLimit += read;
+            return true;
         }
 
+        /**
+         * Returns true and skips the remaining bytes if they are all whitespace. A 0xFF byte counts as the end of the stream, so whitespace
+         * followed by 0xFF is skipped including the 0xFF. Otherwise nothing is skipped.
+         */
         private boolean isOnlyWhitespaceRemaining() throws IOException {
-            try {
-                int quickBufferUsed = 0;
-                while (true) {
-                    byte read = (byte) stream.read();
-                    if (quickBufferUsed >= quickBuffer.length) {
-                        resizingBuffer.add(read);
-                    } else {
-                        quickBuffer[quickBufferUsed++] = read;
-                    }
-
-                    if (read == -1) {
+            int index = bufferPosition;
+            while (true) {
+                if (index == bufferLimit) {
+                    int lookedAhead = index - bufferPosition;
+                    if (!fillBuffer()) {
+                        bufferPosition = bufferLimit;
                         return true;
                     }
-                    if (!isWhiteSpace(read)) {
-                        if (resizingBuffer.size() > 0) {
-
-                            byte[] buf = new byte[resizingBuffer.size()];
-                            for (int i=0; i< resizingBuffer.size(); i++) {
-                                buf[i] = resizingBuffer.get(i);
-                            }
-
-                            stream.unread(buf);
-                        }
+                    index = bufferPosition + lookedAhead;
+                }
 
-                        stream.unread(quickBuffer, 0, quickBufferUsed);
-                        return false;
-                    }
+                byte read = buffer[index++];
+                if (read == -1) {
+                    bufferPosition = index;
+                    return true;
+                }
+                if (!isWhiteSpace(read)) {
+                    return false;
                 }
-            } finally {
-                resizingBuffer.clear();
             }
         }
 
@@ -3,6 +3,7 @@ package liquibase.change;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.servicelocator.ServiceLocator;
 
 import java.util.*;
@@ -21,6 +22,8 @@ public class ChangeFactory {
 
     private Map<String, SortedSet<Class<? extends Change>>> registry = new ConcurrentHashMap<String, SortedSet<Class<? extends Change>>>();
     private Map<Class<? extends Change>, ChangeMetaData> metaDataByClass = new ConcurrentHashMap<Class<? extends Change>, ChangeMetaData>();
+    //priorities read from @DatabaseChange annotations, so changes do not need to be created just to sort them
+    private Map<Class<? extends Change>, Integer> priorityByClass = new ConcurrentHashMap<Class<? extends Change>, Integer>();
 
     private Logger log;
 
@@ -33,8 +36,10 @@ public class ChangeFactory {
     }
     
     private void init() {
+        long startTime = System.nanoTime();
         Class<? extends Change>[] classes;
         classes = ServiceLocator.getInstance().findClasses(Change.class);
+        FactoryTimingReport.getInstance().getTiming(ChangeFactory.class).classesFound(classes.length, startTime);
 
         for (Class<? extends Change> clazz : classes) {
             //noinspection unchecked
@@ -67,15 +72,25 @@ public class ChangeFactory {
      */
     public void register(Class<? extends Change> changeClass) {
         try {
-            Change instance = changeClass.newInstance();
-            ChangeMetaData metaData = getChangeMetaData(instance);
-            String name = metaData.getName();
+            String name;
+            DatabaseChange databaseChange = changeClass.getAnnotation(DatabaseChange.class);
+            if (databaseChange != null && changeClass.getMethod("createChangeMetaData").getDeclaringClass().equals(AbstractChange.class)) {
+                //the metadata comes from the annotation, no need to create an instance until the change is used
+                name = databaseChange.name();
+                priorityByClass.put(changeClass, databaseChange.priority());
+            } else {
+                long startTime = System.nanoTime();
+                ChangeMetaData metaData = getChangeMetaData(changeClass.newInstance());
+                FactoryTimingReport.getInstance().getTiming(ChangeFactory.class).instanceCreated(startTime);
+                name = metaData.getName();
+            }
+
             if (registry.get(name) == null) {
                 registry.put(name, new TreeSet<Class<? extends Change>>(new Comparator<Class<? extends Change>>() {
                     @Override
                     public int compare(Class<? extends Change> o1, Class<? extends Change> o2) {
                         try {
-                            return -1 * Integer.valueOf(getChangeMetaData(o1.newInstance()).getPriority()).compareTo(getChangeMetaData(o2.newInstance()).getPriority());
+                            return -1 * getPriority(o1).compareTo(getPriority(o2));
                         } catch (Exception e) {
                             throw new UnexpectedLiquibaseException(e);
                         }
@@ -88,6 +103,14 @@ public class ChangeFactory {
 		}
     }
 
+    private Integer getPriority(Class<? extends Change> changeClass) throws Exception {
+        Integer priority = priorityByClass.get(changeClass);
+        if (priority == null) {
+            priority = getChangeMetaData(changeClass.newInstance()).getPriority();
+        }
+        return priority;
+    }
+
     public ChangeMetaData getChangeMetaData(String change) {
         Change changeObj = create(change);
         if (changeObj == null) {
@@ -98,7 +121,16 @@ public class ChangeFactory {
 
     public ChangeMetaData getChangeMetaData(Change change) {
         if (!metaDataByClass.containsKey(change.getClass())) {
-            metaDataByClass.put(change.getClass(), change.createChangeMetaData());
+            Change metaDataSource = change;
+            if (priorityByClass.containsKey(change.getClass())) {
+                //registered without creating an instance. Create the metadata from a new one, like it would have been when registering
+                try {
+                    metaDataSource = change.getClass().newInstance();
+                } catch (Exception e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+            }
+            metaDataByClass.put(change.getClass(), metaDataSource.createChangeMetaData());
         }
         return metaDataByClass.get(change.getClass());
     }
@@ -132,6 +164,7 @@ public class ChangeFactory {
     public void clear() {
         registry.clear();
         metaDataByClass.clear();
+        priorityByClass.clear();
     }
 
     /**
@@ -1,11 +1,9 @@
 package liquibase.change;
 
-import liquibase.util.MD5Util;
-import liquibase.util.StringUtils;
+import liquibase.logging.LogFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.text.Normalizer;
 
 /**
  * CheckSums are used by liquibase to determine if a Change has been modified since it was originally ran.
@@ -49,41 +47,29 @@ public class CheckSum {
      * Compute a checksum of the given string.
      */
     public static CheckSum compute(String valueToChecksum) {
-        return new CheckSum(MD5Util.computeMD5(
-                Normalizer.normalize(
-                    StringUtils.standardizeLineEndings(valueToChecksum)
-                            .replaceAll("\\uFFFD", "") //remove "Unknown" unicode char 65533
-                        , Normalizer.Form.NFC)
-        ), getCurrentVersion());
+        String md5 = CheckSumDigester.forCurrentThread().digest(valueToChecksum);
+
+        String inputToLog = valueToChecksum;
+        if (inputToLog.length() > 500) {
+            inputToLog = inputToLog.substring(0, 500)+"... [truncated in log]";
+        }
+        LogFactory.getLogger().debug("Computed checksum for "+inputToLog+" as "+md5);
+        return new CheckSum(md5, getCurrentVersion());
     }
 
     /**
      * Compute a checksum of the given data stream.
      */
     public static CheckSum compute(final InputStream stream, boolean standardizeLineEndings) {
-        InputStream newStream = stream;
-        if (standardizeLineEndings) {
-            newStream = new InputStream() {
-                int lastChar = 'X';
-
-                @Override
-                public int read() throws IOException {
-                    int read = stream.read();
-                    int returnChar = read;
-                    if (returnChar == '\r') {
-                        returnChar = '\n';
-                    }
-                    if (lastChar == '\r' && returnChar == '\n') {
-                        returnChar = stream.read(); //read next char
-                    }
-
-                    lastChar = read;
-                    return returnChar;
-                }
-            };
+        String md5;
+        try {
+            md5 = CheckSumDigester.forCurrentThread().digest(stream, standardizeLineEndings);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
 
-        return new CheckSum(MD5Util.computeMD5(newStream), getCurrentVersion());
+        LogFactory.getLogger().debug("Computed checksum for inputStream as "+md5);
+        return new CheckSum(md5, getCurrentVersion());
     }
 
     @Override
@@ -0,0 +1,248 @@
+package liquibase.change;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.util.MD5Util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+
+/**
+ * Computes the MD5 hashes behind {@link CheckSum} through reusable buffers instead of copying the value for every normalization step.
+ * <p/>
+ * Strings are normalized the same way {@link CheckSum} always has: line endings are standardized, "Unknown" unicode chars (65533) are removed,
+ * the result is normalized to {@link Normalizer.Form#NFC} and hashed as UTF-8. The normalized text is collected in a char buffer and only
+ * passed to the {@link Normalizer} in segments that end right before a char below U+0300. Such chars never combine with or reorder around
+ * the chars before them, so normalizing segment by segment gives the same result as normalizing the whole value, and segments made up only
+ * of such chars or already in NFC are encoded without calling the Normalizer at all.
+ * <p/>
+ * Streams are hashed from a byte buffer. When standardizing line endings, the bytes are translated the same way the previous stream wrapper did
+ * and collected in the buffer instead of being passed to the digest one at a time.
+ * <p/>
+ * Instances are not thread safe; use {@link #forCurrentThread()}.
+ */
+class CheckSumDigester {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Streams are read in chunks of the size {@link MD5Util#computeMD5(InputStream)} reads, since a stream that returns -1 before its end,
+     * such as {@link AbstractSQLChange.NormalizingStream} after whitespace and a 0xFF byte, ends the checksum only if it does so at the start of a chunk.
+     */
+    private static final int STREAM_CHUNK_SIZE = 20480;
+
+    /**
+     * Chars below this value are their own NFC form and never compose with or reorder around the chars before them.
+     */
+    private static final char FIRST_COMBINING_CHAR = '\u0300';
+
+    private static final ThreadLocal<CheckSumDigester> DIGESTERS = new ThreadLocal<CheckSumDigester>() {
+        @Override
+        protected CheckSumDigester initialValue() {
+            return new CheckSumDigester();
+        }
+    };
+
+    private final MessageDigest digest;
+    private final byte[] input = new byte[STREAM_CHUNK_SIZE];
+    private final byte[] output = new byte[BUFFER_SIZE];
+    private char[] chars = new char[BUFFER_SIZE];
+
+    private int charCount;
+    private int outputCount;
+    private boolean inUse;
+
+    CheckSumDigester() {
+        try {
+            digest = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    /**
+     * Returns the digester of the current thread, or a new one if the current thread's digester is already computing a hash.
+     */
+    static CheckSumDigester forCurrentThread() {
+        CheckSumDigester digester = DIGESTERS.get();
+        if (digester.inUse) {
+            return new CheckSumDigester();
+        }
+        return digester;
+    }
+
+    /**
+     * Returns the hex encoded MD5 hash of the normalized value.
+     */
+    String digest(String value) {
+        start();
+        try {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == '\r') {
+                    if (i + 1 < length && value.charAt(i + 1) == '\n') {
+                        continue;
+                    }
+                    c = '\n';
+                } else if (c == '\uFFFD') { //remove "Unknown" unicode char 65533
+                    continue;
+                }
+
+                if (charCount == chars.length) {
+                    flushChars(false);
+                }
+                chars[charCount++] = c;
+            }
+            flushChars(true);
+            return finish();
+        } finally {
+            end();
+        }
+    }
+
+    /**
+     * Returns the hex encoded MD5 hash of the stream contents. The stream is read to the end but not closed.
+     */
+    String digest(InputStream stream, boolean standardizeLineEndings) throws IOException {
+        start();
+        try {
+            if (!standardizeLineEndings) {
+                int read;
+                while ((read = stream.read(input)) != -1) {
+                    digest.update(input, 0, read);
+                }
+                return finish();
+            }
+
+            //read byte by byte since streams such as EmptyLineAndCommentSkippingInputStream only filter in read()
+            int lastChar = 'X';
+            while (true) {
+                int read = stream.read();
+                if (read == -1) {
+                    break;
+                }
+                int returnChar = read;
+                if (returnChar == '\r') {
+                    returnChar = '\n';
+                }
+                if (lastChar == '\r' && returnChar == '\n') {
+                    returnChar = stream.read(); //read next char
+                }
+                lastChar = read;
+
+                if (returnChar == -1) {
+                    break;
+                }
+                if (outputCount == output.length) {
+                    flushOutput();
+                }
+                output[outputCount++] = (byte) returnChar;
+            }
+            return finish();
+        } finally {
+            end();
+        }
+    }
+
+    private void start() {
+        inUse = true;
+        digest.reset();
+        charCount = 0;
+        outputCount = 0;
+    }
+
+    private String finish() {
+        flushOutput();
+        return new String(MD5Util.encodeHex(digest.digest()));
+    }
+
+    private void end() {
+        if (chars.length > BUFFER_SIZE * 16) {
+            chars = new char[BUFFER_SIZE];
+        }
+        inUse = false;
+    }
+
+    /**
+     * Normalizes and encodes the collected chars. Unless this is the end of the value, the chars after the last segment boundary are kept
+     * since the chars that follow may still compose with them.
+     */
+    private void flushChars(boolean endOfValue) {
+        int segmentEnd = charCount;
+        if (!endOfValue) {
+            segmentEnd = charCount - 1;
+            while (segmentEnd > 0 && chars[segmentEnd] >= FIRST_COMBINING_CHAR) {
+                segmentEnd--;
+            }
+            if (segmentEnd == 0) {
+                char[] newChars = new char[chars.length * 2];
+                System.arraycopy(chars, 0, newChars, 0, charCount);
+                chars = newChars;
+                return;
+            }
+        }
+
+        encodeNormalized(segmentEnd);
+
+        System.arraycopy(chars, segmentEnd, chars, 0, charCount - segmentEnd);
+        charCount -= segmentEnd;
+    }
+
+    private void encodeNormalized(int length) {
+        for (int i = 0; i < length; i++) {
+            if (chars[i] >= FIRST_COMBINING_CHAR) {
+                CharBuffer segment = CharBuffer.wrap(chars, 0, length);
+                if (Normalizer.isNormalized(segment, Normalizer.Form.NFC)) {
+                    break;
+                }
+                char[] normalized = Normalizer.normalize(segment, Normalizer.Form.NFC).toCharArray();
+                encode(normalized, normalized.length);
+                return;
+            }
+        }
+        encode(chars, length);
+    }
+
+    /**
+     * Encodes the chars as UTF-8 the same way {@link String#getBytes(String)} does, including replacing unpaired surrogates with '?'.
+     */
+    private void encode(char[] source, int length) {
+        for (int i = 0; i < length; i++) {
+            if (outputCount > output.length - 4) {
+                flushOutput();
+            }
+            char c = source[i];
+            if (c < 0x80) {
+                output[outputCount++] = (byte) c;
+            } else if (c < 0x800) {
+                output[outputCount++] = (byte) (0xC0 | (c >> 6));
+                output[outputCount++] = (byte) (0x80 | (c & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(source[i + 1])) {
+                    int codePoint = Character.toCodePoint(c, source[++i]);
+                    output[outputCount++] = (byte) (0xF0 | (codePoint >> 18));
+                    output[outputCount++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    output[outputCount++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    output[outputCount++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    output[outputCount++] = '?';
+                }
+            } else {
+                output[outputCount++] = (byte) (0xE0 | (c >> 12));
+                output[outputCount++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                output[outputCount++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+    }
+
+    private void flushOutput() {
+        if (outputCount > 0) {
+            digest.update(output, 0, outputCount);
+            outputCount = 0;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package liquibase.change;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.statement.SqlStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the chunks of statements generated by a {@link StreamingChange} on several databases at the same time, one thread per database.
+ * Each chunk is executed by whichever database is free and committed on it, or rolled back if it fails, so chunks must not depend on each other.
+ * At most two chunks per database wait to be executed, so {@link #handle(SqlStatement[])} blocks while the databases catch up.
+ * <p/>
+ * Once a chunk fails no further chunks are executed and {@link #handle(SqlStatement[])} and {@link #finish()} throw the first failure.
+ * Chunks committed before it stay committed, so the statements should write to a table that can be dropped on failure.
+ * Call {@link #finish()} once every chunk has been handled and {@link #close()} in any case. The databases are not closed.
+ */
+public class ParallelStatementHandler implements StreamingChange.StatementHandler {
+
+    private static final SqlStatement[] END = new SqlStatement[0];
+
+    private final BlockingQueue<SqlStatement[]> chunks;
+    private final List<Thread> threads = new ArrayList<Thread>();
+
+    private volatile Throwable failure;
+    private boolean finished;
+
+    public ParallelStatementHandler(List<Database> databases) {
+        if (databases == null || databases.isEmpty()) {
+            throw new UnexpectedLiquibaseException("At least one database is required");
+        }
+        this.chunks = new ArrayBlockingQueue<SqlStatement[]>(databases.size() * 2);
+        for (int i = 0; i < databases.size(); i++) {
+            Thread thread = new Thread(new Worker(databases.get(i)), "liquibase-load-" + (i + 1));
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues the chunk to be executed by the next free database.
+     */
+    @Override
+    public void handle(SqlStatement[] statements) throws LiquibaseException {
+        if (finished) {
+            throw new UnexpectedLiquibaseException("The statement handler is finished");
+        }
+        try {
+            while (!chunks.offer(statements, 100, TimeUnit.MILLISECONDS)) {
+                throwFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException("Interrupted while queuing statements", e);
+        }
+        throwFailure();
+    }
+
+    /**
+     * Waits until every queued chunk has been executed.
+     *
+     * @throws LiquibaseException the first failure
+     */
+    public void finish() throws LiquibaseException {
+        if (!finished) {
+            finished = true;
+            try {
+                for (int i = 0; i < threads.size(); i++) {
+                    chunks.put(END);
+                }
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseException("Interrupted while waiting for statements to finish", e);
+            }
+        }
+        throwFailure();
+    }
+
+    /**
+     * Stops executing queued chunks and waits for the ones being executed.
+     */
+    public void close() {
+        if (failure == null) {
+            failure = new DatabaseException("Statement execution was cancelled");
+        }
+        chunks.clear();
+        try {
+            finish();
+        } catch (LiquibaseException ignored) {
+            //already failing
+        }
+    }
+
+    private void throwFailure() throws LiquibaseException {
+        Throwable failure = this.failure;
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof LiquibaseException) {
+            throw (LiquibaseException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new UnexpectedLiquibaseException(failure);
+    }
+
+    /**
+     * Executes chunks on one database until the end of the queue is reached. After a failure, the remaining chunks are only taken off the queue.
+     */
+    private class Worker implements Runnable {
+
+        private final Database database;
+
+        private Worker(Database database) {
+            this.database = database;
+        }
+
+        @Override
+        public void run() {
+            List<SqlVisitor> sqlVisitors = new ArrayList<SqlVisitor>();
+            while (true) {
+                SqlStatement[] statements;
+                try {
+                    statements = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (statements == END) {
+                    return;
+                }
+                if (failure != null) {
+                    continue;
+                }
+                try {
+                    database.execute(statements, sqlVisitors);
+                    database.commit();
+                } catch (Throwable e) {
+                    synchronized (ParallelStatementHandler.this) {
+                        if (failure == null) {
+                            failure = e;
+                        }
+                    }
+                    LogFactory.getLogger().debug("Statements failed on " + Thread.currentThread().getName() + ": " + e.getMessage());
+                    try {
+                        database.rollback();
+                    } catch (DatabaseException rollbackFailure) {
+                        LogFactory.getLogger().warning("Could not roll back failed statements: " + rollbackFailure.getMessage());
+                    }
+                }
+            }
+        }
+    }
+}
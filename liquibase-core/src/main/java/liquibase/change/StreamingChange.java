@@ -0,0 +1,30 @@
+package liquibase.change;
+
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.statement.SqlStatement;
+
+/**
+ * Marks a Change class as able to generate its statements a chunk at a time, so changes with a very large number of statements
+ * never need to hold them all in memory. {@link Database#executeStatements(Change, liquibase.changelog.DatabaseChangeLog, java.util.List)}
+ * executes each chunk before the next one is generated.
+ */
+public interface StreamingChange extends Change {
+
+    /**
+     * Return true if the statements for the given database should be generated and executed in chunks rather than with {@link #generateStatements(Database)}.
+     */
+    boolean generateStatementsInChunks(Database database);
+
+    /**
+     * Generate the same statements as {@link #generateStatements(Database)}, passing them to the handler in order a chunk at a time.
+     */
+    void generateStatements(Database database, StatementHandler handler) throws LiquibaseException;
+
+    /**
+     * Receives the chunks of statements generated by a {@link StreamingChange}.
+     */
+    interface StatementHandler {
+        void handle(SqlStatement[] statements) throws LiquibaseException;
+    }
+}
@@ -8,25 +8,45 @@ import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
 import liquibase.change.DatabaseChange;
 import liquibase.change.DatabaseChangeProperty;
+import liquibase.change.ParallelStatementHandler;
+import liquibase.change.StreamingChange;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
+import liquibase.database.DatabasePool;
+import liquibase.database.DatabasePoolService;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.Warnings;
 import liquibase.io.EmptyLineAndCommentSkippingInputStream;
+import liquibase.io.MappedEmptyLineAndCommentSkippingInputStream;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.resource.FileSystemResourceInputStream;
 import liquibase.resource.ResourceAccessor;
 import liquibase.resource.UtfBomAwareReader;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.DropTableStatement;
+import liquibase.statement.core.InsertFromStagingTableStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertSetStatement;
+import liquibase.statement.CopyExecutablePreparedStatement;
+import liquibase.statement.InsertBatchExecutablePreparedStatement;
 import liquibase.statement.InsertExecutablePreparedStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.structure.core.Column;
 import liquibase.util.BooleanParser;
+import liquibase.util.SqlUtil;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 import liquibase.util.csv.CSVReader;
@@ -49,13 +69,27 @@ import java.util.*;
                 "Once the date format string is set, Liquibase will then call the SimpleDateFormat.parse() method attempting to parse the input string so that it can return a Date/Time. If problems occur, then a ParseException is thrown and the input string is treated as a String for the INSERT command to be generated.",
         priority = ChangeMetaData.PRIORITY_DEFAULT, appliesTo = "table",
         since = "1.7")
-public class LoadDataChange extends AbstractChange implements ChangeWithColumns<LoadDataColumnConfig> {
+public class LoadDataChange extends AbstractChange implements ChangeWithColumns<LoadDataColumnConfig>, StreamingChange {
 
     /**
      * CSV Lines starting with that sign(s) will be treated as comments by default
      */
     public static final String DEFAULT_COMMENT_PATTERN = "#";
 
+    /**
+     * Batch size of the inserts used for rows with BLOB or CLOB files when {@link GlobalConfiguration#getLoadDataUseCopy()} is set
+     * and {@link GlobalConfiguration#getLoadDataBatchSize()} is not.
+     */
+    public static final int DEFAULT_COPY_FALLBACK_BATCH_SIZE = 1000;
+
+    /**
+     * Number of rows each connection loads at a time when {@link GlobalConfiguration#getLoadDataParallelism()} is set
+     * and {@link GlobalConfiguration#getLoadDataChunkSize()} is not.
+     */
+    public static final int DEFAULT_PARTITION_SIZE = 10000;
+
+    private static final Random STAGING_TABLE_NAMES = new Random();
+
     private String catalogName;
     private String schemaName;
     private String tableName;
@@ -186,6 +220,55 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        final List<SqlStatement[]> chunks = new ArrayList<SqlStatement[]>(1);
+        try {
+            generateStatements(database, 0, new StatementHandler() {
+                @Override
+                public void handle(SqlStatement[] statements) {
+                    chunks.add(statements);
+                }
+            });
+        } catch (LiquibaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        return chunks.isEmpty() ? new SqlStatement[0] : chunks.get(0);
+    }
+
+    /**
+     * Returns true if {@link GlobalConfiguration#getLoadDataChunkSize()} is set, so the file is read and its rows are executed
+     * a chunk at a time instead of all at once, or if the rows are {@link #isParallelLoad(Database) loaded in parallel}.
+     */
+    @Override
+    public boolean generateStatementsInChunks(Database database) {
+        return getChunkSize() > 0 || isParallelLoad(database);
+    }
+
+    @Override
+    public void generateStatements(Database database, StatementHandler handler) throws LiquibaseException {
+        if (isParallelLoad(database) && loadInParallel(database, handler)) {
+            return;
+        }
+        generateStatements(database, getChunkSize(), handler);
+    }
+
+    protected int getChunkSize() {
+        Integer chunkSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataChunkSize();
+        return chunkSize == null ? 0 : chunkSize;
+    }
+
+    /**
+     * Reads the file and passes the statements for every chunkSize rows to the handler, or the statements for all rows at once if chunkSize is 0.
+     */
+    protected void generateStatements(Database database, int chunkSize, StatementHandler handler) throws LiquibaseException {
+        generateStatements(database, getTableName(), chunkSize, handler);
+    }
+
+    /**
+     * Same as {@link #generateStatements(Database, int, StatementHandler)}, but inserts the rows into the given table in the
+     * {@link #getStagingCatalogName(Database) staging catalog} and {@link #getStagingSchemaName(Database) schema}, such as a staging table.
+     * Rows inserted into another table are never committed by the statements themselves.
+     */
+    protected void generateStatements(Database database, String tableName, int chunkSize, StatementHandler handler) throws LiquibaseException {
         CSVReader reader = null;
         try {
             reader = getCSVReader();
@@ -200,6 +283,13 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             }
 
             List<SqlStatement> statements = new ArrayList<SqlStatement>();
+            int batchSize = isBatchInsert(database) ? getBatchSize(database) : 0;
+            int commitInterval = tableName.equals(getTableName()) ? getCommitInterval() : 0;
+            List<List<ColumnConfig>> batchRows = batchSize > 0 ? new ArrayList<List<ColumnConfig>>() : null;
+            List<List<ColumnConfig>> copyRows = isCopy(database) ? new ArrayList<List<ColumnConfig>>() : null;
+            int rowsInChunk = 0;
+            Set<Object> chunkKeys = new HashSet<Object>();
+            Set<String> untypedColumns = new HashSet<String>();
 
             boolean anyPreparedStatements = false;
 
@@ -311,6 +401,7 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
                         }
 
                         valueConfig.setName(columnName);
+                        untypedColumns.add(columnName);
 
                         if (value == null || value.toString().equalsIgnoreCase("NULL")) {
                             // value is always going to be a string unless overridden by ColumnConfig
@@ -322,13 +413,35 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
                     columns.add(valueConfig);
                 }
 
-                if (needsPreparedStatement) {
+                Object chunkKey = chunkSize > 0 ? getChunkKey(columns) : null;
+                if (chunkKey != null && !chunkKeys.add(chunkKey)) {
+                    anyPreparedStatements |= addCopyStatement(database, tableName, statements, copyRows);
+                    anyPreparedStatements |= addBatchStatement(database, tableName, statements, batchRows, batchSize, commitInterval, untypedColumns);
+                    handler.handle(toStatementChunk(database, tableName, statements, anyPreparedStatements));
+                    statements.clear();
+                    anyPreparedStatements = false;
+                    rowsInChunk = 0;
+                    chunkKeys.clear();
+                    chunkKeys.add(chunkKey);
+                }
+
+                if (copyRows != null && isCopyable(columns, database)) {
+                    anyPreparedStatements |= addBatchStatement(database, tableName, statements, batchRows, batchSize, commitInterval, untypedColumns);
+                    copyRows.add(columns);
+                } else if (batchRows != null && isBatchable(columns, database)) {
+                    anyPreparedStatements |= addCopyStatement(database, tableName, statements, copyRows);
+                    batchRows.add(columns);
+                } else if (needsPreparedStatement) {
+                    addCopyStatement(database, tableName, statements, copyRows);
+                    addBatchStatement(database, tableName, statements, batchRows, batchSize, commitInterval, untypedColumns);
                     anyPreparedStatements = true;
 
-                    statements.add(new InsertExecutablePreparedStatement(database, getCatalogName(), getSchemaName(), getTableName(), columns,
+                    statements.add(new InsertExecutablePreparedStatement(database, getCatalogName(database, tableName), getSchemaName(database, tableName), tableName, columns,
                             getChangeSet(), getResourceAccessor()));
                 } else {
-                    InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
+                    anyPreparedStatements |= addCopyStatement(database, tableName, statements, copyRows);
+                    anyPreparedStatements |= addBatchStatement(database, tableName, statements, batchRows, batchSize, commitInterval, untypedColumns);
+                    InsertStatement insertStatement = this.createStatement(getCatalogName(database, tableName), getSchemaName(database, tableName), tableName);
 
                     for (ColumnConfig column : columns) {
                         String columnName = column.getName();
@@ -343,27 +456,23 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
 
                     statements.add(insertStatement);
                 }
-            }
 
-            if (anyPreparedStatements) {
-                return statements.toArray(new SqlStatement[statements.size()]);
-            } else {
-                InsertSetStatement statementSet = this.createStatementSet(getCatalogName(), getSchemaName(), getTableName());
-                for (SqlStatement stmt : statements) {
-                    statementSet.addInsertStatement((InsertStatement) stmt);
+                rowsInChunk++;
+                if (chunkSize > 0 && rowsInChunk >= chunkSize) {
+                    anyPreparedStatements |= addCopyStatement(database, tableName, statements, copyRows);
+                    anyPreparedStatements |= addBatchStatement(database, tableName, statements, batchRows, batchSize, commitInterval, untypedColumns);
+                    handler.handle(toStatementChunk(database, tableName, statements, anyPreparedStatements));
+                    statements.clear();
+                    anyPreparedStatements = false;
+                    rowsInChunk = 0;
+                    chunkKeys.clear();
                 }
+            }
 
-                if (database instanceof MSSQLDatabase || database instanceof MySQLDatabase || database instanceof PostgresDatabase) {
-                    List<InsertStatement> innerStatements = statementSet.getStatements();
-                    if (innerStatements != null && innerStatements.size() > 0 && innerStatements.get(0) instanceof InsertOrUpdateStatement) {
-                        //cannot do insert or update in a single statement
-                        return statementSet.getStatementsArray();
-                    }
-                    // we only return a single "statement" - it's capable of emitting multiple sub-statements, should the need arise, on generation.
-                    return new SqlStatement[]{statementSet};
-                } else {
-                    return statementSet.getStatementsArray();
-                }
+            anyPreparedStatements |= addCopyStatement(database, tableName, statements, copyRows);
+            anyPreparedStatements |= addBatchStatement(database, tableName, statements, batchRows, batchSize, commitInterval, untypedColumns);
+            if (chunkSize == 0 || !statements.isEmpty()) {
+                handler.handle(toStatementChunk(database, tableName, statements, anyPreparedStatements));
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -371,7 +480,6 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             if (getChangeSet() != null && getChangeSet().getFailOnError() != null && !getChangeSet().getFailOnError()) {
                 Logger log = LogFactory.getLogger();
                 log.info("Change set " + getChangeSet().toString(false) + " failed, but failOnError was false.  Error: " + ule.getMessage());
-                return new SqlStatement[0];
             } else {
                 throw ule;
             }
@@ -386,6 +494,324 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
         }
     }
 
+    /**
+     * Returns the key of a row if no two rows with equal keys may be in the same chunk, or null.
+     * A row whose key is already in the current chunk starts a new chunk. Only used when the rows are generated in chunks.
+     */
+    protected Object getChunkKey(List<ColumnConfig> columns) {
+        return null;
+    }
+
+    /**
+     * Returns true if rows are inserted through JDBC batches of {@link GlobalConfiguration#getLoadDataBatchSize()} rows,
+     * or the rows with BLOB or CLOB files if {@link #isCopy(Database)}.
+     * Only done when the statements are executed against the database, because prepared statements cannot be written to SQL output.
+     */
+    protected boolean isBatchInsert(Database database) {
+        return getBatchSize(database) > 0 && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor;
+    }
+
+    private int getCommitInterval() {
+        Integer commitInterval = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataCommitInterval();
+        return commitInterval == null ? 0 : commitInterval;
+    }
+
+    protected int getBatchSize(Database database) {
+        Integer batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataBatchSize();
+        if (batchSize != null && batchSize > 0) {
+            return batchSize;
+        }
+        return isCopy(database) ? DEFAULT_COPY_FALLBACK_BATCH_SIZE : 0;
+    }
+
+    /**
+     * Returns true if rows are loaded with PostgreSQL's COPY, see {@link GlobalConfiguration#getLoadDataUseCopy()}.
+     * Only done when the statements are executed against a database whose driver offers the copy API.
+     */
+    protected boolean isCopy(Database database) {
+        Boolean useCopy = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataUseCopy();
+        return Boolean.TRUE.equals(useCopy) && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor
+                && CopyExecutablePreparedStatement.isSupported(database);
+    }
+
+    /**
+     * Returns true if the rows are loaded over {@link GlobalConfiguration#getLoadDataParallelism()} connections leased from the
+     * {@link DatabasePool} of the database. Only done when the statements are executed against the database and it can create a staging table.
+     * Not done if the changeSet runs other changes before this one: the staging table is created from the table on another connection,
+     * which cannot see, or would wait for, what those changes did in the still open transaction of the changeSet.
+     */
+    protected boolean isParallelLoad(Database database) {
+        Integer parallelism = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataParallelism();
+        return parallelism != null && parallelism > 1
+                && !isPrecededByChanges()
+                && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor
+                && DatabasePoolService.getInstance().getPool(database) != null
+                && SqlGeneratorFactory.getInstance().supports(new CreateStagingTableStatement(getCatalogName(), getSchemaName(), getTableName(),
+                        getStagingTableName(), new ArrayList<String>()), database);
+    }
+
+    private boolean isPrecededByChanges() {
+        if (getChangeSet() == null) {
+            return false;
+        }
+        return getChangeSet().getChanges().indexOf(this) > 0;
+    }
+
+    /**
+     * Loads the rows into a staging table on the databases leased from the pool of the database, a partition of {@link #DEFAULT_PARTITION_SIZE}
+     * or {@link GlobalConfiguration#getLoadDataChunkSize()} rows at a time, then passes the handler the statements that insert them into the table and drop the staging table.
+     * If any rows fail to load the staging table is dropped and the table is left unchanged.
+     * Returns false without loading anything if fewer than two databases are idle in the pool.
+     */
+    protected boolean loadInParallel(Database database, StatementHandler handler) throws LiquibaseException {
+        DatabasePool pool = DatabasePoolService.getInstance().getPool(database);
+        int parallelism = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadDataParallelism();
+        List<Database> workers = new ArrayList<Database>();
+        try {
+            while (workers.size() < parallelism) {
+                Database worker = pool.tryLease();
+                if (worker == null) {
+                    break;
+                }
+                workers.add(worker);
+            }
+            if (workers.size() < 2) {
+                LogFactory.getLogger().debug("Not enough idle connections to load " + getFile() + " in parallel");
+                return false;
+            }
+
+            List<String> columnNames;
+            try {
+                columnNames = getLoadedColumnNames(database);
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            String stagingTableName = getStagingTableName();
+            Database stagingDatabase = workers.get(0);
+            stagingDatabase.execute(new SqlStatement[]{
+                    new CreateStagingTableStatement(getCatalogName(), getSchemaName(), getTableName(), stagingTableName, columnNames)
+            }, new ArrayList<SqlVisitor>());
+            stagingDatabase.commit();
+
+            LogFactory.getLogger().info("Loading " + getFile() + " into " + getTableName() + " over " + workers.size() + " connections");
+            ParallelStatementHandler parallelHandler = new ParallelStatementHandler(workers);
+            boolean moving = false;
+            boolean moved = false;
+            try {
+                generateStatements(database, stagingTableName, getChunkSize() > 0 ? getChunkSize() : DEFAULT_PARTITION_SIZE, parallelHandler);
+                parallelHandler.finish();
+
+                moving = true;
+                handler.handle(new SqlStatement[]{
+                        new InsertFromStagingTableStatement(getCatalogName(), getSchemaName(), getTableName(), stagingTableName, columnNames),
+                        new DropTableStatement(getCatalogName(), getSchemaName(), stagingTableName, false)
+                });
+                moved = true;
+            } finally {
+                parallelHandler.close();
+                if (!moved) {
+                    if (moving) {
+                        try {
+                            database.rollback(); //release the locks on the staging table before dropping it
+                        } catch (DatabaseException e) {
+                            LogFactory.getLogger().warning("Could not roll back loading " + getFile() + ": " + e.getMessage());
+                        }
+                    }
+                    dropStagingTable(stagingDatabase, stagingTableName);
+                }
+            }
+            return true;
+        } finally {
+            for (Database worker : workers) {
+                pool.release(worker);
+            }
+        }
+    }
+
+    /**
+     * Drops the staging table and commits, logging a warning if it cannot be dropped.
+     */
+    protected void dropStagingTable(Database database, String stagingTableName) {
+        try {
+            database.execute(new SqlStatement[]{new DropTableStatement(getCatalogName(), getSchemaName(), stagingTableName, false)}, new ArrayList<SqlVisitor>());
+            database.commit();
+        } catch (LiquibaseException e) {
+            LogFactory.getLogger().warning("Could not drop staging table " + stagingTableName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns a name for a new staging table in the catalog and schema of the table.
+     */
+    protected String getStagingTableName() {
+        return "LB_STAGE_" + Integer.toHexString(STAGING_TABLE_NAMES.nextInt()).toUpperCase();
+    }
+
+    /**
+     * Returns the catalog of the staging table, which is the catalog of the table.
+     */
+    protected String getStagingCatalogName(Database database) {
+        return getCatalogName();
+    }
+
+    /**
+     * Returns the schema of the staging table, which is the schema of the table.
+     */
+    protected String getStagingSchemaName(Database database) {
+        return getSchemaName();
+    }
+
+    private String getCatalogName(Database database, String tableName) {
+        return tableName.equals(getTableName()) ? getCatalogName() : getStagingCatalogName(database);
+    }
+
+    private String getSchemaName(Database database, String tableName) {
+        return tableName.equals(getTableName()) ? getSchemaName() : getStagingSchemaName(database);
+    }
+
+    /**
+     * Returns the names of the columns the file is loaded into, in file order.
+     */
+    protected List<String> getLoadedColumnNames(Database database) throws IOException {
+        CSVReader reader = getCSVReader();
+        if (reader == null) {
+            throw new UnexpectedLiquibaseException("Unable to read file " + this.getFile());
+        }
+        try {
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new UnexpectedLiquibaseException("Data file " + getFile() + " was empty");
+            }
+            List<String> columnNames = new ArrayList<String>();
+            for (int i = 0; i < headers.length; i++) {
+                String columnName = headers[i].trim();
+                ColumnConfig columnConfig = getColumnConfig(i, columnName);
+                if (columnConfig != null) {
+                    if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                        continue;
+                    }
+                    if (columnConfig.getName() != null) {
+                        columnName = columnConfig.getName();
+                    }
+                } else if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
+                    columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+                }
+                columnNames.add(columnName);
+            }
+            return columnNames;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * COPY reads plain values only, so rows with BLOB or CLOB files are inserted like rows that are not {@link #isBatchable(List, Database)}.
+     * Rows that are not batchable, such as rows with computed values or values written as function calls, are not copied either.
+     */
+    private boolean isCopyable(List<ColumnConfig> columns, Database database) {
+        for (ColumnConfig column : columns) {
+            if (column.getValueBlobFile() != null || column.getValueClobFile() != null) {
+                return false;
+            }
+        }
+        return isBatchable(columns, database);
+    }
+
+    /**
+     * Computed and sequence values are SQL expressions, so rows with them cannot be bound as parameters and are inserted through an {@link InsertSetStatement} instead.
+     * The same goes for string values the insert generator writes as function calls, such as NOW() or to_date(...), see {@link SqlUtil#looksLikeFunctionCall(String, Database)}.
+     */
+    private boolean isBatchable(List<ColumnConfig> columns, Database database) {
+        for (ColumnConfig column : columns) {
+            if (column.getValueComputed() != null || column.getValueSequenceNext() != null) {
+                return false;
+            }
+            if (column.getValue() != null && SqlUtil.looksLikeFunctionCall(column.getValue(), database)) {
+                return false;
+            }
+        }
+        return !columns.isEmpty();
+    }
+
+    /**
+     * Adds a statement inserting the collected batch rows, if any, and starts a new batch. Returns true if a statement was added.
+     */
+    private boolean addBatchStatement(Database database, String tableName, List<SqlStatement> statements, List<List<ColumnConfig>> batchRows,
+                                      int batchSize, int commitInterval, Set<String> untypedColumns) {
+        if (batchRows == null || batchRows.isEmpty()) {
+            return false;
+        }
+        statements.add(new InsertBatchExecutablePreparedStatement(database, getCatalogName(database, tableName), getSchemaName(database, tableName), tableName,
+                new ArrayList<List<ColumnConfig>>(batchRows), getChangeSet(), getResourceAccessor(), batchSize, commitInterval,
+                new HashSet<String>(untypedColumns)));
+        batchRows.clear();
+        return true;
+    }
+
+    /**
+     * Adds a statement copying the collected rows, if any. Returns true if a statement was added.
+     */
+    private boolean addCopyStatement(Database database, String tableName, List<SqlStatement> statements, List<List<ColumnConfig>> copyRows) {
+        if (copyRows == null || copyRows.isEmpty()) {
+            return false;
+        }
+        statements.add(new CopyExecutablePreparedStatement(database, getCatalogName(database, tableName), getSchemaName(database, tableName), tableName,
+                new ArrayList<List<ColumnConfig>>(copyRows)));
+        copyRows.clear();
+        return true;
+    }
+
+    /**
+     * Returns the statements of a chunk, with consecutive insert statements grouped into {@link InsertSetStatement}s.
+     * Rows that cannot be batched or copied, such as rows with computed or sequence values, are grouped this way between the prepared statements.
+     */
+    private SqlStatement[] toStatementChunk(Database database, String tableName, List<SqlStatement> statements, boolean anyPreparedStatements) {
+        if (!anyPreparedStatements) {
+            List<InsertStatement> insertStatements = new ArrayList<InsertStatement>();
+            for (SqlStatement stmt : statements) {
+                insertStatements.add((InsertStatement) stmt);
+            }
+            return toInsertSet(database, tableName, insertStatements);
+        }
+
+        List<SqlStatement> chunk = new ArrayList<SqlStatement>();
+        List<InsertStatement> insertStatements = new ArrayList<InsertStatement>();
+        for (SqlStatement stmt : statements) {
+            if (stmt instanceof InsertStatement) {
+                insertStatements.add((InsertStatement) stmt);
+            } else {
+                if (!insertStatements.isEmpty()) {
+                    chunk.addAll(Arrays.asList(toInsertSet(database, tableName, insertStatements)));
+                    insertStatements.clear();
+                }
+                chunk.add(stmt);
+            }
+        }
+        if (!insertStatements.isEmpty()) {
+            chunk.addAll(Arrays.asList(toInsertSet(database, tableName, insertStatements)));
+        }
+        return chunk.toArray(new SqlStatement[chunk.size()]);
+    }
+
+    private SqlStatement[] toInsertSet(Database database, String tableName, List<InsertStatement> insertStatements) {
+        InsertSetStatement statementSet = this.createStatementSet(getCatalogName(database, tableName), getSchemaName(database, tableName), tableName);
+        for (InsertStatement stmt : insertStatements) {
+            statementSet.addInsertStatement(stmt);
+        }
+
+        if (database instanceof MSSQLDatabase || database instanceof MySQLDatabase || database instanceof PostgresDatabase) {
+            List<InsertStatement> innerStatements = statementSet.getStatements();
+            if (innerStatements != null && innerStatements.size() > 0 && innerStatements.get(0) instanceof InsertOrUpdateStatement) {
+                //cannot do insert or update in a single statement
+                return statementSet.getStatementsArray();
+            }
+            // we only return a single "statement" - it's capable of emitting multiple sub-statements, should the need arise, on generation.
+            return new SqlStatement[]{statementSet};
+        } else {
+            return statementSet.getStatementsArray();
+        }
+    }
+
     private boolean isLineCommented(String[] line) {
         return StringUtils.startsWith(line[0], commentLineStartsWith);
     }
@@ -468,6 +894,11 @@ public class LoadDataChange extends AbstractChange implements ChangeWithColumns<
             if (stream == null) {
                 throw new UnexpectedLiquibaseException(getFile() + " could not be found");
             }
+            if (stream instanceof FileSystemResourceInputStream) {
+                //returns no carriage returns, so standardizing line endings would not change anything
+                InputStream mappedStream = new MappedEmptyLineAndCommentSkippingInputStream(((FileSystemResourceInputStream) stream).getChannel(), commentLineStartsWith);
+                return CheckSum.compute(getTableName() + ":" + CheckSum.compute(mappedStream, /*standardizeLineEndings*/ false));
+            }
             stream = new EmptyLineAndCommentSkippingInputStream(stream, commentLineStartsWith);
             return CheckSum.compute(getTableName() + ":" + CheckSum.compute(stream, /*standardizeLineEndings*/ true));
         } catch (IOException e) {
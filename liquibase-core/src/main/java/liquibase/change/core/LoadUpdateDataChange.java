@@ -3,16 +3,32 @@ package liquibase.change.core;
 import liquibase.change.ChangeStatus;
 import liquibase.change.DatabaseChange;
 import liquibase.change.ChangeMetaData;
+import liquibase.change.ColumnConfig;
 import liquibase.change.DatabaseChangeProperty;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.RollbackImpossibleException;
 import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
+import liquibase.logging.LogFactory;
+import liquibase.sql.visitor.SqlVisitor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CreateTemporaryStagingTableStatement;
 import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.DropTemporaryStagingTableStatement;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertStatement;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,6 +41,8 @@ public class LoadUpdateDataChange extends LoadDataChange {
     private String primaryKey;
     private Boolean onlyUpdate = Boolean.FALSE;
 
+    private boolean loadingStagingTable;
+
     @Override
     @DatabaseChangeProperty(description = "Name of the table to insert or update data in", requiredForDatabase = "all")
     public String getTableName() {
@@ -54,9 +72,171 @@ public class LoadUpdateDataChange extends LoadDataChange {
 
 	@Override
     protected InsertStatement createStatement(String catalogName, String schemaName, String tableName) {
+        if (tableName != null && !tableName.equals(getTableName())) {
+            return super.createStatement(catalogName, schemaName, tableName); //rows are plain inserts into a staging table
+        }
         return new InsertOrUpdateStatement(catalogName, schemaName, tableName, this.primaryKey, this.getOnlyUpdate());
     }
 
+    /**
+     * Rows are inserted or updated one statement at a time, but rows loaded into the staging table of a {@link #isBatchUpsert(Database) batched upsert}
+     * are inserted like loadData rows.
+     */
+    @Override
+    protected boolean isBatchInsert(Database database) {
+        return loadingStagingTable && super.isBatchInsert(database);
+    }
+
+    @Override
+    protected int getBatchSize(Database database) {
+        int batchSize = super.getBatchSize(database);
+        return batchSize > 0 ? batchSize : getUpsertBatchSize();
+    }
+
+    @Override
+    protected boolean isCopy(Database database) {
+        return loadingStagingTable && super.isCopy(database);
+    }
+
+    /**
+     * Returns true if the rows are inserted or updated {@link GlobalConfiguration#getLoadUpdateDataBatchSize()} rows at a time through a staging table.
+     * Only done when the statements are executed against the database in a transaction and it can create a temporary staging table without
+     * committing it. Other databases, such as Oracle, insert or update one row per statement.
+     */
+    protected boolean isBatchUpsert(Database database) {
+        return getUpsertBatchSize() > 0
+                && ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor
+                && !isAutoCommit(database)
+                && SqlGeneratorFactory.getInstance().supports(new CreateTemporaryStagingTableStatement(getCatalogName(), getSchemaName(), getTableName(),
+                        getStagingCatalogName(database), getStagingSchemaName(database), getStagingTableName(), new ArrayList<String>()), database);
+    }
+
+    private boolean isAutoCommit(Database database) {
+        try {
+            return database.getConnection() == null || database.getConnection().getAutoCommit();
+        } catch (DatabaseException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Temporary tables of PostgreSQL are in the pg_temp schema, and the <code>#</code> tables of SQL Server belong to no schema.
+     */
+    @Override
+    protected String getStagingCatalogName(Database database) {
+        if (database instanceof PostgresDatabase || database instanceof MSSQLDatabase) {
+            return null;
+        }
+        return super.getStagingCatalogName(database);
+    }
+
+    @Override
+    protected String getStagingSchemaName(Database database) {
+        if (database instanceof PostgresDatabase) {
+            return "pg_temp";
+        } else if (database instanceof MSSQLDatabase) {
+            return null;
+        }
+        return super.getStagingSchemaName(database);
+    }
+
+    private int getUpsertBatchSize() {
+        Integer batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getLoadUpdateDataBatchSize();
+        return batchSize == null ? 0 : batchSize;
+    }
+
+    @Override
+    public boolean generateStatementsInChunks(Database database) {
+        return isBatchUpsert(database) || super.generateStatementsInChunks(database);
+    }
+
+    @Override
+    public void generateStatements(Database database, StatementHandler handler) throws LiquibaseException {
+        if (isBatchUpsert(database)) {
+            upsertThroughStagingTable(database, handler);
+        } else {
+            super.generateStatements(database, handler);
+        }
+    }
+
+    /**
+     * Creates a temporary staging table, then passes the handler the statements that load each batch of rows into it, insert or update the table
+     * from it and empty it, and finally the statement that drops it. None of them commit the transaction of the changeSet.
+     * A batch never holds two rows with the same primary key, so a later row in the file still overwrites an earlier one.
+     * If any batch fails the transaction is rolled back and the staging table is dropped.
+     */
+    protected void upsertThroughStagingTable(Database database, final StatementHandler handler) throws LiquibaseException {
+        List<String> columnNames;
+        try {
+            columnNames = getLoadedColumnNames(database);
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+        String stagingTableName = database instanceof MSSQLDatabase ? "#" + getStagingTableName() : getStagingTableName();
+        String stagingCatalogName = getStagingCatalogName(database);
+        String stagingSchemaName = getStagingSchemaName(database);
+        final SqlStatement[] upsertStatements = new SqlStatement[]{
+                new InsertOrUpdateFromStagingTableStatement(getCatalogName(), getSchemaName(), getTableName(), stagingCatalogName, stagingSchemaName,
+                        stagingTableName, columnNames, getPrimaryKey(), getOnlyUpdate()),
+                new DeleteStatement(stagingCatalogName, stagingSchemaName, stagingTableName)
+        };
+
+        handler.handle(new SqlStatement[]{
+                new CreateTemporaryStagingTableStatement(getCatalogName(), getSchemaName(), getTableName(), stagingCatalogName, stagingSchemaName,
+                        stagingTableName, columnNames)
+        });
+        boolean dropped = false;
+        loadingStagingTable = true;
+        try {
+            generateStatements(database, stagingTableName, getUpsertBatchSize(), new StatementHandler() {
+                @Override
+                public void handle(SqlStatement[] statements) throws LiquibaseException {
+                    SqlStatement[] batch = new SqlStatement[statements.length + upsertStatements.length];
+                    System.arraycopy(statements, 0, batch, 0, statements.length);
+                    System.arraycopy(upsertStatements, 0, batch, statements.length, upsertStatements.length);
+                    handler.handle(batch);
+                }
+            });
+            handler.handle(new SqlStatement[]{new DropTemporaryStagingTableStatement(stagingCatalogName, stagingSchemaName, stagingTableName)});
+            dropped = true;
+        } finally {
+            loadingStagingTable = false;
+            if (!dropped) {
+                try {
+                    database.rollback(); //a failed statement aborts the transaction on some databases
+                    database.execute(new SqlStatement[]{new DropTemporaryStagingTableStatement(stagingCatalogName, stagingSchemaName, stagingTableName)},
+                            new ArrayList<SqlVisitor>());
+                } catch (LiquibaseException e) {
+                    LogFactory.getLogger().warning("Could not drop staging table " + stagingTableName + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Rows loaded into the staging table are keyed by their primary key values.
+     */
+    @Override
+    protected Object getChunkKey(List<ColumnConfig> columns) {
+        if (!loadingStagingTable) {
+            return null;
+        }
+        List<Object> key = new ArrayList<Object>();
+        for (String primaryKeyColumn : getPrimaryKey().split(",")) {
+            for (ColumnConfig column : columns) {
+                if (column.getName().equalsIgnoreCase(primaryKeyColumn.trim())) {
+                    key.add(column.getValueObject());
+                }
+            }
+        }
+        return key;
+    }
+
+    @Override
+    protected boolean isParallelLoad(Database database) {
+        return false;
+    }
+
     @Override
     public SqlStatement[] generateRollbackStatements(Database database) throws RollbackImpossibleException {
         List<SqlStatement> statements = new ArrayList<SqlStatement>();
@@ -9,7 +9,9 @@ import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.logging.LogFactory;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 
 public abstract class AbstractChangeLogHistoryService implements ChangeLogHistoryService {
 
@@ -30,6 +32,14 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     }
 
+    /**
+     * Writes and commits any history rows queued by {@link #setExecType(ChangeSet, ChangeSet.ExecType)}.
+     * Not part of {@link ChangeLogHistoryService}, so callers check the type of the service before calling it.
+     */
+    public void flush() throws DatabaseException {
+
+    }
+
     public ChangeSet.RunStatus getRunStatus(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
         RanChangeSet foundRan = getRanChangeSet(changeSet);
 
@@ -61,15 +71,19 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
     }
 
     public void upgradeChecksums(final DatabaseChangeLog databaseChangeLog, final Contexts contexts, LabelExpression labels) throws DatabaseException {
+        List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
         for (RanChangeSet ranChangeSet : this.getRanChangeSets()) {
             if (ranChangeSet.getLastCheckSum() == null) {
                 ChangeSet changeSet = databaseChangeLog.getChangeSet(ranChangeSet);
                 if (changeSet != null && new ContextChangeSetFilter(contexts).accepts(changeSet).isAccepted() && new DbmsChangeSetFilter(getDatabase()).accepts(changeSet).isAccepted()) {
                     LogFactory.getLogger().debug("Updating null or out of date checksum on changeSet " + changeSet + " to correct value");
-                    replaceChecksum(changeSet);
+                    changeSets.add(changeSet);
                 }
             }
         }
+        if (!changeSets.isEmpty()) {
+            replaceChecksums(changeSets);
+        }
     }
 
     @Override
@@ -94,6 +108,15 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     protected abstract void replaceChecksum(ChangeSet changeSet) throws DatabaseException;
 
+    /**
+     * Replaces the checksums of all the given changeSets. The default implementation calls {@link #replaceChecksum(ChangeSet)} for each one.
+     */
+    protected void replaceChecksums(List<ChangeSet> changeSets) throws DatabaseException {
+        for (ChangeSet changeSet : changeSets) {
+            replaceChecksum(changeSet);
+        }
+    }
+
     public String getDeploymentId() {
         return this.deploymentId;
     }
@@ -0,0 +1,178 @@
+package liquibase.changelog;
+
+import liquibase.database.DatabaseConnection;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes change history rows through a second connection on a background thread, so the update can go on with the preconditions and
+ * SQL of the next changeSet while the row of the previous one is inserted and committed.
+ * <p/>
+ * Rows are written one at a time in the order they are submitted. Before a changeSet changes the database, the caller waits with
+ * {@link #awaitPending(int)} until at most queueDepth - 1 rows are still unwritten, so with a queue depth of 1 no changeSet runs before
+ * the history of the previous one is committed, the same as a serial update.
+ * If a row cannot be written, no further rows are written and the failure is thrown from the next call on the caller's thread.
+ * <p/>
+ * The connection is used only by the background thread and is not closed by {@link #close()}. Each row is committed explicitly, so
+ * autocommit is turned off while the pipeline is open and turned back on by {@link #close()} if it was on before.
+ */
+public class ChangeLogHistoryPipeline {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final Connection connection;
+    private final int queueDepth;
+    private final ExecutorService executor;
+    private final boolean restoreAutoCommit;
+
+    private int pending;
+    private DatabaseException failure;
+
+    public ChangeLogHistoryPipeline(DatabaseConnection connection, int queueDepth) throws DatabaseException {
+        if (!(connection instanceof JdbcConnection)) {
+            throw new UnexpectedLiquibaseException("Change history can only be written through a JDBC connection");
+        }
+        this.connection = ((JdbcConnection) connection).getUnderlyingConnection();
+        try {
+            this.restoreAutoCommit = this.connection.getAutoCommit();
+            if (restoreAutoCommit) {
+                this.connection.setAutoCommit(false);
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException("Cannot turn off autocommit on the change history connection: " + e.getMessage(), e);
+        }
+        this.queueDepth = Math.max(queueDepth, 1);
+        this.executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-history");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Queues the SQL that writes the history row of the given changeSet. Waits first until fewer than queueDepth rows are unwritten.
+     */
+    public void submit(final ChangeSet changeSet, final String[] sql) throws DatabaseException {
+        awaitPending(queueDepth - 1);
+        synchronized (this) {
+            pending++;
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                DatabaseException error = null;
+                synchronized (ChangeLogHistoryPipeline.this) {
+                    if (failure != null) {
+                        error = failure;
+                    }
+                }
+                if (error == null) {
+                    error = write(changeSet, sql);
+                }
+                synchronized (ChangeLogHistoryPipeline.this) {
+                    if (failure == null) {
+                        failure = error;
+                    }
+                    pending--;
+                    ChangeLogHistoryPipeline.this.notifyAll();
+                }
+            }
+        });
+    }
+
+    protected DatabaseException write(ChangeSet changeSet, String[] sql) {
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            for (String line : sql) {
+                LogFactory.getLogger().debug("Executing history command: " + line);
+                statement.execute(line);
+            }
+            connection.commit();
+            return null;
+        } catch (SQLException e) {
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+                //already failing
+            }
+            return new DatabaseException("Could not record " + changeSet.toString(false) + " as ran: " + e.getMessage(), e);
+        } finally {
+            if (statement != null) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    //nothing to do
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until at most the given number of submitted rows are still unwritten.
+     *
+     * @throws DatabaseException if a row could not be written
+     */
+    public synchronized void awaitPending(int maxPending) throws DatabaseException {
+        while (failure == null && pending > maxPending) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DatabaseException("Interrupted while waiting for the change history to be written", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Waits until all submitted rows are written.
+     *
+     * @throws DatabaseException if a row could not be written
+     */
+    public void await() throws DatabaseException {
+        awaitPending(0);
+    }
+
+    /**
+     * Stops the background thread once the rows already submitted are written and turns autocommit back on if it was on when the pipeline was created.
+     */
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LogFactory.getLogger().warning("Change history rows were still being written after " + CLOSE_TIMEOUT_SECONDS + " seconds");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (restoreAutoCommit) {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                LogFactory.getLogger().warning("Cannot turn autocommit back on for the change history connection: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -40,6 +40,10 @@ public interface ChangeLogHistoryService extends PrioritizedService {
      */
     Date getRanDate(ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException;
 
+    /**
+     * Records the changeSet as ran with the given exec type. Implementations extending {@link AbstractChangeLogHistoryService} may queue
+     * the history row until {@link AbstractChangeLogHistoryService#flush()} is called or enough rows are queued to write them together.
+     */
     void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException;
 
     void removeFromHistory(ChangeSet changeSet) throws DatabaseException;
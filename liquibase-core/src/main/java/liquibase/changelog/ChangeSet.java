@@ -184,6 +184,12 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      */
     private String runOrder;
 
+    /**
+     * Result of the last {@link #generateCheckSum()} call and the sql visitors it included, reused until the change set is modified.
+     */
+    private CheckSum checkSum;
+    private List<SqlVisitor> checkSumSqlVisitors;
+
     public boolean shouldAlwaysRun() {
         return alwaysRun;
     }
@@ -238,7 +244,16 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         return filePath;
     }
 
-    public CheckSum generateCheckSum() {
+    /**
+     * Returns the checksum of the changes and sql visitors in this change set. The checksum is cached until a change or sql visitor is added,
+     * sql visitors are removed or the change set is reloaded. Call {@link #clearCheckSum()} after modifying a change that is already part of the change set.
+     */
+    public synchronized CheckSum generateCheckSum() {
+        if (isCheckSumCached()) {
+            CheckSumStatistics.getInstance().cacheHit();
+            return checkSum;
+        }
+
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
@@ -248,12 +263,30 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             stringToMD5.append(visitor.generateCheckSum()).append(";");
         }
 
+        CheckSumStatistics.getInstance().computed();
+        checkSum = CheckSum.compute(stringToMD5.toString());
+        checkSumSqlVisitors = new ArrayList<SqlVisitor>(sqlVisitors);
+        return checkSum;
+    }
+
+    /**
+     * Discards the cached checksum so the next call to {@link #generateCheckSum()} computes it again.
+     */
+    public synchronized void clearCheckSum() {
+        checkSum = null;
+        checkSumSqlVisitors = null;
+    }
 
-        return CheckSum.compute(stringToMD5.toString());
+    /**
+     * Returns true if {@link #generateCheckSum()} would return a cached checksum.
+     */
+    synchronized boolean isCheckSumCached() {
+        return checkSum != null && sqlVisitors.equals(checkSumSqlVisitors);
     }
 
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        clearCheckSum();
         this.id = node.getChildValue(null, "id", String.class);
         this.author = node.getChildValue(null, "author", String.class);
         this.alwaysRun  = node.getChildValue(null, "runAlways", node.getChildValue(null, "alwaysRun", false));
@@ -447,6 +480,16 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      * @return should change set be marked as ran
      */
     public ExecType execute(DatabaseChangeLog databaseChangeLog, ChangeExecListener listener, Database database) throws MigrationFailedException {
+        return execute(databaseChangeLog, listener, database, true);
+    }
+
+    /**
+     * Executes the changes like {@link #execute(DatabaseChangeLog, ChangeExecListener, Database)}.
+     * If commit is false, a changeSet that runs in a transaction leaves it open so the caller can write the history row in the same transaction before committing.
+     *
+     * @return should change set be marked as ran
+     */
+    public ExecType execute(DatabaseChangeLog databaseChangeLog, ChangeExecListener listener, Database database, boolean commit) throws MigrationFailedException {
         if (validationFailed) {
             return ExecType.MARK_RAN;
         }
@@ -575,7 +618,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                     }
                 }
 
-                if (runInTransaction) {
+                if (runInTransaction && commit) {
                     database.commit();
                 }
                 log.info("ChangeSet " + toString(false) + " ran successfully in " + (new Date().getTime() - startTime + "ms"));
@@ -705,6 +748,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
         }
         changes.add(change);
         change.setChangeSet(this);
+        clearCheckSum();
     }
 
     public String getId() {
@@ -900,6 +944,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        clearCheckSum();
     }
 
     public List<SqlVisitor> getSqlVisitors() {
@@ -915,6 +960,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
      */
     public void setChangeLogParameters(ChangeLogParameters changeLogParameters) {
         this.changeLogParameters = changeLogParameters;
+        clearCheckSum();
     }
 
     /**
@@ -0,0 +1,317 @@
+package liquibase.changelog;
+
+import liquibase.change.Change;
+import liquibase.change.ChangeFactory;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.*;
+import liquibase.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds the order in which changeSets must run from the database objects their changes touch, so changeSets that touch different
+ * objects can run at the same time. ChangeSets are {@link #add(ChangeSet) added} in changelog order and each one depends on the
+ * last earlier changeSet that touched any of the same tables, views, sequences, indexes or constraints.
+ * <p/>
+ * Tables linked by a foreign key declared in createTable, addColumn or addForeignKeyConstraint, and the old and new names of a renamed table,
+ * count as one object from then on, so inserts into a parent and a child table run in changelog order. Links can also be recorded from
+ * changeSets that do not run, such as ones that already ran, with {@link #addLinks(ChangeSet)}. Foreign keys created any other way are not known.
+ * <p/>
+ * A changeSet is a barrier that depends on every earlier changeSet, and that every later changeSet depends on, if it has preconditions,
+ * a runOrder, or a change whose objects cannot be told from its parameters, such as sql, sqlFile, createView, dropView or custom changes.
+ * Object names are compared ignoring case and schema, so changeSets on same named objects in different schemas are still ordered.
+ */
+public class ChangeSetDependencyGraph {
+
+    private static final List<Class<? extends Change>> NAMED_OBJECT_CHANGES = Arrays.<Class<? extends Change>>asList(
+            AddAutoIncrementChange.class, AddColumnChange.class, AddDefaultValueChange.class, AddForeignKeyConstraintChange.class,
+            AddLookupTableChange.class, AddNotNullConstraintChange.class, AddPrimaryKeyChange.class, AddUniqueConstraintChange.class,
+            AlterSequenceChange.class, CreateIndexChange.class, CreateSequenceChange.class, CreateTableChange.class,
+            DeleteDataChange.class, DropAllForeignKeyConstraintsChange.class, DropColumnChange.class, DropDefaultValueChange.class,
+            DropForeignKeyConstraintChange.class, DropIndexChange.class, DropNotNullConstraintChange.class, DropPrimaryKeyChange.class,
+            DropSequenceChange.class, DropTableChange.class, DropUniqueConstraintChange.class,
+            InsertDataChange.class, LoadDataChange.class, LoadUpdateDataChange.class, MergeColumnChange.class,
+            ModifyDataTypeChange.class, RenameColumnChange.class, RenameSequenceChange.class, RenameTableChange.class,
+            RenameViewChange.class, SetColumnRemarksChange.class, SetTableRemarksChange.class, UpdateDataChange.class);
+
+    private static final String[] OBJECT_PARAMETER_SUFFIXES = {"tablename", "viewname", "sequencename", "indexname", "constraintname"};
+
+    private final List<Node> nodes = new ArrayList<Node>();
+    private final Map<String, Set<Node>> lastNodesByObject = new HashMap<String, Set<Node>>();
+    private final Map<String, String> linkedObjects = new HashMap<String, String>();
+    private final List<Node> nodesSinceBarrier = new ArrayList<Node>();
+    private Node lastBarrier;
+
+    /**
+     * Adds the changeSet after all the changeSets added before and returns its node.
+     */
+    public Node add(ChangeSet changeSet) {
+        Set<String> objectNames = getObjectNames(changeSet);
+        Node node = new Node(changeSet, nodes.size(), objectNames == null);
+        if (node.isBarrier()) {
+            node.prerequisites.addAll(nodesSinceBarrier);
+            if (lastBarrier != null) {
+                node.prerequisites.add(lastBarrier);
+            }
+            nodesSinceBarrier.clear();
+            lastNodesByObject.clear();
+            lastBarrier = node;
+            addLinks(changeSet);
+        } else {
+            if (lastBarrier != null) {
+                node.prerequisites.add(lastBarrier);
+            }
+            for (String objectName : objectNames) {
+                Set<Node> previous = lastNodesByObject.get(getLinkedObject(objectName));
+                if (previous != null) {
+                    node.prerequisites.addAll(previous);
+                }
+            }
+            addLinks(changeSet);
+            for (String objectName : objectNames) {
+                lastNodesByObject.put(getLinkedObject(objectName), new HashSet<Node>(Collections.singleton(node)));
+            }
+            nodesSinceBarrier.add(node);
+        }
+        nodes.add(node);
+        return node;
+    }
+
+    /**
+     * Records the tables the changes of the given changeSet link, without adding the changeSet. Call for changeSets that do not run,
+     * such as ones that already ran, so later changeSets on the linked tables are still ordered.
+     */
+    public void addLinks(ChangeSet changeSet) {
+        for (Change change : changeSet.getChanges()) {
+            if (change instanceof AddForeignKeyConstraintChange) {
+                link(((AddForeignKeyConstraintChange) change).getBaseTableName(), ((AddForeignKeyConstraintChange) change).getReferencedTableName());
+            } else if (change instanceof RenameTableChange) {
+                link(((RenameTableChange) change).getOldTableName(), ((RenameTableChange) change).getNewTableName());
+            } else if (change instanceof CreateTableChange) {
+                addLinks(((CreateTableChange) change).getTableName(), ((CreateTableChange) change).getColumns());
+            } else if (change instanceof AddColumnChange) {
+                addLinks(((AddColumnChange) change).getTableName(), ((AddColumnChange) change).getColumns());
+            }
+        }
+    }
+
+    private void addLinks(String tableName, List<? extends ColumnConfig> columns) {
+        if (columns == null) {
+            return;
+        }
+        for (ColumnConfig column : columns) {
+            ConstraintsConfig constraints = column.getConstraints();
+            if (constraints != null) {
+                link(tableName, constraints.getReferencedTableName());
+                link(tableName, getReferencedTable(constraints));
+            }
+        }
+    }
+
+    /**
+     * Makes the two objects count as one, so a changeSet on either depends on the last changeSets on both.
+     */
+    protected void link(String objectName, String otherObjectName) {
+        objectName = normalizeObjectName(objectName);
+        otherObjectName = normalizeObjectName(otherObjectName);
+        if (objectName == null || otherObjectName == null) {
+            return;
+        }
+        String linked = getLinkedObject(objectName);
+        String otherLinked = getLinkedObject(otherObjectName);
+        if (linked.equals(otherLinked)) {
+            return;
+        }
+        linkedObjects.put(otherLinked, linked);
+        Set<Node> otherNodes = lastNodesByObject.remove(otherLinked);
+        if (otherNodes != null) {
+            Set<Node> linkedNodes = lastNodesByObject.get(linked);
+            if (linkedNodes == null) {
+                lastNodesByObject.put(linked, otherNodes);
+            } else {
+                linkedNodes.addAll(otherNodes);
+            }
+        }
+    }
+
+    /**
+     * Returns the name that stands for the given normalized object name and every object linked to it.
+     */
+    protected String getLinkedObject(String objectName) {
+        String linked = objectName;
+        String next = linkedObjects.get(linked);
+        while (next != null) {
+            linked = next;
+            next = linkedObjects.get(linked);
+        }
+        return linked;
+    }
+
+    public List<Node> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    /**
+     * Returns the lower case names of the objects the changes of the given changeSet touch, or null if the changeSet is a barrier.
+     */
+    public Set<String> getObjectNames(ChangeSet changeSet) {
+        if (changeSet.getRunOrder() != null) {
+            return null;
+        }
+        if (changeSet.getPreconditions() != null && !changeSet.getPreconditions().getNestedPreconditions().isEmpty()) {
+            return null;
+        }
+        if (changeSet.getChanges().isEmpty()) {
+            return null;
+        }
+
+        Set<String> objectNames = new HashSet<String>();
+        for (Change change : changeSet.getChanges()) {
+            if (!addObjectNames(change, objectNames)) {
+                return null;
+            }
+        }
+        if (objectNames.isEmpty()) {
+            return null;
+        }
+        return objectNames;
+    }
+
+    /**
+     * Adds the names of the objects the change touches. Returns false if they cannot all be told from the change.
+     */
+    protected boolean addObjectNames(Change change, Set<String> objectNames) {
+        if (!NAMED_OBJECT_CHANGES.contains(change.getClass())) {
+            return false;
+        }
+        if (change instanceof AbstractModifyDataChange && StringUtils.trimToNull(((AbstractModifyDataChange) change).getWhere()) != null) {
+            return false; //the where clause may read other tables
+        }
+        if (change instanceof DropTableChange && Boolean.TRUE.equals(((DropTableChange) change).isCascadeConstraints())) {
+            return false;
+        }
+
+        for (Map.Entry<String, Object> parameter : ChangeFactory.getInstance().getParameters(change).entrySet()) {
+            Object value = parameter.getValue();
+            if (value instanceof String && isObjectParameter(parameter.getKey())) {
+                addObjectName((String) value, objectNames);
+            } else if (value instanceof Collection) {
+                for (Object item : (Collection) value) {
+                    if (item instanceof ColumnConfig && !addObjectNames((ColumnConfig) item, objectNames)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    protected boolean addObjectNames(ColumnConfig column, Set<String> objectNames) {
+        if (column.getValueComputed() != null || column.getDefaultValueComputed() != null) {
+            return false;
+        }
+        if ("COMPUTED".equalsIgnoreCase(column.getType()) || "SEQUENCE".equalsIgnoreCase(column.getType())) {
+            return false; //loadData value read from the file
+        }
+        if (column.getValueSequenceNext() != null) {
+            addObjectName(column.getValueSequenceNext().getValue(), objectNames);
+        }
+        if (column.getDefaultValueSequenceNext() != null) {
+            addObjectName(column.getDefaultValueSequenceNext().getValue(), objectNames);
+        }
+        ConstraintsConfig constraints = column.getConstraints();
+        if (constraints != null) {
+            addObjectName(constraints.getReferencedTableName(), objectNames);
+            addObjectName(getReferencedTable(constraints), objectNames);
+        }
+        return true;
+    }
+
+    private String getReferencedTable(ConstraintsConfig constraints) {
+        String references = StringUtils.trimToNull(constraints.getReferences());
+        if (references == null) {
+            return null;
+        }
+        return references.replaceFirst("\\(.*", "");
+    }
+
+    private boolean isObjectParameter(String parameterName) {
+        String name = parameterName.toLowerCase();
+        for (String suffix : OBJECT_PARAMETER_SUFFIXES) {
+            if (name.endsWith(suffix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addObjectName(String name, Set<String> objectNames) {
+        name = normalizeObjectName(name);
+        if (name != null) {
+            objectNames.add(name);
+        }
+    }
+
+    private String normalizeObjectName(String name) {
+        name = StringUtils.trimToNull(name);
+        if (name == null) {
+            return null;
+        }
+        name = name.toLowerCase();
+        if (name.contains(".")) {
+            name = name.substring(name.lastIndexOf('.') + 1);
+        }
+        return name;
+    }
+
+    /**
+     * A changeSet and the changeSets that must finish before it can run.
+     */
+    public static class Node {
+
+        private final ChangeSet changeSet;
+        private final int index;
+        private final boolean barrier;
+        private final Set<Node> prerequisites = new LinkedHashSet<Node>();
+
+        private Node(ChangeSet changeSet, int index, boolean barrier) {
+            this.changeSet = changeSet;
+            this.index = index;
+            this.barrier = barrier;
+        }
+
+        public ChangeSet getChangeSet() {
+            return changeSet;
+        }
+
+        /**
+         * Position of the changeSet in the order it was added.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        public boolean isBarrier() {
+            return barrier;
+        }
+
+        public Set<Node> getPrerequisites() {
+            return Collections.unmodifiableSet(prerequisites);
+        }
+
+        @Override
+        public String toString() {
+            return changeSet.toString(false);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package liquibase.changelog;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often {@link ChangeSet#generateCheckSum()} returned a cached checksum and how often it had to compute one.
+ * Reset by {@link liquibase.Liquibase} at the end of each command, after logging the counts.
+ */
+public class CheckSumStatistics {
+
+    private static CheckSumStatistics instance = new CheckSumStatistics();
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong computations = new AtomicLong();
+
+    public static CheckSumStatistics getInstance() {
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = new CheckSumStatistics();
+    }
+
+    protected CheckSumStatistics() {
+    }
+
+    protected void cacheHit() {
+        cacheHits.incrementAndGet();
+    }
+
+    protected void computed() {
+        computations.incrementAndGet();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getComputations() {
+        return computations.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Change set checksums: " + getComputations() + " computed, " + getCacheHits() + " reused from cache";
+    }
+}
@@ -19,6 +19,7 @@ import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.ParallelIncludeParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
 import liquibase.precondition.Conditional;
@@ -47,6 +48,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     private ObjectQuotingStrategy objectQuotingStrategy;
 
     private List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
+    private Map<String, List<ChangeSet>> changeSetIndex;
     private ChangeLogParameters changeLogParameters;
 
     private RuntimeEnvironment runtimeEnvironment;
@@ -168,15 +170,17 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
 
     public ChangeSet getChangeSet(String path, String author, String id) {
-        for (ChangeSet changeSet : changeSets) {
-            if (normalizePath(changeSet.getFilePath()).equalsIgnoreCase(normalizePath(path))
-                    && changeSet.getAuthor().equalsIgnoreCase(author)
-                    && changeSet.getId().equalsIgnoreCase(id)
-                    && (changeSet.getDbmsSet() == null
+        List<ChangeSet> matches = getChangeSetIndex().get(createChangeSetKey(path, author, id));
+        if (matches == null) {
+            return null;
+        }
+
+        for (ChangeSet changeSet : matches) {
+            if (changeSet.getDbmsSet() == null
                     || changeLogParameters == null
                     || changeLogParameters.getValue("database.typeName", this) == null
                     || changeSet.getDbmsSet().isEmpty()
-                    || changeSet.getDbmsSet().contains(changeLogParameters.getValue("database.typeName", this).toString()))) {
+                    || changeSet.getDbmsSet().contains(changeLogParameters.getValue("database.typeName", this).toString())) {
                 return changeSet;
             }
         }
@@ -184,11 +188,42 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return null;
     }
 
+    /**
+     * Returns the change sets grouped by {@link #createChangeSetKey(String, String, String)}, in changelog order.
+     * Built on first use and discarded whenever the change sets or path normalization change.
+     */
+    private Map<String, List<ChangeSet>> getChangeSetIndex() {
+        if (changeSetIndex == null) {
+            Map<String, List<ChangeSet>> index = new HashMap<String, List<ChangeSet>>();
+            for (ChangeSet changeSet : changeSets) {
+                String key = createChangeSetKey(changeSet.getFilePath(), changeSet.getAuthor(), changeSet.getId());
+                List<ChangeSet> matches = index.get(key);
+                if (matches == null) {
+                    matches = new ArrayList<ChangeSet>(1);
+                    index.put(key, matches);
+                }
+                matches.add(changeSet);
+            }
+            changeSetIndex = index;
+        }
+        return changeSetIndex;
+    }
+
+    /**
+     * Creates a key that is the same for two change sets exactly when their normalized paths, authors and ids are equal ignoring case.
+     */
+    private String createChangeSetKey(String path, String author, String id) {
+        return StringUtils.toCaseInsensitiveKey(path == null ? null : normalizePath(path))
+                + "::" + StringUtils.toCaseInsensitiveKey(author)
+                + "::" + StringUtils.toCaseInsensitiveKey(id);
+    }
+
     public List<ChangeSet> getChangeSets() {
         return changeSets;
     }
 
     public void addChangeSet(ChangeSet changeSet) {
+        this.changeSetIndex = null;
         if (changeSet.getRunOrder() == null) {
             ListIterator<ChangeSet> it = this.changeSets.listIterator(this.changeSets.size());
             boolean added = false;
@@ -252,7 +287,12 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
     public void validate(Database database, Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
 
-        ChangeLogIterator logIterator = new ChangeLogIterator(this, new DbmsChangeSetFilter(database), new ContextChangeSetFilter(contexts), new LabelChangeSetFilter(labelExpression));
+        DbmsChangeSetFilter dbmsFilter = new DbmsChangeSetFilter(database);
+        ContextChangeSetFilter contextFilter = new ContextChangeSetFilter(contexts);
+        LabelChangeSetFilter labelFilter = new LabelChangeSetFilter(labelExpression);
+        ChangeLogIterator logIterator = new ChangeLogIterator(this, dbmsFilter, contextFilter, labelFilter);
+
+        ParallelCheckSumCalculator.getInstance().computeCheckSums(getChangeSets(), dbmsFilter, contextFilter, labelFilter);
 
         ValidatingVisitor validatingVisitor = new ValidatingVisitor(database.getRanChangeSetList());
         validatingVisitor.validate(database, this);
@@ -278,9 +318,41 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         if (objectQuotingStrategy != null) {
             setObjectQuotingStrategy(ObjectQuotingStrategy.valueOf(objectQuotingStrategy));
         }
+        ParallelIncludeParser.Batch includeBatch = parseIncludesAhead(parsedNode, resourceAccessor);
+        try {
+            for (ParsedNode childNode : parsedNode.getChildren()) {
+                handleChildNode(childNode, resourceAccessor);
+            }
+        } finally {
+            ParallelIncludeParser.getInstance().finish(includeBatch);
+        }
+    }
+
+    /**
+     * Starts parsing the files referenced by the include nodes of this changelog in the background, if enabled.
+     * Includes whose file is built from changelog parameters are skipped because their path is not known until the node is handled.
+     */
+    protected ParallelIncludeParser.Batch parseIncludesAhead(ParsedNode parsedNode, ResourceAccessor resourceAccessor) {
+        ParallelIncludeParser parallelIncludeParser = ParallelIncludeParser.getInstance();
+        if (!parallelIncludeParser.isEnabled()) {
+            return null;
+        }
+        Set<String> paths = new LinkedHashSet<String>();
         for (ParsedNode childNode : parsedNode.getChildren()) {
-            handleChildNode(childNode, resourceAccessor);
+            if (!childNode.getName().equals("include")) {
+                continue;
+            }
+            try {
+                String path = childNode.getChildValue(null, "file", String.class);
+                if (path == null || path.contains("${")) {
+                    continue;
+                }
+                paths.add(resolveIncludePath(path.replace('\\', '/'), childNode.getChildValue(null, "relativeToChangelogFile", false)));
+            } catch (ParsedNodeException e) {
+                //will fail again and be reported when the node is handled
+            }
         }
+        return parallelIncludeParser.parseAhead(paths, changeLogParameters, resourceAccessor);
     }
 
     protected void expandExpressions(ParsedNode parsedNode) {
@@ -438,8 +510,13 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
                 throw new SetupException("Could not find directory or directory was empty for includeAll '" + pathName + "'");
             }
 
-            for (String path : resources) {
-                include(path, false, resourceAccessor, includeContexts);
+            ParallelIncludeParser.Batch includeBatch = ParallelIncludeParser.getInstance().parseAhead(resources, changeLogParameters, resourceAccessor);
+            try {
+                for (String path : resources) {
+                    include(path, false, resourceAccessor, includeContexts);
+                }
+            } finally {
+                ParallelIncludeParser.getInstance().finish(includeBatch);
             }
         } catch (Exception e) {
             throw new SetupException(e);
@@ -453,15 +530,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         }
 
         String relativeBaseFileName = this.getPhysicalFilePath();
-        if (isRelativePath) {
-            // workaround for FilenameUtils.normalize() returning null for relative paths like ../conf/liquibase.xml
-            String tempFile = FilenameUtils.concat(FilenameUtils.getFullPath(relativeBaseFileName), fileName);
-            if (tempFile != null && new File(tempFile).exists() == true) {
-                fileName = tempFile;
-            } else {
-                fileName = FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
-            }
-        }
+        fileName = resolveIncludePath(fileName, isRelativePath);
         DatabaseChangeLog changeLog;
         try {
             DatabaseChangeLog rootChangeLog = ROOT_CHANGE_LOG.get();
@@ -504,6 +573,20 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return true;
     }
 
+    private String resolveIncludePath(String fileName, boolean isRelativePath) {
+        if (!isRelativePath) {
+            return fileName;
+        }
+        String relativeBaseFileName = this.getPhysicalFilePath();
+        // workaround for FilenameUtils.normalize() returning null for relative paths like ../conf/liquibase.xml
+        String tempFile = FilenameUtils.concat(FilenameUtils.getFullPath(relativeBaseFileName), fileName);
+        if (tempFile != null && new File(tempFile).exists() == true) {
+            return tempFile;
+        } else {
+            return FilenameUtils.getFullPath(relativeBaseFileName) + fileName;
+        }
+    }
+
     protected ChangeSet createChangeSet(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException, SetupException {
         ChangeSet changeSet = new ChangeSet(this);
         changeSet.setChangeLogParameters(this.getChangeLogParameters());
@@ -524,6 +607,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
 
     public void setIgnoreClasspathPrefix(boolean ignoreClasspathPrefix) {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
+        this.changeSetIndex = null;
     }
 
     public boolean ignoreClasspathPrefix() {
@@ -0,0 +1,195 @@
+package liquibase.changelog;
+
+import liquibase.change.Change;
+import liquibase.change.core.CreateProcedureChange;
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.SQLFileChange;
+import liquibase.changelog.filter.ChangeSetFilter;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.logging.LogFactory;
+import liquibase.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Computes changeSet checksums on a bounded pool of background threads before a {@link ChangeLogIterator} visits the changeSets,
+ * so visitors that need the checksums get the values {@link ChangeSet#generateCheckSum()} cached instead of computing them one at a time.
+ * <p/>
+ * ChangeSets with changes that read external files, such as loadData and sqlFile, only compute their checksums on up to
+ * {@link GlobalConfiguration#getCheckSumFileThreads()} threads at a time. A checksum that fails to compute is left for the visitor to compute
+ * again, so errors are reported at the same point as without the pre-pass.
+ * <p/>
+ * Disabled unless {@link GlobalConfiguration#getCheckSumThreads()} is greater than 1.
+ */
+public class ParallelCheckSumCalculator {
+
+    private static ParallelCheckSumCalculator instance;
+
+    private ExecutorService executor;
+    private int executorThreads;
+
+    public static synchronized ParallelCheckSumCalculator getInstance() {
+        if (instance == null) {
+            instance = new ParallelCheckSumCalculator();
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        if (instance != null) {
+            instance.shutdown();
+        }
+        instance = new ParallelCheckSumCalculator();
+    }
+
+    protected ParallelCheckSumCalculator() {
+    }
+
+    public int getThreadCount() {
+        Integer threads = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getCheckSumThreads();
+        if (threads == null) {
+            return 1;
+        }
+        return threads;
+    }
+
+    public int getFileThreadCount() {
+        Integer threads = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getCheckSumFileThreads();
+        if (threads == null || threads < 1) {
+            return 1;
+        }
+        return threads;
+    }
+
+    public boolean isEnabled() {
+        return getThreadCount() > 1;
+    }
+
+    /**
+     * Computes the checksums of the given changeSets that are accepted by all the given filters and do not have a cached checksum yet.
+     * Returns once all checksums are computed.
+     *
+     * @return the number of checksums computed
+     */
+    public int computeCheckSums(List<ChangeSet> changeSets, ChangeSetFilter... filters) {
+        if (!isEnabled()) {
+            return 0;
+        }
+
+        List<ChangeSet> toCompute = new ArrayList<ChangeSet>();
+        for (ChangeSet changeSet : changeSets) {
+            if (changeSet.isCheckSumCached() || !accepts(changeSet, filters)) {
+                continue;
+            }
+            toCompute.add(changeSet);
+        }
+        if (toCompute.size() < 2) {
+            return 0;
+        }
+
+        long start = System.nanoTime();
+        final Semaphore filePermits = new Semaphore(getFileThreadCount());
+        ExecutorService executor = getExecutor();
+        List<Future<Object>> results = new ArrayList<Future<Object>>();
+        for (final ChangeSet changeSet : toCompute) {
+            final boolean readsFiles = readsFiles(changeSet);
+            results.add(executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    if (readsFiles) {
+                        filePermits.acquire();
+                    }
+                    try {
+                        return changeSet.generateCheckSum();
+                    } finally {
+                        if (readsFiles) {
+                            filePermits.release();
+                        }
+                    }
+                }
+            }));
+        }
+
+        int computed = 0;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).get();
+                computed++;
+            } catch (InterruptedException e) {
+                for (Future<Object> result : results) {
+                    result.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                return computed;
+            } catch (ExecutionException e) {
+                LogFactory.getLogger().debug("Could not compute checksum of " + toCompute.get(i).toString(false) + " ahead of time", e.getCause());
+            }
+        }
+
+        LogFactory.getLogger().info("Computed " + computed + " changeSet checksums on " + executorThreads + " threads in "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms");
+        return computed;
+    }
+
+    protected boolean accepts(ChangeSet changeSet, ChangeSetFilter... filters) {
+        for (ChangeSetFilter filter : filters) {
+            if (!filter.accepts(changeSet).isAccepted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if computing the checksum of the given changeSet reads external files.
+     */
+    protected boolean readsFiles(ChangeSet changeSet) {
+        for (Change change : changeSet.getChanges()) {
+            if (change instanceof LoadDataChange || change instanceof SQLFileChange) {
+                return true;
+            }
+            if (change instanceof CreateProcedureChange && StringUtils.trimToNull(((CreateProcedureChange) change).getPath()) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    protected synchronized ExecutorService getExecutor() {
+        int threads = getThreadCount();
+        if (executor == null || executorThreads != threads) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            final AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "liquibase-checksum-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executorThreads = threads;
+        }
+        return executor;
+    }
+
+    protected synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+}
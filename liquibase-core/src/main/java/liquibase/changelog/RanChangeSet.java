@@ -3,6 +3,7 @@ package liquibase.changelog;
 import liquibase.ContextExpression;
 import liquibase.Labels;
 import liquibase.change.CheckSum;
+import liquibase.util.StringUtils;
 
 import java.util.Date;
 
@@ -13,7 +14,7 @@ public class RanChangeSet {
     private final String changeLog;
     private final String id;
     private final String author;
-    private final CheckSum lastCheckSum;
+    private CheckSum lastCheckSum;
     private final Date dateExecuted;
     private String tag;
     private ChangeSet.ExecType execType;
@@ -79,6 +80,10 @@ public class RanChangeSet {
         return lastCheckSum;
     }
 
+    public void setLastCheckSum(CheckSum lastCheckSum) {
+        this.lastCheckSum = lastCheckSum;
+    }
+
     public Date getDateExecuted() {
         if (dateExecuted == null) {
             return null;
@@ -168,8 +173,37 @@ public class RanChangeSet {
     }
 
     public boolean isSameAs(ChangeSet changeSet) {
-        return this.getChangeLog().replace('\\', '/').replaceFirst("^classpath:", "").equalsIgnoreCase(changeSet.getFilePath().replace('\\', '/').replaceFirst("^classpath:", ""))
+        return normalizeChangeLogPath(this.getChangeLog()).equalsIgnoreCase(normalizeChangeLogPath(changeSet.getFilePath()))
                 && this.getId().equalsIgnoreCase(changeSet.getId())
                 && this.getAuthor().equalsIgnoreCase(changeSet.getAuthor());
     }
+
+    /**
+     * Returns a key that is equal to {@link #getIdentityKey(ChangeSet)} exactly when {@link #isSameAs(ChangeSet)} would return true.
+     * Useful for hash-based lookups of ran change sets.
+     */
+    public String getIdentityKey() {
+        return createIdentityKey(getChangeLog(), getId(), getAuthor());
+    }
+
+    /**
+     * Returns the key a RanChangeSet matching the given changeSet would return from {@link #getIdentityKey()}.
+     */
+    public static String getIdentityKey(ChangeSet changeSet) {
+        return createIdentityKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+    }
+
+    private static String createIdentityKey(String changeLog, String id, String author) {
+        return StringUtils.toCaseInsensitiveKey(normalizeChangeLogPath(changeLog)) + "::" + StringUtils.toCaseInsensitiveKey(id) + "::" + StringUtils.toCaseInsensitiveKey(author);
+    }
+
+    /**
+     * Normalizes a changelog path for comparison by {@link #isSameAs(ChangeSet)} and {@link #getIdentityKey()}.
+     */
+    private static String normalizeChangeLogPath(String changeLog) {
+        if (changeLog == null) {
+            return null;
+        }
+        return changeLog.replace('\\', '/').replaceFirst("^classpath:", "");
+    }
 }
@@ -0,0 +1,167 @@
+package liquibase.changelog;
+
+import liquibase.ContextExpression;
+import liquibase.Labels;
+import liquibase.change.CheckSum;
+import liquibase.executor.jvm.RowMapper;
+import liquibase.logging.LogFactory;
+import liquibase.util.JdbcUtils;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link RowMapper} that reads rows of the DATABASECHANGELOG table directly into {@link RanChangeSet} objects,
+ * without building an intermediate column map per row.
+ * Column positions are looked up once from the first row's metadata, so an instance must only be used for a single query and is not thread safe.
+ */
+public class RanChangeSetRowMapper implements RowMapper {
+
+    private final boolean checksumsCompatible;
+    private final DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    private int fileNameColumn;
+    private int authorColumn;
+    private int idColumn;
+    private int md5sumColumn;
+    private int descriptionColumn;
+    private int commentsColumn;
+    private int dateExecutedColumn;
+    private int orderExecutedColumn;
+    private int tagColumn;
+    private int execTypeColumn;
+    private int contextsColumn;
+    private int labelsColumn;
+    private int deploymentIdColumn;
+
+    /**
+     * @param checksumsCompatible if false, stored checksums are an older version and are read as null
+     */
+    public RanChangeSetRowMapper(boolean checksumsCompatible) {
+        this.checksumsCompatible = checksumsCompatible;
+    }
+
+    @Override
+    public Object mapRow(ResultSet rs, int rowNum) throws SQLException {
+        if (rowNum == 0) {
+            findColumns(rs.getMetaData());
+        }
+
+        return createRanChangeSet(
+                getValue(rs, fileNameColumn),
+                getValue(rs, idColumn),
+                getValue(rs, authorColumn),
+                getValue(rs, md5sumColumn),
+                getValue(rs, dateExecutedColumn),
+                getValue(rs, orderExecutedColumn),
+                getValue(rs, tagColumn),
+                getValue(rs, execTypeColumn),
+                getValue(rs, descriptionColumn),
+                getValue(rs, commentsColumn),
+                getValue(rs, contextsColumn),
+                getValue(rs, labelsColumn),
+                getValue(rs, deploymentIdColumn));
+    }
+
+    /**
+     * Creates a RanChangeSet from a DATABASECHANGELOG row that has already been read into a map keyed by upper-case column name.
+     */
+    public RanChangeSet mapRow(Map<String, ?> row) {
+        return createRanChangeSet(row.get("FILENAME"), row.get("ID"), row.get("AUTHOR"), row.get("MD5SUM"),
+                row.get("DATEEXECUTED"), row.get("ORDEREXECUTED"), row.get("TAG"), row.get("EXECTYPE"),
+                row.get("DESCRIPTION"), row.get("COMMENTS"), row.get("CONTEXTS"), row.get("LABELS"), row.get("DEPLOYMENT_ID"));
+    }
+
+    protected RanChangeSet createRanChangeSet(Object fileName, Object id, Object author, Object md5sum, Object dateExecuted, Object orderExecuted,
+                                              Object tag, Object execType, Object description, Object comments, Object contexts, Object labels, Object deploymentId) {
+        String execTypeString = toString(execType);
+        try {
+            RanChangeSet ranChangeSet = new RanChangeSet(fileName.toString(), id.toString(), author.toString(),
+                    CheckSum.parse(checksumsCompatible ? toString(md5sum) : null),
+                    toDate(dateExecuted),
+                    toString(tag),
+                    ChangeSet.ExecType.valueOf(execTypeString),
+                    toString(description),
+                    toString(comments),
+                    new ContextExpression((String) contexts),
+                    new Labels((String) labels),
+                    (String) deploymentId);
+            ranChangeSet.setOrderExecuted(toInteger(orderExecuted));
+            return ranChangeSet;
+        } catch (IllegalArgumentException e) {
+            LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execTypeString);
+            throw e;
+        }
+    }
+
+    private void findColumns(ResultSetMetaData metaData) throws SQLException {
+        Map<String, Integer> columns = new HashMap<String, Integer>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            columns.put(metaData.getColumnLabel(i).toUpperCase(), i);
+        }
+
+        fileNameColumn = findColumn(columns, "FILENAME");
+        authorColumn = findColumn(columns, "AUTHOR");
+        idColumn = findColumn(columns, "ID");
+        md5sumColumn = findColumn(columns, "MD5SUM");
+        descriptionColumn = findColumn(columns, "DESCRIPTION");
+        commentsColumn = findColumn(columns, "COMMENTS");
+        dateExecutedColumn = findColumn(columns, "DATEEXECUTED");
+        orderExecutedColumn = findColumn(columns, "ORDEREXECUTED");
+        tagColumn = findColumn(columns, "TAG");
+        execTypeColumn = findColumn(columns, "EXECTYPE");
+        contextsColumn = findColumn(columns, "CONTEXTS");
+        labelsColumn = findColumn(columns, "LABELS");
+        deploymentIdColumn = findColumn(columns, "DEPLOYMENT_ID");
+    }
+
+    private int findColumn(Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            return -1;
+        }
+        return index;
+    }
+
+    private Object getValue(ResultSet rs, int index) throws SQLException {
+        if (index < 0) {
+            return null;
+        }
+        return JdbcUtils.getResultSetValue(rs, index);
+    }
+
+    private String toString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    private Integer toInteger(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        return Integer.valueOf(value.toString());
+    }
+
+    private Date toDate(Object value) {
+        if (value instanceof Date) {
+            return (Date) value;
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return dateFormat.parse(value.toString());
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+}
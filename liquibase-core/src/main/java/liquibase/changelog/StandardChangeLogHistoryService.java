@@ -1,11 +1,11 @@
 package liquibase.changelog;
 
-import liquibase.ContextExpression;
 import liquibase.Contexts;
 import liquibase.LabelExpression;
-import liquibase.Labels;
 import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
 import liquibase.database.core.DB2Database;
@@ -17,29 +17,34 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sql.Sql;
+import liquibase.sql.visitor.SqlVisitor;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.MarkChangeSetRanGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.core.Column;
 import liquibase.structure.core.DataType;
 import liquibase.structure.core.Table;
 
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
+    private static final int CHECKSUM_BATCH_SIZE = 1000;
+
     private List<RanChangeSet> ranChangeSetList;
+    private Map<String, List<RanChangeSet>> ranChangeSetIndex;
     private boolean serviceInitialized = false;
     private Boolean hasDatabaseChangeLogTable = null;
     private boolean databaseChecksumsCompatible = true;
     private Integer lastChangeSetSequenceValue;
+    private List<MarkChangeSetRanStatement> pendingExecTypes = new ArrayList<MarkChangeSetRanStatement>();
 
     @Override
     public int getPriority() {
@@ -69,8 +74,10 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     public void reset() {
         this.ranChangeSetList = null;
+        this.ranChangeSetIndex = null;
         this.serviceInitialized = false;
         this.hasDatabaseChangeLogTable = null;
+        this.pendingExecTypes.clear();
     }
 
     public boolean hasDatabaseChangeLogTable() throws DatabaseException {
@@ -264,65 +271,129 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      */
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
         if (this.ranChangeSetList == null) {
+            flush();
             Database database = getDatabase();
             String databaseChangeLogTableName = getDatabase().escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
             List<RanChangeSet> ranChangeSetList = new ArrayList<RanChangeSet>();
+            Map<String, List<RanChangeSet>> ranChangeSetIndex = new HashMap<String, List<RanChangeSet>>();
             if (hasDatabaseChangeLogTable()) {
                 LogFactory.getLogger().info("Reading from " + databaseChangeLogTableName);
-                List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
-                for (Map rs : results) {
-                    String fileName = rs.get("FILENAME").toString();
-                    String author = rs.get("AUTHOR").toString();
-                    String id = rs.get("ID").toString();
-                    String md5sum = rs.get("MD5SUM") == null || !databaseChecksumsCompatible ? null : rs.get("MD5SUM").toString();
-                    String description = rs.get("DESCRIPTION") == null ? null : rs.get("DESCRIPTION").toString();
-                    String comments = rs.get("COMMENTS") == null ? null : rs.get("COMMENTS").toString();
-                    Object tmpDateExecuted = rs.get("DATEEXECUTED");
-                    Date dateExecuted = null;
-                    if (tmpDateExecuted instanceof Date) {
-                        dateExecuted = (Date) tmpDateExecuted;
-                    } else {
-                        DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                        try {
-                            dateExecuted = df.parse((String) tmpDateExecuted);
-                        } catch (ParseException e) {
-                        }
-                    }
-                    String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
-                    Integer orderExecuted = (tmpOrderExecuted == null ? null : Integer.valueOf(tmpOrderExecuted));
-                    String tag = rs.get("TAG") == null ? null : rs.get("TAG").toString();
-                    String execType = rs.get("EXECTYPE") == null ? null : rs.get("EXECTYPE").toString();
-                    ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
-                    Labels labels = new Labels((String) rs.get("LABELS"));
-                    String deploymentId = (String) rs.get("DEPLOYMENT_ID");
-
-                    try {
-                        RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts, labels, deploymentId);
-                        ranChangeSet.setOrderExecuted(orderExecuted);
-                        ranChangeSetList.add(ranChangeSet);
-                    } catch (IllegalArgumentException e) {
-                        LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
-                        throw e;
-                    }
+                for (RanChangeSet ranChangeSet : readDatabaseChangeLogTable(database)) {
+                    ranChangeSetList.add(ranChangeSet);
+                    addToIndex(ranChangeSetIndex, ranChangeSet);
                 }
             }
 
             this.ranChangeSetList = ranChangeSetList;
+            this.ranChangeSetIndex = ranChangeSetIndex;
         }
         return Collections.unmodifiableList(ranChangeSetList);
     }
 
+    /**
+     * Adds the ranChangeSet to the index used by {@link #getRanChangeSet(ChangeSet)}.
+     * Change sets are indexed by {@link RanChangeSet#getIdentityKey()} and kept in history order so lookups return the same one a scan of {@link #getRanChangeSets()} would.
+     */
+    private void addToIndex(Map<String, List<RanChangeSet>> index, RanChangeSet ranChangeSet) {
+        String key = ranChangeSet.getIdentityKey();
+        List<RanChangeSet> matches = index.get(key);
+        if (matches == null) {
+            matches = new ArrayList<RanChangeSet>(1);
+            index.put(key, matches);
+        }
+        matches.add(ranChangeSet);
+    }
+
+    private void removeFromIndex(Map<String, List<RanChangeSet>> index, RanChangeSet ranChangeSet) {
+        String key = ranChangeSet.getIdentityKey();
+        List<RanChangeSet> matches = index.get(key);
+        if (matches != null) {
+            for (Iterator<RanChangeSet> iterator = matches.iterator(); iterator.hasNext(); ) {
+                if (iterator.next() == ranChangeSet) {
+                    iterator.remove();
+                    break;
+                }
+            }
+            if (matches.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
-        SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
-        return ExecutorService.getInstance().getExecutor(database).queryForList(select);
+        return ExecutorService.getInstance().getExecutor(database).queryForList(createSelectDatabaseChangeLogStatement());
+    }
+
+    /**
+     * Reads the DATABASECHANGELOG rows in execution order.
+     * When running against a {@link JdbcExecutor}, rows are mapped straight from the result set using {@link RanChangeSetRowMapper} and the configured
+     * {@link GlobalConfiguration#getDatabaseChangeLogFetchSize()}. Otherwise the rows come from {@link #queryDatabaseChangeLogTable(Database)}.
+     */
+    protected List<RanChangeSet> readDatabaseChangeLogTable(Database database) throws DatabaseException {
+        RanChangeSetRowMapper rowMapper = new RanChangeSetRowMapper(databaseChecksumsCompatible);
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (executor instanceof JdbcExecutor) {
+            Integer fetchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogFetchSize();
+            return ((JdbcExecutor) executor).query(createSelectDatabaseChangeLogStatement(), rowMapper, fetchSize == null ? 0 : fetchSize, new ArrayList<SqlVisitor>());
+        }
+
+        List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
+        List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>(results.size());
+        for (Map<String, ?> row : results) {
+            ranChangeSets.add(rowMapper.mapRow(row));
+        }
+        return ranChangeSets;
+    }
+
+    protected SqlStatement createSelectDatabaseChangeLogStatement() {
+        return new SelectFromDatabaseChangeLogStatement(new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
     }
 
     @Override
     protected void replaceChecksum(ChangeSet changeSet) throws DatabaseException {
-        ExecutorService.getInstance().getExecutor(getDatabase()).execute(new UpdateChangeSetChecksumStatement(changeSet));
+        replaceChecksums(Collections.singletonList(changeSet));
+    }
 
+    /**
+     * Updates the checksums through JDBC batches with a single commit, then sets them on the cached history rows
+     * instead of reading the history table again.
+     */
+    @Override
+    protected void replaceChecksums(List<ChangeSet> changeSets) throws DatabaseException {
+        flush();
+        List<UpdateChangeSetChecksumStatement> statements = new ArrayList<UpdateChangeSetChecksumStatement>();
+        for (ChangeSet changeSet : changeSets) {
+            statements.add(new UpdateChangeSetChecksumStatement(changeSet));
+        }
+
+        Executor executor = ExecutorService.getInstance().getExecutor(getDatabase());
+        if (executor instanceof JdbcExecutor) {
+            for (int i = 0; i < statements.size(); i += CHECKSUM_BATCH_SIZE) {
+                ((JdbcExecutor) executor).executeBatch(statements.subList(i, Math.min(i + CHECKSUM_BATCH_SIZE, statements.size())));
+            }
+        } else {
+            for (UpdateChangeSetChecksumStatement statement : statements) {
+                executor.execute(statement);
+            }
+        }
         getDatabase().commit();
-        reset();
+
+        if (this.ranChangeSetIndex == null) { //nothing cached, or getRanChangeSets() was overridden
+            reset();
+            return;
+        }
+        for (ChangeSet changeSet : changeSets) {
+            List<RanChangeSet> matches = this.ranChangeSetIndex.get(RanChangeSet.getIdentityKey(changeSet));
+            if (matches != null) {
+                for (RanChangeSet ranChangeSet : matches) {
+                    if (ranChangeSet.getChangeLog().equals(changeSet.getFilePath())
+                            && ranChangeSet.getId().equals(changeSet.getId())
+                            && ranChangeSet.getAuthor().equals(changeSet.getAuthor())) {
+                        ranChangeSet.setLastCheckSum(changeSet.generateCheckSum());
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -331,29 +402,122 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             return null;
         }
 
-        return super.getRanChangeSet(changeSet);
+        getRanChangeSets();
+        if (ranChangeSetIndex == null) { //getRanChangeSets() was overridden
+            return super.getRanChangeSet(changeSet);
+        }
+        List<RanChangeSet> matches = ranChangeSetIndex.get(RanChangeSet.getIdentityKey(changeSet));
+        if (matches == null) {
+            return null;
+        }
+        return matches.get(0);
     }
 
     @Override
     public void setExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
         Database database = getDatabase();
 
-        ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(changeSet, execType));
-        getDatabase().commit();
+        MarkChangeSetRanStatement statement = new MarkChangeSetRanStatement(changeSet, execType);
+        int batchSize = getBatchSize();
+        if (batchSize > 1) {
+            pendingExecTypes.add(statement);
+            if (pendingExecTypes.size() >= batchSize) {
+                flush();
+            }
+        } else {
+            flush();
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            SqlStatement toExecute = null;
+            if (executor instanceof JdbcExecutor) {
+                toExecute = new MarkChangeSetRanGenerator().generatePreparedStatement(statement, database);
+            }
+            executor.execute(toExecute == null ? statement : toExecute);
+            getDatabase().commit();
+        }
+        addRanChangeSet(changeSet, execType);
+    }
+
+    /**
+     * Adds the changeSet to the cached history like {@link #setExecType(ChangeSet, ChangeSet.ExecType)}, but returns the SQL that writes
+     * its history row instead of executing it, so the caller can write the row through another connection.
+     */
+    public String[] prepareExecType(ChangeSet changeSet, ChangeSet.ExecType execType) throws DatabaseException {
+        flush();
+        Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(new MarkChangeSetRanStatement(changeSet, execType), getDatabase());
+        List<String> sqlToExecute = new ArrayList<String>();
+        if (sql != null) {
+            for (Sql line : sql) {
+                if (line != null) {
+                    sqlToExecute.add(line.toSql());
+                }
+            }
+        }
+        addRanChangeSet(changeSet, execType);
+        return sqlToExecute.toArray(new String[sqlToExecute.size()]);
+    }
+
+    private void addRanChangeSet(ChangeSet changeSet, ChangeSet.ExecType execType) {
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
+            RanChangeSet ranChangeSet = new RanChangeSet(changeSet, execType, null, null);
+            this.ranChangeSetList.add(ranChangeSet);
+            addToIndex(this.ranChangeSetIndex, ranChangeSet);
+        }
+    }
+
+    /**
+     * Writes the queued history rows as one JDBC batch and commits them, together with anything else in the current transaction.
+     */
+    @Override
+    public void flush() throws DatabaseException {
+        if (pendingExecTypes.isEmpty()) {
+            return;
+        }
+        List<MarkChangeSetRanStatement> statements = new ArrayList<MarkChangeSetRanStatement>(pendingExecTypes);
+        pendingExecTypes.clear();
+
+        Executor executor = ExecutorService.getInstance().getExecutor(getDatabase());
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).executeBatch(statements);
+        } else {
+            for (MarkChangeSetRanStatement statement : statements) {
+                executor.execute(statement);
+            }
         }
+        getDatabase().commit();
+    }
 
+    /**
+     * Returns how many history rows {@link #setExecType(ChangeSet, ChangeSet.ExecType)} may queue before writing them.
+     * Rows are only queued when they are written through a {@link JdbcExecutor}, so generated SQL output keeps its order.
+     */
+    protected int getBatchSize() {
+        Integer batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogBatchSize();
+        if (batchSize == null || batchSize < 2 || !(ExecutorService.getInstance().getExecutor(getDatabase()) instanceof JdbcExecutor)) {
+            return 1;
+        }
+        return batchSize;
     }
 
     @Override
     public void removeFromHistory(final ChangeSet changeSet) throws DatabaseException {
+        flush();
         Database database = getDatabase();
         ExecutorService.getInstance().getExecutor(database).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         getDatabase().commit();
 
         if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+            List<RanChangeSet> matches = this.ranChangeSetIndex.get(RanChangeSet.getIdentityKey(changeSet));
+            if (matches != null) {
+                for (RanChangeSet ranChangeSet : matches) {
+                    if (ranChangeSet.getChangeLog().equals(changeSet.getFilePath())
+                            && ranChangeSet.getId().equals(changeSet.getId())
+                            && ranChangeSet.getAuthor().equals(changeSet.getAuthor())) {
+                        this.ranChangeSetList.remove(ranChangeSet);
+                        removeFromIndex(this.ranChangeSetIndex, ranChangeSet);
+                        break;
+                    }
+                }
+            }
         }
     }
 
@@ -375,6 +539,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      */
     @Override
     public void tag(final String tagString) throws DatabaseException {
+        flush();
         Database database = getDatabase();
         Executor executor = ExecutorService.getInstance().getExecutor(database);
         try {
@@ -382,6 +547,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             if (totalRows == 0) {
                 ChangeSet emptyChangeSet = new ChangeSet(String.valueOf(new Date().getTime()), "liquibase", false, false, "liquibase-internal", null, null, getDatabase().getObjectQuotingStrategy(), null);
                 this.setExecType(emptyChangeSet, ChangeSet.ExecType.EXECUTED);
+                flush();
             }
 
 //            Timestamp lastExecutedDate = (Timestamp) this.getExecutor().queryForObject(createChangeToTagSQL(), Timestamp.class);
@@ -389,6 +555,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             getDatabase().commit();
 
             if (this.ranChangeSetList != null) {
+                //the indexed instance is the same object, so the index sees the new tag as well
                 ranChangeSetList.get(ranChangeSetList.size() - 1).setTag(tagString);
             }
         } catch (Exception e) {
@@ -404,6 +571,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public void clearAllCheckSums() throws LiquibaseException {
+        flush();
         Database database = getDatabase();
         UpdateStatement updateStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
         updateStatement.addNewColumnValue("MD5SUM", null);
@@ -4,6 +4,7 @@ import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
+import liquibase.util.StringUtils;
 
 import java.util.*;
 
@@ -11,14 +12,18 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     private final Map<String, RanChangeSet> ranChangeSets;
     private final boolean ignoreClasspathPrefix;
+    private final boolean indexLookup;
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
         this.ranChangeSets = new HashMap<String, RanChangeSet>();
+        this.indexLookup = !overridesMatching(getClass());
 
         //ensure we have only the latest version of each ranChangeset in case multiple versions ended up in the databasechangelog table
+        //ranChangeSets are keyed by normalized path, id and author so accepts() does not need to scan the whole history
         for (RanChangeSet ranChangeSet : database.getRanChangeSetList()) {
-            RanChangeSet existingChangeSet = ranChangeSets.get(ranChangeSet.toString());
+            String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+            RanChangeSet existingChangeSet = ranChangeSets.get(key);
             boolean addToSet = false;
             if (existingChangeSet == null) {
                 addToSet = true;
@@ -40,7 +45,7 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
                 }
             }
             if (addToSet) {
-                this.ranChangeSets.put(ranChangeSet.toString(), ranChangeSet);
+                this.ranChangeSets.put(key, ranChangeSet);
             }
         }
     }
@@ -52,18 +57,63 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public ChangeSetFilterResult accepts(ChangeSet changeSet) {
+        RanChangeSet ranChangeSet = findRanChangeSet(changeSet);
+        if (ranChangeSet != null) {
+            if (changeSet.shouldAlwaysRun()) {
+                return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
+            }
+            if (changeSet.shouldRunOnChange() && checksumChanged(changeSet, ranChangeSet)) {
+                return new ChangeSetFilterResult(true, "Change set checksum changed", this.getClass());
+            }
+            return new ChangeSetFilterResult(false, "Change set already ran", this.getClass());
+        }
+        return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
+    }
+
+    /**
+     * Returns the RanChangeSet matching the given changeSet, or null if it has not ran.
+     * The key index is only used when the matching hooks are not overridden, otherwise every ran changeSet is checked with {@link #changeSetsMatch(ChangeSet, RanChangeSet)}.
+     */
+    private RanChangeSet findRanChangeSet(ChangeSet changeSet) {
+        if (indexLookup) {
+            RanChangeSet ranChangeSet = this.ranChangeSets.get(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+            if (ranChangeSet != null && changeSetsMatch(changeSet, ranChangeSet)) {
+                return ranChangeSet;
+            }
+            return null;
+        }
         for (RanChangeSet ranChangeSet : this.ranChangeSets.values()) {
             if (changeSetsMatch(changeSet, ranChangeSet)) {
-                if (changeSet.shouldAlwaysRun()) {
-                    return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
-                }
-                if (changeSet.shouldRunOnChange() && checksumChanged(changeSet, ranChangeSet)) {
-                    return new ChangeSetFilterResult(true, "Change set checksum changed", this.getClass());
+                return ranChangeSet;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns true if a subclass overrides {@link #changeSetsMatch(ChangeSet, RanChangeSet)}, {@link #idsAreEqual(ChangeSet, RanChangeSet)}
+     * or {@link #authorsAreEqual(ChangeSet, RanChangeSet)}, in which case the key index cannot be trusted to find every match.
+     */
+    private static boolean overridesMatching(Class<?> filterClass) {
+        for (Class<?> type = filterClass; type != null && !type.equals(ShouldRunChangeSetFilter.class); type = type.getSuperclass()) {
+            for (String methodName : new String[] {"changeSetsMatch", "idsAreEqual", "authorsAreEqual"}) {
+                try {
+                    type.getDeclaredMethod(methodName, ChangeSet.class, RanChangeSet.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    //not overridden at this level
                 }
-                return new ChangeSetFilterResult(false, "Change set already ran", this.getClass());
             }
         }
-        return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
+        return false;
+    }
+
+    /**
+     * Creates the lookup key for the ranChangeSets index. Paths are normalized with {@link #normalizePath(String)} and compared case-insensitively,
+     * matching {@link #changeSetsMatch(ChangeSet, RanChangeSet)}.
+     */
+    private String createKey(String filePath, String id, String author) {
+        return StringUtils.toCaseInsensitiveKey(normalizePath(filePath)) + "::" + id + "::" + author;
     }
 
     protected boolean changeSetsMatch(ChangeSet changeSet, RanChangeSet ranChangeSet) {
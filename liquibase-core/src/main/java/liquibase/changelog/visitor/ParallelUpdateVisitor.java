@@ -0,0 +1,292 @@
+package liquibase.changelog.visitor;
+
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSet.ExecType;
+import liquibase.changelog.ChangeSet.RunStatus;
+import liquibase.changelog.ChangeSetDependencyGraph;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.filter.ChangeSetFilterResult;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.exception.MigrationFailedException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs changeSets that touch different database objects at the same time, each on one of the given worker databases,
+ * in the order worked out by a {@link ChangeSetDependencyGraph}. Barrier changeSets run on the main database through an
+ * {@link UpdateVisitor} once every changeSet before them has finished.
+ * <p/>
+ * Run statuses are read and history rows written on the main database by the thread that visits the changeLog, in changeLog order:
+ * the row of a changeSet is written once it and every changeSet before it have finished, so the history reads the same as after a serial update.
+ * A changeSet can therefore be applied by a worker and committed some time before its history row is; if the process stops in between,
+ * the changeSet runs again on the next update.
+ * <p/>
+ * ChangeSets that are skipped, such as ones that already ran, are not run but the tables their foreign keys link are still recorded in the graph.
+ * <p/>
+ * If a changeSet fails, no further changeSets are started, the ones already running are waited for and recorded, and the failure of the
+ * first failed changeSet in changeLog order is thrown. ChangeSets that depend on a failed changeSet are not run.
+ * <p/>
+ * The worker databases must be connected to the same database as the main one and are not closed. The exec listener is called from the worker threads.
+ * Call {@link #finish()} once the changeLog has been visited and {@link #close()} in any case.
+ */
+public class ParallelUpdateVisitor implements ChangeSetVisitor, SkippedChangeSetVisitor {
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final Database database;
+    private final ChangeExecListener execListener;
+    private final BlockingQueue<Database> workerDatabases;
+    private final ExecutorService executor;
+    private final UpdateVisitor serialVisitor;
+
+    private final ChangeSetDependencyGraph graph = new ChangeSetDependencyGraph();
+    private final Map<ChangeSetDependencyGraph.Node, Task> unrecordedTasks = new HashMap<ChangeSetDependencyGraph.Node, Task>();
+    private final LinkedList<Task> tasks = new LinkedList<Task>();
+    private final AtomicBoolean failed = new AtomicBoolean(false);
+
+    private Logger log = LogFactory.getLogger();
+
+    public ParallelUpdateVisitor(Database database, ChangeExecListener execListener, List<Database> workerDatabases) {
+        if (workerDatabases == null || workerDatabases.isEmpty()) {
+            throw new UnexpectedLiquibaseException("At least one worker database is required");
+        }
+        this.database = database;
+        this.execListener = execListener;
+        this.workerDatabases = new LinkedBlockingQueue<Database>(workerDatabases);
+        this.serialVisitor = new UpdateVisitor(database, execListener);
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workerDatabases.size(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-update-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    @Override
+    public Direction getDirection() {
+        return ChangeSetVisitor.Direction.FORWARD;
+    }
+
+    @Override
+    public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
+        recordFinishedTasks();
+
+        ChangeSetDependencyGraph.Node node = graph.add(changeSet);
+        if (node.isBarrier()) {
+            log.debug("Running Changeset:" + changeSet + " once all changeSets before it have finished");
+            finish();
+            serialVisitor.visit(changeSet, databaseChangeLog, database, filterResults);
+            return;
+        }
+
+        RunStatus runStatus = this.database.getRunStatus(changeSet);
+        log.debug("Running Changeset:" + changeSet);
+        if (execListener != null) {
+            execListener.willRun(changeSet, databaseChangeLog, this.database, runStatus);
+        }
+
+        List<Task> prerequisites = new ArrayList<Task>();
+        for (ChangeSetDependencyGraph.Node prerequisite : node.getPrerequisites()) {
+            Task task = unrecordedTasks.get(prerequisite);
+            if (task != null) { //recorded tasks and barriers have finished
+                prerequisites.add(task);
+            }
+        }
+        Task task = new Task(node, databaseChangeLog, runStatus, prerequisites);
+        unrecordedTasks.put(node, task);
+        tasks.add(task);
+        executor.execute(task);
+    }
+
+    @Override
+    public void skipped(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
+        graph.addLinks(changeSet);
+    }
+
+    /**
+     * Writes the history rows of the changeSets that have finished and have no unfinished changeSet before them.
+     * If one of them failed, waits for all running changeSets and throws the failure.
+     */
+    protected void recordFinishedTasks() throws LiquibaseException {
+        while (!tasks.isEmpty() && tasks.getFirst().isDone()) {
+            if (tasks.getFirst().getFailure() != null || tasks.getFirst().isSkipped()) {
+                finish(); //something failed
+            }
+            record(tasks.removeFirst());
+        }
+    }
+
+    /**
+     * Waits for all started changeSets and writes their history rows.
+     *
+     * @throws MigrationFailedException the failure of the first failed changeSet in changeLog order
+     */
+    public void finish() throws LiquibaseException {
+        Task firstFailed = null;
+        while (!tasks.isEmpty()) {
+            Task task = tasks.removeFirst();
+            task.await();
+            if (task.getFailure() != null) {
+                failed.set(true);
+                if (firstFailed == null) {
+                    firstFailed = task;
+                }
+            } else if (!task.isSkipped()) {
+                record(task);
+            }
+            unrecordedTasks.remove(task.node);
+        }
+
+        if (firstFailed != null) {
+            Throwable failure = firstFailed.getFailure();
+            MigrationFailedException exception;
+            if (failure instanceof MigrationFailedException) {
+                exception = (MigrationFailedException) failure;
+            } else {
+                exception = new MigrationFailedException(firstFailed.getChangeSet(), failure.getMessage(), failure);
+            }
+            if (execListener != null) {
+                execListener.runFailed(firstFailed.getChangeSet(), firstFailed.databaseChangeLog, database, exception);
+            }
+            throw exception;
+        }
+    }
+
+    private void record(Task task) throws LiquibaseException {
+        unrecordedTasks.remove(task.node);
+        ExecType execType = task.getExecType();
+        if (!task.runStatus.equals(RunStatus.NOT_RAN)) {
+            execType = ExecType.RERAN;
+        }
+        if (execListener != null) {
+            execListener.ran(task.getChangeSet(), task.databaseChangeLog, database, execType);
+        }
+        database.markChangeSetExecStatus(task.getChangeSet(), execType);
+        database.commit();
+    }
+
+    /**
+     * Stops starting changeSets, records the ones still running once they finish and stops the worker threads.
+     * The worker databases are not closed.
+     */
+    public void close() {
+        failed.set(true);
+        try {
+            finish();
+        } catch (LiquibaseException e) {
+            log.severe("Could not record the changeSets run in parallel", e);
+        } finally {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    log.warning("ChangeSets were still running after " + CLOSE_TIMEOUT_SECONDS + " seconds");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Runs one changeSet on a worker database once its prerequisites have finished.
+     */
+    private class Task implements Runnable {
+
+        private final ChangeSetDependencyGraph.Node node;
+        private final DatabaseChangeLog databaseChangeLog;
+        private final RunStatus runStatus;
+        private final List<Task> prerequisites;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private volatile ExecType execType;
+        private volatile Throwable failure;
+        private volatile boolean skipped;
+
+        private Task(ChangeSetDependencyGraph.Node node, DatabaseChangeLog databaseChangeLog, RunStatus runStatus, List<Task> prerequisites) {
+            this.node = node;
+            this.databaseChangeLog = databaseChangeLog;
+            this.runStatus = runStatus;
+            this.prerequisites = prerequisites;
+        }
+
+        public ChangeSet getChangeSet() {
+            return node.getChangeSet();
+        }
+
+        @Override
+        public void run() {
+            try {
+                for (Task prerequisite : prerequisites) {
+                    prerequisite.done.await();
+                    if (prerequisite.failure != null || prerequisite.skipped) {
+                        skipped = true;
+                    }
+                }
+                if (skipped || failed.get()) {
+                    skipped = true;
+                    return;
+                }
+
+                Database workerDatabase = workerDatabases.take();
+                try {
+                    execType = getChangeSet().execute(databaseChangeLog, execListener, workerDatabase);
+                    workerDatabase.commit();
+                } finally {
+                    workerDatabases.put(workerDatabase);
+                }
+            } catch (Throwable e) {
+                failure = e;
+                failed.set(true);
+            } finally {
+                done.countDown();
+            }
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        public void await() throws LiquibaseException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new MigrationFailedException(getChangeSet(), "Interrupted while waiting for the changeSet to run", e);
+            }
+        }
+
+        public ExecType getExecType() {
+            return execType;
+        }
+
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public boolean isSkipped() {
+            return skipped;
+        }
+    }
+}
@@ -1,16 +1,29 @@
 package liquibase.changelog.visitor;
 
+import liquibase.change.Change;
+import liquibase.changelog.AbstractChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryPipeline;
+import liquibase.changelog.ChangeLogHistoryService;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.ChangeSet.ExecType;
 import liquibase.changelog.ChangeSet.RunStatus;
 import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.StandardChangeLogHistoryService;
 import liquibase.changelog.filter.ChangeSetFilterResult;
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.MigrationFailedException;
+import liquibase.exception.PreconditionErrorException;
+import liquibase.exception.PreconditionFailedException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.precondition.core.PreconditionContainer;
 
 import java.util.Set;
 
@@ -22,6 +35,8 @@ public class UpdateVisitor implements ChangeSetVisitor {
     
     private ChangeExecListener execListener;
 
+    private ChangeLogHistoryPipeline historyPipeline;
+
     /**
      * @deprecated - please use the constructor with ChangeExecListener, which can be null.
      */
@@ -35,6 +50,18 @@ public class UpdateVisitor implements ChangeSetVisitor {
       this.execListener = execListener;
     }
 
+    public ChangeLogHistoryPipeline getHistoryPipeline() {
+        return historyPipeline;
+    }
+
+    /**
+     * Sets the pipeline used to write the history rows of changeSets that do not run in a transaction through a second connection.
+     * The caller waits for and closes the pipeline once the update is done.
+     */
+    public void setHistoryPipeline(ChangeLogHistoryPipeline historyPipeline) {
+        this.historyPipeline = historyPipeline;
+    }
+
     @Override
     public Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
@@ -47,9 +74,16 @@ public class UpdateVisitor implements ChangeSetVisitor {
         fireWillRun(changeSet, databaseChangeLog, database, runStatus);
         ExecType execType = null;
         ObjectQuotingStrategy previousStr = this.database.getObjectQuotingStrategy();
+        boolean batchHistory = isHistoryBatched();
+        boolean pipelined = isHistoryPipelined(changeSet);
+        if (historyPipeline != null && !pipelined) {
+            historyPipeline.await();
+        }
         try {
-            execType = changeSet.execute(databaseChangeLog, execListener, this.database);
+            ChangeExecListener listener = historyPipeline == null ? execListener : new PipelineAwaitingListener(execListener);
+            execType = changeSet.execute(databaseChangeLog, listener, this.database, !batchHistory);
         } catch (MigrationFailedException e) {
+            awaitHistoryPipeline();
             fireRunFailed(changeSet, databaseChangeLog, database, e);
             throw e;
         }
@@ -59,9 +93,73 @@ public class UpdateVisitor implements ChangeSetVisitor {
         fireRan(changeSet, databaseChangeLog, database, execType);
         // reset object quoting strategy after running changeset
         this.database.setObjectQuotingStrategy(previousStr);
-        this.database.markChangeSetExecStatus(changeSet, execType);
+        if (pipelined) {
+            this.database.commit();
+            String[] sql = ((StandardChangeLogHistoryService) ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database)).prepareExecType(changeSet, execType);
+            if (sql.length > 0) {
+                historyPipeline.submit(changeSet, sql);
+            }
+        } else if (batchHistory) {
+            markChangeSetExecStatusInTransaction(changeSet, execType);
+        } else {
+            this.database.markChangeSetExecStatus(changeSet, execType);
 
-        this.database.commit();
+            this.database.commit();
+        }
+    }
+
+    /**
+     * Returns true if history rows are written in batches, see {@link GlobalConfiguration#getDatabaseChangeLogBatchSize()}.
+     */
+    protected boolean isHistoryBatched() {
+        Integer batchSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogBatchSize();
+        return batchSize != null && batchSize > 1;
+    }
+
+    /**
+     * Returns true if the history row of the given changeSet is written through the {@link #setHistoryPipeline(ChangeLogHistoryPipeline) history pipeline}.
+     * Only changeSets that do not run in a transaction are pipelined, because the row of one that does is committed together with its changes.
+     */
+    protected boolean isHistoryPipelined(ChangeSet changeSet) {
+        return historyPipeline != null && !changeSet.isRunInTransaction()
+                && ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database) instanceof StandardChangeLogHistoryService;
+    }
+
+    /**
+     * Waits for the history rows of the changeSets that ran before a failed one, so they are recorded as they would be without the pipeline.
+     */
+    private void awaitHistoryPipeline() {
+        if (historyPipeline == null) {
+            return;
+        }
+        try {
+            historyPipeline.await();
+        } catch (DatabaseException e) {
+            log.severe("Could not record the changeSets that ran before the failed changeSet", e);
+        }
+    }
+
+    /**
+     * Queues the history row of a changeSet that changed nothing, such as one marked ran by its preconditions.
+     * A changeSet that was executed has its row, and any queued before it, written and committed in its own still open transaction,
+     * so its changes are never committed without its history row on databases that support that.
+     */
+    protected void markChangeSetExecStatusInTransaction(ChangeSet changeSet, ExecType execType) throws LiquibaseException {
+        boolean marked = false;
+        try {
+            this.database.markChangeSetExecStatus(changeSet, execType);
+            if (ExecType.EXECUTED.equals(execType) || ExecType.RERAN.equals(execType)) {
+                ChangeLogHistoryService changeLogService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(this.database);
+                if (changeLogService instanceof AbstractChangeLogHistoryService) {
+                    ((AbstractChangeLogHistoryService) changeLogService).flush();
+                }
+            }
+            marked = true;
+        } finally {
+            if (!marked) {
+                this.database.rollback();
+            }
+        }
     }
 
     protected void fireRunFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, MigrationFailedException e) {
@@ -81,4 +179,78 @@ public class UpdateVisitor implements ChangeSetVisitor {
         execListener.ran(changeSet, databaseChangeLog, database, execType);
       }
     }
+
+    /**
+     * Waits for the history pipeline before each change is run, so at most queueDepth - 1 history rows are still unwritten
+     * when a changeSet changes the database.
+     */
+    private class PipelineAwaitingListener implements ChangeExecListener {
+
+        private final ChangeExecListener delegate;
+
+        private PipelineAwaitingListener(ChangeExecListener delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void willRun(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, RunStatus runStatus) {
+            if (delegate != null) {
+                delegate.willRun(changeSet, databaseChangeLog, database, runStatus);
+            }
+        }
+
+        @Override
+        public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ExecType execType) {
+            if (delegate != null) {
+                delegate.ran(changeSet, databaseChangeLog, database, execType);
+            }
+        }
+
+        @Override
+        public void rolledBack(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) {
+            if (delegate != null) {
+                delegate.rolledBack(changeSet, databaseChangeLog, database);
+            }
+        }
+
+        @Override
+        public void preconditionFailed(PreconditionFailedException error, PreconditionContainer.FailOption onFail) {
+            if (delegate != null) {
+                delegate.preconditionFailed(error, onFail);
+            }
+        }
+
+        @Override
+        public void preconditionErrored(PreconditionErrorException error, PreconditionContainer.ErrorOption onError) {
+            if (delegate != null) {
+                delegate.preconditionErrored(error, onError);
+            }
+        }
+
+        @Override
+        public void willRun(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+            try {
+                historyPipeline.awaitPending(historyPipeline.getQueueDepth() - 1);
+            } catch (DatabaseException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            if (delegate != null) {
+                delegate.willRun(change, changeSet, changeLog, database);
+            }
+        }
+
+        @Override
+        public void ran(Change change, ChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+            if (delegate != null) {
+                delegate.ran(change, changeSet, changeLog, database);
+            }
+        }
+
+        @Override
+        public void runFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Exception exception) {
+            if (delegate != null) {
+                delegate.runFailed(changeSet, databaseChangeLog, database, exception);
+            }
+        }
+    }
 }
@@ -18,6 +18,18 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
     public static final String CONVERT_DATA_TYPES = "convertDataTypes";
     public static final String GENERATE_CHANGESET_CREATED_VALUES = "generateChangeSetCreatedValues";
     public static final String AUTO_REORG = "autoReorg";
+    public static final String DATABASECHANGELOG_FETCH_SIZE = "databaseChangeLogFetchSize";
+    public static final String CHECKSUM_THREADS = "checkSumThreads";
+    public static final String CHECKSUM_FILE_THREADS = "checkSumFileThreads";
+    public static final String DATABASECHANGELOG_BATCH_SIZE = "databaseChangeLogBatchSize";
+    public static final String DATABASECHANGELOG_QUEUE_DEPTH = "databaseChangeLogQueueDepth";
+    public static final String PREPARED_STATEMENT_CACHE_SIZE = "preparedStatementCacheSize";
+    public static final String LOAD_DATA_CHUNK_SIZE = "loadDataChunkSize";
+    public static final String LOAD_DATA_BATCH_SIZE = "loadDataBatchSize";
+    public static final String LOAD_DATA_COMMIT_INTERVAL = "loadDataCommitInterval";
+    public static final String LOAD_DATA_USE_COPY = "loadDataUseCopy";
+    public static final String LOAD_DATA_PARALLELISM = "loadDataParallelism";
+    public static final String LOAD_UPDATE_DATA_BATCH_SIZE = "loadUpdateDataBatchSize";
 
     public GlobalConfiguration() {
         super("liquibase");
@@ -72,6 +84,63 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         getContainer().addProperty(AUTO_REORG, Boolean.class)
                 .setDescription("Should Liquibase automatically include REORG TABLE commands when needed?")
                 .setDefaultValue(true);
+
+        getContainer().addProperty(DATABASECHANGELOG_FETCH_SIZE, Integer.class)
+                .setDescription("JDBC fetch size to use when reading the change history table. Zero or less uses the driver default")
+                .setDefaultValue(1000);
+
+        getContainer().addProperty(CHECKSUM_THREADS, Integer.class)
+                .setDescription("Number of threads used to compute changeSet checksums before validate and status. A value of 1 computes them one at a time as the changeSets are visited")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(CHECKSUM_FILE_THREADS, Integer.class)
+                .setDescription("Maximum number of checkSumThreads that may read external files such as loadData and sqlFile files at the same time")
+                .setDefaultValue(2);
+
+        getContainer().addProperty(DATABASECHANGELOG_BATCH_SIZE, Integer.class)
+                .setDescription("Maximum number of change history rows written to the database in one JDBC batch and commit. "
+                        + "A value of 1 writes and commits every row on its own")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(DATABASECHANGELOG_QUEUE_DEPTH, Integer.class)
+                .setDescription("When change history is written through a separate history connection, the number of history rows that may be "
+                        + "waiting to be written when a changeSet starts. A value of 1 waits for the previous row before changing the database")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(PREPARED_STATEMENT_CACHE_SIZE, Integer.class)
+                .setDescription("Number of prepared statements kept open per connection so SQL that is executed again is not prepared again. "
+                        + "A value of 0 closes every prepared statement after it is executed")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_CHUNK_SIZE, Integer.class)
+                .setDescription("Number of CSV rows loadData and loadUpdateData turn into statements and execute at a time, so large files are never held in memory. "
+                        + "A value of 0 reads the whole file before executing any statement")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_BATCH_SIZE, Integer.class)
+                .setDescription("Number of rows loadData inserts in one JDBC batch through a prepared statement. "
+                        + "A value of 0 inserts rows with generated SQL statements instead")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_COMMIT_INTERVAL, Integer.class)
+                .setDescription("When loadDataBatchSize is set, commit every this many rows. A value of 0 commits with the changeSet, "
+                        + "any other value leaves the rows loaded before a failure in the table")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(LOAD_DATA_USE_COPY, Boolean.class)
+                .setDescription("Should loadData load rows into PostgreSQL with COPY FROM STDIN when the JDBC driver supports it? "
+                        + "Rows with BLOB or CLOB values are inserted in batches instead, and rows with COMPUTED or SEQUENCE values with multi-row INSERT statements")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(LOAD_DATA_PARALLELISM, Integer.class)
+                .setDescription("Number of connections from the database pool that loadData loads one file over. "
+                        + "The rows are loaded into a staging table and only inserted into the table once all of them have loaded")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(LOAD_UPDATE_DATA_BATCH_SIZE, Integer.class)
+                .setDescription("Number of rows loadUpdateData loads into a staging table and inserts or updates with one statement at a time. "
+                        + "A value of 0 inserts or updates every row with its own statement")
+                .setDefaultValue(0);
     }
 
     /**
@@ -110,6 +179,150 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         return this;
     }
 
+    /**
+     * JDBC fetch size used when reading DATABASECHANGELOG
+     */
+    public Integer getDatabaseChangeLogFetchSize() {
+        return getContainer().getValue(DATABASECHANGELOG_FETCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogFetchSize(Integer fetchSize) {
+        getContainer().setValue(DATABASECHANGELOG_FETCH_SIZE, fetchSize);
+        return this;
+    }
+
+    /**
+     * Number of threads used to compute changeSet checksums ahead of validate and status.
+     */
+    public Integer getCheckSumThreads() {
+        return getContainer().getValue(CHECKSUM_THREADS, Integer.class);
+    }
+
+    public GlobalConfiguration setCheckSumThreads(Integer threads) {
+        getContainer().setValue(CHECKSUM_THREADS, threads);
+        return this;
+    }
+
+    /**
+     * Maximum number of checksum threads reading external files at the same time.
+     */
+    public Integer getCheckSumFileThreads() {
+        return getContainer().getValue(CHECKSUM_FILE_THREADS, Integer.class);
+    }
+
+    public GlobalConfiguration setCheckSumFileThreads(Integer threads) {
+        getContainer().setValue(CHECKSUM_FILE_THREADS, threads);
+        return this;
+    }
+
+    /**
+     * Maximum number of change history rows written in one batch and commit.
+     */
+    public Integer getDatabaseChangeLogBatchSize() {
+        return getContainer().getValue(DATABASECHANGELOG_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogBatchSize(Integer batchSize) {
+        getContainer().setValue(DATABASECHANGELOG_BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    /**
+     * Number of history rows written through the history connection that may still be pending when a changeSet starts.
+     */
+    public Integer getDatabaseChangeLogQueueDepth() {
+        return getContainer().getValue(DATABASECHANGELOG_QUEUE_DEPTH, Integer.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogQueueDepth(Integer queueDepth) {
+        getContainer().setValue(DATABASECHANGELOG_QUEUE_DEPTH, queueDepth);
+        return this;
+    }
+
+    /**
+     * Number of prepared statements kept open per connection. See {@link liquibase.database.jvm.PreparedStatementCache}.
+     */
+    public Integer getPreparedStatementCacheSize() {
+        return getContainer().getValue(PREPARED_STATEMENT_CACHE_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setPreparedStatementCacheSize(Integer cacheSize) {
+        getContainer().setValue(PREPARED_STATEMENT_CACHE_SIZE, cacheSize);
+        return this;
+    }
+
+    /**
+     * Number of CSV rows loadData reads and executes at a time. 0 reads the whole file first.
+     */
+    public Integer getLoadDataChunkSize() {
+        return getContainer().getValue(LOAD_DATA_CHUNK_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataChunkSize(Integer chunkSize) {
+        getContainer().setValue(LOAD_DATA_CHUNK_SIZE, chunkSize);
+        return this;
+    }
+
+    /**
+     * Number of rows loadData inserts in one JDBC batch. 0 inserts rows with generated SQL.
+     */
+    public Integer getLoadDataBatchSize() {
+        return getContainer().getValue(LOAD_DATA_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataBatchSize(Integer batchSize) {
+        getContainer().setValue(LOAD_DATA_BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    /**
+     * Number of batched loadData rows after which the transaction is committed. 0 commits with the changeSet.
+     */
+    public Integer getLoadDataCommitInterval() {
+        return getContainer().getValue(LOAD_DATA_COMMIT_INTERVAL, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataCommitInterval(Integer commitInterval) {
+        getContainer().setValue(LOAD_DATA_COMMIT_INTERVAL, commitInterval);
+        return this;
+    }
+
+    /**
+     * Should loadData load rows into PostgreSQL with COPY?
+     */
+    public Boolean getLoadDataUseCopy() {
+        return getContainer().getValue(LOAD_DATA_USE_COPY, Boolean.class);
+    }
+
+    public GlobalConfiguration setLoadDataUseCopy(Boolean useCopy) {
+        getContainer().setValue(LOAD_DATA_USE_COPY, useCopy);
+        return this;
+    }
+
+    /**
+     * Number of pooled connections loadData loads one file over. 1 loads it on the changeSet's connection only.
+     */
+    public Integer getLoadDataParallelism() {
+        return getContainer().getValue(LOAD_DATA_PARALLELISM, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadDataParallelism(Integer parallelism) {
+        getContainer().setValue(LOAD_DATA_PARALLELISM, parallelism);
+        return this;
+    }
+
+    /**
+     * Number of rows loadUpdateData inserts or updates with one statement through a staging table. 0 uses one statement per row.
+     */
+    public Integer getLoadUpdateDataBatchSize() {
+        return getContainer().getValue(LOAD_UPDATE_DATA_BATCH_SIZE, Integer.class);
+    }
+
+    public GlobalConfiguration setLoadUpdateDataBatchSize(Integer batchSize) {
+        getContainer().setValue(LOAD_UPDATE_DATA_BATCH_SIZE, batchSize);
+        return this;
+    }
+
     /**
      * Wait time (in minutes) to wait to receive the changelog lock before giving up.
      */
@@ -2,6 +2,7 @@ package liquibase.database;
 
 import liquibase.CatalogAndSchema;
 import liquibase.change.Change;
+import liquibase.change.StreamingChange;
 import liquibase.change.core.DropTableChange;
 import liquibase.changelog.*;
 import liquibase.configuration.ConfigurationProperty;
@@ -1263,6 +1264,13 @@ public abstract class AbstractJdbcDatabase implements Database {
             } catch (SqlPlusException e) {
                 throw new LiquibaseException(e);
             }
+        } else if (change instanceof StreamingChange && ((StreamingChange) change).generateStatementsInChunks(this)) {
+            ((StreamingChange) change).generateStatements(this, new StreamingChange.StatementHandler() {
+                @Override
+                public void handle(SqlStatement[] statements) throws LiquibaseException {
+                    execute(statements, sqlVisitors);
+                }
+            });
         } else {
             SqlStatement[] statements = change.generateStatements(this);
             execute(statements, sqlVisitors);
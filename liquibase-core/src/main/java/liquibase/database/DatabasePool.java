@@ -0,0 +1,244 @@
+package liquibase.database;
+
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.resource.ResourceAccessor;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Leases additional {@link Database} instances connected to the same database as a primary one, so work can be spread over several connections.
+ * Each leased database is the same implementation as the primary one, so the database type is not detected again, and gets the primary
+ * database's quoting strategy, default catalog and schema, output settings and Liquibase table settings every time it is leased.
+ * <p/>
+ * Connections are opened when needed, up to maxSize, and kept open until {@link #close()}. A leased database is only to be used by one thread
+ * at a time and must be given back with {@link #release(Database)}. The primary database is never leased and is not closed by the pool.
+ */
+public class DatabasePool {
+
+    private final Database database;
+    private final ConnectionSource connectionSource;
+    private final int maxSize;
+
+    private final LinkedList<Database> idleDatabases = new LinkedList<Database>();
+    private final List<Database> openDatabases = new ArrayList<Database>();
+    private boolean closed;
+
+    public DatabasePool(Database database, ConnectionSource connectionSource, int maxSize) {
+        if (maxSize < 1) {
+            throw new UnexpectedLiquibaseException("A database pool needs a maximum size of at least 1");
+        }
+        this.database = database;
+        this.connectionSource = connectionSource;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates a pool that opens its connections with {@link DatabaseFactory#openConnection(String, String, String, String, ResourceAccessor)}.
+     */
+    public DatabasePool(Database database, final String url, final String username, final String password, final ResourceAccessor resourceAccessor, int maxSize) {
+        this(database, new ConnectionSource() {
+            @Override
+            public DatabaseConnection openConnection() throws DatabaseException {
+                return DatabaseFactory.getInstance().openConnection(url, username, password, null, resourceAccessor);
+            }
+        }, maxSize);
+    }
+
+    public Database getDatabase() {
+        return database;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns an idle database, opening a new connection if fewer than maxSize are open, or waits until one is released.
+     */
+    public Database lease() throws DatabaseException {
+        return lease(true);
+    }
+
+    /**
+     * Returns an idle database, opening a new connection if fewer than maxSize are open, or null if all maxSize are leased.
+     */
+    public Database tryLease() throws DatabaseException {
+        return lease(false);
+    }
+
+    private Database lease(boolean waitForRelease) throws DatabaseException {
+        Database leased = null;
+        synchronized (this) {
+            while (leased == null) {
+                if (closed) {
+                    throw new DatabaseException("The database pool is closed");
+                }
+                if (!idleDatabases.isEmpty()) {
+                    leased = idleDatabases.removeFirst();
+                } else if (openDatabases.size() < maxSize) {
+                    break;
+                } else if (!waitForRelease) {
+                    return null;
+                } else {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new DatabaseException("Interrupted while waiting for a database connection", e);
+                    }
+                }
+            }
+            if (leased == null) {
+                openDatabases.add(null); //reserve the slot while the connection is opened
+            }
+        }
+
+        if (leased == null) {
+            try {
+                leased = openDatabase();
+            } catch (DatabaseException e) {
+                releaseSlot(null);
+                throw e;
+            } catch (RuntimeException e) {
+                releaseSlot(null);
+                throw e;
+            }
+            boolean closedWhileOpening;
+            synchronized (this) {
+                closedWhileOpening = closed;
+                if (!closedWhileOpening) {
+                    openDatabases.set(openDatabases.indexOf(null), leased);
+                }
+            }
+            if (closedWhileOpening) {
+                leased.close();
+                throw new DatabaseException("The database pool is closed");
+            }
+        }
+
+        try {
+            copySettings(database, leased);
+        } catch (DatabaseException e) {
+            release(leased);
+            throw e;
+        }
+        return leased;
+    }
+
+    /**
+     * Returns a leased database to the pool. Any open transaction on it is rolled back.
+     * If the pool has been closed in the meantime, the database is closed instead.
+     */
+    public void release(Database leased) {
+        if (isClosed()) {
+            closeQuietly(leased);
+            return;
+        }
+        try {
+            leased.rollback();
+        } catch (DatabaseException e) {
+            LogFactory.getLogger().warning("Could not roll back the released database connection: " + e.getMessage());
+        }
+        if (!releaseSlot(leased)) {
+            closeQuietly(leased);
+        }
+    }
+
+    /**
+     * Returns false if the pool was closed and the database should be closed instead.
+     */
+    private synchronized boolean releaseSlot(Database leased) {
+        if (closed) {
+            return false;
+        }
+        if (leased == null) {
+            openDatabases.remove(null);
+        } else if (!openDatabases.contains(leased)) {
+            throw new UnexpectedLiquibaseException("The database was not leased from this pool");
+        } else {
+            idleDatabases.add(leased);
+        }
+        notifyAll();
+        return true;
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private void closeQuietly(Database leased) {
+        try {
+            leased.close();
+        } catch (DatabaseException e) {
+            LogFactory.getLogger().debug("Could not close the database released after the pool was closed: " + e.getMessage());
+        }
+    }
+
+    protected Database openDatabase() throws DatabaseException {
+        Database leased;
+        try {
+            leased = database.getClass().newInstance();
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException("Cannot create a " + database.getClass().getName(), e);
+        }
+        leased.setConnection(connectionSource.openConnection());
+        return leased;
+    }
+
+    /**
+     * Copies the settings that control the SQL Liquibase generates from the primary database to a leased one.
+     */
+    protected void copySettings(Database from, Database to) throws DatabaseException {
+        to.setObjectQuotingStrategy(from.getObjectQuotingStrategy());
+        to.setDefaultCatalogName(from.getDefaultCatalogName());
+        to.setDefaultSchemaName(from.getDefaultSchemaName());
+        to.setOutputDefaultCatalog(from.getOutputDefaultCatalog());
+        to.setOutputDefaultSchema(from.getOutputDefaultSchema());
+        to.setLiquibaseCatalogName(from.getLiquibaseCatalogName());
+        to.setLiquibaseSchemaName(from.getLiquibaseSchemaName());
+        to.setLiquibaseTablespaceName(from.getLiquibaseTablespaceName());
+        to.setDatabaseChangeLogTableName(from.getDatabaseChangeLogTableName());
+        to.setDatabaseChangeLogLockTableName(from.getDatabaseChangeLogLockTableName());
+    }
+
+    /**
+     * Closes every connection the pool opened. Leased databases that are still in use are closed too, and releasing them later only closes them again.
+     */
+    public void close() throws DatabaseException {
+        List<Database> toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = new ArrayList<Database>(openDatabases);
+            openDatabases.clear();
+            idleDatabases.clear();
+            notifyAll();
+        }
+        DatabaseException failure = null;
+        for (Database open : toClose) {
+            if (open == null) {
+                continue;
+            }
+            try {
+                open.close();
+            } catch (DatabaseException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Opens the connections of the databases leased from a {@link DatabasePool}.
+     */
+    public interface ConnectionSource {
+        DatabaseConnection openConnection() throws DatabaseException;
+    }
+}
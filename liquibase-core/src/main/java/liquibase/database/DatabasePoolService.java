@@ -0,0 +1,41 @@
+package liquibase.database;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the {@link DatabasePool} of a database, so code running against the database can lease more connections to it.
+ */
+public class DatabasePoolService {
+
+    private static DatabasePoolService instance = new DatabasePoolService();
+
+    private Map<Database, DatabasePool> pools = new ConcurrentHashMap<Database, DatabasePool>();
+
+
+    private DatabasePoolService() {
+    }
+
+    public static DatabasePoolService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns the pool set for the database, or null if there is none.
+     */
+    public DatabasePool getPool(Database database) {
+        return pools.get(database);
+    }
+
+    public void setPool(Database database, DatabasePool pool) {
+        pools.put(database, pool);
+    }
+
+    public void clearPool(Database database) {
+        pools.remove(database);
+    }
+
+    public void reset() {
+        pools.clear();
+    }
+}
@@ -1,9 +1,13 @@
 package liquibase.database;
 
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
+import liquibase.util.JdbcUtils;
 
 import java.sql.PreparedStatement;
+import java.sql.SQLException;
 
 /**
  * Factory for PreparedStatements
@@ -11,10 +15,20 @@ import java.sql.PreparedStatement;
 public final class PreparedStatementFactory {
 
     private final JdbcConnection con;
+    private final boolean cached;
 
     public PreparedStatementFactory(JdbcConnection con) {
         if(con == null) throw new IllegalArgumentException("connection must not be null");
         this.con = con;
+        Integer cacheSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getPreparedStatementCacheSize();
+        this.cached = cacheSize != null && cacheSize > 0;
+    }
+
+    /**
+     * Returns the connection the statements are prepared on.
+     */
+    public JdbcConnection getConnection() {
+        return con;
     }
 
     /**
@@ -28,6 +42,36 @@ public final class PreparedStatementFactory {
         return con.prepareStatement(sql);
     }
 
+    /**
+     * Returns a <code>PreparedStatement</code> from the {@link liquibase.database.jvm.PreparedStatementCache} of the connection,
+     * so sql that was executed before is not prepared again. Give it back with {@link #release(PreparedStatement)} instead of closing it.
+     * If {@link GlobalConfiguration#getPreparedStatementCacheSize()} is 0 the statement is {@link #create(String) created} and closed on release.
+     * @param sql to execute
+     * @return a <code>PreparedStatement</code> object
+     * @throws DatabaseException
+     */
+    public PreparedStatement acquire(String sql) throws DatabaseException {
+        if (!cached) {
+            return create(sql);
+        }
+        try {
+            return con.getPreparedStatementCache().acquire(sql);
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    /**
+     * Gives back a <code>PreparedStatement</code> returned by {@link #acquire(String)}.
+     */
+    public void release(PreparedStatement statement) {
+        if (!cached) {
+            JdbcUtils.closeStatement(statement);
+            return;
+        }
+        con.getPreparedStatementCache().release(statement);
+    }
+
     @Override
     public String toString() {
         return "[con: " + con.toString() + "]";
@@ -1,5 +1,7 @@
 package liquibase.database.jvm;
 
+import liquibase.configuration.GlobalConfiguration;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
 import liquibase.exception.DatabaseException;
@@ -18,11 +20,24 @@ import java.util.Map;
  */
 public class JdbcConnection implements DatabaseConnection {
     private java.sql.Connection con;
+    private PreparedStatementCache preparedStatementCache;
 
     public JdbcConnection(java.sql.Connection connection) {
         this.con = connection;
     }
 
+    /**
+     * Returns the cache of prepared statements of this connection, sized by {@link GlobalConfiguration#getPreparedStatementCacheSize()}
+     * when first used. The cached statements are closed when the connection is closed.
+     */
+    public synchronized PreparedStatementCache getPreparedStatementCache() {
+        if (preparedStatementCache == null) {
+            Integer cacheSize = LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getPreparedStatementCacheSize();
+            preparedStatementCache = new PreparedStatementCache(con, cacheSize == null ? 0 : cacheSize);
+        }
+        return preparedStatementCache;
+    }
+
 
     @Override
     public void attached(Database database) {
@@ -109,6 +124,12 @@ public class JdbcConnection implements DatabaseConnection {
     @Override
     public void close() throws DatabaseException {
         rollback();
+        synchronized (this) {
+            if (preparedStatementCache != null) {
+                LogFactory.getLogger().debug(preparedStatementCache.toString());
+                preparedStatementCache.close();
+            }
+        }
         try {
             con.close();
         } catch (SQLException e) {
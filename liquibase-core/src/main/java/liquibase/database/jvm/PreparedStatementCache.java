@@ -0,0 +1,144 @@
+package liquibase.database.jvm;
+
+import liquibase.util.JdbcUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps up to maxSize prepared statements of one connection open, keyed by their SQL, so SQL that is executed again is not prepared again.
+ * When the cache is full the least recently used statement is closed.
+ * <p/>
+ * A statement returned by {@link #acquire(String)} is taken out of the cache until it is given back with {@link #release(PreparedStatement)},
+ * so the same SQL can be in use more than once at a time. A cache with a maxSize of 0 closes statements as they are released.
+ */
+public class PreparedStatementCache {
+
+    private final Connection connection;
+    private final int maxSize;
+
+    private final LinkedHashMap<String, List<PreparedStatement>> idleStatements = new LinkedHashMap<String, List<PreparedStatement>>(16, 0.75f, true);
+    private final Map<PreparedStatement, String> acquiredStatements = new IdentityHashMap<PreparedStatement, String>();
+    private int idleCount;
+    private boolean closed;
+
+    private long hits;
+    private long misses;
+
+    public PreparedStatementCache(Connection connection, int maxSize) {
+        this.connection = connection;
+        this.maxSize = Math.max(maxSize, 0);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns an open statement for the given SQL, prepared earlier if one is cached.
+     */
+    public synchronized PreparedStatement acquire(String sql) throws SQLException {
+        if (closed) {
+            throw new SQLException("The prepared statement cache is closed");
+        }
+        PreparedStatement statement = null;
+        List<PreparedStatement> idle = idleStatements.get(sql);
+        if (idle != null) {
+            statement = idle.remove(idle.size() - 1);
+            idleCount--;
+            if (idle.isEmpty()) {
+                idleStatements.remove(sql);
+            }
+        }
+        if (statement == null) {
+            misses++;
+            statement = connection.prepareStatement(sql);
+        } else {
+            hits++;
+        }
+        acquiredStatements.put(statement, sql);
+        return statement;
+    }
+
+    /**
+     * Gives back a statement returned by {@link #acquire(String)}. Its parameters are cleared and the least recently used statements are closed
+     * if the cache is over its maxSize. Statements that are closed or cannot be cleared are not kept.
+     */
+    public synchronized void release(PreparedStatement statement) {
+        String sql = acquiredStatements.remove(statement);
+        if (sql == null || closed || maxSize == 0) {
+            JdbcUtils.closeStatement(statement);
+            return;
+        }
+        try {
+            statement.clearParameters();
+        } catch (SQLException e) {
+            JdbcUtils.closeStatement(statement);
+            return;
+        }
+
+        List<PreparedStatement> idle = idleStatements.get(sql);
+        if (idle == null) {
+            idle = new ArrayList<PreparedStatement>(1);
+            idleStatements.put(sql, idle);
+        }
+        idle.add(statement);
+        idleCount++;
+
+        Iterator<List<PreparedStatement>> leastRecentlyUsed = idleStatements.values().iterator();
+        while (idleCount > maxSize) {
+            List<PreparedStatement> evicted = leastRecentlyUsed.next();
+            JdbcUtils.closeStatement(evicted.remove(0));
+            idleCount--;
+            if (evicted.isEmpty()) {
+                leastRecentlyUsed.remove();
+            }
+        }
+    }
+
+    /**
+     * Closes the cached statements. Statements still acquired are closed as they are released.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (List<PreparedStatement> idle : idleStatements.values()) {
+            for (PreparedStatement statement : idle) {
+                JdbcUtils.closeStatement(statement);
+            }
+        }
+        idleStatements.clear();
+        idleCount = 0;
+    }
+
+    public synchronized int size() {
+        return idleCount;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the share of {@link #acquire(String)} calls that reused a cached statement, between 0 and 1.
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Prepared statements: " + misses + " prepared, " + hits + " reused from cache";
+    }
+}
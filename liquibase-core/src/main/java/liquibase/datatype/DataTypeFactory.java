@@ -8,6 +8,7 @@ import liquibase.datatype.core.CharType;
 import liquibase.datatype.core.IntType;
 import liquibase.datatype.core.UnknownType;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.structure.core.DataType;
 import liquibase.util.ObjectUtil;
@@ -21,11 +22,21 @@ public class DataTypeFactory {
     private static DataTypeFactory instance;
 
     private Map<String, List<Class<? extends LiquibaseDataType>>> registry = new ConcurrentHashMap<String, List<Class<? extends LiquibaseDataType>>>();
+    private Map<Class<? extends LiquibaseDataType>, Integer> priorityByClass = new ConcurrentHashMap<Class<? extends LiquibaseDataType>, Integer>();
+
+    private final Comparator<Class<? extends LiquibaseDataType>> comparator = new Comparator<Class<? extends LiquibaseDataType>>() {
+        @Override
+        public int compare(Class<? extends LiquibaseDataType> o1, Class<? extends LiquibaseDataType> o2) {
+            return -1 * priorityByClass.get(o1).compareTo(priorityByClass.get(o2));
+        }
+    };
 
     protected DataTypeFactory() {
+        long startTime = System.nanoTime();
         Class<? extends LiquibaseDataType>[] classes;
         try {
             classes = ServiceLocator.getInstance().findClasses(LiquibaseDataType.class);
+            FactoryTimingReport.getInstance().getTiming(DataTypeFactory.class).classesFound(classes.length, startTime);
 
             for (Class<? extends LiquibaseDataType> clazz : classes) {
                 //noinspection unchecked
@@ -52,21 +63,21 @@ public class DataTypeFactory {
 
     public void register(Class<? extends LiquibaseDataType> dataTypeClass) {
         try {
-            LiquibaseDataType example = dataTypeClass.newInstance();
             List<String> names = new ArrayList<String>();
-            names.add(example.getName());
-            names.addAll(Arrays.asList(example.getAliases()));
-
-            Comparator<Class<? extends LiquibaseDataType>> comparator = new Comparator<Class<? extends LiquibaseDataType>>() {
-                @Override
-                public int compare(Class<? extends LiquibaseDataType> o1, Class<? extends LiquibaseDataType> o2) {
-                    try {
-                        return -1 * Integer.valueOf(o1.newInstance().getPriority()).compareTo(o2.newInstance().getPriority());
-                    } catch (Exception e) {
-                        throw new UnexpectedLiquibaseException(e);
-                    }
-                }
-            };
+            DataTypeInfo dataTypeInfo = dataTypeClass.getAnnotation(DataTypeInfo.class);
+            if (dataTypeInfo != null && usesDataTypeInfo(dataTypeClass)) {
+                //everything needed to register the type is in the annotation, no need to create an instance yet
+                names.add(dataTypeInfo.name());
+                names.addAll(Arrays.asList(dataTypeInfo.aliases()));
+                priorityByClass.put(dataTypeClass, dataTypeInfo.priority());
+            } else {
+                long startTime = System.nanoTime();
+                LiquibaseDataType example = dataTypeClass.newInstance();
+                FactoryTimingReport.getInstance().getTiming(DataTypeFactory.class).instanceCreated(startTime);
+                names.add(example.getName());
+                names.addAll(Arrays.asList(example.getAliases()));
+                priorityByClass.put(dataTypeClass, example.getPriority());
+            }
 
             for (String name : names) {
                 name = name.toLowerCase();
@@ -82,6 +93,15 @@ public class DataTypeFactory {
         }
     }
 
+    /**
+     * Returns true if the name, aliases and priority of the given type are the ones {@link LiquibaseDataType} reads from its {@link DataTypeInfo} annotation.
+     */
+    private boolean usesDataTypeInfo(Class<? extends LiquibaseDataType> dataTypeClass) throws NoSuchMethodException {
+        return dataTypeClass.getMethod("getName").getDeclaringClass().equals(LiquibaseDataType.class)
+                && dataTypeClass.getMethod("getAliases").getDeclaringClass().equals(LiquibaseDataType.class)
+                && dataTypeClass.getMethod("getPriority").getDeclaringClass().equals(LiquibaseDataType.class);
+    }
+
     public void unregister(String name) {
         registry.remove(name.toLowerCase());
     }
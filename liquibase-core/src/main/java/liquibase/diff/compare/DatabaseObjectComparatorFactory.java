@@ -3,6 +3,7 @@ package liquibase.diff.compare;
 import liquibase.database.Database;
 import liquibase.diff.ObjectDifferences;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.structure.AbstractDatabaseObject;
 import liquibase.structure.DatabaseObject;
@@ -21,19 +22,19 @@ public class DatabaseObjectComparatorFactory {
     private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<String, List<DatabaseObjectComparator>>();
     private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<String, DatabaseObjectComparatorChain>();
 
+    //found by the ServiceLocator but not created yet. Priorities are only known by instances, so they are all created the first time comparators are needed
+    private List<Class<? extends DatabaseObjectComparator>> uninitializedComparatorClasses = new ArrayList<Class<? extends DatabaseObjectComparator>>();
+
     private DatabaseObjectComparatorFactory() {
-        Class[] classes;
+        long startTime = System.nanoTime();
+        Class<? extends DatabaseObjectComparator>[] classes;
         try {
             classes = ServiceLocator.getInstance().findClasses(DatabaseObjectComparator.class);
-
-            for (Class clazz : classes) {
-                register((DatabaseObjectComparator) clazz.getConstructor().newInstance());
-            }
-
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
         }
-
+        uninitializedComparatorClasses.addAll(Arrays.asList(classes));
+        FactoryTimingReport.getInstance().getTiming(DatabaseObjectComparatorFactory.class).classesFound(classes.length, startTime);
     }
 
     /**
@@ -51,15 +52,21 @@ public class DatabaseObjectComparatorFactory {
     }
 
 
-    public void register(DatabaseObjectComparator generator) {
+    public synchronized void register(DatabaseObjectComparator generator) {
         comparators.add(generator);
+        validComparatorsByClassAndDatabase.clear();
+        comparatorChainsByClassAndDatabase.clear();
     }
 
-    public void unregister(DatabaseObjectComparator generator) {
+    public synchronized void unregister(DatabaseObjectComparator generator) {
         comparators.remove(generator);
+        validComparatorsByClassAndDatabase.clear();
+        comparatorChainsByClassAndDatabase.clear();
     }
 
-    public void unregister(Class generatorClass) {
+    public synchronized void unregister(Class generatorClass) {
+        uninitializedComparatorClasses.remove(generatorClass);
+
         DatabaseObjectComparator toRemove = null;
         for (DatabaseObjectComparator existingGenerator : comparators) {
             if (existingGenerator.getClass().equals(generatorClass)) {
@@ -70,12 +77,14 @@ public class DatabaseObjectComparatorFactory {
         unregister(toRemove);
     }
 
-    protected List<DatabaseObjectComparator> getComparators(Class<? extends DatabaseObject> comparatorClass, Database database) {
+    protected synchronized List<DatabaseObjectComparator> getComparators(Class<? extends DatabaseObject> comparatorClass, Database database) {
         String key = comparatorClass.getName()+":"+database.getShortName();
         if (validComparatorsByClassAndDatabase.containsKey(key)) {
             return validComparatorsByClassAndDatabase.get(key);
         }
 
+        createComparators();
+
         List<DatabaseObjectComparator> validComparators = new ArrayList<DatabaseObjectComparator>();
 
         for (DatabaseObjectComparator comparator : comparators) {
@@ -91,6 +100,22 @@ public class DatabaseObjectComparatorFactory {
         return validComparators;
     }
 
+    private void createComparators() {
+        if (uninitializedComparatorClasses.isEmpty()) {
+            return;
+        }
+        for (Class<? extends DatabaseObjectComparator> comparatorClass : uninitializedComparatorClasses) {
+            long startTime = System.nanoTime();
+            try {
+                comparators.add(comparatorClass.getConstructor().newInstance());
+            } catch (Exception e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            FactoryTimingReport.getInstance().getTiming(DatabaseObjectComparatorFactory.class).instanceCreated(startTime);
+        }
+        uninitializedComparatorClasses.clear();
+    }
+
 
     public static synchronized void resetAll() {
         instance = null;
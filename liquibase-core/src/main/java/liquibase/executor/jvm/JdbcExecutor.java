@@ -108,6 +108,17 @@ public class JdbcExecutor extends AbstractExecutor {
             execute(new ExecuteStatementCallback(sql, sqlVisitors), sqlVisitors);
     }
 
+    /**
+     * Executes the given statements through one JDBC batch so they reach the database in a single round trip instead of one per statement.
+     * If the driver does not support batch updates the statements are executed one at a time on the same Statement.
+     */
+    public void executeBatch(final List<? extends SqlStatement> statements) throws DatabaseException {
+        if (statements.isEmpty()) {
+            return;
+        }
+        execute(new BatchStatementCallback(statements), new ArrayList<SqlVisitor>());
+    }
+
 
     public Object query(final SqlStatement sql, final ResultSetExtractor rse) throws DatabaseException {
         return query(sql, rse, new ArrayList<SqlVisitor>());
@@ -118,7 +129,19 @@ public class JdbcExecutor extends AbstractExecutor {
             return execute(new QueryCallableStatementCallback(sql, rse), sqlVisitors);
         }
 
-        return execute(new QueryStatementCallback(sql, rse, sqlVisitors), sqlVisitors);
+        return execute(new QueryStatementCallback(sql, rse, sqlVisitors, 0), sqlVisitors);
+    }
+
+    /**
+     * Runs the query with the given JDBC fetch size so large results are streamed from the database in chunks rather than buffered by the driver.
+     * A fetchSize of zero or less uses the driver default.
+     */
+    public List query(SqlStatement sql, RowMapper rowMapper, int fetchSize, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        if (sql instanceof CallableSqlStatement) {
+            return query(sql, rowMapper, sqlVisitors);
+        }
+
+        return (List) execute(new QueryStatementCallback(sql, new RowMapperResultSetExtractor(rowMapper), sqlVisitors, fetchSize), sqlVisitors);
     }
 
     public List query(SqlStatement sql, RowMapper rowMapper) throws DatabaseException {
@@ -205,6 +228,9 @@ public class JdbcExecutor extends AbstractExecutor {
         if (sql instanceof CallableSqlStatement) {
             throw new DatabaseException("Direct update using CallableSqlStatement not currently implemented");
         }
+        if (sql instanceof ExecutablePreparedStatementBase) {
+            return ((ExecutablePreparedStatementBase) sql).executeUpdate(new PreparedStatementFactory((JdbcConnection) database.getConnection()));
+        }
 
         class UpdateStatementCallback implements StatementCallback {
             @Override
@@ -311,16 +337,71 @@ public class JdbcExecutor extends AbstractExecutor {
         }
     }
 
+    private class BatchStatementCallback implements StatementCallback {
+
+        private final List<? extends SqlStatement> statements;
+
+        private BatchStatementCallback(List<? extends SqlStatement> statements) {
+            this.statements = statements;
+        }
+
+        @Override
+        public Object doInStatement(Statement stmt) throws SQLException, DatabaseException {
+            List<String> sqlToExecute = new ArrayList<String>();
+            for (SqlStatement statement : statements) {
+                for (String sql : applyVisitors(statement, null)) {
+                    if (sql != null) {
+                        sqlToExecute.add(sql);
+                    }
+                }
+            }
+            if (sqlToExecute.isEmpty()) {
+                return null;
+            }
+
+            boolean batch = sqlToExecute.size() > 1 && stmt.getConnection().getMetaData().supportsBatchUpdates();
+            for (String sql : sqlToExecute) {
+                if (sql.contains("?")) {
+                    stmt.setEscapeProcessing(false);
+                }
+            }
+            try {
+                for (String sql : sqlToExecute) {
+                    if (batch) {
+                        log.debug("Adding to BATCH database command: " + sql);
+                        stmt.addBatch(sql);
+                    } else {
+                        log.debug("Executing EXECUTE database command: " + sql);
+                        stmt.execute(sql);
+                    }
+                }
+                if (batch) {
+                    stmt.executeBatch();
+                }
+            } catch (Throwable e) {
+                throw new DatabaseException(e.getMessage() + " [Failed SQL: " + StringUtils.join(sqlToExecute, "; ") + "]", e);
+            }
+            return null;
+        }
+
+        @Override
+        public SqlStatement getStatement() {
+            return statements.get(0);
+        }
+    }
+
     private class QueryStatementCallback implements StatementCallback {
 
         private final SqlStatement sql;
         private final List<SqlVisitor> sqlVisitors;
         private final ResultSetExtractor rse;
+        private final int fetchSize;
 
-        private QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors) {
+        private QueryStatementCallback(SqlStatement sql, ResultSetExtractor rse, List<SqlVisitor> sqlVisitors, int fetchSize) {
             this.sql = sql;
             this.rse = rse;
             this.sqlVisitors = sqlVisitors;
+            this.fetchSize = fetchSize;
         }
 
 
@@ -335,6 +416,13 @@ public class JdbcExecutor extends AbstractExecutor {
                 }
                 log.debug("Executing QUERY database command: "+sqlToExecute[0]);
 
+                if (fetchSize > 0) {
+                    try {
+                        stmt.setFetchSize(fetchSize);
+                    } catch (SQLException e) {
+                        log.debug("Cannot set fetch size to "+fetchSize+": "+e.getMessage());
+                    }
+                }
                 rs = stmt.executeQuery(sqlToExecute[0]);
                 ResultSet rsToUse = rs;
                 return rse.extractData(rsToUse);
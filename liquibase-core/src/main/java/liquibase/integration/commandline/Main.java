@@ -26,6 +26,7 @@ import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.resource.CompositeResourceAccessor;
 import liquibase.resource.FileSystemResourceAccessor;
 import liquibase.resource.ResourceAccessor;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.util.ISODateFormat;
 import liquibase.util.LiquibaseUtil;
@@ -190,6 +191,7 @@ public class Main {
             main.applyDefaults();
             main.configureClassLoader();
             main.doMigration();
+            LogFactory.getInstance().getLog().debug(FactoryTimingReport.getInstance().toString());
 
             if ("update".equals(main.command)) {
                 System.err.println("Liquibase Update Successful");
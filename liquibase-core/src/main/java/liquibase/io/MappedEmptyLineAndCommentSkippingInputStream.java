@@ -0,0 +1,126 @@
+package liquibase.io;
+
+import liquibase.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Returns the same bytes as an {@link EmptyLineAndCommentSkippingInputStream} over the whole file, but reads the file through memory mapped
+ * regions and skips empty lines, comment lines and carriage returns a block at a time instead of one {@link #read()} call per byte.
+ * <p/>
+ * Like {@link EmptyLineAndCommentSkippingInputStream}, no carriage returns are returned, and a line break is only returned
+ * once the next line with content has been found.
+ * <p/>
+ * The channel is read from position 0 regardless of its current position and is not closed by {@link #close()}.
+ */
+public class MappedEmptyLineAndCommentSkippingInputStream extends InputStream {
+
+    private static final long REGION_SIZE = 64 * 1024 * 1024;
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int commentChar;
+
+    private MappedByteBuffer region;
+    private long regionEnd;
+    private final byte[] block = new byte[BLOCK_SIZE];
+    private int blockPosition;
+    private int blockLimit;
+
+    private int lastRead = -1;
+    private boolean lineBreakPending;
+    private boolean inComment;
+    private final byte[] singleByte = new byte[1];
+
+    /**
+     * @param channel               file to read
+     * @param commentLineStartsWith comment line pattern (if empty or null, comments will not be enabled)
+     */
+    public MappedEmptyLineAndCommentSkippingInputStream(FileChannel channel, String commentLineStartsWith) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.commentChar = StringUtils.isNotEmpty(commentLineStartsWith) ? commentLineStartsWith.charAt(0) : -1;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (read(singleByte, 0, 1) == -1) {
+            return -1;
+        }
+        return singleByte[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+
+        int end = off + len;
+        int out = off;
+        while (out < end) {
+            if (blockPosition == blockLimit && !nextBlock()) {
+                break;
+            }
+            int read = block[blockPosition] & 0xFF;
+            if (inComment) {
+                blockPosition++;
+                if (read == '\n' || read == '\r' || read == 0) {
+                    inComment = false;
+                }
+            } else if (read == '\r') {
+                blockPosition++;
+            } else if (read == '\n') {
+                blockPosition++;
+                if (lastRead >= 0 && lastRead != '\n') {
+                    lineBreakPending = true;
+                    lastRead = '\n';
+                }
+            } else if (read == commentChar) {
+                blockPosition++;
+                inComment = true;
+            } else if (lineBreakPending) {
+                b[out++] = '\n';
+                lineBreakPending = false;
+            } else {
+                b[out++] = (byte) read;
+                lastRead = read;
+                blockPosition++;
+            }
+        }
+
+        if (out == off) {
+            return -1;
+        }
+        return out - off;
+    }
+
+    private boolean nextBlock() throws IOException {
+        if (region == null || !region.hasRemaining()) {
+            if (regionEnd >= size) {
+                return false;
+            }
+            long length = Math.min(REGION_SIZE, size - regionEnd);
+            region = channel.map(FileChannel.MapMode.READ_ONLY, regionEnd, length);
+            regionEnd += length;
+        }
+        blockLimit = Math.min(block.length, region.remaining());
+        region.get(block, 0, blockLimit);
+        blockPosition = 0;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        blockPosition = blockLimit;
+        regionEnd = size;
+    }
+}
@@ -12,11 +12,14 @@ import liquibase.exception.LockException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.LockDatabaseChangeLogGenerator;
+import liquibase.sqlgenerator.core.UnlockDatabaseChangeLogGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.*;
 import liquibase.structure.core.Table;
@@ -212,7 +215,12 @@ public class StandardLockService implements LockService {
             } else {
 
                 executor.comment("Lock Database");
-                int rowsUpdated = executor.update(new LockDatabaseChangeLogStatement());
+                int rowsUpdated;
+                if (executor instanceof JdbcExecutor) {
+                    rowsUpdated = executor.update(new LockDatabaseChangeLogGenerator().generatePreparedStatement(database));
+                } else {
+                    rowsUpdated = executor.update(new LockDatabaseChangeLogStatement());
+                }
                 if (rowsUpdated == -1 && database instanceof MSSQLDatabase) {
                     LogFactory.getLogger().debug("Database did not return a proper row count (Might have NOCOUNT enabled)");
                     database.rollback();
@@ -264,7 +272,12 @@ public class StandardLockService implements LockService {
             if (this.hasDatabaseChangeLogLockTable()) {
                 executor.comment("Release Database Lock");
                 database.rollback();
-                int updatedRows = executor.update(new UnlockDatabaseChangeLogStatement());
+                int updatedRows;
+                if (executor instanceof JdbcExecutor) {
+                    updatedRows = executor.update(new UnlockDatabaseChangeLogGenerator().generatePreparedStatement(database));
+                } else {
+                    updatedRows = executor.update(new UnlockDatabaseChangeLogStatement());
+                }
                 if (updatedRows == -1 && database instanceof MSSQLDatabase) {
                     LogFactory.getLogger().debug("Database did not return a proper row count (Might have NOCOUNT enabled.)");
                     database.rollback();
@@ -5,6 +5,7 @@ import java.util.Set;
 
 import liquibase.servicelocator.DefaultPackageScanClassResolver;
 import liquibase.servicelocator.PackageScanFilter;
+import liquibase.servicelocator.ServiceIndex;
 
 import org.osgi.framework.Bundle;
 import org.osgi.framework.wiring.BundleWiring;
@@ -20,6 +21,14 @@ public class OSGiPackageScanClassResolver extends DefaultPackageScanClassResolve
         this.bundle = bundle;
     }
 
+    /**
+     * Bundle contents are listed through {@link BundleWiring}, not class loader resources, so service indexes cannot tell which packages are complete.
+     */
+    @Override
+    protected ServiceIndex getServiceIndex() {
+        return null;
+    }
+
     @Override
     protected void find(PackageScanFilter test, String packageName, Set<Class<?>> classes) {
         BundleWiring bundleWiring = bundle.adapt(BundleWiring.class);
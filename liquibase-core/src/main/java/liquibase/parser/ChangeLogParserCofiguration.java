@@ -9,6 +9,8 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
 
     public static final String SUPPORT_PROPERTY_ESCAPING = "supportPropertyEscaping";
     public static final String USE_PROCEDURE_SCHEMA = "useProcedureSchema";
+    public static final String CHANGELOG_CACHE_DIRECTORY = "changeLogCacheDirectory";
+    public static final String INCLUDE_PARSE_THREADS = "includeParseThreads";
 
     public ChangeLogParserCofiguration() {
         super("liquibase");
@@ -21,6 +23,13 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
         getContainer().addProperty(USE_PROCEDURE_SCHEMA, Boolean.class)
                 .setDescription("If set to true (default value), createProcedure tags with a set schemaName will modify the procedure body with the given schema name.")
                 .setDefaultValue(true);
+
+        getContainer().addProperty(CHANGELOG_CACHE_DIRECTORY, String.class)
+                .setDescription("Directory to store parsed changelog files in so unchanged files do not need to be parsed again. Caching is disabled if not set");
+
+        getContainer().addProperty(INCLUDE_PARSE_THREADS, Integer.class)
+                .setDescription("Number of threads used to parse included changelog files ahead of time. Files are still loaded in their normal order. A value of 1 parses them one at a time")
+                .setDefaultValue(1);
     }
 
     public boolean getSupportPropertyEscaping() {
@@ -41,5 +50,21 @@ public class ChangeLogParserCofiguration extends AbstractConfigurationContainer
         return this;
     }
 
+    public String getChangeLogCacheDirectory() {
+        return getContainer().getValue(CHANGELOG_CACHE_DIRECTORY, String.class);
+    }
+
+    public ChangeLogParserCofiguration setChangeLogCacheDirectory(String directory) {
+        getContainer().setValue(CHANGELOG_CACHE_DIRECTORY, directory);
+        return this;
+    }
+
+    public Integer getIncludeParseThreads() {
+        return getContainer().getValue(INCLUDE_PARSE_THREADS, Integer.class);
+    }
 
+    public ChangeLogParserCofiguration setIncludeParseThreads(Integer threads) {
+        getContainer().setValue(INCLUDE_PARSE_THREADS, threads);
+        return this;
+    }
 }
@@ -0,0 +1,18 @@
+package liquibase.parser;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * A {@link ChangeLogParser} that reads a file in two steps: first into a format-neutral tree, then into a {@link liquibase.changelog.DatabaseChangeLog}.
+ * The first step does not depend on the order files are parsed in, which lets {@link ParsedChangeLogCache} store it and {@link ParallelIncludeParser} run it ahead of time.
+ */
+public interface ChangeLogTreeParser extends ChangeLogParser {
+
+    /**
+     * Reads the given file into a tree of {@link liquibase.parser.core.ParsedNode}s or of Map/List/scalar values.
+     * Implementations must not modify the passed changeLogParameters or expand expressions, and must be safe to call from multiple threads at once.
+     */
+    Object parseToTree(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException;
+}
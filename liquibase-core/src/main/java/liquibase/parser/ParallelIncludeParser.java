@@ -0,0 +1,254 @@
+package liquibase.parser;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.resource.ResourceAccessor;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parses changelog files that are about to be included on a bounded pool of background threads, so reading and parsing one file overlaps with loading the files before it.
+ * <p/>
+ * Only the {@link ChangeLogTreeParser#parseToTree} step runs in the background. Loading the trees into {@link liquibase.changelog.DatabaseChangeLog}s,
+ * expanding changelog parameters and following nested includes still happens on the calling thread in the normal order, so parameter scoping and the
+ * handling of files included more than once are unchanged. Each background parse is used at most once; a file included again is parsed again as before.
+ * <p/>
+ * Disabled unless {@link ChangeLogParserCofiguration#getIncludeParseThreads()} is greater than 1.
+ */
+public class ParallelIncludeParser {
+
+    private static ParallelIncludeParser instance;
+
+    private final ThreadLocal<Map<String, PendingParse>> pendingParses = new ThreadLocal<Map<String, PendingParse>>();
+    private final AtomicLong savedTime = new AtomicLong();
+    private ExecutorService executor;
+    private int executorThreads;
+
+    public static synchronized ParallelIncludeParser getInstance() {
+        if (instance == null) {
+            instance = new ParallelIncludeParser();
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        if (instance != null) {
+            instance.shutdown();
+        }
+        instance = new ParallelIncludeParser();
+    }
+
+    protected ParallelIncludeParser() {
+    }
+
+    public int getThreadCount() {
+        Integer threads = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).getIncludeParseThreads();
+        if (threads == null) {
+            return 1;
+        }
+        return threads;
+    }
+
+    public boolean isEnabled() {
+        return getThreadCount() > 1;
+    }
+
+    /**
+     * Starts parsing the given files in the background, in the given order.
+     * Files that are not handled by a {@link ChangeLogTreeParser} are skipped and parsed normally when they are included.
+     * The returned batch must be passed to {@link #finish(Batch)} once the files have been included.
+     *
+     * @return null if parallel parsing is disabled or there is nothing to parse ahead
+     */
+    public Batch parseAhead(Collection<String> physicalChangeLogLocations, final ChangeLogParameters changeLogParameters, final ResourceAccessor resourceAccessor) {
+        if (!isEnabled() || physicalChangeLogLocations.size() < 2) {
+            return null;
+        }
+
+        Map<String, PendingParse> pending = pendingParses.get();
+        if (pending == null) {
+            pending = new HashMap<String, PendingParse>();
+            pendingParses.set(pending);
+        }
+
+        Batch batch = new Batch();
+        ExecutorService executor = getExecutor();
+        for (final String path : physicalChangeLogLocations) {
+            if (pending.containsKey(path)) {
+                continue; //already being parsed for an enclosing include
+            }
+            ChangeLogParser parser;
+            try {
+                parser = ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor);
+            } catch (LiquibaseException e) {
+                continue;
+            }
+            if (!(parser instanceof ChangeLogTreeParser)) {
+                continue;
+            }
+
+            final PendingParse parse = new PendingParse((ChangeLogTreeParser) parser);
+            parse.future = executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    long start = System.nanoTime();
+                    try {
+                        return ParsedChangeLogCache.getInstance().getOrParse(parse.parser, path, changeLogParameters, resourceAccessor);
+                    } finally {
+                        parse.parseTime = System.nanoTime() - start;
+                    }
+                }
+            });
+            pending.put(path, parse);
+            batch.parses.put(path, parse);
+        }
+        return batch;
+    }
+
+    /**
+     * Returns the tree for the given file. If a background parse was started for it on this thread, waits for and returns that result,
+     * including any parse error. Otherwise parses the file on the calling thread.
+     */
+    public Object parseToTree(ChangeLogTreeParser parser, String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        Map<String, PendingParse> pending = pendingParses.get();
+        PendingParse parse = null;
+        if (pending != null) {
+            parse = pending.remove(physicalChangeLogLocation);
+        }
+        if (parse == null || !parse.parser.getClass().equals(parser.getClass())) {
+            return ParsedChangeLogCache.getInstance().getOrParse(parser, physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return parse.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeLogParseException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ChangeLogParseException) {
+                throw (ChangeLogParseException) cause;
+            }
+            throw new ChangeLogParseException(cause);
+        } finally {
+            parse.waitTime = System.nanoTime() - start;
+            parse.used = true;
+        }
+    }
+
+    /**
+     * Cancels any parses in the batch that were not used and logs how much time parsing in the background saved.
+     */
+    public void finish(Batch batch) {
+        if (batch == null) {
+            return;
+        }
+        Map<String, PendingParse> pending = pendingParses.get();
+        for (Map.Entry<String, PendingParse> entry : batch.parses.entrySet()) {
+            PendingParse parse = entry.getValue();
+            if (pending != null && pending.get(entry.getKey()) == parse) {
+                pending.remove(entry.getKey());
+            }
+            if (parse.used) {
+                batch.usedCount++;
+                batch.parseTime += parse.parseTime;
+                batch.waitTime += parse.waitTime;
+            } else {
+                parse.future.cancel(false);
+            }
+        }
+        if (pending != null && pending.isEmpty()) {
+            pendingParses.remove();
+        }
+
+        savedTime.addAndGet(batch.getSavedTime());
+        LogFactory.getLogger().info("Parsed " + batch.usedCount + " included changelog files on " + executorThreads + " threads, saving "
+                + batch.getSavedTime() + "ms of " + TimeUnit.NANOSECONDS.toMillis(batch.parseTime) + "ms parse time");
+    }
+
+    /**
+     * Total parse time in milliseconds saved by background parsing since this instance was created.
+     */
+    public long getSavedTime() {
+        return savedTime.get();
+    }
+
+    protected synchronized ExecutorService getExecutor() {
+        int threads = getThreadCount();
+        if (executor == null || executorThreads != threads) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+            final AtomicInteger threadNumber = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "liquibase-include-parser-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executorThreads = threads;
+        }
+        return executor;
+    }
+
+    protected synchronized void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * The files started by one call to {@link #parseAhead}.
+     */
+    public static class Batch {
+        private final Map<String, PendingParse> parses = new LinkedHashMap<String, PendingParse>();
+        private int usedCount;
+        private long parseTime;
+        private long waitTime;
+
+        /**
+         * Number of background parses that were used. Only known after {@link ParallelIncludeParser#finish(Batch)}.
+         */
+        public int getUsedCount() {
+            return usedCount;
+        }
+
+        /**
+         * Time in milliseconds the calling thread did not have to spend parsing the used files. Only known after {@link ParallelIncludeParser#finish(Batch)}.
+         */
+        public long getSavedTime() {
+            return Math.max(0, TimeUnit.NANOSECONDS.toMillis(parseTime - waitTime));
+        }
+    }
+
+    private static class PendingParse {
+        private final ChangeLogTreeParser parser;
+        private Future<Object> future;
+        private volatile long parseTime;
+        private long waitTime;
+        private boolean used;
+
+        private PendingParse(ChangeLogTreeParser parser) {
+            this.parser = parser;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package liquibase.parser;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeException;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * On-disk cache of the format-neutral trees produced by {@link ChangeLogParser} implementations before they are loaded into a {@link liquibase.changelog.DatabaseChangeLog}.
+ * Entries are keyed by parser and file path and are only used if the MD5 of the file contents still matches, so an edited file is always parsed again.
+ * <p/>
+ * Cached trees are captured before changelog parameters are expanded and before any Change objects are created, so the same entry is valid for any
+ * set of {@link liquibase.changelog.ChangeLogParameters}. Supported values are {@link ParsedNode}s and the Map/List/scalar structures produced by the YAML and JSON parsers.
+ * <p/>
+ * The cache is disabled unless {@link ChangeLogParserCofiguration#getChangeLogCacheDirectory()} is set.
+ */
+public class ParsedChangeLogCache {
+
+    private static final int MAGIC = 0x4C424350;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_BIG_INTEGER = 4;
+    private static final byte TYPE_BIG_DECIMAL = 5;
+    private static final byte TYPE_DOUBLE = 6;
+    private static final byte TYPE_FLOAT = 7;
+    private static final byte TYPE_BOOLEAN = 8;
+    private static final byte TYPE_DATE = 9;
+    private static final byte TYPE_BYTES = 10;
+    private static final byte TYPE_MAP = 11;
+    private static final byte TYPE_LIST = 12;
+    private static final byte TYPE_SET = 13;
+    private static final byte TYPE_PARSED_NODE = 14;
+
+    private static ParsedChangeLogCache instance;
+
+    private final String liquibaseVersion = LiquibaseUtil.getBuildVersion();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public static synchronized ParsedChangeLogCache getInstance() {
+        if (instance == null) {
+            instance = new ParsedChangeLogCache();
+        }
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = new ParsedChangeLogCache();
+    }
+
+    protected ParsedChangeLogCache() {
+    }
+
+    /**
+     * Returns the configured cache directory, or null if caching is disabled.
+     */
+    public File getCacheDirectory() {
+        String directory = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).getChangeLogCacheDirectory();
+        if (directory == null) {
+            return null;
+        }
+        return new File(directory);
+    }
+
+    public boolean isEnabled() {
+        return getCacheDirectory() != null;
+    }
+
+    /**
+     * Returns the MD5 of the file contents, or null if the cache is disabled or the file cannot be read.
+     */
+    public String computeContentHash(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) {
+        if (!isEnabled()) {
+            return null;
+        }
+        InputStream stream = null;
+        try {
+            stream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
+            if (stream == null) {
+                return null;
+            }
+            return MD5Util.computeMD5(stream);
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot compute content hash of " + physicalChangeLogLocation + ": " + e.getMessage());
+            return null;
+        } finally {
+            StreamUtil.closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Returns the cached tree for the given file, or null if there is no entry or the entry was created from different file contents.
+     */
+    public Object get(ChangeLogParser parser, String physicalChangeLogLocation, String contentHash) {
+        if (contentHash == null) {
+            return null;
+        }
+        File file = getCacheFile(parser, physicalChangeLogLocation);
+        if (file == null || !file.exists()) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            if (input.readInt() != MAGIC
+                    || input.readInt() != FORMAT_VERSION
+                    || !input.readUTF().equals(liquibaseVersion)
+                    || !input.readUTF().equals(parser.getClass().getName())
+                    || !input.readUTF().equals(physicalChangeLogLocation)
+                    || !input.readUTF().equals(contentHash)) {
+                misses.incrementAndGet();
+                return null;
+            }
+            Object tree = readValue(input);
+            hits.incrementAndGet();
+            LogFactory.getLogger().debug("Using cached parse of " + physicalChangeLogLocation);
+            return tree;
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot read cached parse of " + physicalChangeLogLocation + " from " + file.getAbsolutePath() + ": " + e.getMessage());
+            misses.incrementAndGet();
+            return null;
+        } finally {
+            StreamUtil.closeQuietly(input);
+        }
+    }
+
+    /**
+     * Stores the parsed tree for the given file. Failures are logged and otherwise ignored since the cache is only an optimization.
+     */
+    public void put(ChangeLogParser parser, String physicalChangeLogLocation, String contentHash, Object tree) {
+        if (contentHash == null || tree == null) {
+            return;
+        }
+        File file = getCacheFile(parser, physicalChangeLogLocation);
+        if (file == null) {
+            return;
+        }
+
+        File tempFile = null;
+        DataOutputStream output = null;
+        try {
+            File directory = file.getParentFile();
+            if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+                throw new IOException("Cannot create directory " + directory.getAbsolutePath());
+            }
+            tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(liquibaseVersion);
+            output.writeUTF(parser.getClass().getName());
+            output.writeUTF(physicalChangeLogLocation);
+            output.writeUTF(contentHash);
+            writeValue(output, tree);
+            output.close();
+            output = null;
+
+            //write then rename so concurrent readers never see a partial entry
+            if (!tempFile.renameTo(file)) {
+                file.delete();
+                if (!tempFile.renameTo(file)) {
+                    throw new IOException("Cannot rename " + tempFile.getAbsolutePath() + " to " + file.getAbsolutePath());
+                }
+            }
+            tempFile = null;
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot cache parse of " + physicalChangeLogLocation + ": " + e.getMessage());
+        } finally {
+            StreamUtil.closeQuietly(output);
+            if (tempFile != null) {
+                tempFile.delete();
+            }
+        }
+    }
+
+    /**
+     * Returns the cached tree for the given file if there is a valid entry, otherwise parses it with {@link ChangeLogTreeParser#parseToTree} and caches the result.
+     */
+    public Object getOrParse(ChangeLogTreeParser parser, String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        String contentHash = computeContentHash(physicalChangeLogLocation, resourceAccessor);
+        Object tree = get(parser, physicalChangeLogLocation, contentHash);
+        if (tree == null) {
+            tree = parser.parseToTree(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+            put(parser, physicalChangeLogLocation, contentHash, tree);
+        }
+        return tree;
+    }
+
+    /**
+     * Number of lookups that returned a cached tree since this instance was created.
+     */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Number of lookups that found no usable cached tree since this instance was created.
+     */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    protected File getCacheFile(ChangeLogParser parser, String physicalChangeLogLocation) {
+        File directory = getCacheDirectory();
+        if (directory == null) {
+            return null;
+        }
+        return new File(directory, MD5Util.computeMD5(parser.getClass().getName() + ":" + physicalChangeLogLocation) + ".parsed");
+    }
+
+    protected void writeValue(DataOutputStream output, Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TYPE_STRING);
+            writeString(output, (String) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TYPE_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(TYPE_BIG_INTEGER);
+            writeString(output, value.toString());
+        } else if (value instanceof BigDecimal) {
+            output.writeByte(TYPE_BIG_DECIMAL);
+            writeString(output, value.toString());
+        } else if (value instanceof Double) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Float) {
+            output.writeByte(TYPE_FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value.getClass().equals(Date.class)) {
+            output.writeByte(TYPE_DATE);
+            output.writeLong(((Date) value).getTime());
+        } else if (value instanceof byte[]) {
+            output.writeByte(TYPE_BYTES);
+            output.writeInt(((byte[]) value).length);
+            output.write((byte[]) value);
+        } else if (value instanceof Map) {
+            output.writeByte(TYPE_MAP);
+            output.writeInt(((Map) value).size());
+            for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
+                writeValue(output, entry.getKey());
+                writeValue(output, entry.getValue());
+            }
+        } else if (value instanceof List) {
+            output.writeByte(TYPE_LIST);
+            writeCollection(output, (List) value);
+        } else if (value instanceof Set) {
+            output.writeByte(TYPE_SET);
+            writeCollection(output, (Set) value);
+        } else if (value instanceof ParsedNode) {
+            ParsedNode node = (ParsedNode) value;
+            output.writeByte(TYPE_PARSED_NODE);
+            writeValue(output, node.getNamespace());
+            writeValue(output, node.getName());
+            writeValue(output, node.getValue());
+            writeCollection(output, node.getChildren());
+        } else {
+            throw new NotSerializableException("Cannot cache values of type " + value.getClass().getName());
+        }
+    }
+
+    protected Object readValue(DataInputStream input) throws IOException {
+        byte type = input.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(input);
+            case TYPE_INTEGER:
+                return input.readInt();
+            case TYPE_LONG:
+                return input.readLong();
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readString(input));
+            case TYPE_BIG_DECIMAL:
+                return new BigDecimal(readString(input));
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_FLOAT:
+                return input.readFloat();
+            case TYPE_BOOLEAN:
+                return input.readBoolean();
+            case TYPE_DATE:
+                return new Date(input.readLong());
+            case TYPE_BYTES:
+                byte[] bytes = new byte[input.readInt()];
+                input.readFully(bytes);
+                return bytes;
+            case TYPE_MAP:
+                int size = input.readInt();
+                Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+                for (int i = 0; i < size; i++) {
+                    Object key = readValue(input);
+                    map.put(key, readValue(input));
+                }
+                return map;
+            case TYPE_LIST:
+                return readCollection(input, new ArrayList<Object>());
+            case TYPE_SET:
+                return readCollection(input, new LinkedHashSet<Object>());
+            case TYPE_PARSED_NODE:
+                ParsedNode node = new ParsedNode((String) readValue(input), (String) readValue(input));
+                try {
+                    node.setValue(readValue(input));
+                    int children = input.readInt();
+                    for (int i = 0; i < children; i++) {
+                        node.addChild((ParsedNode) readValue(input));
+                    }
+                } catch (ParsedNodeException e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+                return node;
+            default:
+                throw new StreamCorruptedException("Unknown value type " + type);
+        }
+    }
+
+    private void writeCollection(DataOutputStream output, Collection collection) throws IOException {
+        output.writeInt(collection.size());
+        for (Object obj : collection) {
+            writeValue(output, obj);
+        }
+    }
+
+    private <T extends Collection<Object>> T readCollection(DataInputStream input, T collection) throws IOException {
+        int size = input.readInt();
+        for (int i = 0; i < size; i++) {
+            collection.add(readValue(input));
+        }
+        return collection;
+    }
+
+    /**
+     * Strings are written as a length-prefixed UTF-8 byte array because {@link DataOutputStream#writeUTF(String)} is limited to 64K, which SQL bodies can exceed.
+     */
+    private void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes("UTF-8");
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, "UTF-8");
+    }
+}
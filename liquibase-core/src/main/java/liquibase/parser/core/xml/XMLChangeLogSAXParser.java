@@ -57,7 +57,10 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
     protected ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         InputStream inputStream = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
+            SAXParser parser;
+            synchronized (saxParserFactory) { //factories are not thread safe and files may be parsed concurrently
+                parser = saxParserFactory.newSAXParser();
+            }
             try {
                 parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
             } catch (SAXNotRecognizedException e) {
@@ -7,33 +7,23 @@ import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
-import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogTreeParser;
+import liquibase.parser.ParallelIncludeParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.ResourceAccessor;
 import liquibase.util.StreamUtil;
 import org.yaml.snakeyaml.Yaml;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
 
-public class YamlChangeLogParser extends YamlParser implements ChangeLogParser {
+public class YamlChangeLogParser extends YamlParser implements ChangeLogTreeParser {
 
     @Override
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
-        Yaml yaml = new Yaml();
-
         try {
-            InputStream changeLogStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
-            if (changeLogStream == null) {
-                throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
-            }
-
-            Map parsedYaml;
-            try {
-                parsedYaml = yaml.loadAs(changeLogStream, Map.class);
-            } catch (Exception e) {
-                throw new ChangeLogParseException("Syntax error in " + getSupportedFileExtensions()[0] + ": " + e.getMessage(), e);
-            }
+            Map parsedYaml = (Map) ParallelIncludeParser.getInstance().parseToTree(this, physicalChangeLogLocation, changeLogParameters, resourceAccessor);
 
             if (parsedYaml == null || parsedYaml.size() == 0) {
                 throw new ChangeLogParseException("Empty file " + physicalChangeLogLocation);
@@ -99,6 +89,27 @@ public class YamlChangeLogParser extends YamlParser implements ChangeLogParser {
         }
     }
 
+    @Override
+    public Object parseToTree(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        InputStream changeLogStream;
+        try {
+            changeLogStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
+        } catch (IOException e) {
+            throw new ChangeLogParseException("Error parsing " + physicalChangeLogLocation, e);
+        }
+        if (changeLogStream == null) {
+            throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
+        }
+
+        try {
+            return new Yaml().loadAs(changeLogStream, Map.class);
+        } catch (Exception e) {
+            throw new ChangeLogParseException("Syntax error in " + getSupportedFileExtensions()[0] + ": " + e.getMessage(), e);
+        } finally {
+            StreamUtil.closeQuietly(changeLogStream);
+        }
+    }
+
 	/**
 	 * Extract the global parameter from the properties.
 	 * 
@@ -65,7 +65,7 @@ public class FileSystemResourceAccessor extends AbstractResourceAccessor {
         if (file.getName().toLowerCase().endsWith(".gz")) {
             return new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)));
         } else {
-            return new BufferedInputStream(new FileInputStream(file));
+            return new FileSystemResourceInputStream(file);
         }
     }
 
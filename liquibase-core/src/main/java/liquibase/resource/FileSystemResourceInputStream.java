@@ -0,0 +1,39 @@
+package liquibase.resource;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Buffered stream over an uncompressed local file returned by {@link FileSystemResourceAccessor}.
+ * Exposes the file and its channel so callers that need the whole file, such as checksum calculations, can read it directly.
+ */
+public class FileSystemResourceInputStream extends BufferedInputStream {
+
+    private final File file;
+    private final FileInputStream fileStream;
+
+    public FileSystemResourceInputStream(File file) throws FileNotFoundException {
+        this(file, new FileInputStream(file));
+    }
+
+    private FileSystemResourceInputStream(File file, FileInputStream fileStream) {
+        super(fileStream);
+        this.file = file;
+        this.fileStream = fileStream;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Returns the channel of the underlying file. Reading the channel by position, for example by mapping it, does not move this stream.
+     * The channel is closed when this stream is closed.
+     */
+    public FileChannel getChannel() {
+        return fileStream.getChannel();
+    }
+}
@@ -27,10 +27,14 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
 
     private Map<String, Set<String>> classFilesByLocation = new HashMap<String, Set<String>>();
 
+    private ServiceIndex serviceIndex;
+
     @Override
     public void addClassLoader(ClassLoader classLoader) {
         try {
-            getClassLoaders().add(classLoader);
+            if (getClassLoaders().add(classLoader)) {
+                serviceIndex = null;
+            }
         } catch (UnsupportedOperationException ex) {
             // Ignore this exception as the PackageScanClassResolver
             // don't want use any other classloader
@@ -69,6 +73,21 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
     @Override
     public void setClassLoaders(Set<ClassLoader> classLoaders) {
         this.classLoaders = classLoaders;
+        this.serviceIndex = null;
+    }
+
+    /**
+     * Returns the {@link ServiceIndex} for the current class loaders, or null if indexes should not be used.
+     * Indexes are used unless the liquibase.scan.useIndex system property is set to false.
+     */
+    protected ServiceIndex getServiceIndex() {
+        if (!Boolean.valueOf(System.getProperty("liquibase.scan.useIndex", "true"))) {
+            return null;
+        }
+        if (serviceIndex == null) {
+            serviceIndex = new ServiceIndex(this);
+        }
+        return serviceIndex;
     }
 
     @Override
@@ -81,9 +100,14 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
         log.debug("Searching for implementations of " + parent.getName() + " in packages: " + Arrays.asList(packageNames));
 
         PackageScanFilter test = getCompositeFilter(new AssignableToPackageScanFilter(parent));
+        ServiceIndex index = getServiceIndex();
         Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
         for (String pkg : packageNames) {
-            find(test, pkg, classes);
+            if (index != null && index.isIndexed(pkg)) {
+                findIndexed(index, test, parent, pkg, classes);
+            } else {
+                find(test, pkg, classes);
+            }
         }
 
         log.debug("Found: " + classes);
@@ -123,6 +147,16 @@ public class DefaultPackageScanClassResolver implements PackageScanClassResolver
         findInAllClasses(test, packageName, classes);
     }
 
+    /**
+     * Finds the implementations of the given parent from a {@link ServiceIndex} instead of listing and loading every class in the package.
+     */
+    protected void findIndexed(ServiceIndex index, PackageScanFilter test, Class parent, String packageName, Set<Class<?>> classes) {
+        log.debug("Searching for: " + test + " in indexed package: " + packageName);
+        for (String className : index.getClassNames(parent, packageName)) {
+            addIfMatching(test, className.replace('.', '/') + ".class", classes);
+        }
+    }
+
     protected void findAllClasses(String packageName, ClassLoader loader) {
         log.debug("Searching for all classes in package: " + packageName + " using classloader: " + loader.getClass().getName());
 
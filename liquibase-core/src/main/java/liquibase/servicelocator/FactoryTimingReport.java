@@ -0,0 +1,111 @@
+package liquibase.servicelocator;
+
+import liquibase.util.StreamUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records how many implementation classes each service factory found through the {@link ServiceLocator}, how many of them it has instantiated
+ * and how long both took. Used to track the cost of starting Liquibase.
+ */
+public class FactoryTimingReport {
+
+    private static FactoryTimingReport instance = new FactoryTimingReport();
+
+    private final Map<String, FactoryTiming> timings = new ConcurrentSkipListMap<String, FactoryTiming>();
+
+    public static FactoryTimingReport getInstance() {
+        return instance;
+    }
+
+    public static synchronized void reset() {
+        instance = new FactoryTimingReport();
+    }
+
+    protected FactoryTimingReport() {
+    }
+
+    public synchronized FactoryTiming getTiming(Class factoryClass) {
+        FactoryTiming timing = timings.get(factoryClass.getSimpleName());
+        if (timing == null) {
+            timing = new FactoryTiming(factoryClass.getSimpleName());
+            timings.put(timing.getName(), timing);
+        }
+        return timing;
+    }
+
+    public Collection<FactoryTiming> getTimings() {
+        return new ArrayList<FactoryTiming>(timings.values());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder("Factory initialization:");
+        List<FactoryTiming> allTimings = new ArrayList<FactoryTiming>(timings.values());
+        long totalTime = 0;
+        for (FactoryTiming timing : allTimings) {
+            report.append(StreamUtil.getLineSeparator()).append("    ").append(timing);
+            totalTime += timing.getTime();
+        }
+        report.append(StreamUtil.getLineSeparator()).append("    Total: ").append(totalTime).append("ms");
+        return report.toString();
+    }
+
+    public static class FactoryTiming {
+        private final String name;
+        private final AtomicInteger classesFound = new AtomicInteger();
+        private final AtomicInteger instancesCreated = new AtomicInteger();
+        private final AtomicLong time = new AtomicLong();
+
+        protected FactoryTiming(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Records a lookup of implementation classes that started at the given {@link System#nanoTime()}.
+         */
+        public void classesFound(int count, long startTime) {
+            classesFound.addAndGet(count);
+            time.addAndGet(System.nanoTime() - startTime);
+        }
+
+        /**
+         * Records the creation of an instance that started at the given {@link System#nanoTime()}.
+         */
+        public void instanceCreated(long startTime) {
+            instancesCreated.incrementAndGet();
+            time.addAndGet(System.nanoTime() - startTime);
+        }
+
+        public int getClassesFound() {
+            return classesFound.get();
+        }
+
+        public int getInstancesCreated() {
+            return instancesCreated.get();
+        }
+
+        /**
+         * Time spent finding classes and creating instances, in milliseconds.
+         */
+        public long getTime() {
+            return TimeUnit.NANOSECONDS.toMillis(time.get());
+        }
+
+        @Override
+        public String toString() {
+            return name + ": " + getClassesFound() + " classes found, " + getInstancesCreated() + " instances created, " + getTime() + "ms";
+        }
+    }
+}
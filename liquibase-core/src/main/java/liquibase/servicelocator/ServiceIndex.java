@@ -0,0 +1,142 @@
+package liquibase.servicelocator;
+
+import liquibase.logging.Logger;
+import liquibase.logging.core.DefaultLogger;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.*;
+
+/**
+ * Index of the concrete classes in a classpath location, grouped by every superclass and interface they extend, so implementations can be looked up
+ * without listing and loading every class in a package. Index files are created at build time by {@link ServiceIndexGenerator} and stored
+ * at {@link #INDEX_FILE} in the root of the jar or directory they describe.
+ * <p/>
+ * A package only counts as indexed if every classpath location that contains it has an index file. Packages that are also present in an
+ * unindexed location, such as an extension jar, still need to be scanned. Package locations are looked up through the
+ * {@link DefaultPackageScanClassResolver} so resolvers that override how resources are found see the same locations here as in a scan.
+ */
+public class ServiceIndex {
+
+    public static final String INDEX_FILE = "META-INF/liquibase/service.index";
+
+    private Logger log = new DefaultLogger(); //cannot look up regular logger because you get a stackoverflow since we are in the servicelocator
+
+    private final DefaultPackageScanClassResolver resolver;
+    private final Set<String> indexedLocations = new HashSet<String>();
+    private final Map<String, Set<String>> classNamesByParent = new HashMap<String, Set<String>>();
+    private final Map<String, Boolean> indexedPackages = new HashMap<String, Boolean>();
+
+    public ServiceIndex(DefaultPackageScanClassResolver resolver) {
+        this.resolver = resolver;
+        for (ClassLoader classLoader : resolver.getClassLoaders()) {
+            try {
+                Enumeration<URL> indexFiles = classLoader.getResources(INDEX_FILE);
+                while (indexFiles.hasMoreElements()) {
+                    URL indexFile = resolver.customResourceLocator(indexFiles.nextElement());
+                    String location = getLocation(indexFile, INDEX_FILE);
+                    if (location != null && indexedLocations.add(location)) {
+                        read(indexFile);
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Cannot read service index: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Returns true if no index files were found.
+     */
+    public boolean isEmpty() {
+        return indexedLocations.isEmpty();
+    }
+
+    /**
+     * Returns true if every classpath location containing the given package has an index, so {@link #getClassNames(Class, String)} returns the same classes a scan would.
+     */
+    public synchronized boolean isIndexed(String packageName) {
+        if (isEmpty()) {
+            return false;
+        }
+        Boolean indexed = indexedPackages.get(packageName);
+        if (indexed == null) {
+            indexed = true;
+            String packagePath = packageName.replace('.', '/') + "/";
+            for (ClassLoader classLoader : resolver.getClassLoaders()) {
+                try {
+                    Enumeration<URL> packageUrls = resolver.getResources(classLoader, packagePath);
+                    while (indexed && packageUrls.hasMoreElements()) {
+                        String location = getLocation(resolver.customResourceLocator(packageUrls.nextElement()), packagePath);
+                        indexed = location != null && indexedLocations.contains(location);
+                    }
+                } catch (IOException e) {
+                    indexed = false;
+                }
+            }
+            indexedPackages.put(packageName, indexed);
+        }
+        return indexed;
+    }
+
+    /**
+     * Returns the names of all indexed concrete classes that extend or implement the given type and are in the given package or one of its sub-packages.
+     */
+    public Set<String> getClassNames(Class parent, String packageName) {
+        Set<String> classNames = classNamesByParent.get(parent.getName());
+        if (classNames == null) {
+            return Collections.emptySet();
+        }
+        String packagePrefix = packageName + ".";
+        Set<String> returnSet = new HashSet<String>();
+        for (String className : classNames) {
+            if (className.startsWith(packagePrefix)) {
+                returnSet.add(className);
+            }
+        }
+        return returnSet;
+    }
+
+    protected void read(URL indexFile) throws IOException {
+        InputStream stream = indexFile.openStream();
+        try {
+            Properties properties = new Properties();
+            properties.load(stream);
+            for (String parent : properties.stringPropertyNames()) {
+                Set<String> classNames = classNamesByParent.get(parent);
+                if (classNames == null) {
+                    classNames = new HashSet<String>();
+                    classNamesByParent.put(parent, classNames);
+                }
+                for (String className : properties.getProperty(parent).split(",")) {
+                    className = StringUtils.trimToNull(className);
+                    if (className != null) {
+                        classNames.add(className);
+                    }
+                }
+            }
+            log.debug("Read service index " + indexFile);
+        } finally {
+            StreamUtil.closeQuietly(stream);
+        }
+    }
+
+    /**
+     * Returns the root of the jar or directory the given resource was loaded from, or null if it cannot be determined.
+     */
+    protected String getLocation(URL resource, String resourcePath) {
+        String url = resource.toExternalForm();
+        if (url.endsWith("/") && !resourcePath.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        } else if (!url.endsWith("/") && resourcePath.endsWith("/")) {
+            url = url + "/";
+        }
+        if (!url.endsWith(resourcePath)) {
+            return null;
+        }
+        return url.substring(0, url.length() - resourcePath.length());
+    }
+}
@@ -0,0 +1,115 @@
+package liquibase.servicelocator;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * Creates the {@link ServiceIndex} file for a directory of compiled classes. Run as part of the build with the class directory as the only argument;
+ * every class in it must be loadable from the classpath this generator was loaded from.
+ */
+public class ServiceIndexGenerator {
+
+    private final ClassLoader classLoader;
+
+    public ServiceIndexGenerator(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ServiceIndexGenerator <classes directory>");
+        }
+        new ServiceIndexGenerator(ServiceIndexGenerator.class.getClassLoader()).generate(new File(args[0]));
+    }
+
+    /**
+     * Writes the index of the given class directory to {@link ServiceIndex#INDEX_FILE} inside it.
+     */
+    public void generate(File classesDirectory) throws ClassNotFoundException, IOException {
+        write(createIndex(classesDirectory), new File(classesDirectory, ServiceIndex.INDEX_FILE));
+    }
+
+    /**
+     * Returns the names of all concrete classes in the given directory, keyed by the name of every superclass and interface they extend other than Object.
+     */
+    public Map<String, SortedSet<String>> createIndex(File classesDirectory) throws ClassNotFoundException {
+        Map<String, SortedSet<String>> index = new TreeMap<String, SortedSet<String>>();
+        List<String> classNames = new ArrayList<String>();
+        findClassNames(classesDirectory, "", classNames);
+        for (String className : classNames) {
+            Class<?> type = Class.forName(className, false, classLoader);
+            if (Modifier.isAbstract(type.getModifiers()) || Modifier.isInterface(type.getModifiers())) {
+                continue;
+            }
+            for (Class<?> parent : getParents(type)) {
+                SortedSet<String> implementations = index.get(parent.getName());
+                if (implementations == null) {
+                    implementations = new TreeSet<String>();
+                    index.put(parent.getName(), implementations);
+                }
+                implementations.add(className);
+            }
+        }
+        return index;
+    }
+
+    public void write(Map<String, SortedSet<String>> index, File indexFile) throws IOException {
+        File directory = indexFile.getParentFile();
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Cannot create directory " + directory.getAbsolutePath());
+        }
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile), "ISO-8859-1"));
+        try {
+            writer.write("# Liquibase service index, generated by " + getClass().getName() + "\n");
+            for (Map.Entry<String, SortedSet<String>> entry : index.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write("=");
+                boolean first = true;
+                for (String className : entry.getValue()) {
+                    if (!first) {
+                        writer.write(",\\\n    ");
+                    }
+                    writer.write(className);
+                    first = false;
+                }
+                writer.write("\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    protected Set<Class<?>> getParents(Class<?> type) {
+        Set<Class<?>> parents = new LinkedHashSet<Class<?>>();
+        addParents(type, parents);
+        parents.remove(Object.class);
+        return parents;
+    }
+
+    private void addParents(Class<?> type, Set<Class<?>> parents) {
+        if (type == null || !parents.add(type)) {
+            return;
+        }
+        addParents(type.getSuperclass(), parents);
+        for (Class<?> parentInterface : type.getInterfaces()) {
+            addParents(parentInterface, parents);
+        }
+    }
+
+    private void findClassNames(File directory, String packagePrefix, List<String> classNames) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String name = file.getName();
+            if (file.isDirectory()) {
+                findClassNames(file, packagePrefix + name + ".", classNames);
+            } else if (name.endsWith(".class") && !name.equals("package-info.class")) {
+                classNames.add(packagePrefix + name.substring(0, name.length() - ".class".length()));
+            }
+        }
+    }
+}
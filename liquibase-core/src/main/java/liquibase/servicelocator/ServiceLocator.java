@@ -25,6 +25,7 @@ import java.util.jar.Manifest;
  *
  * Services (concrete instances of interfaces) are located by scanning nominated
  * packages on the classpath for implementations of the interface.
+ * Jars and directories that contain a {@link ServiceIndex}, such as liquibase-core itself, are looked up in the index instead of being scanned.
  */
 public class ServiceLocator {
 
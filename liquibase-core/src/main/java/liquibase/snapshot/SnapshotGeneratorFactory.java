@@ -12,6 +12,7 @@ import liquibase.executor.ExecutorService;
 import liquibase.parser.SnapshotParser;
 import liquibase.parser.SnapshotParserFactory;
 import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.statement.core.RawSqlStatement;
 import liquibase.structure.DatabaseObject;
@@ -27,19 +28,21 @@ public class SnapshotGeneratorFactory {
 
     private List<SnapshotGenerator> generators = new ArrayList<SnapshotGenerator>();
 
+    //found by the ServiceLocator but not created yet. Priorities are only known by instances, so they are all created the first time generators are needed
+    private List<Class<? extends SnapshotGenerator>> uninitializedGeneratorClasses = new ArrayList<Class<? extends SnapshotGenerator>>();
+
+    private Map<String, SortedSet<SnapshotGenerator>> generatorsByKey = new HashMap<String, SortedSet<SnapshotGenerator>>();
+
     protected SnapshotGeneratorFactory() {
-        Class[] classes;
+        long startTime = System.nanoTime();
+        Class<? extends SnapshotGenerator>[] classes;
         try {
             classes = ServiceLocator.getInstance().findClasses(SnapshotGenerator.class);
-
-            for (Class clazz : classes) {
-                register((SnapshotGenerator) clazz.getConstructor().newInstance());
-            }
-
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
         }
-
+        uninitializedGeneratorClasses.addAll(Arrays.asList(classes));
+        FactoryTimingReport.getInstance().getTiming(SnapshotGeneratorFactory.class).classesFound(classes.length, startTime);
     }
 
     /**
@@ -57,15 +60,19 @@ public class SnapshotGeneratorFactory {
     }
 
 
-    public void register(SnapshotGenerator generator) {
+    public synchronized void register(SnapshotGenerator generator) {
         generators.add(generator);
+        generatorsByKey.clear();
     }
 
-    public void unregister(SnapshotGenerator generator) {
+    public synchronized void unregister(SnapshotGenerator generator) {
         generators.remove(generator);
+        generatorsByKey.clear();
     }
 
-    public void unregister(Class generatorClass) {
+    public synchronized void unregister(Class generatorClass) {
+        uninitializedGeneratorClasses.remove(generatorClass);
+
         SnapshotGenerator toRemove = null;
         for (SnapshotGenerator existingGenerator : generators) {
             if (existingGenerator.getClass().equals(generatorClass)) {
@@ -76,17 +83,45 @@ public class SnapshotGeneratorFactory {
         unregister(toRemove);
     }
 
-    protected SortedSet<SnapshotGenerator> getGenerators(Class<? extends DatabaseObject> generatorClass, Database database) {
-        SortedSet<SnapshotGenerator> validGenerators = new TreeSet<SnapshotGenerator>(new SnapshotGeneratorComparator(generatorClass, database));
+    /**
+     * Returns the generators for the given type and database, ordered by priority. The returned set is shared between calls and is not modifiable.
+     */
+    protected synchronized SortedSet<SnapshotGenerator> getGenerators(Class<? extends DatabaseObject> generatorClass, Database database) {
+        String key = generatorClass.getName() + ":" + (database == null ? null : database.getClass().getName());
+        SortedSet<SnapshotGenerator> validGenerators = generatorsByKey.get(key);
+        if (validGenerators != null) {
+            return validGenerators;
+        }
+
+        createGenerators();
 
+        validGenerators = new TreeSet<SnapshotGenerator>(new SnapshotGeneratorComparator(generatorClass, database));
         for (SnapshotGenerator generator : generators) {
             if (generator.getPriority(generatorClass, database) > 0) {
                 validGenerators.add(generator);
             }
         }
+        validGenerators = Collections.unmodifiableSortedSet(validGenerators);
+        generatorsByKey.put(key, validGenerators);
         return validGenerators;
     }
 
+    private void createGenerators() {
+        if (uninitializedGeneratorClasses.isEmpty()) {
+            return;
+        }
+        for (Class<? extends SnapshotGenerator> generatorClass : uninitializedGeneratorClasses) {
+            long startTime = System.nanoTime();
+            try {
+                generators.add(generatorClass.getConstructor().newInstance());
+            } catch (Exception e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+            FactoryTimingReport.getInstance().getTiming(SnapshotGeneratorFactory.class).instanceCreated(startTime);
+        }
+        uninitializedGeneratorClasses.clear();
+    }
+
 
     public boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
         List<Class<? extends DatabaseObject>> types = new ArrayList<Class<? extends DatabaseObject>>(getContainerTypes(example.getClass(), database));
@@ -6,6 +6,7 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.structure.DatabaseObject;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.servicelocator.ServiceLocator;
 import liquibase.sql.Sql;
 import liquibase.statement.SqlStatement;
@@ -14,6 +15,9 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
@@ -24,26 +28,28 @@ public class SqlGeneratorFactory {
 
     private static SqlGeneratorFactory instance;
 
-    private List<SqlGenerator> generators = new ArrayList<SqlGenerator>();
+    private final List<SqlGenerator> generators = new CopyOnWriteArrayList<SqlGenerator>();
+
+    //classes found by the ServiceLocator that have not been instantiated yet. They are only created once a statement they can handle is used. Guarded by this
+    private final List<Class<? extends SqlGenerator>> uninitializedGeneratorClasses = new ArrayList<Class<? extends SqlGenerator>>();
 
     //caches for expensive reflection based calls that slow down Liquibase initialization: CORE-1207
-    private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<Class<?>, Type[]>();
-    private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<Class<?>, Type>();
-    private Map<String, SortedSet<SqlGenerator>> generatorsByKey = new HashMap<String, SortedSet<SqlGenerator>>();
+    private final ConcurrentMap<Class<?>, Type[]> genericInterfacesCache = new ConcurrentHashMap<Class<?>, Type[]>();
+    private final ConcurrentMap<Class<?>, Type> genericSuperClassCache = new ConcurrentHashMap<Class<?>, Type>();
+
+    //replaced rather than cleared when generators change, so a lookup that started before the change cannot store its outdated result in the new cache
+    private volatile ConcurrentMap<GeneratorKey, SortedSet<SqlGenerator>> generatorsByKey = new ConcurrentHashMap<GeneratorKey, SortedSet<SqlGenerator>>();
 
     private SqlGeneratorFactory() {
-        Class[] classes;
+        long startTime = System.nanoTime();
+        Class<? extends SqlGenerator>[] classes;
         try {
             classes = ServiceLocator.getInstance().findClasses(SqlGenerator.class);
-
-            for (Class clazz : classes) {
-                register((SqlGenerator) clazz.getConstructor().newInstance());
-            }
-
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
-
+        uninitializedGeneratorClasses.addAll(Arrays.asList(classes));
+        FactoryTimingReport.getInstance().getTiming(SqlGeneratorFactory.class).classesFound(classes.length, startTime);
     }
 
     /**
@@ -63,13 +69,19 @@ public class SqlGeneratorFactory {
 
     public void register(SqlGenerator generator) {
         generators.add(generator);
+        clearCache();
     }
 
     public void unregister(SqlGenerator generator) {
         generators.remove(generator);
+        clearCache();
     }
 
     public void unregister(Class generatorClass) {
+        synchronized (this) {
+            uninitializedGeneratorClasses.remove(generatorClass);
+        }
+
         SqlGenerator toRemove = null;
         for (SqlGenerator existingGenerator : generators) {
             if (existingGenerator.getClass().equals(generatorClass)) {
@@ -80,19 +92,42 @@ public class SqlGeneratorFactory {
         unregister(toRemove);
     }
 
+    private void clearCache() {
+        generatorsByKey = new ConcurrentHashMap<GeneratorKey, SortedSet<SqlGenerator>>();
+    }
+
 
+    /**
+     * Returns all registered generators, creating any that have not been needed yet.
+     */
     protected Collection<SqlGenerator> getGenerators() {
+        synchronized (this) {
+            for (Class<? extends SqlGenerator> generatorClass : new ArrayList<Class<? extends SqlGenerator>>(uninitializedGeneratorClasses)) {
+                createGenerator(generatorClass);
+            }
+        }
         return generators;
     }
 
-    public SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
-        String databaseName = null;
-        if (database == null) {
-            databaseName = "NULL";
-        } else {
-            databaseName = database.getShortName();
+    private SqlGenerator createGenerator(Class<? extends SqlGenerator> generatorClass) {
+        long startTime = System.nanoTime();
+        SqlGenerator generator;
+        try {
+            generator = generatorClass.getConstructor().newInstance();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
+        uninitializedGeneratorClasses.remove(generatorClass);
+        generators.add(generator);
+        FactoryTimingReport.getInstance().getTiming(SqlGeneratorFactory.class).instanceCreated(startTime);
+        return generator;
+    }
 
+    /**
+     * Returns the generators that support the given statement and database, ordered by priority.
+     * Results are cached by statement class, database class and database major version and are shared between threads, so the returned set cannot be modified.
+     */
+    public SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
         int version;
         try {
             version = database.getDatabaseMajorVersion();
@@ -100,58 +135,84 @@ public class SqlGeneratorFactory {
             version = 0;
         }
 
-        String key = statement.getClass().getName()+":"+ databaseName+":"+ version;
+        GeneratorKey key = new GeneratorKey(statement.getClass(), database == null ? null : database.getClass(), version);
+
+        ConcurrentMap<GeneratorKey, SortedSet<SqlGenerator>> cache = generatorsByKey;
+        SortedSet<SqlGenerator> validGenerators = cache.get(key);
+        if (validGenerators == null) {
+            validGenerators = findGenerators(statement, database);
+            SortedSet<SqlGenerator> existing = cache.putIfAbsent(key, validGenerators);
+            if (existing != null) {
+                validGenerators = existing;
+            }
+        }
+        return validGenerators;
+    }
 
-        if (generatorsByKey.containsKey(key)) {
-            return generatorsByKey.get(key);
+    private SortedSet<SqlGenerator> findGenerators(SqlStatement statement, Database database) {
+        synchronized (this) {
+            for (Class<? extends SqlGenerator> generatorClass : new ArrayList<Class<? extends SqlGenerator>>(uninitializedGeneratorClasses)) {
+                if (canGenerate(generatorClass, statement)) {
+                    createGenerator(generatorClass);
+                }
+            }
         }
 
         SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
+        for (SqlGenerator generator : generators) {
+            if (canGenerate(generator.getClass(), statement) && generator.supports(statement, database)) {
+                validGenerators.add(generator);
+            }
+        }
+        return Collections.unmodifiableSortedSet(validGenerators);
+    }
 
-        for (SqlGenerator generator : getGenerators()) {
-            Class clazz = generator.getClass();
-            Type classType = null;
-            while (clazz != null) {
-                if (classType instanceof ParameterizedType) {
-                    checkType(classType, statement, generator, database, validGenerators);
+    /**
+     * Returns true if the SqlStatement type the generator class is declared for matches the given statement, without needing an instance of the generator.
+     * Generators declared for any SqlStatement need to be asked through {@link SqlGenerator#supports(SqlStatement, Database)}.
+     */
+    private boolean canGenerate(Class<?> generatorClass, SqlStatement statement) {
+        Class clazz = generatorClass;
+        Type classType = null;
+        while (clazz != null) {
+            if (classType instanceof ParameterizedType) {
+                if (checkType(classType, statement)) {
+                    return true;
                 }
+            }
 
-                for (Type type : getGenericInterfaces(clazz)) {
-                    if (type instanceof ParameterizedType) {
-                        checkType(type, statement, generator, database, validGenerators);
-                    } else if (isTypeEqual(type, SqlGenerator.class)) {
-                        //noinspection unchecked
-                        if (generator.supports(statement, database)) {
-                            validGenerators.add(generator);
-                        }
+            for (Type type : getGenericInterfaces(clazz)) {
+                if (type instanceof ParameterizedType) {
+                    if (checkType(type, statement)) {
+                        return true;
                     }
+                } else if (isTypeEqual(type, SqlGenerator.class)) {
+                    return true;
                 }
-                classType = getGenericSuperclass(clazz);
-                clazz = clazz.getSuperclass();
             }
+            classType = getGenericSuperclass(clazz);
+            clazz = clazz.getSuperclass();
         }
-
-        generatorsByKey.put(key, validGenerators);
-        return validGenerators;
+        return false;
     }
 
     private Type[] getGenericInterfaces(Class<?> clazz) {
-        if(genericInterfacesCache.containsKey(clazz)) {
-            return genericInterfacesCache.get(clazz);
+        Type[] genericInterfaces = genericInterfacesCache.get(clazz);
+        if (genericInterfaces == null) {
+            genericInterfaces = clazz.getGenericInterfaces();
+            genericInterfacesCache.put(clazz, genericInterfaces);
         }
-
-        Type[] genericInterfaces = clazz.getGenericInterfaces();
-        genericInterfacesCache.put(clazz, genericInterfaces);
         return genericInterfaces;
     }
 
     private Type getGenericSuperclass(Class<?> clazz) {
-        if(genericSuperClassCache.containsKey(clazz)) {
-            return genericSuperClassCache.get(clazz);
+        Type genericSuperclass = genericSuperClassCache.get(clazz);
+        if (genericSuperclass == null) {
+            genericSuperclass = clazz.getGenericSuperclass();
+            if (genericSuperclass != null) { //null for Object and interfaces, which are cheap to look up again
+                genericSuperClassCache.put(clazz, genericSuperclass);
+            }
         }
-
-        Type genericSuperclass = clazz.getGenericSuperclass();
-        genericSuperClassCache.put(clazz, genericSuperclass);
         return genericSuperclass;
     }
 
@@ -162,23 +223,21 @@ public class SqlGeneratorFactory {
         return aType.equals(aClass);
     }
 
-    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators) {
+    private boolean checkType(Type type, SqlStatement statement) {
         for (Type typeClass : ((ParameterizedType) type).getActualTypeArguments()) {
             if (typeClass instanceof TypeVariable) {
                 typeClass = ((TypeVariable) typeClass).getBounds()[0];
             }
 
             if (isTypeEqual(typeClass, SqlStatement.class)) {
-                return;
+                return false;
             }
 
             if (((Class) typeClass).isAssignableFrom(statement.getClass())) {
-                if (generator.supports(statement, database)) {
-                    validGenerators.add(generator);
-                }
+                return true;
             }
         }
-
+        return false;
     }
 
     private SqlGeneratorChain createGeneratorChain(SqlStatement statement, Database database) {
@@ -279,4 +338,39 @@ public class SqlGeneratorFactory {
 
     }
 
+    /**
+     * Key for cached generator lookups. Compares classes by identity so lookups do not need to build strings.
+     */
+    private static final class GeneratorKey {
+        private final Class<? extends SqlStatement> statementClass;
+        private final Class<? extends Database> databaseClass;
+        private final int databaseMajorVersion;
+        private final int hashCode;
+
+        private GeneratorKey(Class<? extends SqlStatement> statementClass, Class<? extends Database> databaseClass, int databaseMajorVersion) {
+            this.statementClass = statementClass;
+            this.databaseClass = databaseClass;
+            this.databaseMajorVersion = databaseMajorVersion;
+            this.hashCode = 31 * (31 * statementClass.hashCode() + (databaseClass == null ? 0 : databaseClass.hashCode())) + databaseMajorVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof GeneratorKey)) {
+                return false;
+            }
+            GeneratorKey that = (GeneratorKey) o;
+            return statementClass == that.statementClass
+                    && databaseClass == that.databaseClass
+                    && databaseMajorVersion == that.databaseMajorVersion;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
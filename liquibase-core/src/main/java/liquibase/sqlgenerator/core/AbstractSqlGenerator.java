@@ -6,6 +6,7 @@ import liquibase.sqlgenerator.SqlGenerator;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.CreateViewStatement;
+import liquibase.util.SqlUtil;
 
 public abstract class AbstractSqlGenerator<StatementType extends SqlStatement> implements SqlGenerator<StatementType> {
 
@@ -35,7 +36,7 @@ public abstract class AbstractSqlGenerator<StatementType extends SqlStatement> i
     }
 
     public boolean looksLikeFunctionCall(String value, Database database) {
-        return value.startsWith("\"SYSIBM\"") || value.startsWith("to_date(") || value.equalsIgnoreCase(database.getCurrentDateTimeFunction());
+        return SqlUtil.looksLikeFunctionCall(value, database);
     }
 
 }
@@ -0,0 +1,22 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.CopyExecutablePreparedStatement;
+
+/**
+ * Dummy SQL generator for <code>CopyExecutablePreparedStatement</code><br>
+ */
+public class CopyDataGenerator extends AbstractSqlGenerator<CopyExecutablePreparedStatement> {
+    @Override
+    public ValidationErrors validate(CopyExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(CopyExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[0];
+    }
+}
@@ -0,0 +1,61 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.FirebirdDatabase;
+import liquibase.database.core.InformixDatabase;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.CreateTemporaryStagingTableStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+/**
+ * Creates the staging table with <code>CREATE TABLE ... AS SELECT ... WHERE 1=0</code>, which copies the column types without any rows.
+ */
+public class CreateStagingTableGenerator extends AbstractSqlGenerator<CreateStagingTableStatement> {
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        return !(statement instanceof CreateTemporaryStagingTableStatement) && !(database instanceof FirebirdDatabase) && !(database instanceof InformixDatabase);
+    }
+
+    @Override
+    public ValidationErrors validate(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("stagingTableName", statement.getStagingTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[]{
+                new UnparsedSql("CREATE TABLE " + database.escapeTableName(statement.getStagingCatalogName(), statement.getStagingSchemaName(), statement.getStagingTableName())
+                        + " AS SELECT " + getColumns(statement, database)
+                        + " FROM " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " WHERE 1=0", getAffectedTable(statement))
+        };
+    }
+
+    /**
+     * Returns the escaped staged columns, separated by commas.
+     */
+    protected String getColumns(CreateStagingTableStatement statement, Database database) {
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < statement.getColumnNames().size(); i++) {
+            if (i > 0) {
+                columns.append(", ");
+            }
+            columns.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), statement.getColumnNames().get(i)));
+        }
+        return columns.toString();
+    }
+
+    protected Relation getAffectedTable(CreateStagingTableStatement statement) {
+        return new Table().setName(statement.getStagingTableName()).setSchema(statement.getStagingCatalogName(), statement.getStagingSchemaName());
+    }
+}
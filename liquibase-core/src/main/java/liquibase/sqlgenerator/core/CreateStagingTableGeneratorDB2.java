@@ -0,0 +1,37 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.DB2Database;
+import liquibase.database.core.DerbyDatabase;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.CreateTemporaryStagingTableStatement;
+
+/**
+ * DB2, Derby and HSQLDB need <code>WITH NO DATA</code> to create a table from a query.
+ */
+public class CreateStagingTableGeneratorDB2 extends CreateStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        return !(statement instanceof CreateTemporaryStagingTableStatement) && (database instanceof DB2Database || database instanceof DerbyDatabase || database instanceof HsqlDatabase);
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[]{
+                new UnparsedSql("CREATE TABLE " + database.escapeTableName(statement.getStagingCatalogName(), statement.getStagingSchemaName(), statement.getStagingTableName())
+                        + " AS (SELECT " + getColumns(statement, database)
+                        + " FROM " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + ") WITH NO DATA", getAffectedTable(statement))
+        };
+    }
+}
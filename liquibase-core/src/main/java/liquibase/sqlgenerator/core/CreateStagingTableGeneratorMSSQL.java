@@ -0,0 +1,41 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.SybaseASADatabase;
+import liquibase.database.core.SybaseDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.CreateTemporaryStagingTableStatement;
+
+/**
+ * SQL Server and Sybase create the staging table with <code>SELECT ... INTO</code>.
+ * A temporary staging table is a <code>#</code> table, whose name must start with <code>#</code>.
+ */
+public class CreateStagingTableGeneratorMSSQL extends CreateStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        if (statement instanceof CreateTemporaryStagingTableStatement) {
+            return database instanceof MSSQLDatabase;
+        }
+        return database instanceof MSSQLDatabase || database instanceof SybaseDatabase || database instanceof SybaseASADatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[]{
+                new UnparsedSql("SELECT " + getColumns(statement, database)
+                        + " INTO " + database.escapeTableName(statement.getStagingCatalogName(), statement.getStagingSchemaName(), statement.getStagingTableName())
+                        + " FROM " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " WHERE 1=0", getAffectedTable(statement))
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.CreateTemporaryStagingTableStatement;
+
+/**
+ * Creates a temporary staging table with <code>CREATE TEMPORARY TABLE ... AS SELECT ... WHERE 1=0</code> on the databases that can do so
+ * without committing the transaction. H2 only does so for a <code>TRANSACTIONAL</code> local temporary table, which is dropped on commit or rollback.
+ */
+public class CreateStagingTableGeneratorTemporary extends CreateStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(CreateStagingTableStatement statement, Database database) {
+        return statement instanceof CreateTemporaryStagingTableStatement
+                && (database instanceof H2Database || database instanceof PostgresDatabase || database instanceof MySQLDatabase);
+    }
+
+    @Override
+    public Sql[] generateSql(CreateStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        String stagingTable = database.escapeTableName(statement.getStagingCatalogName(), statement.getStagingSchemaName(), statement.getStagingTableName());
+        String sql;
+        if (database instanceof H2Database) {
+            sql = "CREATE LOCAL TEMPORARY TABLE " + stagingTable + " ON COMMIT DROP TRANSACTIONAL";
+        } else {
+            sql = "CREATE TEMPORARY TABLE " + stagingTable;
+        }
+        return new Sql[]{
+                new UnparsedSql(sql + " AS SELECT " + getColumns(statement, database)
+                        + " FROM " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " WHERE 1=0", getAffectedTable(statement))
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.DropTemporaryStagingTableStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+/**
+ * Drops a temporary staging table if it still exists. MySQL needs <code>DROP TEMPORARY TABLE</code> to not commit the transaction,
+ * and H2 already drops the table on commit or rollback.
+ */
+public class DropTemporaryStagingTableGenerator extends AbstractSqlGenerator<DropTemporaryStagingTableStatement> {
+
+    @Override
+    public boolean supports(DropTemporaryStagingTableStatement statement, Database database) {
+        return database instanceof H2Database || database instanceof PostgresDatabase || database instanceof MySQLDatabase
+                || database instanceof MSSQLDatabase;
+    }
+
+    @Override
+    public ValidationErrors validate(DropTemporaryStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("stagingTableName", statement.getStagingTableName());
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(DropTemporaryStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        if (database instanceof H2Database) {
+            return new Sql[0];
+        }
+        String stagingTable = database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getStagingTableName());
+        String sql;
+        if (database instanceof MySQLDatabase) {
+            sql = "DROP TEMPORARY TABLE IF EXISTS " + stagingTable;
+        } else if (database instanceof MSSQLDatabase) {
+            sql = "IF OBJECT_ID('tempdb.." + statement.getStagingTableName() + "') IS NOT NULL DROP TABLE " + stagingTable;
+        } else {
+            sql = "DROP TABLE IF EXISTS " + stagingTable;
+        }
+        return new Sql[]{
+                new UnparsedSql(sql, getAffectedTable(statement))
+        };
+    }
+
+    protected Relation getAffectedTable(DropTemporaryStagingTableStatement statement) {
+        return new Table().setName(statement.getStagingTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
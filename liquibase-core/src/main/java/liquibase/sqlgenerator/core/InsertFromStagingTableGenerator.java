@@ -0,0 +1,44 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertFromStagingTableStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+public class InsertFromStagingTableGenerator extends AbstractSqlGenerator<InsertFromStagingTableStatement> {
+
+    @Override
+    public ValidationErrors validate(InsertFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("stagingTableName", statement.getStagingTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < statement.getColumnNames().size(); i++) {
+            if (i > 0) {
+                columns.append(", ");
+            }
+            columns.append(database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), statement.getColumnNames().get(i)));
+        }
+
+        return new Sql[]{
+                new UnparsedSql("INSERT INTO " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " (" + columns + ") SELECT " + columns
+                        + " FROM " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getStagingTableName()),
+                        getAffectedTable(statement))
+        };
+    }
+
+    protected Relation getAffectedTable(InsertFromStagingTableStatement statement) {
+        return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
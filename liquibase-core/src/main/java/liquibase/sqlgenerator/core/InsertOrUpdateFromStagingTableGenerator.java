@@ -0,0 +1,153 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Updates the rows matched by a staged row with a correlated <code>UPDATE</code>, then inserts the staged rows that match no row
+ * with <code>INSERT ... SELECT ... WHERE NOT EXISTS</code>. Works on any database, the database specific generators use a single statement.
+ */
+public class InsertOrUpdateFromStagingTableGenerator extends AbstractSqlGenerator<InsertOrUpdateFromStagingTableStatement> {
+
+    protected static final String STAGING_ALIAS = "src";
+    protected static final String TABLE_ALIAS = "tgt";
+
+    @Override
+    public ValidationErrors validate(InsertOrUpdateFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("stagingTableName", statement.getStagingTableName());
+        validationErrors.checkRequiredField("columnNames", statement.getColumnNames());
+        validationErrors.checkRequiredField("primaryKey", statement.getPrimaryKey());
+        if (statement.getPrimaryKey() != null && statement.getColumnNames() != null) {
+            for (String primaryKeyColumn : getPrimaryKeyColumns(statement)) {
+                if (!containsColumn(statement.getColumnNames(), primaryKeyColumn)) {
+                    validationErrors.addError("Primary key column " + primaryKeyColumn + " is not loaded");
+                }
+            }
+        }
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<Sql> sql = new ArrayList<Sql>();
+        String table = database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+        String stagingTable = getStagingTable(statement, database);
+
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (!updateColumns.isEmpty()) {
+            String match = getMatchCondition(statement, database, STAGING_ALIAS, table);
+            StringBuilder update = new StringBuilder("UPDATE ").append(table).append(" SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    update.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                update.append(column).append(" = (SELECT ").append(STAGING_ALIAS).append(".").append(column)
+                        .append(" FROM ").append(stagingTable).append(" ").append(STAGING_ALIAS).append(" WHERE ").append(match).append(")");
+            }
+            update.append(" WHERE EXISTS (SELECT 1 FROM ").append(stagingTable).append(" ").append(STAGING_ALIAS).append(" WHERE ").append(match).append(")");
+            sql.add(new UnparsedSql(update.toString(), getAffectedTable(statement)));
+        }
+
+        if (!statement.getOnlyUpdate()) {
+            sql.add(new UnparsedSql("INSERT INTO " + table + " (" + getColumns(statement, database, null) + ")"
+                    + " SELECT " + getColumns(statement, database, STAGING_ALIAS) + " FROM " + stagingTable + " " + STAGING_ALIAS
+                    + " WHERE NOT EXISTS (SELECT 1 FROM " + table + " " + TABLE_ALIAS
+                    + " WHERE " + getMatchCondition(statement, database, STAGING_ALIAS, TABLE_ALIAS) + ")",
+                    getAffectedTable(statement)));
+        }
+
+        return sql.toArray(new Sql[sql.size()]);
+    }
+
+    /**
+     * Returns the trimmed names of the primary key columns.
+     */
+    protected List<String> getPrimaryKeyColumns(InsertOrUpdateFromStagingTableStatement statement) {
+        List<String> primaryKeyColumns = new ArrayList<String>();
+        for (String column : statement.getPrimaryKey().split(",")) {
+            if (column.trim().length() > 0) {
+                primaryKeyColumns.add(column.trim());
+            }
+        }
+        return primaryKeyColumns;
+    }
+
+    /**
+     * Returns the loaded columns that are not part of the primary key.
+     */
+    protected List<String> getUpdateColumns(InsertOrUpdateFromStagingTableStatement statement) {
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        List<String> updateColumns = new ArrayList<String>();
+        for (String column : statement.getColumnNames()) {
+            if (!containsColumn(primaryKeyColumns, column)) {
+                updateColumns.add(column);
+            }
+        }
+        return updateColumns;
+    }
+
+    /**
+     * Returns the condition matching the primary key columns of the two qualifiers, such as table aliases.
+     */
+    protected String getMatchCondition(InsertOrUpdateFromStagingTableStatement statement, Database database, String leftQualifier, String rightQualifier) {
+        StringBuilder condition = new StringBuilder();
+        for (String primaryKeyColumn : getPrimaryKeyColumns(statement)) {
+            if (condition.length() > 0) {
+                condition.append(" AND ");
+            }
+            String column = escapeColumn(statement, database, primaryKeyColumn);
+            condition.append(leftQualifier).append(".").append(column).append(" = ").append(rightQualifier).append(".").append(column);
+        }
+        return condition.toString();
+    }
+
+    /**
+     * Returns the comma separated loaded columns, each prefixed with the qualifier if it is not null.
+     */
+    protected String getColumns(InsertOrUpdateFromStagingTableStatement statement, Database database, String qualifier) {
+        StringBuilder columns = new StringBuilder();
+        for (int i = 0; i < statement.getColumnNames().size(); i++) {
+            if (i > 0) {
+                columns.append(", ");
+            }
+            if (qualifier != null) {
+                columns.append(qualifier).append(".");
+            }
+            columns.append(escapeColumn(statement, database, statement.getColumnNames().get(i)));
+        }
+        return columns.toString();
+    }
+
+    protected String escapeColumn(InsertOrUpdateFromStagingTableStatement statement, Database database, String columnName) {
+        return database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), columnName);
+    }
+
+    protected String getStagingTable(InsertOrUpdateFromStagingTableStatement statement, Database database) {
+        return database.escapeTableName(statement.getStagingCatalogName(), statement.getStagingSchemaName(), statement.getStagingTableName());
+    }
+
+    protected Relation getAffectedTable(InsertOrUpdateFromStagingTableStatement statement) {
+        return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+
+    private boolean containsColumn(List<String> columnNames, String columnName) {
+        for (String name : columnNames) {
+            if (name.equalsIgnoreCase(columnName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
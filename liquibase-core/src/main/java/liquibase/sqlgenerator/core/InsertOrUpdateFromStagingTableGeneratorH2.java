@@ -0,0 +1,46 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
+
+/**
+ * H2 inserts or updates the staged rows with <code>MERGE INTO ... KEY(...) SELECT ...</code>.
+ */
+public class InsertOrUpdateFromStagingTableGeneratorH2 extends InsertOrUpdateFromStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(InsertOrUpdateFromStagingTableStatement statement, Database database) {
+        return database instanceof H2Database;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        if (statement.getOnlyUpdate()) {
+            return super.generateSql(statement, database, sqlGeneratorChain);
+        }
+
+        StringBuilder key = new StringBuilder();
+        for (String primaryKeyColumn : getPrimaryKeyColumns(statement)) {
+            if (key.length() > 0) {
+                key.append(", ");
+            }
+            key.append(escapeColumn(statement, database, primaryKeyColumn));
+        }
+
+        return new Sql[]{
+                new UnparsedSql("MERGE INTO " + database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())
+                        + " (" + getColumns(statement, database, null) + ") KEY(" + key + ")"
+                        + " SELECT " + getColumns(statement, database, null) + " FROM " + getStagingTable(statement, database),
+                        getAffectedTable(statement))
+        };
+    }
+}
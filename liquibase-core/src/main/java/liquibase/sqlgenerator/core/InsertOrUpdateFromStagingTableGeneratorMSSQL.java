@@ -0,0 +1,29 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
+
+/**
+ * SQL Server 2008 and later use the same <code>MERGE</code> statement as Oracle, which they require to be terminated with a semicolon.
+ */
+public class InsertOrUpdateFromStagingTableGeneratorMSSQL extends InsertOrUpdateFromStagingTableGeneratorOracle {
+
+    @Override
+    public boolean supports(InsertOrUpdateFromStagingTableStatement statement, Database database) {
+        if (database instanceof MSSQLDatabase) {
+            try {
+                return database.getDatabaseMajorVersion() >= 10; // 2008 or later
+            } catch (DatabaseException e) {
+                // ignore
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected String getStatementTerminator() {
+        return ";";
+    }
+}
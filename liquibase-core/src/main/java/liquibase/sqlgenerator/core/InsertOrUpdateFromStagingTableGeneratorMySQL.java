@@ -0,0 +1,54 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
+
+import java.util.List;
+
+/**
+ * MySQL inserts or updates the staged rows with <code>INSERT ... SELECT ... ON DUPLICATE KEY UPDATE</code>,
+ * or <code>INSERT IGNORE</code> if every loaded column is part of the primary key.
+ */
+public class InsertOrUpdateFromStagingTableGeneratorMySQL extends InsertOrUpdateFromStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(InsertOrUpdateFromStagingTableStatement statement, Database database) {
+        return database instanceof MySQLDatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        if (statement.getOnlyUpdate()) {
+            return super.generateSql(statement, database, sqlGeneratorChain);
+        }
+
+        List<String> updateColumns = getUpdateColumns(statement);
+        StringBuilder sql = new StringBuilder(updateColumns.isEmpty() ? "INSERT IGNORE INTO " : "INSERT INTO ");
+        sql.append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(getColumns(statement, database, null)).append(")")
+                .append(" SELECT ").append(getColumns(statement, database, null)).append(" FROM ").append(getStagingTable(statement, database));
+        if (!updateColumns.isEmpty()) {
+            sql.append(" ON DUPLICATE KEY UPDATE ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                sql.append(column).append(" = VALUES(").append(column).append(")");
+            }
+        }
+
+        return new Sql[]{
+                new UnparsedSql(sql.toString(), getAffectedTable(statement))
+        };
+    }
+}
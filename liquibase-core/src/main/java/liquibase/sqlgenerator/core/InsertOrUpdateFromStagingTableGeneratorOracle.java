@@ -0,0 +1,64 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.DB2Database;
+import liquibase.database.core.HsqlDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
+
+import java.util.List;
+
+/**
+ * Oracle, DB2 and HSQLDB insert or update the staged rows with one standard <code>MERGE INTO ... USING</code> statement.
+ */
+public class InsertOrUpdateFromStagingTableGeneratorOracle extends InsertOrUpdateFromStagingTableGenerator {
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public boolean supports(InsertOrUpdateFromStagingTableStatement statement, Database database) {
+        return database instanceof OracleDatabase || database instanceof DB2Database || database instanceof HsqlDatabase;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateFromStagingTableStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        List<String> updateColumns = getUpdateColumns(statement);
+        if (updateColumns.isEmpty() && statement.getOnlyUpdate()) {
+            return new Sql[0];
+        }
+
+        StringBuilder sql = new StringBuilder("MERGE INTO ");
+        sql.append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName())).append(" ").append(TABLE_ALIAS)
+                .append(" USING ").append(getStagingTable(statement, database)).append(" ").append(STAGING_ALIAS)
+                .append(" ON (").append(getMatchCondition(statement, database, TABLE_ALIAS, STAGING_ALIAS)).append(")");
+        if (!updateColumns.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ");
+            for (int i = 0; i < updateColumns.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                String column = escapeColumn(statement, database, updateColumns.get(i));
+                sql.append(column).append(" = ").append(STAGING_ALIAS).append(".").append(column);
+            }
+        }
+        if (!statement.getOnlyUpdate()) {
+            sql.append(" WHEN NOT MATCHED THEN INSERT (").append(getColumns(statement, database, null)).append(")")
+                    .append(" VALUES (").append(getColumns(statement, database, STAGING_ALIAS)).append(")");
+        }
+        sql.append(getStatementTerminator());
+
+        return new Sql[]{
+                new UnparsedSql(sql.toString(), getAffectedTable(statement))
+        };
+    }
+
+    protected String getStatementTerminator() {
+        return "";
+    }
+}
@@ -1,5 +1,6 @@
 package liquibase.sqlgenerator.core;
 
+import liquibase.change.ColumnConfig;
 import liquibase.database.Database;
 import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.UnexpectedLiquibaseException;
@@ -7,11 +8,15 @@ import liquibase.exception.ValidationErrors;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.UpdateExecutablePreparedStatement;
 import liquibase.statement.core.LockDatabaseChangeLogStatement;
 import liquibase.statement.core.UpdateStatement;
 import liquibase.util.NetUtil;
 
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 
 public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDatabaseChangeLogStatement> {
 
@@ -47,4 +52,21 @@ public class LockDatabaseChangeLogGenerator extends AbstractSqlGenerator<LockDat
         return SqlGeneratorFactory.getInstance().generateSql(updateStatement, database);
 
     }
+
+    /**
+     * Returns the lock update as an {@link UpdateExecutablePreparedStatement} with the lock time and owner bound as parameters, so the
+     * same SQL is used for every lock and the statement is reused from the connection's prepared statement cache.
+     */
+    public UpdateExecutablePreparedStatement generatePreparedStatement(Database database) {
+        String liquibaseSchema = database.getLiquibaseSchemaName();
+        String liquibaseCatalog = database.getLiquibaseCatalogName();
+
+        List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
+        columns.add(new ColumnConfig().setName("LOCKED").setValueComputed(new DatabaseFunction(DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(true, database))));
+        columns.add(new ColumnConfig().setName("LOCKGRANTED").setValueDate(new Timestamp(new java.util.Date().getTime())));
+        columns.add(new ColumnConfig().setName("LOCKEDBY").setValue(hostname + hostDescription + " (" + hostaddress + ")"));
+
+        return new UpdateExecutablePreparedStatement(database, liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogLockTableName(), columns, null, null)
+                .setWhereClause(database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID") + " = 1 AND " + database.escapeColumnName(liquibaseCatalog, liquibaseSchema, database.getDatabaseChangeLogTableName(), "LOCKED") + " = "+ DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(false, database));
+    }
 }
\ No newline at end of file
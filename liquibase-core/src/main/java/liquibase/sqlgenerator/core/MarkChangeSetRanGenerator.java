@@ -1,7 +1,9 @@
 package liquibase.sqlgenerator.core;
 
 import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
 import liquibase.change.core.TagDatabaseChange;
+import liquibase.changelog.ChangeLogHistoryService;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.Database;
@@ -12,6 +14,7 @@ import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.DatabaseFunction;
+import liquibase.statement.InsertExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.statement.core.MarkChangeSetRanStatement;
@@ -20,6 +23,9 @@ import liquibase.structure.core.Column;
 import liquibase.util.LiquibaseUtil;
 import liquibase.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSetRanStatement> {
 
     @Override
@@ -42,13 +48,7 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
                 return new Sql[0]; //don't mark
             }
 
-            String tag = null;
-            for (Change change : changeSet.getChanges()) {
-                if (change instanceof TagDatabaseChange) {
-                    TagDatabaseChange tagChange = (TagDatabaseChange) change;
-                    tag = tagChange.getTag();
-                }
-            }
+            String tag = getTag(changeSet);
 
             if (statement.getExecType().ranBefore) {
                 runStatement = new UpdateStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
@@ -64,23 +64,9 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
                     ((UpdateStatement) runStatement).addNewColumnValue("TAG", tag);
                 }
             } else {
-                runStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName())
-                        .addColumnValue("ID", changeSet.getId())
-                        .addColumnValue("AUTHOR", changeSet.getAuthor())
-                        .addColumnValue("FILENAME", changeSet.getFilePath())
-                        .addColumnValue("DATEEXECUTED", new DatabaseFunction(dateValue))
-                        .addColumnValue("ORDEREXECUTED", ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).getNextSequenceValue())
-                        .addColumnValue("MD5SUM", changeSet.generateCheckSum().toString())
-                        .addColumnValue("DESCRIPTION", limitSize(changeSet.getDescription()))
-                        .addColumnValue("COMMENTS", limitSize(StringUtils.trimToEmpty(changeSet.getComments())))
-                        .addColumnValue("EXECTYPE", statement.getExecType().value)
-                        .addColumnValue("CONTEXTS", changeSet.getContexts() == null || changeSet.getContexts().isEmpty()? null : changeSet.getContexts().toString())
-                        .addColumnValue("LABELS", changeSet.getLabels() == null || changeSet.getLabels().isEmpty() ? null : changeSet.getLabels().toString())
-                        .addColumnValue("LIQUIBASE", LiquibaseUtil.getBuildVersion().replaceAll("SNAPSHOT", "SNP"))
-                .addColumnValue("DEPLOYMENT_ID", ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).getDeploymentId());
-
-                if (tag != null) {
-                    ((InsertStatement) runStatement).addColumnValue("TAG", tag);
+                runStatement = new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
+                for (ColumnConfig column : getInsertColumns(statement, database)) {
+                    ((InsertStatement) runStatement).addColumnValue(column.getName(), column.getValueObject());
                 }
             }
         } catch (LiquibaseException e) {
@@ -90,6 +76,61 @@ public class MarkChangeSetRanGenerator extends AbstractSqlGenerator<MarkChangeSe
         return SqlGeneratorFactory.getInstance().generateSql(runStatement, database);
     }
 
+    /**
+     * Returns the history row insert as an {@link InsertExecutablePreparedStatement} with its values bound as parameters, so the
+     * same SQL is used for every changeSet and the statement is reused from the connection's prepared statement cache.
+     * Returns null if the changeSet is not marked or its existing row is updated instead.
+     */
+    public InsertExecutablePreparedStatement generatePreparedStatement(MarkChangeSetRanStatement statement, Database database) {
+        ChangeSet.ExecType execType = statement.getExecType();
+        if (execType.equals(ChangeSet.ExecType.FAILED) || execType.equals(ChangeSet.ExecType.SKIPPED) || execType.ranBefore) {
+            return null;
+        }
+        try {
+            return new InsertExecutablePreparedStatement(database, database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(),
+                    database.getDatabaseChangeLogTableName(), getInsertColumns(statement, database), statement.getChangeSet(), null);
+        } catch (LiquibaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    protected List<ColumnConfig> getInsertColumns(MarkChangeSetRanStatement statement, Database database) throws LiquibaseException {
+        ChangeSet changeSet = statement.getChangeSet();
+        ChangeLogHistoryService changeLogService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database);
+
+        List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
+        columns.add(new ColumnConfig().setName("ID").setValue(changeSet.getId()));
+        columns.add(new ColumnConfig().setName("AUTHOR").setValue(changeSet.getAuthor()));
+        columns.add(new ColumnConfig().setName("FILENAME").setValue(changeSet.getFilePath()));
+        columns.add(new ColumnConfig().setName("DATEEXECUTED").setValueComputed(new DatabaseFunction(database.getCurrentDateTimeFunction())));
+        columns.add(new ColumnConfig().setName("ORDEREXECUTED").setValueNumeric(changeLogService.getNextSequenceValue()));
+        columns.add(new ColumnConfig().setName("MD5SUM").setValue(changeSet.generateCheckSum().toString()));
+        columns.add(new ColumnConfig().setName("DESCRIPTION").setValue(limitSize(changeSet.getDescription())));
+        columns.add(new ColumnConfig().setName("COMMENTS").setValue(limitSize(StringUtils.trimToEmpty(changeSet.getComments()))));
+        columns.add(new ColumnConfig().setName("EXECTYPE").setValue(statement.getExecType().value));
+        columns.add(new ColumnConfig().setName("CONTEXTS").setValue(changeSet.getContexts() == null || changeSet.getContexts().isEmpty() ? null : changeSet.getContexts().toString()));
+        columns.add(new ColumnConfig().setName("LABELS").setValue(changeSet.getLabels() == null || changeSet.getLabels().isEmpty() ? null : changeSet.getLabels().toString()));
+        columns.add(new ColumnConfig().setName("LIQUIBASE").setValue(LiquibaseUtil.getBuildVersion().replaceAll("SNAPSHOT", "SNP")));
+        columns.add(new ColumnConfig().setName("DEPLOYMENT_ID").setValue(changeLogService.getDeploymentId()));
+
+        String tag = getTag(changeSet);
+        if (tag != null) {
+            columns.add(new ColumnConfig().setName("TAG").setValue(tag));
+        }
+        return columns;
+    }
+
+    private String getTag(ChangeSet changeSet) {
+        String tag = null;
+        for (Change change : changeSet.getChanges()) {
+            if (change instanceof TagDatabaseChange) {
+                TagDatabaseChange tagChange = (TagDatabaseChange) change;
+                tag = tagChange.getTag();
+            }
+        }
+        return tag;
+    }
+
     private String limitSize(String string) {
         int maxLength = 250;
         if (string.length() > maxLength) {
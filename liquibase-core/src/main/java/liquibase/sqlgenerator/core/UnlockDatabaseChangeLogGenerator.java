@@ -1,14 +1,21 @@
 package liquibase.sqlgenerator.core;
 
+import liquibase.change.ColumnConfig;
 import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
 import liquibase.exception.ValidationErrors;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.SqlGenerator;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.DatabaseFunction;
+import liquibase.statement.UpdateExecutablePreparedStatement;
 import liquibase.statement.core.UnlockDatabaseChangeLogStatement;
 import liquibase.statement.core.UpdateStatement;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class UnlockDatabaseChangeLogGenerator extends AbstractSqlGenerator<UnlockDatabaseChangeLogStatement> {
 
     @Override
@@ -28,4 +35,19 @@ public class UnlockDatabaseChangeLogGenerator extends AbstractSqlGenerator<Unloc
 
         return SqlGeneratorFactory.getInstance().generateSql(releaseStatement, database);
     }
+
+    /**
+     * Returns the lock release as an {@link UpdateExecutablePreparedStatement}, so it is reused from the connection's prepared statement cache.
+     */
+    public UpdateExecutablePreparedStatement generatePreparedStatement(Database database) {
+        String liquibaseSchema = database.getLiquibaseSchemaName();
+
+        List<ColumnConfig> columns = new ArrayList<ColumnConfig>();
+        columns.add(new ColumnConfig().setName("LOCKED").setValueComputed(new DatabaseFunction(DataTypeFactory.getInstance().fromDescription("boolean", database).objectToSql(false, database))));
+        columns.add(new ColumnConfig().setName("LOCKGRANTED").setValueComputed(new DatabaseFunction("NULL")));
+        columns.add(new ColumnConfig().setName("LOCKEDBY").setValueComputed(new DatabaseFunction("NULL")));
+
+        return new UpdateExecutablePreparedStatement(database, database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogLockTableName(), columns, null, null)
+                .setWhereClause(database.escapeColumnName(database.getLiquibaseCatalogName(), liquibaseSchema, database.getDatabaseChangeLogTableName(), "ID")+" = 1");
+    }
 }
@@ -0,0 +1,211 @@
+package liquibase.statement;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+import liquibase.change.ColumnConfig;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+
+/**
+ * Loads rows into a PostgreSQL table with <code>COPY ... FROM STDIN</code> through the copy API of the PostgreSQL JDBC driver,
+ * which is much faster than inserting them. The rows are sent as CSV, so every value must be a plain value: computed values,
+ * sequence values and BLOB or CLOB files cannot be copied. The CSV is encoded one row at a time as the driver reads it.
+ * <p/>
+ * The driver is only used through reflection, so it is not needed unless the statement is executed. See {@link #isSupported(Database)}.
+ */
+public class CopyExecutablePreparedStatement implements ExecutablePreparedStatement {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    private Logger log = LogFactory.getLogger();
+
+    private final Database database;
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final List<List<ColumnConfig>> rows;
+
+    public CopyExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, List<List<ColumnConfig>> rows) {
+        this.database = database;
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.rows = rows;
+    }
+
+    /**
+     * Returns true if the database is a PostgreSQL database connected through a driver that offers the copy API.
+     */
+    public static boolean isSupported(Database database) {
+        if (!(database instanceof PostgresDatabase) || !(database.getConnection() instanceof JdbcConnection)) {
+            return false;
+        }
+        Connection connection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        try {
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, connection.getClass().getClassLoader());
+            return pgConnectionClass.isInstance(connection) || connection.isWrapperFor(pgConnectionClass);
+        } catch (ClassNotFoundException e) {
+            return false;
+        } catch (SQLException e) {
+            return false;
+        } catch (AbstractMethodError e) { //driver older than JDBC 4
+            return false;
+        }
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<List<ColumnConfig>> getRows() {
+        return rows;
+    }
+
+    @Override
+    public boolean skipOnUnsupported() {
+        return false;
+    }
+
+    @Override
+    public boolean continueOnError() {
+        return false;
+    }
+
+    /**
+     * Returns the COPY statement for the columns of the first row.
+     */
+    public String getCopySql() {
+        StringBuilder sql = new StringBuilder("COPY ");
+        sql.append(database.escapeTableName(getCatalogName(), getSchemaName(), getTableName()));
+        sql.append(" (");
+        List<ColumnConfig> columns = rows.get(0);
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(database.escapeColumnName(getCatalogName(), getSchemaName(), getTableName(), columns.get(i).getName()));
+        }
+        sql.append(") FROM STDIN WITH CSV");
+        return sql.toString();
+    }
+
+    /**
+     * Returns a reader of the rows as the CSV read by {@link #getCopySql()}. Values are always quoted, so an unquoted empty value is a NULL.
+     */
+    public Reader getCopyReader() {
+        return new CopyDataReader();
+    }
+
+    /**
+     * Returns all the CSV {@link #getCopyReader()} reads as one string.
+     */
+    public String getCopyData() {
+        StringBuilder data = new StringBuilder();
+        for (List<ColumnConfig> row : rows) {
+            appendRow(row, data);
+        }
+        return data.toString();
+    }
+
+    private static void appendRow(List<ColumnConfig> row, StringBuilder data) {
+        for (int i = 0; i < row.size(); i++) {
+            if (i > 0) {
+                data.append(',');
+            }
+            Object value = row.get(i).getValueObject();
+            if (value != null && !(value instanceof String && ((String) value).equalsIgnoreCase("NULL"))) {
+                data.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+            }
+        }
+        data.append('\n');
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        String sql = getCopySql();
+        log.info("Copying " + rows.size() + " rows: " + sql);
+        Connection connection = factory.getConnection().getUnderlyingConnection();
+        long copied = copyIn(connection, sql, getCopyReader());
+        log.debug(copied + " rows copied into " + getTableName());
+    }
+
+    /**
+     * Runs the COPY statement with the driver's <code>CopyManager.copyIn(String, Reader)</code> and returns the number of rows copied.
+     */
+    protected long copyIn(Connection connection, String sql, Reader data) throws DatabaseException {
+        try {
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, true, connection.getClass().getClassLoader());
+            Object pgConnection = pgConnectionClass.isInstance(connection) ? connection : connection.unwrap(pgConnectionClass);
+            Object copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(pgConnection);
+            Object copied = copyManager.getClass().getMethod("copyIn", String.class, Reader.class).invoke(copyManager, sql, data);
+            return ((Number) copied).longValue();
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException || cause instanceof IOException) {
+                throw new DatabaseException(cause.getMessage() + " [Failed SQL: " + sql + "]", cause);
+            }
+            throw new DatabaseException(cause);
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } catch (Exception e) {
+            throw new DatabaseException("The JDBC driver does not offer the PostgreSQL copy API", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getCopySql() + " (" + rows.size() + " rows)";
+    }
+
+    /**
+     * Encodes the next row only once the characters of the previous one have been read.
+     */
+    private class CopyDataReader extends Reader {
+        private final Iterator<List<ColumnConfig>> rowIterator = rows.iterator();
+        private final StringBuilder row = new StringBuilder();
+        private int position;
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (position >= row.length()) {
+                if (!rowIterator.hasNext()) {
+                    return -1;
+                }
+                row.setLength(0);
+                position = 0;
+                appendRow(rowIterator.next(), row);
+            }
+            int count = Math.min(length, row.length() - position);
+            row.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            //nothing to release
+        }
+    }
+}
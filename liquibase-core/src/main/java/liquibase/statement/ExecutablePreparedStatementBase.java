@@ -28,7 +28,6 @@ import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.resource.ResourceAccessor;
 import liquibase.resource.UtfBomAwareReader;
-import liquibase.util.JdbcUtils;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtils;
 import liquibase.util.file.FilenameUtils;
@@ -62,6 +61,14 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 
 	@Override
     public void execute(PreparedStatementFactory factory) throws DatabaseException {
+		executeUpdate(factory);
+	}
+
+	/**
+	 * Executes the statement like {@link #execute(PreparedStatementFactory)} and returns the number of rows it changed,
+	 * or -1 if the driver does not report it.
+	 */
+	public int executeUpdate(PreparedStatementFactory factory) throws DatabaseException {
 		
 	    // build the sql statement
 		List<ColumnConfig> cols = new ArrayList<ColumnConfig>(getColumns().size());
@@ -70,8 +77,8 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
       log.info("Prepared statement: "+sql);
       log.debug("Number of columns = "+cols.size());
 	
-	    // create prepared statement
-	    PreparedStatement stmt = factory.create(sql);
+	    // create prepared statement, or reuse the one prepared for the same sql before
+	    PreparedStatement stmt = factory.acquire(sql);
 	
 	    try {
 	        // attach params
@@ -83,19 +90,28 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
 	        }
 	        // trigger execution
 	        stmt.execute();
+	        return stmt.getUpdateCount();
 	    } catch(SQLException e) {
 	        throw new DatabaseException(e);
 	    } finally {
-	        for (Closeable closeable : closeables) {
-                StreamUtil.closeQuietly(closeable);
-            }
-	        JdbcUtils.closeStatement(stmt);
+	        closeLobStreams();
+	        factory.release(stmt);
 	    }
 	}
 
 	protected abstract String generateSql(List<ColumnConfig> cols);
+
+	/**
+	 * Closes the BLOB and CLOB file streams opened by {@link #applyColumnParameter(PreparedStatement, int, ColumnConfig)}.
+	 */
+	protected void closeLobStreams() {
+	    for (Closeable closeable : closeables) {
+	        StreamUtil.closeQuietly(closeable);
+	    }
+	    closeables.clear();
+	}
 	
-	private void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
+	protected void applyColumnParameter(PreparedStatement stmt, int i, ColumnConfig col) throws SQLException, DatabaseException {
 		if(col.getValue() != null) {
         log.debug("value is string = "+col.getValue());
 		    stmt.setString(i, col.getValue());
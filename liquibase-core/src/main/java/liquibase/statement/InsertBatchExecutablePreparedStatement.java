@@ -0,0 +1,157 @@
+package liquibase.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import liquibase.change.ColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Handles INSERT Execution of many rows through one prepared statement and JDBC batches of batchSize rows.
+ * Every row must have the same columns in the same order. BLOB and CLOB files are read as each row is added to the batch
+ * and closed once the batch is executed.
+ * <p/>
+ * If commitInterval is above 0 the transaction is committed every commitInterval rows, so a failure leaves the rows before it in the table.
+ * <p/>
+ * String values of the untypedColumns were read as text without a known column type, and are bound with
+ * {@link #applyUntypedColumnParameter(PreparedStatement, int, ColumnConfig)} so the database converts them like a quoted literal.
+ */
+public class InsertBatchExecutablePreparedStatement extends InsertExecutablePreparedStatement {
+
+    private Logger log = LogFactory.getLogger();
+
+    private final List<List<ColumnConfig>> rows;
+    private final int batchSize;
+    private final int commitInterval;
+    private final Set<String> untypedColumns;
+
+    public InsertBatchExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, List<List<ColumnConfig>> rows,
+                                                  ChangeSet changeSet, ResourceAccessor resourceAccessor, int batchSize, int commitInterval) {
+        this(database, catalogName, schemaName, tableName, rows, changeSet, resourceAccessor, batchSize, commitInterval, Collections.<String>emptySet());
+    }
+
+    public InsertBatchExecutablePreparedStatement(Database database, String catalogName, String schemaName, String tableName, List<List<ColumnConfig>> rows,
+                                                  ChangeSet changeSet, ResourceAccessor resourceAccessor, int batchSize, int commitInterval, Set<String> untypedColumns) {
+        super(database, catalogName, schemaName, tableName, rows.get(0), changeSet, resourceAccessor);
+        this.rows = rows;
+        this.batchSize = Math.max(batchSize, 1);
+        this.commitInterval = Math.max(commitInterval, 0);
+        this.untypedColumns = untypedColumns;
+    }
+
+    public List<List<ColumnConfig>> getRows() {
+        return rows;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+
+    /**
+     * Returns the names of the columns whose string values have no known type.
+     */
+    public Set<String> getUntypedColumns() {
+        return untypedColumns;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        List<ColumnConfig> cols = new ArrayList<ColumnConfig>(getColumns().size());
+        String sql = generateSql(cols);
+        log.info("Prepared statement: " + sql + " for " + rows.size() + " rows in batches of " + batchSize);
+
+        List<Integer> columnIndexes = new ArrayList<Integer>(cols.size());
+        for (int i = 0; i < getColumns().size(); i++) {
+            for (ColumnConfig col : cols) {
+                if (col == getColumns().get(i)) {
+                    columnIndexes.add(i);
+                }
+            }
+        }
+
+        PreparedStatement stmt = factory.acquire(sql);
+        try {
+            boolean supportsBatchUpdates = stmt.getConnection().getMetaData().supportsBatchUpdates();
+            int batched = 0;
+            int uncommitted = 0;
+            for (List<ColumnConfig> row : rows) {
+                int i = 1;  // index starts from 1
+                for (Integer columnIndex : columnIndexes) {
+                    ColumnConfig column = row.get(columnIndex);
+                    if (column.getValue() != null && column.getValue().equalsIgnoreCase("NULL")) {
+                        stmt.setNull(i, Types.NULL); //loadData keeps untyped NULL values as the string, like the generated INSERT
+                    } else if (column.getValue() != null && untypedColumns.contains(column.getName())) {
+                        applyUntypedColumnParameter(stmt, i, column);
+                    } else {
+                        applyColumnParameter(stmt, i, column);
+                    }
+                    i++;
+                }
+                if (supportsBatchUpdates) {
+                    stmt.addBatch();
+                    batched++;
+                    if (batched >= batchSize) {
+                        stmt.executeBatch();
+                        closeLobStreams();
+                        batched = 0;
+                    }
+                } else {
+                    stmt.execute();
+                    closeLobStreams();
+                }
+
+                uncommitted++;
+                if (commitInterval > 0 && uncommitted >= commitInterval) {
+                    if (batched > 0) {
+                        stmt.executeBatch();
+                        closeLobStreams();
+                        batched = 0;
+                    }
+                    database.commit();
+                    uncommitted = 0;
+                }
+            }
+            if (batched > 0) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            try {
+                stmt.clearBatch();
+            } catch (SQLException ignored) {
+                //already failing
+            }
+            throw new DatabaseException(e);
+        } finally {
+            closeLobStreams();
+            factory.release(stmt);
+        }
+    }
+
+    /**
+     * Binds a string value whose column type is not known. PostgreSQL does not convert character parameters to other column types,
+     * so the value is sent with an unspecified type there and the database converts it by the column type.
+     */
+    protected void applyUntypedColumnParameter(PreparedStatement stmt, int i, ColumnConfig column) throws SQLException, DatabaseException {
+        if (database instanceof PostgresDatabase) {
+            stmt.setObject(i, column.getValue(), Types.OTHER);
+        } else {
+            applyColumnParameter(stmt, i, column);
+        }
+    }
+}
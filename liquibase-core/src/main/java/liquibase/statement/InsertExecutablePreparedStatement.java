@@ -35,6 +35,10 @@ public class InsertExecutablePreparedStatement extends ExecutablePreparedStateme
 	        }
 	        sql.append(database.escapeColumnName(getCatalogName(), getSchemaName(), getTableName(), column.getName()));
 	        sql.append(", ");
+	        if (column.getValueComputed() != null) {
+	            params.append(database.generateDatabaseFunctionValue(column.getValueComputed())).append(", ");
+	            continue;
+	        }
 	        params.append("?, ");
 	        cols.add(column);
 	    }
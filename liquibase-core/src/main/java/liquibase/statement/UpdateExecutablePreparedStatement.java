@@ -35,6 +35,10 @@ public class UpdateExecutablePreparedStatement extends ExecutablePreparedStateme
 	    for(ColumnConfig column : getColumns()) {
 	    	params.append(database.escapeColumnName(getCatalogName(), getSchemaName(), getTableName(), column.getName()));
 	    	params.append(" = ");
+	        if (column.getValueComputed() != null) {
+	            params.append(database.generateDatabaseFunctionValue(column.getValueComputed())).append(", ");
+	            continue;
+	        }
 	        params.append("?, ");
 	        cols.add(column);
 	    }
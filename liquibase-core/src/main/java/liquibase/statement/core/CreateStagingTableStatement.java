@@ -0,0 +1,62 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.List;
+
+/**
+ * Creates an empty table with the given columns of an existing table, so rows can be loaded into it before they are moved into the existing table.
+ */
+public class CreateStagingTableStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private String stagingCatalogName;
+    private String stagingSchemaName;
+    private String stagingTableName;
+    private List<String> columnNames;
+
+    public CreateStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingTableName, List<String> columnNames) {
+        this(catalogName, schemaName, tableName, catalogName, schemaName, stagingTableName, columnNames);
+    }
+
+    public CreateStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingCatalogName, String stagingSchemaName,
+                                       String stagingTableName, List<String> columnNames) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.stagingCatalogName = stagingCatalogName;
+        this.stagingSchemaName = stagingSchemaName;
+        this.stagingTableName = stagingTableName;
+        this.columnNames = columnNames;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getStagingCatalogName() {
+        return stagingCatalogName;
+    }
+
+    public String getStagingSchemaName() {
+        return stagingSchemaName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+}
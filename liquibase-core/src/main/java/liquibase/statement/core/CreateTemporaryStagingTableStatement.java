@@ -0,0 +1,15 @@
+package liquibase.statement.core;
+
+import java.util.List;
+
+/**
+ * Creates the staging table as a temporary table, which is only visible to the session that creates it. Creating it does not commit the transaction.
+ * It is dropped with a {@link DropTemporaryStagingTableStatement}.
+ */
+public class CreateTemporaryStagingTableStatement extends CreateStagingTableStatement {
+
+    public CreateTemporaryStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingCatalogName, String stagingSchemaName,
+                                                String stagingTableName, List<String> columnNames) {
+        super(catalogName, schemaName, tableName, stagingCatalogName, stagingSchemaName, stagingTableName, columnNames);
+    }
+}
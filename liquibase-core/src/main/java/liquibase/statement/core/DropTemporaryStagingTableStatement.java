@@ -0,0 +1,31 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * Drops a table created by {@link CreateTemporaryStagingTableStatement} if it still exists, without committing the transaction.
+ */
+public class DropTemporaryStagingTableStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String stagingTableName;
+
+    public DropTemporaryStagingTableStatement(String catalogName, String schemaName, String stagingTableName) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.stagingTableName = stagingTableName;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+}
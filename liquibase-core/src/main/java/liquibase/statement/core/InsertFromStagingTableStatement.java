@@ -0,0 +1,45 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.List;
+
+/**
+ * Inserts all rows of a table created by {@link CreateStagingTableStatement} into the table it was created from.
+ */
+public class InsertFromStagingTableStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private String stagingTableName;
+    private List<String> columnNames;
+
+    public InsertFromStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingTableName, List<String> columnNames) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.stagingTableName = stagingTableName;
+        this.columnNames = columnNames;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+}
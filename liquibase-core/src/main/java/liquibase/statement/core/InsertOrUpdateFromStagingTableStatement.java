@@ -0,0 +1,86 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.List;
+
+/**
+ * Inserts the rows of a table created by {@link CreateStagingTableStatement} into the table it was created from,
+ * or updates the rows with the same primary key, like an {@link InsertOrUpdateStatement} per staged row.
+ * The staging table must not hold two rows with the same primary key.
+ */
+public class InsertOrUpdateFromStagingTableStatement extends AbstractSqlStatement {
+
+    private String catalogName;
+    private String schemaName;
+    private String tableName;
+    private String stagingCatalogName;
+    private String stagingSchemaName;
+    private String stagingTableName;
+    private List<String> columnNames;
+    private String primaryKey;
+    private Boolean onlyUpdate = Boolean.FALSE;
+
+    public InsertOrUpdateFromStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingTableName,
+                                                   List<String> columnNames, String primaryKey, boolean onlyUpdate) {
+        this(catalogName, schemaName, tableName, catalogName, schemaName, stagingTableName, columnNames, primaryKey, onlyUpdate);
+    }
+
+    public InsertOrUpdateFromStagingTableStatement(String catalogName, String schemaName, String tableName, String stagingCatalogName, String stagingSchemaName,
+                                                   String stagingTableName, List<String> columnNames, String primaryKey, boolean onlyUpdate) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.stagingCatalogName = stagingCatalogName;
+        this.stagingSchemaName = stagingSchemaName;
+        this.stagingTableName = stagingTableName;
+        this.columnNames = columnNames;
+        this.primaryKey = primaryKey;
+        this.onlyUpdate = onlyUpdate;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getStagingCatalogName() {
+        return stagingCatalogName;
+    }
+
+    public String getStagingSchemaName() {
+        return stagingSchemaName;
+    }
+
+    public String getStagingTableName() {
+        return stagingTableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Comma delimited list of the primary key columns, which must be in {@link #getColumnNames()}.
+     */
+    public String getPrimaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * If true, staged rows with no matching row in the table are ignored.
+     */
+    public Boolean getOnlyUpdate() {
+        if (onlyUpdate == null) {
+            return false;
+        }
+        return onlyUpdate;
+    }
+}
@@ -74,7 +74,7 @@ public class MD5Util {
      *            a byte[] to convert to Hex characters
      * @return A char[] containing hexadecimal characters
      */
-    private static char[] encodeHex(byte[] data) {
+    public static char[] encodeHex(byte[] data) {
 
         int l = data.length;
 
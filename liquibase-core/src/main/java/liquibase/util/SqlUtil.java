@@ -254,6 +254,14 @@ public class SqlUtil {
         }
     }
 
+    /**
+     * Returns true if the string value is a function call the insert and update generators write without quoting,
+     * such as the current date/time function of the database or a to_date(...) call.
+     */
+    public static boolean looksLikeFunctionCall(String value, Database database) {
+        return value.startsWith("\"SYSIBM\"") || value.startsWith("to_date(") || value.equalsIgnoreCase(database.getCurrentDateTimeFunction());
+    }
+
     public static String replacePredicatePlaceholders(Database database, String predicate, List<String> columnNames, List<Object> parameters) {
         Matcher matcher = Pattern.compile(":name|\\?|:value").matcher(predicate.trim());
         StringBuffer sb = new StringBuffer();
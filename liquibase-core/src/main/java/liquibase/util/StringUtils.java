@@ -251,6 +251,21 @@ public class StringUtils {
         return string.replace("\r\n", "\n").replace("\r", "\n");
     }
 
+    /**
+     * Returns a form of the given string that can be used as a hash key where two strings are considered equal exactly
+     * when {@link String#equalsIgnoreCase(String)} would consider them equal. Returns null if the string is null.
+     */
+    public static String toCaseInsensitiveKey(String string) {
+        if (string == null) {
+            return null;
+        }
+        char[] chars = string.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
     public static boolean isAscii(String string) {
         if (string == null) {
             return true;
@@ -0,0 +1,192 @@
+package liquibase
+
+import liquibase.exception.UnexpectedLiquibaseException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.regex.Pattern
+
+class CompiledExpressionTest extends Specification {
+
+    private static final String[] TOKENS = ["a", "b", "c", "x y", "A", "!", "not ", "(", ")", " and ", " or ", " AND ", " ", "  ", ",", ":true", "!(", "not(", "\n"]
+    private static final List<String> NAMES = ["a", "b", "c", "x y", ":true", ":false", " a"]
+
+    @Unroll("#featureName: #expression")
+    def "compiled context expressions evaluate like the expression string"() {
+        expect:
+        for (List<String> runtime : runtimeCombinations()) {
+            assert evaluate { new ContextExpression(expression).matches(new Contexts(runtime)) } == evaluate { legacyMatches(new ContextExpression(expression).getContexts(), runtime, false) }
+        }
+
+        where:
+        expression << ["a", "!a", "a and b", "a or b and c", "(a)", "!(a)", "not(a)", "a and (b or c)", "(a or b) and (b or c)", "((a) or b)", "a(b", "(a", "a)",
+                       "(a or (b and c))", ":true", "! (a)", "(a) and", "(a and (b))"]
+    }
+
+    @Unroll("#featureName: #expression")
+    def "compiled label expressions evaluate like the expression string"() {
+        expect:
+        for (List<String> runtime : runtimeCombinations()) {
+            assert evaluate { new LabelExpression(expression).matches(new Labels(runtime)) } == evaluate { legacyMatches(new LabelExpression(expression).getLabels(), runtime, true) }
+        }
+
+        where:
+        expression << ["a", "!a", "not a", "NOT(a)", "a and b", "a or b and c", "(a)", "!(a)", "a and (b or c)", "(a or (b and c))", "((a) or b)", "a(b", "(a",
+                       "not (a or b) and c", ":true", "! (a)", "((a and b) or (c and !a))"]
+    }
+
+    def "random expressions evaluate like the expression string"() {
+        when:
+        def random = new Random(5)
+        def runtimes = runtimeCombinations()
+        for (int i = 0; i < 1000; i++) {
+            def expression = new StringBuilder()
+            int length = random.nextInt(10) + 1
+            for (int j = 0; j < length; j++) {
+                expression.append(TOKENS[random.nextInt(TOKENS.length)])
+            }
+            def string = expression.toString()
+            for (List<String> runtime : runtimes) {
+                assert evaluate { new ContextExpression(string).matches(new Contexts(runtime)) } == evaluate { legacyMatches(new ContextExpression(string).getContexts(), runtime, false) }: string + " " + runtime
+                assert evaluate { new LabelExpression(string).matches(new Labels(runtime)) } == evaluate { legacyMatches(new LabelExpression(string).getLabels(), runtime, true) }: string + " " + runtime
+            }
+        }
+
+        then:
+        notThrown(AssertionError)
+    }
+
+    def "expressions are recompiled after adding"() {
+        when:
+        def expression = new ContextExpression("a")
+        def contexts = new Contexts("b")
+
+        then:
+        !expression.matches(contexts)
+
+        when:
+        expression.add("b")
+
+        then:
+        expression.matches(contexts)
+
+        when:
+        contexts = new Contexts("c")
+
+        then:
+        !expression.matches(contexts)
+
+        when:
+        contexts.add("a")
+
+        then:
+        expression.matches(contexts)
+    }
+
+    def "normalize matches names equal ignoring case"() {
+        expect:
+        CompiledExpression.normalize(["Test"] as Set) == CompiledExpression.normalize(["tEST"] as Set)
+        CompiledExpression.normalize(["x y"] as Set) != CompiledExpression.normalize(["x  y"] as Set)
+        (CompiledExpression.normalize(["İ"] as Set) == CompiledExpression.normalize(["i"] as Set)) == "İ".equalsIgnoreCase("i")
+    }
+
+    private static List<List<String>> runtimeCombinations() {
+        List<List<String>> combinations = []
+        for (int mask = 1; mask < (1 << NAMES.size()); mask++) {
+            List<String> runtime = []
+            for (int i = 0; i < NAMES.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    runtime.add(NAMES[i])
+                }
+            }
+            combinations.add(runtime)
+        }
+        return combinations
+    }
+
+    private static Object evaluate(Closure<Boolean> closure) {
+        try {
+            return closure.call()
+        } catch (UnexpectedLiquibaseException e) {
+            return e.message
+        }
+    }
+
+    /**
+     * The string based evaluation ContextExpression and LabelExpression used before expressions were compiled.
+     */
+    private static boolean legacyMatches(Set<String> expressions, List<String> runtime, boolean label) {
+        def runtimeNames = label ? new Labels(runtime).getLabels() : new Contexts(runtime).getContexts()
+        if (runtimeNames.isEmpty() || expressions.isEmpty()) {
+            return true
+        }
+        for (String expression : expressions) {
+            if (legacyMatches(expression, runtimeNames, label)) {
+                return true
+            }
+        }
+        return false
+    }
+
+    private static boolean legacyMatches(String expression, Set<String> runtimeNames, boolean label) {
+        if (expression.trim().equals(":TRUE")) {
+            return true
+        }
+        if (expression.trim().equals(":FALSE")) {
+            return false
+        }
+
+        while (expression.contains("(")) {
+            def pattern = Pattern.compile(label ? "(.*?)\\(([^\\(\\)]*?)\\)(.*)" : "(.*?)\\((.*?)\\)(.*)")
+            def matcher = pattern.matcher(expression)
+            if (!matcher.matches()) {
+                throw new UnexpectedLiquibaseException("Cannot parse " + (label ? "label" : "context") + " pattern " + expression)
+            }
+            String parenExpression = ":" + String.valueOf(legacyMatches(matcher.group(2), runtimeNames, label)).toUpperCase()
+            expression = matcher.group(1) + " " + parenExpression + " " + matcher.group(3)
+        }
+
+        String[] orSplit = expression.split("\\s+or\\s+")
+        if (orSplit.length > 1) {
+            for (String split : orSplit) {
+                if (legacyMatches(split, runtimeNames, label)) {
+                    return true
+                }
+            }
+            return false
+        }
+
+        String[] andSplit = expression.split("\\s+and\\s+")
+        if (andSplit.length > 1) {
+            for (String split : andSplit) {
+                if (!legacyMatches(split, runtimeNames, label)) {
+                    return false
+                }
+            }
+            return true
+        }
+
+        boolean notExpression = false
+        if (expression.startsWith("!")) {
+            notExpression = true
+            expression = expression.substring(1)
+        } else if (label && expression.toLowerCase().startsWith("not ")) {
+            notExpression = true
+            expression = expression.substring(4)
+        }
+
+        if (label && expression.trim().equals(":TRUE")) {
+            return !notExpression
+        }
+        if (label && expression.trim().equals(":FALSE")) {
+            return notExpression
+        }
+
+        for (String name : runtimeNames) {
+            if (name.equalsIgnoreCase(expression)) {
+                return !notExpression
+            }
+        }
+        return notExpression
+    }
+}
@@ -1,19 +1,38 @@
 package liquibase.change.core
 import liquibase.change.ChangeStatus
+import liquibase.change.ColumnConfig
 import liquibase.change.StandardChangeTest
+import liquibase.change.StreamingChange
 import liquibase.changelog.ChangeSet
+import liquibase.changelog.DatabaseChangeLog
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.Database
+import liquibase.database.DatabasePool
+import liquibase.database.DatabasePoolService
+import liquibase.database.core.H2Database
 import liquibase.database.core.MSSQLDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.executor.ExecutorService
+import liquibase.executor.LoggingExecutor
 import liquibase.parser.core.ParsedNodeException
 import liquibase.resource.ClassLoaderResourceAccessor
+import liquibase.resource.FileSystemResourceAccessor
 import liquibase.sdk.database.MockDatabase
 import liquibase.snapshot.MockSnapshotGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.statement.CopyExecutablePreparedStatement
+import liquibase.statement.InsertBatchExecutablePreparedStatement
 import liquibase.statement.SqlStatement
 import liquibase.statement.core.InsertSetStatement
 import liquibase.statement.core.InsertStatement
 import liquibase.test.JUnitResourceAccessor
 import spock.lang.Unroll
 
+import java.sql.DriverManager
+
 public class LoadDataChangeTest extends StandardChangeTest {
 
 
@@ -388,4 +407,489 @@ public class LoadDataChangeTest extends StandardChangeTest {
         then:
         assert md5sum1.equals(md5sum2)
     }
+
+    @Unroll("#featureName: #file, comments #commentLineStartsWith")
+    def "checksum of a local file read through a memory mapped file matches the checksum read from the classpath"() {
+        when:
+        def directory = File.createTempFile("liquibase-loaddata", "")
+        directory.delete()
+        directory.mkdirs()
+        def localFile = new File(directory, "data.csv")
+        localFile.bytes = getClass().getClassLoader().getResourceAsStream(file).bytes
+
+        LoadDataChange classpathChange = new LoadDataChange(tableName: "TABLE_NAME", file: file, commentLineStartsWith: commentLineStartsWith)
+        classpathChange.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        LoadDataChange localChange = new LoadDataChange(tableName: "TABLE_NAME", file: "data.csv", commentLineStartsWith: commentLineStartsWith)
+        localChange.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+
+        def classpathCheckSum = classpathChange.generateCheckSum()
+        def localCheckSum = localChange.generateCheckSum()
+        localFile.delete()
+        directory.delete()
+
+        then:
+        localCheckSum == classpathCheckSum
+
+        where:
+        file                                                   | commentLineStartsWith
+        "liquibase/change/core/sample.data1-withComments.csv"   | "#"
+        "liquibase/change/core/sample.data1-withComments.csv"   | ""
+        "liquibase/change/core/sample.data1-removedComments.csv" | "#"
+        "liquibase/change/core/sample.data1.tsv"               | "#"
+    }
+
+    private LoadDataChange chunkedChange(File directory, int rows) {
+        def content = new StringBuilder("name,username\n")
+        for (int i = 1; i <= rows; i++) {
+            content.append("Person " + i + ",person" + i + "\n")
+        }
+        new File(directory, "data.csv").text = content.toString()
+
+        LoadDataChange change = new LoadDataChange(tableName: "PERSON", file: "data.csv")
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+        return change
+    }
+
+    private static File createTempDirectory() {
+        def directory = File.createTempFile("liquibase-loaddata", "")
+        directory.delete()
+        directory.mkdirs()
+        return directory
+    }
+
+    def "statements are generated in chunks of loadDataChunkSize rows"() {
+        when:
+        def directory = createTempDirectory()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataChunkSize(2)
+        def change = chunkedChange(directory, 5)
+        def chunks = []
+        change.generateStatements(new MSSQLDatabase(), new StreamingChange.StatementHandler() {
+            @Override
+            void handle(SqlStatement[] statements) {
+                chunks.add(statements)
+            }
+        })
+        def all = change.generateStatements(new MSSQLDatabase())
+        def inChunks = change.generateStatementsInChunks(new MSSQLDatabase())
+        LiquibaseConfiguration.getInstance().reset()
+        new File(directory, "data.csv").delete()
+        directory.delete()
+
+        then:
+        inChunks
+        !change.generateStatementsInChunks(new MSSQLDatabase())
+        chunks.size() == 3
+        chunks.every { it.length == 1 && it[0] instanceof InsertSetStatement }
+        chunks.collect { it[0].statements.size() } == [2, 2, 1]
+        chunks.collectMany { it[0].statements*.getColumnValue("name") } == ((InsertSetStatement) all[0]).statements*.getColumnValue("name")
+        ((InsertSetStatement) all[0]).statements.size() == 5
+    }
+
+    def "chunks are executed and written to updateSQL output as they are read"() {
+        when:
+        def directory = createTempDirectory()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataChunkSize(3)
+        def change = chunkedChange(directory, 7)
+
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loaddatachunks", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (NAME VARCHAR(50), USERNAME VARCHAR(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        database.executeStatements(change, null, [])
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PERSON")
+        resultSet.next()
+        def rowCount = resultSet.getInt(1)
+
+        def output = new StringWriter()
+        ExecutorService.instance.setExecutor(database, new LoggingExecutor(null, output, database))
+        database.executeStatements(change, null, [])
+
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        new File(directory, "data.csv").delete()
+        directory.delete()
+
+        then:
+        rowCount == 7
+        output.toString().count("INSERT INTO") == 7
+        output.toString().contains("Person 7")
+    }
+
+    def "rows are inserted in JDBC batches of loadDataBatchSize rows"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "name,notes,created,username\n" +
+                "Person 1,NULL,NOW(),person1\n" +
+                "Person 2,notes2.txt,NULL,person2\n" +
+                "Person 3,notes1.txt,NULL,NULL\n" +
+                "Person 4,NULL,NOW(),person4\n" +
+                "Person 5,NULL,NULL,null\n"
+        new File(directory, "notes1.txt").text = "first notes"
+        new File(directory, "notes2.txt").text = "second notes"
+
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(2)
+        LoadDataChange change = new LoadDataChange(tableName: "PERSON", file: "data.csv")
+        change.addColumn(new LoadDataColumnConfig(name: "notes", type: "CLOB"))
+        change.addColumn(new LoadDataColumnConfig(name: "created", type: "COMPUTED"))
+        change.setChangeSet(new ChangeSet("1", "test", false, false, "changelog.xml", null, null, new DatabaseChangeLog("changelog.xml")))
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loaddatabatches", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (NAME VARCHAR(50), NOTES CLOB, CREATED TIMESTAMP, USERNAME VARCHAR(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+
+        def statements = change.generateStatements(database)
+        database.executeStatements(change, null, [])
+        def resultSet = connection.createStatement().executeQuery("SELECT NAME, NOTES, CREATED, USERNAME FROM PERSON ORDER BY NAME")
+        def rows = []
+        while (resultSet.next()) {
+            rows.add([resultSet.getString(1), resultSet.getString(2), resultSet.getTimestamp(3) != null, resultSet.getString(4)])
+        }
+
+        def output = new StringWriter()
+        ExecutorService.instance.setExecutor(database, new LoggingExecutor(null, output, database))
+        def sqlStatements = change.generateStatements(database)
+
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        statements.length == 4
+        statements*.class == [InsertStatement, InsertBatchExecutablePreparedStatement, InsertStatement, InsertBatchExecutablePreparedStatement]
+        ((InsertBatchExecutablePreparedStatement) statements[1]).rows.size() == 2
+        ((InsertBatchExecutablePreparedStatement) statements[1]).batchSize == 2
+        ((InsertBatchExecutablePreparedStatement) statements[1]).untypedColumns == ["name", "username"] as Set
+        ((InsertBatchExecutablePreparedStatement) statements[3]).rows.size() == 1
+        rows == [["Person 1", null, true, "person1"], ["Person 2", "second notes", false, "person2"], ["Person 3", "first notes", false, null], ["Person 4", null, true, "person4"], ["Person 5", null, false, null]]
+        !sqlStatements.any { it instanceof InsertBatchExecutablePreparedStatement }
+    }
+
+    def "rows with values written as function calls are not inserted in batches"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "name,created,updated\n" +
+                "Person 1,2020-01-01 00:00:00,2020-01-01 00:00:00\n" +
+                "Person 2,NOW(),2020-01-01 00:00:00\n" +
+                "Person 3,2020-01-01 00:00:00,NOW()\n" +
+                "Person 4,2020-01-01 00:00:00,2020-01-01 00:00:00\n"
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(2)
+        LoadDataChange change = new LoadDataChange(tableName: "PERSON", file: "data.csv")
+        change.addColumn(new LoadDataColumnConfig(name: "updated", type: "STRING"))
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loaddatafunctions", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (NAME VARCHAR(50), CREATED TIMESTAMP, UPDATED TIMESTAMP)")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+
+        def statements = change.generateStatements(database)
+        database.executeStatements(change, null, [])
+        def resultSet = connection.createStatement().executeQuery("SELECT NAME, CREATED, UPDATED FROM PERSON ORDER BY NAME")
+        def rows = []
+        while (resultSet.next()) {
+            rows.add([resultSet.getString(1), resultSet.getTimestamp(2).getYear() + 1900 > 2020, resultSet.getTimestamp(3).getYear() + 1900 > 2020])
+        }
+
+        new File(directory, "data.csv").text = "name,created\n" +
+                "Person 1,2020-01-01\n" +
+                "Person 2,\"to_date('2020-01-01', 'YYYY-MM-DD')\"\n"
+        def postgresStatements = new LoadDataChange(tableName: "PERSON", file: "data.csv", resourceAccessor: new FileSystemResourceAccessor(directory.absolutePath))
+                .generateStatements(new PostgresDatabase())
+
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        !statements[1..-2].any { it instanceof InsertBatchExecutablePreparedStatement }
+        ((InsertBatchExecutablePreparedStatement) statements[0]).rows*.get(0)*.value == ["Person 1"]
+        ((InsertBatchExecutablePreparedStatement) statements[-1]).rows*.get(0)*.value == ["Person 4"]
+        rows == [["Person 1", false, false], ["Person 2", true, false], ["Person 3", false, true], ["Person 4", false, false]]
+        postgresStatements*.class == [InsertBatchExecutablePreparedStatement, InsertSetStatement]
+    }
+
+    def "batched rows are committed every loadDataCommitInterval rows"() {
+        when:
+        def directory = createTempDirectory()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(2)
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataCommitInterval(3)
+        def change = chunkedChange(directory, 5)
+        new File(directory, "data.csv").append("Person 1,person1\n")
+
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loaddatacommits", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (NAME VARCHAR(50), USERNAME VARCHAR(50) UNIQUE)")
+        connection.setAutoCommit(false)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def failed = false
+        try {
+            database.executeStatements(change, null, [])
+        } catch (DatabaseException ignored) {
+            failed = true
+        }
+        connection.rollback()
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PERSON")
+        resultSet.next()
+        def rowCount = resultSet.getInt(1)
+
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        failed
+        rowCount == 3
+    }
+
+    def "loadUpdateData does not insert in batches"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataBatchSize(2)
+        def loadData = new LoadDataChange().isBatchInsert(new H2Database())
+        def loadUpdateData = new LoadUpdateDataChange().isBatchInsert(new H2Database())
+        LiquibaseConfiguration.getInstance().reset()
+
+        then:
+        loadData
+        !loadUpdateData
+    }
+
+    def "rows are copied and rows that cannot be copied are inserted in batches"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "name,notes,created\n" +
+                "Person 1,NULL,NULL\n" +
+                "Person 2,notes1.txt,NULL\n" +
+                "Person 3,NULL,NOW()\n" +
+                "Person 4,NULL,NULL\n" +
+                "Person 5,NULL,NULL\n"
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataChunkSize(4)
+        LoadDataChange change = new LoadDataChange() {
+            @Override
+            protected boolean isCopy(Database database) {
+                return true
+            }
+        }
+        change.setTableName("PERSON")
+        change.setFile("data.csv")
+        change.addColumn(new LoadDataColumnConfig(name: "notes", type: "CLOB"))
+        change.addColumn(new LoadDataColumnConfig(name: "created", type: "COMPUTED"))
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+        def chunks = []
+        change.generateStatements(new H2Database(), new StreamingChange.StatementHandler() {
+            @Override
+            void handle(SqlStatement[] statements) {
+                chunks.add(statements)
+            }
+        })
+        LiquibaseConfiguration.getInstance().reset()
+        directory.deleteDir()
+
+        then:
+        chunks.size() == 2
+        chunks[0]*.class == [CopyExecutablePreparedStatement, InsertBatchExecutablePreparedStatement, InsertStatement, CopyExecutablePreparedStatement]
+        chunks[0][0].rows*.get(0)*.value == ["Person 1"]
+        chunks[0][1].batchSize == LoadDataChange.DEFAULT_COPY_FALLBACK_BATCH_SIZE
+        chunks[0][3].rows*.get(0)*.value == ["Person 4"]
+        chunks[1]*.class == [CopyExecutablePreparedStatement]
+        chunks[1][0].copyData == '"Person 5",,\n'
+    }
+
+    def "rows with computed values are grouped into insert sets between copied rows"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "name,created\n" +
+                "Person 1,NULL\n" +
+                "Person 2,NOW()\n" +
+                "Person 3,NOW()\n" +
+                "Person 4,NULL\n"
+        LoadDataChange change = new LoadDataChange() {
+            @Override
+            protected boolean isCopy(Database database) {
+                return true
+            }
+        }
+        change.setTableName("PERSON")
+        change.setFile("data.csv")
+        change.addColumn(new LoadDataColumnConfig(name: "created", type: "COMPUTED"))
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+        def statements = change.generateStatements(new PostgresDatabase())
+        directory.deleteDir()
+
+        then:
+        statements*.class == [CopyExecutablePreparedStatement, InsertSetStatement, CopyExecutablePreparedStatement]
+        ((InsertSetStatement) statements[1]).statements*.columnValues*.get("name") == ["Person 2", "Person 3"]
+        statements[2].rows*.get(0)*.value == ["Person 4"]
+    }
+
+    def "rows with values written as function calls are not copied"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "name,created,updated\n" +
+                "Person 1,2020-01-01,2020-01-01\n" +
+                "Person 2,NOW(),2020-01-01\n" +
+                "Person 3,2020-01-01,\"to_date('2020-01-01', 'YYYY-MM-DD')\"\n" +
+                "Person 4,2020-01-01,2020-01-01\n"
+        LoadDataChange change = new LoadDataChange() {
+            @Override
+            protected boolean isCopy(Database database) {
+                return true
+            }
+        }
+        change.setTableName("PERSON")
+        change.setFile("data.csv")
+        change.addColumn(new LoadDataColumnConfig(name: "updated", type: "STRING"))
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+        def statements = change.generateStatements(new PostgresDatabase())
+        directory.deleteDir()
+
+        then:
+        statements*.class == [CopyExecutablePreparedStatement, InsertSetStatement, CopyExecutablePreparedStatement]
+        statements[0].rows*.get(0)*.value == ["Person 1"]
+        ((InsertSetStatement) statements[1]).statements*.columnValues*.get("name") == ["Person 2", "Person 3"]
+        ((InsertSetStatement) statements[1]).statements*.columnValues*.get("created") == ["NOW()", "2020-01-01"]
+        statements[2].rows*.get(0)*.value == ["Person 4"]
+    }
+
+    private static List<String> stagingTables(java.sql.Connection connection) {
+        def resultSet = connection.createStatement().executeQuery("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME LIKE 'LB_STAGE_%'")
+        def tables = []
+        while (resultSet.next()) {
+            tables.add(resultSet.getString(1))
+        }
+        return tables
+    }
+
+    @Unroll("#featureName: #rows rows, pool of #poolSize")
+    def "rows are loaded over connections leased from the database pool"() {
+        when:
+        def directory = createTempDirectory()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataChunkSize(2)
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataParallelism(3)
+        def change = chunkedChange(directory, rows)
+
+        def url = "jdbc:h2:mem:loaddataparallel;LOCK_TIMEOUT=10000"
+        def connection = DriverManager.getConnection(url, "sa", "")
+        connection.setAutoCommit(false)
+        connection.createStatement().execute("CREATE TABLE PERSON (NAME VARCHAR(8), USERNAME VARCHAR(50))")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def pool = new DatabasePool(database, url, "sa", "", new ClassLoaderResourceAccessor(), poolSize)
+        DatabasePoolService.instance.setPool(database, pool)
+
+        def parallel = change.isParallelLoad(database)
+        def failed = false
+        try {
+            database.executeStatements(change, null, [])
+            database.commit()
+        } catch (DatabaseException ignored) {
+            failed = true
+            database.rollback()
+        }
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PERSON")
+        resultSet.next()
+        def rowCount = resultSet.getInt(1)
+        def leftOver = stagingTables(connection)
+
+        pool.close()
+        DatabasePoolService.instance.reset()
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        parallel
+        failed == expectFailure
+        rowCount == expectedRows
+        leftOver == []
+
+        where:
+        rows | poolSize | expectFailure | expectedRows
+        9    | 3        | false         | 9
+        9    | 1        | false         | 9
+        11   | 3        | true          | 0
+    }
+
+    def "rows are loaded serially after other changes of the same changeSet"() {
+        when:
+        def directory = createTempDirectory()
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataChunkSize(2)
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataParallelism(3)
+        def change = chunkedChange(directory, 5)
+
+        def url = "jdbc:h2:mem:loaddataparallelchangeset;LOCK_TIMEOUT=1000"
+        def connection = DriverManager.getConnection(url, "sa", "")
+        connection.setAutoCommit(false)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def pool = new DatabasePool(database, url, "sa", "", new ClassLoaderResourceAccessor(), 3)
+        DatabasePoolService.instance.setPool(database, pool)
+
+        def changeLog = new DatabaseChangeLog("changelog.xml")
+        def changeSet = new ChangeSet("1", "test", false, false, "changelog.xml", null, null, changeLog)
+        def createTable = new CreateTableChange(tableName: "PERSON")
+        createTable.addColumn(new ColumnConfig(name: "NAME", type: "VARCHAR(50)"))
+        createTable.addColumn(new ColumnConfig(name: "USERNAME", type: "VARCHAR(50)"))
+        changeSet.addChange(createTable)
+        changeSet.addChange(change)
+
+        def parallel = change.isParallelLoad(database)
+        def execType = changeSet.execute(changeLog, database)
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PERSON")
+        resultSet.next()
+        def rowCount = resultSet.getInt(1)
+        def leftOver = stagingTables(connection)
+
+        def firstChangeSet = new ChangeSet("2", "test", false, false, "changelog.xml", null, null, changeLog)
+        def firstChange = chunkedChange(directory, 5)
+        firstChangeSet.addChange(firstChange)
+        def parallelWhenFirst = firstChange.isParallelLoad(database)
+
+        pool.close()
+        DatabasePoolService.instance.reset()
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        !parallel
+        execType == ChangeSet.ExecType.EXECUTED
+        rowCount == 5
+        leftOver == []
+        parallelWhenFirst
+    }
+
+    def "rows are not loaded in parallel without a database pool or for updateSQL"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadDataParallelism(3)
+        def database = new H2Database()
+        def withoutPool = new LoadDataChange(tableName: "PERSON").isParallelLoad(database)
+        DatabasePoolService.instance.setPool(database, new DatabasePool(database, null, 2))
+        def withPool = new LoadDataChange(tableName: "PERSON").isParallelLoad(database)
+        ExecutorService.instance.setExecutor(database, new LoggingExecutor(null, new StringWriter(), database))
+        def updateSql = new LoadDataChange(tableName: "PERSON").isParallelLoad(database)
+        def loadUpdateData = new LoadUpdateDataChange(tableName: "PERSON").isParallelLoad(database)
+
+        DatabasePoolService.instance.reset()
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+
+        then:
+        !withoutPool
+        withPool
+        !updateSql
+        !loadUpdateData
+    }
 }
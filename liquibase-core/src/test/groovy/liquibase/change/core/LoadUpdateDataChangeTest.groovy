@@ -1,13 +1,30 @@
 package liquibase.change.core
 
 import liquibase.change.ChangeStatus
+import liquibase.change.StreamingChange
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import liquibase.executor.LoggingExecutor
+import liquibase.resource.FileSystemResourceAccessor
 import liquibase.snapshot.MockSnapshotGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
 import liquibase.change.StandardChangeTest;
 import liquibase.sdk.database.MockDatabase
 import liquibase.resource.ClassLoaderResourceAccessor;
 import liquibase.statement.SqlStatement
+import liquibase.statement.InsertBatchExecutablePreparedStatement
+import liquibase.statement.core.CreateTemporaryStagingTableStatement
+import liquibase.statement.core.DeleteStatement
+import liquibase.statement.core.DropTemporaryStagingTableStatement
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement
 import liquibase.statement.core.InsertOrUpdateStatement;
+import spock.lang.Unroll
+
+import java.sql.DriverManager
+
 import static org.junit.Assert.*
 
 public class LoadUpdateDataChangeTest extends StandardChangeTest {
@@ -133,4 +150,167 @@ public class LoadUpdateDataChangeTest extends StandardChangeTest {
         then:
         assert md5sum1.equals(md5sum2)
     }
-}
\ No newline at end of file
+
+    private static File createTempDirectory() {
+        def directory = File.createTempFile("liquibase-loadupdatedata", "")
+        directory.delete()
+        directory.mkdirs()
+        return directory
+    }
+
+    @Unroll("rows are inserted or updated through a staging table in batches with onlyUpdate #onlyUpdate")
+    def "rows are inserted or updated through a staging table in batches"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "id,name,username\n" +
+                "1,Person 1,person1\n" +
+                "3,Person 3,person3\n" +
+                "3,Person 3b,NULL\n" +
+                "4,Person 4,person4\n"
+
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadUpdateDataBatchSize(2)
+        def change = new LoadUpdateDataChange()
+        change.setTableName("PERSON")
+        change.setFile("data.csv")
+        change.setPrimaryKey("id")
+        change.setOnlyUpdate(onlyUpdate)
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loadupdatedatabatches", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, NAME VARCHAR(50), USERNAME VARCHAR(50))")
+        connection.createStatement().execute("INSERT INTO PERSON VALUES (1, 'Old 1', 'old1'), (2, 'Old 2', 'old2')")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+
+        def chunks = []
+        change.generateStatements(database, new StreamingChange.StatementHandler() {
+            @Override
+            void handle(SqlStatement[] statements) {
+                chunks.add(statements)
+            }
+        })
+        def inChunks = change.generateStatementsInChunks(database)
+        database.executeStatements(change, null, [])
+        def resultSet = connection.createStatement().executeQuery("SELECT ID, NAME, USERNAME FROM PERSON ORDER BY ID")
+        def rows = []
+        while (resultSet.next()) {
+            rows.add([resultSet.getInt(1), resultSet.getString(2), resultSet.getString(3)])
+        }
+        connection.commit()
+        resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME LIKE 'LB_STAGE_%'")
+        resultSet.next()
+        def stagingTables = resultSet.getInt(1)
+
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        inChunks
+        chunks.size() == 4
+        chunks[0]*.class == [CreateTemporaryStagingTableStatement]
+        chunks[1]*.class == [InsertBatchExecutablePreparedStatement, InsertOrUpdateFromStagingTableStatement, DeleteStatement]
+        ((InsertBatchExecutablePreparedStatement) chunks[1][0]).rows.size() == 2
+        ((InsertBatchExecutablePreparedStatement) chunks[2][0]).rows.size() == 2
+        chunks[3]*.class == [DropTemporaryStagingTableStatement]
+        rows == expected
+        stagingTables == 0
+
+        where:
+        onlyUpdate | expected
+        false      | [[1, "Person 1", "person1"], [2, "Old 2", "old2"], [3, "Person 3b", null], [4, "Person 4", "person4"]]
+        true       | [[1, "Person 1", "person1"], [2, "Old 2", "old2"]]
+    }
+
+    def "rows upserted through the temporary staging table roll back with the changeSet transaction"() {
+        when:
+        def directory = createTempDirectory()
+        new File(directory, "data.csv").text = "id,name\n1,Person 1\n3,Person 3\n4,Person 4\n"
+
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadUpdateDataBatchSize(2)
+        def change = new LoadUpdateDataChange()
+        change.setTableName("PERSON")
+        change.setFile("data.csv")
+        change.setPrimaryKey("id")
+        change.setResourceAccessor(new FileSystemResourceAccessor(directory.absolutePath))
+
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loadupdatedatarollback", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (ID INT PRIMARY KEY, NAME VARCHAR(50))")
+        connection.createStatement().execute("INSERT INTO PERSON VALUES (1, 'Old 1'), (2, 'Old 2')")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        connection.commit()
+
+        database.executeStatements(change, null, [])
+        def rowsLoaded = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PERSON").with { next(); getInt(1) }
+        def stagingTablesLoading = connection.createStatement().executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME LIKE 'LB_STAGE_%'").with { next(); getInt(1) }
+        database.rollback()
+        def rows = []
+        def resultSet = connection.createStatement().executeQuery("SELECT ID, NAME FROM PERSON ORDER BY ID")
+        while (resultSet.next()) {
+            rows.add([resultSet.getInt(1), resultSet.getString(2)])
+        }
+        def stagingTables = connection.createStatement().executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME LIKE 'LB_STAGE_%'").with { next(); getInt(1) }
+
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        directory.deleteDir()
+
+        then:
+        rowsLoaded == 4
+        stagingTablesLoading == 1
+        rows == [[1, "Old 1"], [2, "Old 2"]]
+        stagingTables == 0
+    }
+
+    def "rows are upserted one statement at a time when every statement is committed"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadUpdateDataBatchSize(2)
+        def connection = DriverManager.getConnection("jdbc:h2:mem:loadupdatedataautocommit", "sa", "")
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def change = new LoadUpdateDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setPrimaryKey("name")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        def inTransaction = change.isBatchUpsert(database)
+        connection.setAutoCommit(true)
+        def autoCommit = change.isBatchUpsert(database)
+
+        LiquibaseConfiguration.getInstance().reset()
+        connection.close()
+
+        then:
+        inTransaction
+        !autoCommit
+    }
+
+    def "rollback and updateSQL use one statement per row when loadUpdateDataBatchSize is set"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setLoadUpdateDataBatchSize(2)
+        def database = new H2Database()
+        def change = new LoadUpdateDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setPrimaryKey("name")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        def statements = change.generateStatements(database)
+        def rollbackStatements = change.generateRollbackStatements(database)
+        ExecutorService.instance.setExecutor(database, new LoggingExecutor(null, new StringWriter(), database))
+        def inChunks = change.generateStatementsInChunks(database)
+
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+
+        then:
+        statements.length > 0
+        statements.every { it instanceof InsertOrUpdateStatement }
+        rollbackStatements.length == statements.length
+        !inChunks
+    }
+}
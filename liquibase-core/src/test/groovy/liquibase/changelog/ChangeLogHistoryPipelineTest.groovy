@@ -0,0 +1,150 @@
+package liquibase.changelog
+
+import liquibase.change.core.CreateTableChange
+import liquibase.change.ColumnConfig
+import liquibase.changelog.visitor.UpdateVisitor
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.exception.MigrationFailedException
+import liquibase.executor.ExecutorService
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class ChangeLogHistoryPipelineTest extends Specification {
+
+    Connection connection
+    Connection historyConnection
+    ChangeLogHistoryPipeline pipeline
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:changeloghistorypipeline", "sa", "")
+        connection.setAutoCommit(false)
+        historyConnection = DriverManager.getConnection("jdbc:h2:mem:changeloghistorypipeline", "sa", "")
+    }
+
+    def cleanup() {
+        if (pipeline != null) {
+            pipeline.close()
+        }
+        ExecutorService.instance.reset()
+        ChangeLogHistoryServiceFactory.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+        historyConnection.close()
+    }
+
+    private static ChangeSet changeSet(String id, boolean runInTransaction = false) {
+        return new ChangeSet(id, "nvoxland", false, false, "com/example/changelog.xml", null, null, runInTransaction, null)
+    }
+
+    private List<String> values(String sql) {
+        def resultSet = connection.createStatement().executeQuery(sql)
+        def values = []
+        while (resultSet.next()) {
+            values.add(resultSet.getString(1))
+        }
+        return values
+    }
+
+    def "rows are written and committed in the order they are submitted"() {
+        when:
+        connection.createStatement().execute("CREATE TABLE HISTORY (ID VARCHAR(10))")
+        pipeline = new ChangeLogHistoryPipeline(new JdbcConnection(historyConnection), 3)
+        for (int i = 1; i <= 10; i++) {
+            pipeline.submit(changeSet(String.valueOf(i)), ["INSERT INTO HISTORY VALUES ('" + i + "')"] as String[])
+        }
+        pipeline.await()
+
+        then:
+        values("SELECT ID FROM HISTORY") == (1..10)*.toString()
+    }
+
+    def "autocommit is turned off while the pipeline is open and restored on close"() {
+        when:
+        connection.createStatement().execute("CREATE TABLE HISTORY (ID VARCHAR(10))")
+        connection.commit()
+        def defaultAutoCommit = historyConnection.getAutoCommit()
+        pipeline = new ChangeLogHistoryPipeline(new JdbcConnection(historyConnection), 1)
+        def openAutoCommit = historyConnection.getAutoCommit()
+        pipeline.submit(changeSet("1"), ["INSERT INTO HISTORY VALUES ('1')", "INSERT INTO HISTORY VALUES ('2')"] as String[])
+        pipeline.await()
+        pipeline.close()
+        pipeline = null
+
+        then:
+        defaultAutoCommit
+        !openAutoCommit
+        historyConnection.getAutoCommit()
+        values("SELECT ID FROM HISTORY") == ["1", "2"]
+    }
+
+    def "a failed row is reported on the next call and no later rows are written"() {
+        when:
+        connection.createStatement().execute("CREATE TABLE HISTORY (ID VARCHAR(10))")
+        pipeline = new ChangeLogHistoryPipeline(new JdbcConnection(historyConnection), 1)
+        pipeline.submit(changeSet("1"), ["INSERT INTO HISTORY VALUES ('1')"] as String[])
+        pipeline.submit(changeSet("2"), ["INSERT INTO MISSING VALUES ('2')"] as String[])
+        pipeline.submit(changeSet("3"), ["INSERT INTO HISTORY VALUES ('3')"] as String[])
+
+        then:
+        def e = thrown(DatabaseException)
+        e.message.contains("com/example/changelog.xml::2::nvoxland")
+
+        when:
+        pipeline.await()
+
+        then:
+        thrown(DatabaseException)
+        values("SELECT ID FROM HISTORY") == ["1"]
+    }
+
+    def "update writes the history of changeSets outside a transaction through the pipeline"() {
+        when:
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+        pipeline = new ChangeLogHistoryPipeline(new JdbcConnection(historyConnection), 1)
+        def visitor = new UpdateVisitor(database, null)
+        visitor.setHistoryPipeline(pipeline)
+
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        for (int i = 1; i <= 6; i++) {
+            def changeSet = changeSet(String.valueOf(i), i == 4)
+            changeSet.addChange(new CreateTableChange(tableName: "TABLE" + i, columns: [new ColumnConfig(name: "ID", type: "int")]))
+            visitor.visit(changeSet, changeLog, database, null)
+        }
+        pipeline.await()
+
+        then:
+        values("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED") == ["1", "2", "3", "4", "5", "6"]
+        values("SELECT ORDEREXECUTED FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED") == ["1", "2", "3", "4", "5", "6"]
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).getRanChangeSets()*.id == ["1", "2", "3", "4", "5", "6"]
+    }
+
+    def "a changeSet does not change the database before the history of the previous one is written"() {
+        when:
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+        pipeline = new ChangeLogHistoryPipeline(new JdbcConnection(historyConnection), 1)
+        def visitor = new UpdateVisitor(database, null)
+        visitor.setHistoryPipeline(pipeline)
+
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        def first = changeSet("x" * 300) //too long for the history table
+        first.addChange(new CreateTableChange(tableName: "TABLE1", columns: [new ColumnConfig(name: "ID", type: "int")]))
+        def second = changeSet("2")
+        second.addChange(new CreateTableChange(tableName: "TABLE2", columns: [new ColumnConfig(name: "ID", type: "int")]))
+        visitor.visit(first, changeLog, database, null)
+        visitor.visit(second, changeLog, database, null)
+
+        then:
+        thrown(MigrationFailedException)
+        values("SELECT TABLE_NAME FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME LIKE 'TABLE_' AND TABLE_SCHEMA = 'PUBLIC'") == ["TABLE1"]
+    }
+}
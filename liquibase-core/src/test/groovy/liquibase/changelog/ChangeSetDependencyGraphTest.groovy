@@ -0,0 +1,169 @@
+package liquibase.changelog
+
+import liquibase.change.AddColumnConfig
+import liquibase.change.Change
+import liquibase.change.ColumnConfig
+import liquibase.change.ConstraintsConfig
+import liquibase.change.core.AddForeignKeyConstraintChange
+import liquibase.change.core.CreateIndexChange
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.DropTableChange
+import liquibase.change.core.DropViewChange
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.RawSQLChange
+import liquibase.change.core.RenameTableChange
+import liquibase.change.core.UpdateDataChange
+import liquibase.precondition.core.PreconditionContainer
+import liquibase.precondition.core.TableExistsPrecondition
+import liquibase.statement.DatabaseFunction
+import liquibase.statement.SequenceNextValueFunction
+import spock.lang.Specification
+
+class ChangeSetDependencyGraphTest extends Specification {
+
+    ChangeSetDependencyGraph graph = new ChangeSetDependencyGraph()
+
+    private static ChangeSet changeSet(String id, Change... changes) {
+        def changeSet = new ChangeSet(id, "nvoxland", false, false, "com/example/changelog.xml", null, null, null)
+        for (def change : changes) {
+            changeSet.addChange(change)
+        }
+        return changeSet
+    }
+
+    private static CreateTableChange createTable(String tableName, ConstraintsConfig constraints = null) {
+        return new CreateTableChange(tableName: tableName, columns: [new ColumnConfig(name: "id", type: "int", constraints: constraints)])
+    }
+
+    private static List<String> prerequisites(ChangeSetDependencyGraph.Node node) {
+        return node.prerequisites*.changeSet*.id
+    }
+
+    def "changeSets on different objects do not depend on each other"() {
+        when:
+        def first = graph.add(changeSet("1", createTable("person")))
+        def second = graph.add(changeSet("2", createTable("address")))
+        def third = graph.add(changeSet("3", new CreateIndexChange(tableName: "PERSON", indexName: "idx_person", columns: [new AddColumnConfig(name: "id")])))
+        def fourth = graph.add(changeSet("4", new InsertDataChange(tableName: "address", columns: [new ColumnConfig(name: "id", valueNumeric: 1)])))
+
+        then:
+        !first.barrier
+        prerequisites(first) == []
+        prerequisites(second) == []
+        prerequisites(third) == ["1"]
+        prerequisites(fourth) == ["2"]
+        graph.nodes*.index == [0, 1, 2, 3]
+    }
+
+    def "object names ignore case and schema and include referenced tables and sequences"() {
+        when:
+        def names = graph.getObjectNames(changeSet("1",
+                new CreateTableChange(schemaName: "app", tableName: "Person", columns: [
+                        new ColumnConfig(name: "address_id", type: "int", constraints: new ConstraintsConfig(foreignKeyName: "fk_address", references: "ADDRESS(id)")),
+                        new ColumnConfig(name: "id", type: "int", defaultValueSequenceNext: new SequenceNextValueFunction("person_seq"))
+                ])))
+
+        then:
+        names == ["person", "address", "person_seq"] as Set
+    }
+
+    def "a changeSet is a barrier if its objects cannot be told"() {
+        expect:
+        graph.getObjectNames(changeSet) == null
+
+        where:
+        changeSet << [
+                changeSet("sql", new RawSQLChange("select 1")),
+                changeSet("mixed", createTable("person"), new RawSQLChange("select 1")),
+                changeSet("where", new UpdateDataChange(tableName: "person", columns: [new ColumnConfig(name: "id", valueNumeric: 1)], where: "id in (select id from other)")),
+                changeSet("computed", new InsertDataChange(tableName: "person", columns: [new ColumnConfig(name: "id", valueComputed: new DatabaseFunction("max_id()"))])),
+                changeSet("dropView", new DropViewChange(viewName: "person_view")),
+                changeSet("empty"),
+                {
+                    def runOrder = changeSet("runOrder", createTable("person"))
+                    runOrder.setRunOrder("last")
+                    runOrder
+                }(),
+                {
+                    def preconditions = changeSet("preconditions", createTable("person"))
+                    def container = new PreconditionContainer()
+                    container.addNestedPrecondition(new TableExistsPrecondition(tableName: "address"))
+                    preconditions.setPreconditions(container)
+                    preconditions
+                }()
+        ]
+    }
+
+    def "a barrier depends on every changeSet since the previous barrier and every later changeSet depends on it"() {
+        when:
+        graph.add(changeSet("1", createTable("person")))
+        graph.add(changeSet("2", createTable("address")))
+        def barrier = graph.add(changeSet("3", new RawSQLChange("select 1")))
+        def after = graph.add(changeSet("4", createTable("person_copy")))
+        def afterSameTable = graph.add(changeSet("5", new InsertDataChange(tableName: "person", columns: [new ColumnConfig(name: "id", valueNumeric: 1)])))
+        def nextBarrier = graph.add(changeSet("6", new RawSQLChange("select 1")))
+
+        then:
+        barrier.barrier
+        prerequisites(barrier) == ["1", "2"]
+        prerequisites(after) == ["3"]
+        prerequisites(afterSameTable) == ["3"]
+        prerequisites(nextBarrier) == ["4", "5", "3"]
+    }
+
+    private static InsertDataChange insert(String tableName) {
+        return new InsertDataChange(tableName: tableName, columns: [new ColumnConfig(name: "id", valueNumeric: 1)])
+    }
+
+    def "changeSets on tables linked by a foreign key in createTable depend on each other"() {
+        when:
+        graph.add(changeSet("1", createTable("parent")))
+        graph.add(changeSet("2", createTable("child", new ConstraintsConfig(foreignKeyName: "fk_child_parent", references: "PARENT(id)"))))
+        def parentInsert = graph.add(changeSet("3", insert("parent")))
+        def childInsert = graph.add(changeSet("4", insert("child")))
+        def otherInsert = graph.add(changeSet("5", insert("other")))
+
+        then:
+        prerequisites(parentInsert) == ["2"]
+        prerequisites(childInsert) == ["3"]
+        prerequisites(otherInsert) == []
+    }
+
+    def "changeSets on tables linked by addForeignKeyConstraint or renamed depend on each other"() {
+        when:
+        def parentInsert = graph.add(changeSet("1", insert("parent")))
+        def childInsert = graph.add(changeSet("2", insert("app.child")))
+        def foreignKey = graph.add(changeSet("3", new AddForeignKeyConstraintChange(baseTableName: "CHILD", baseColumnNames: "parent_id", referencedTableName: "parent", referencedColumnNames: "id", constraintName: "fk_child_parent")))
+        def rename = graph.add(changeSet("4", new RenameTableChange(oldTableName: "parent", newTableName: "mother")))
+        def renamedInsert = graph.add(changeSet("5", insert("mother")))
+        def dropChild = graph.add(changeSet("6", new DropTableChange(tableName: "child")))
+
+        then:
+        prerequisites(childInsert) == []
+        prerequisites(foreignKey) as Set == ["1", "2"] as Set
+        prerequisites(rename) == ["3"]
+        prerequisites(renamedInsert) == ["4"]
+        prerequisites(dropChild) == ["5"]
+    }
+
+    def "links from changeSets that are not added still order later changeSets"() {
+        when:
+        graph.addLinks(changeSet("1", createTable("child", new ConstraintsConfig(foreignKeyName: "fk_child_parent", referencedTableName: "parent"))))
+        graph.add(changeSet("2", insert("parent")))
+        def childInsert = graph.add(changeSet("3", insert("child")))
+
+        then:
+        prerequisites(childInsert) == ["2"]
+    }
+
+    def "linking two tables keeps the last changeSets of both"() {
+        when:
+        graph.add(changeSet("1", insert("parent")))
+        graph.add(changeSet("2", insert("child")))
+        graph.addLinks(changeSet("3", new AddForeignKeyConstraintChange(baseTableName: "child", referencedTableName: "parent")))
+        def parentInsert = graph.add(changeSet("4", insert("parent")))
+
+        then:
+        prerequisites(parentInsert) as Set == ["1", "2"] as Set
+    }
+}
@@ -78,6 +78,58 @@ public class ChangeSetTest extends Specification {
         assert !md5Sum1.equals(md5Sum2);
     }
 
+    def "generateCheckSum is cached until the change set is modified"() {
+        when:
+        CheckSumStatistics.reset()
+        def changeSet = new ChangeSet("testId", "testAuthor", false, false, null, null, null, null)
+        def change = new CreateTableChange()
+        change.setTableName("table1")
+        changeSet.addChange(change)
+        def checkSum = changeSet.generateCheckSum()
+
+        then:
+        changeSet.generateCheckSum().is(checkSum)
+        CheckSumStatistics.getInstance().computations == 1
+        CheckSumStatistics.getInstance().cacheHits == 1
+
+        when: "changing a change requires clearing the cache"
+        change.setTableName("table2")
+        def stillCached = changeSet.generateCheckSum()
+        changeSet.clearCheckSum()
+
+        then:
+        stillCached == checkSum
+        changeSet.generateCheckSum() != checkSum
+
+        when:
+        def beforeAdd = changeSet.generateCheckSum()
+        changeSet.addChange(new DropTableChange())
+
+        then:
+        changeSet.generateCheckSum() != beforeAdd
+
+        when:
+        def beforeVisitor = changeSet.generateCheckSum()
+        def visitor = new ReplaceSqlVisitor()
+        visitor.setReplace("a")
+        visitor.setWith("b")
+        changeSet.addSqlVisitor(visitor)
+        def withVisitor = changeSet.generateCheckSum()
+        changeSet.getSqlVisitors().remove(visitor)
+
+        then:
+        withVisitor != beforeVisitor
+        changeSet.generateCheckSum() == beforeVisitor
+
+        when:
+        def beforeParameters = changeSet.generateCheckSum()
+        changeSet.setChangeLogParameters(new ChangeLogParameters())
+
+        then:
+        !changeSet.generateCheckSum().is(beforeParameters)
+        changeSet.generateCheckSum() == beforeParameters
+    }
+
     def isCheckSumValid_validCheckSum() {
         when:
         def changeSet = new ChangeSet("1", "2", false, false, "/test.xml", null, null, null);
@@ -88,6 +88,27 @@ create view sql_view as select * from sql_table;'''
         changeLog.getChangeSet(path, "auth", "with-dbms-and-context") == null
     }
 
+    def "getChangeSet ignores case, skips changeSets for other dbms and sees changeSets added after a lookup"() {
+        def path = "com/example/path.xml"
+        when:
+        def changeLog = new DatabaseChangeLog(path)
+        changeLog.setIgnoreClasspathPrefix(true)
+        changeLog.setChangeLogParameters(new ChangeLogParameters())
+        changeLog.getChangeLogParameters().set("database.typeName", "mock")
+        changeLog.addChangeSet(new ChangeSet("1", "auth", false, false, path, null, "oracle", changeLog))
+        changeLog.addChangeSet(new ChangeSet("1", "auth", false, false, path, null, "mock", changeLog))
+
+        then:
+        changeLog.getChangeSet("classpath:COM/example/path.xml", "AUTH", "1").dbmsSet == ["mock"] as Set
+        changeLog.getChangeSet(path, "auth", "2") == null
+
+        when:
+        changeLog.addChangeSet(new ChangeSet("2", "auth", false, false, path, null, null, changeLog))
+
+        then:
+        changeLog.getChangeSet(path, "auth", "2").id == "2"
+    }
+
     def "load handles both changes and preconditions"() {
         when:
         def children = [
@@ -0,0 +1,141 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.change.CheckSum
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.LoadDataChange
+import liquibase.changelog.filter.ContextChangeSetFilter
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.exception.UnexpectedLiquibaseException
+import liquibase.sdk.resource.MockResourceAccessor
+import spock.lang.Specification
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class ParallelCheckSumCalculatorTest extends Specification {
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().reset()
+        ParallelCheckSumCalculator.reset()
+        CheckSumStatistics.reset()
+    }
+
+    private static void setThreads(int threads, int fileThreads) {
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setCheckSumThreads(threads).setCheckSumFileThreads(fileThreads)
+        ParallelCheckSumCalculator.reset()
+    }
+
+    private static List<ChangeSet> createChangeSets(int count) {
+        def changeSets = []
+        for (int i = 0; i < count; i++) {
+            def changeSet = new ChangeSet("id" + i, "author", false, false, "com/example/changelog.xml", i % 2 == 0 ? "even" : "odd", null, null)
+            changeSet.addChange(new CreateTableChange(tableName: "table" + i))
+            changeSets.add(changeSet)
+        }
+        return changeSets
+    }
+
+    def "disabled by default"() {
+        when:
+        def changeSets = createChangeSets(4)
+
+        then:
+        !ParallelCheckSumCalculator.getInstance().isEnabled()
+        ParallelCheckSumCalculator.getInstance().computeCheckSums(changeSets) == 0
+        !changeSets.any { it.isCheckSumCached() }
+    }
+
+    def "computed checksums match sequential checksums and are reused by the changeSets"() {
+        when:
+        setThreads(4, 2)
+        def changeSets = createChangeSets(20)
+        def computed = ParallelCheckSumCalculator.getInstance().computeCheckSums(changeSets)
+
+        then:
+        computed == 20
+        changeSets.every { it.isCheckSumCached() }
+        CheckSumStatistics.getInstance().computations == 20
+
+        when:
+        def parallelCheckSums = changeSets*.generateCheckSum()
+        def sequentialCheckSums = createChangeSets(20)*.generateCheckSum()
+
+        then:
+        parallelCheckSums == sequentialCheckSums
+        CheckSumStatistics.getInstance().cacheHits == 20
+
+        expect: "already computed checksums are not computed again"
+        ParallelCheckSumCalculator.getInstance().computeCheckSums(changeSets) == 0
+    }
+
+    def "only changeSets accepted by the filters are computed"() {
+        when:
+        setThreads(4, 2)
+        def changeSets = createChangeSets(10)
+        def computed = ParallelCheckSumCalculator.getInstance().computeCheckSums(changeSets, new ContextChangeSetFilter(new Contexts("even")))
+
+        then:
+        computed == 5
+        changeSets.findAll { it.isCheckSumCached() }*.id == ["id0", "id2", "id4", "id6", "id8"]
+    }
+
+    def "checksums that fail are left for the changeSet to compute again"() {
+        when:
+        setThreads(4, 2)
+        def changeSets = createChangeSets(3)
+        def loadData = new LoadDataChange(tableName: "person", file: "com/example/missing.csv")
+        loadData.setResourceAccessor(new MockResourceAccessor())
+        changeSets[1].addChange(loadData)
+        def computed = ParallelCheckSumCalculator.getInstance().computeCheckSums(changeSets)
+
+        then:
+        computed == 2
+        !changeSets[1].isCheckSumCached()
+
+        when:
+        changeSets[1].generateCheckSum()
+
+        then:
+        def e = thrown(UnexpectedLiquibaseException)
+        e.message.contains("com/example/missing.csv")
+    }
+
+    def "changeSets that read files are limited to the file thread count"() {
+        when:
+        setThreads(6, 2)
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        def changeSets = []
+        for (int i = 0; i < 12; i++) {
+            def changeSet = new ChangeSet("id" + i, "author", false, false, "com/example/changelog.xml", null, null, null)
+            def change = new CreateTableChange() {
+                @Override
+                CheckSum generateCheckSum() {
+                    def now = running.incrementAndGet()
+                    synchronized (maxRunning) {
+                        maxRunning.set(Math.max(maxRunning.get(), now))
+                    }
+                    Thread.sleep(20)
+                    running.decrementAndGet()
+                    return super.generateCheckSum()
+                }
+            }
+            change.tableName = "table" + i
+            changeSet.addChange(change)
+            changeSets.add(changeSet)
+        }
+        def calculator = new ParallelCheckSumCalculator() {
+            @Override
+            protected boolean readsFiles(ChangeSet changeSet) {
+                return true
+            }
+        }
+        def computed = calculator.computeCheckSums(changeSets)
+        calculator.shutdown()
+
+        then:
+        computed == 12
+        maxRunning.get() <= 2
+    }
+}
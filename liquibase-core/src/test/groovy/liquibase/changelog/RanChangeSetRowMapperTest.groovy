@@ -0,0 +1,75 @@
+package liquibase.changelog
+
+import liquibase.change.CheckSum
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.jvm.JdbcExecutor
+import liquibase.sql.visitor.SqlVisitor
+import liquibase.statement.core.RawSqlStatement
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+import java.sql.Timestamp
+
+class RanChangeSetRowMapperTest extends Specification {
+
+    Connection connection
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:ranchangesetrowmapper", "sa", "")
+        connection.createStatement().execute("CREATE TABLE DATABASECHANGELOG (ID VARCHAR(255) NOT NULL, AUTHOR VARCHAR(255) NOT NULL, FILENAME VARCHAR(255) NOT NULL, " +
+                "DATEEXECUTED TIMESTAMP NOT NULL, ORDEREXECUTED INT NOT NULL, EXECTYPE VARCHAR(10) NOT NULL, MD5SUM VARCHAR(35), DESCRIPTION VARCHAR(255), " +
+                "COMMENTS VARCHAR(255), TAG VARCHAR(255), LIQUIBASE VARCHAR(20), CONTEXTS VARCHAR(255), LABELS VARCHAR(255), DEPLOYMENT_ID VARCHAR(10))")
+        connection.createStatement().execute("INSERT INTO DATABASECHANGELOG VALUES ('1', 'nvoxland', 'com/example/changelog.xml', '2015-01-02 03:04:05', 1, 'EXECUTED', '7:d41d8cd98f00b204e9800998ecf8427e', 'createTable', 'a comment', NULL, '3.5.1', 'test', 'label1', '1234567890')")
+        connection.createStatement().execute("INSERT INTO DATABASECHANGELOG VALUES ('2', 'nvoxland', 'com/example/changelog.xml', '2015-01-02 03:04:06', 2, 'MARK_RAN', NULL, NULL, NULL, 'v1', '3.5.1', NULL, NULL, NULL)")
+    }
+
+    def cleanup() {
+        connection.createStatement().execute("DROP TABLE DATABASECHANGELOG")
+        connection.close()
+    }
+
+    def "rows are mapped directly from the result set"() {
+        when:
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def executor = new JdbcExecutor()
+        executor.setDatabase(database)
+        List<RanChangeSet> ranChangeSets = executor.query(new RawSqlStatement("SELECT * FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED"), new RanChangeSetRowMapper(true), 1, new ArrayList<SqlVisitor>())
+
+        then:
+        ranChangeSets.size() == 2
+
+        ranChangeSets[0].id == "1"
+        ranChangeSets[0].author == "nvoxland"
+        ranChangeSets[0].changeLog == "com/example/changelog.xml"
+        ranChangeSets[0].dateExecuted == Timestamp.valueOf("2015-01-02 03:04:05")
+        ranChangeSets[0].orderExecuted == 1
+        ranChangeSets[0].execType == ChangeSet.ExecType.EXECUTED
+        ranChangeSets[0].lastCheckSum == CheckSum.parse("7:d41d8cd98f00b204e9800998ecf8427e")
+        ranChangeSets[0].description == "createTable"
+        ranChangeSets[0].comments == "a comment"
+        ranChangeSets[0].tag == null
+        ranChangeSets[0].contextExpression.toString() == "test"
+        ranChangeSets[0].labels.toString() == "label1"
+        ranChangeSets[0].deploymentId == "1234567890"
+
+        ranChangeSets[1].id == "2"
+        ranChangeSets[1].execType == ChangeSet.ExecType.MARK_RAN
+        ranChangeSets[1].lastCheckSum == null
+        ranChangeSets[1].tag == "v1"
+        ranChangeSets[1].orderExecuted == 2
+    }
+
+    def "incompatible checksums are read as null"() {
+        when:
+        def ranChangeSet = new RanChangeSetRowMapper(false).mapRow([FILENAME: "com/example/changelog.xml", ID: "1", AUTHOR: "nvoxland", MD5SUM: "3:abc",
+                                                                    DATEEXECUTED: "2015-01-02 03:04:05", ORDEREXECUTED: "1", EXECTYPE: "EXECUTED"])
+
+        then:
+        ranChangeSet.lastCheckSum == null
+        ranChangeSet.orderExecuted == 1
+        ranChangeSet.dateExecuted == Timestamp.valueOf("2015-01-02 03:04:05")
+    }
+}
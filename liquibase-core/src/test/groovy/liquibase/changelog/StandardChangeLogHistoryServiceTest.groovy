@@ -0,0 +1,276 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.LabelExpression
+import liquibase.change.core.InsertDataChange
+import liquibase.change.ColumnConfig
+import liquibase.changelog.visitor.UpdateVisitor
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.sdk.database.MockDatabase
+import liquibase.exception.DatabaseException
+import liquibase.executor.Executor
+import liquibase.executor.ExecutorService
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class StandardChangeLogHistoryServiceTest extends Specification {
+
+    Connection connection
+
+    def cleanup() {
+        ExecutorService.instance.reset()
+        ChangeLogHistoryServiceFactory.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        if (connection != null) {
+            connection.createStatement().execute("DROP ALL OBJECTS")
+            connection.close()
+        }
+    }
+
+    def "getRanChangeSet finds ran change sets the same way isSameAs does"() {
+        when:
+        def service = createService([
+                row("classpath:com/example/changelog.xml", "1", "nvoxland"),
+                row("com\\example\\other.xml", "2", "nvoxland"),
+        ])
+
+        then:
+        service.getRanChangeSet(new ChangeSet("1", "nvoxland", false, false, "com/example/changelog.xml", null, null, null)).getId() == "1"
+        service.getRanChangeSet(new ChangeSet("1", "NVOXLAND", false, false, "classpath:COM/example/changelog.xml", null, null, null)).getId() == "1"
+        service.getRanChangeSet(new ChangeSet("2", "nvoxland", false, false, "com/example/other.xml", null, null, null)).getId() == "2"
+        service.getRanChangeSet(new ChangeSet("3", "nvoxland", false, false, "com/example/changelog.xml", null, null, null)) == null
+        service.getRanChangeSet(new ChangeSet("1", "other", false, false, "com/example/changelog.xml", null, null, null)) == null
+    }
+
+    def "getRanChangeSet returns the first of duplicated history rows"() {
+        when:
+        def service = createService([
+                row("com/example/changelog.xml", "1", "nvoxland", "first"),
+                row("com/example/changelog.xml", "1", "nvoxland", "second"),
+        ])
+
+        then:
+        service.getRanChangeSet(new ChangeSet("1", "nvoxland", false, false, "com/example/changelog.xml", null, null, null)).getDescription() == "first"
+    }
+
+    def "index is updated by setExecType, removeFromHistory and tag"() {
+        when:
+        def service = createService([row("com/example/changelog.xml", "1", "nvoxland")])
+        def newChangeSet = new ChangeSet("2", "nvoxland", false, false, "com/example/changelog.xml", null, null, null)
+        service.getRanChangeSets()
+
+        then:
+        service.getRanChangeSet(newChangeSet) == null
+
+        when:
+        service.setExecType(newChangeSet, ChangeSet.ExecType.EXECUTED)
+
+        then:
+        service.getRanChangeSet(newChangeSet).getExecType() == ChangeSet.ExecType.EXECUTED
+
+        when:
+        service.tag("v1")
+
+        then:
+        service.getRanChangeSet(newChangeSet).getTag() == "v1"
+
+        when:
+        service.removeFromHistory(newChangeSet)
+
+        then:
+        service.getRanChangeSet(newChangeSet) == null
+        service.getRanChangeSet(new ChangeSet("1", "nvoxland", false, false, "com/example/changelog.xml", null, null, null)) != null
+        service.getRanChangeSets().size() == 1
+    }
+
+    private Map<String, ?> row(String fileName, String id, String author, String description = null) {
+        return [FILENAME: fileName, ID: id, AUTHOR: author, DESCRIPTION: description, DATEEXECUTED: new Date(), ORDEREXECUTED: "1", EXECTYPE: "EXECUTED"]
+    }
+
+    private StandardChangeLogHistoryService createService(List<Map<String, ?>> rows) throws DatabaseException {
+        Database database = new MockDatabase()
+        Executor executor = Mock(Executor)
+        executor.queryForInt(_) >> 1
+        ExecutorService.instance.setExecutor(database, executor)
+
+        def service = new StandardChangeLogHistoryService() {
+            @Override
+            boolean hasDatabaseChangeLogTable() throws DatabaseException {
+                return true
+            }
+
+            @Override
+            List<Map<String, ?>> queryDatabaseChangeLogTable(Database db) throws DatabaseException {
+                return rows
+            }
+        }
+        service.setDatabase(database)
+        return service
+    }
+
+    def "history rows are queued and written in batches"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setDatabaseChangeLogBatchSize(3)
+        def database = createH2Database()
+        def service = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database)
+        for (int i = 1; i <= 7; i++) {
+            service.setExecType(new ChangeSet(String.valueOf(i), "nvoxland", false, false, "com/example/changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+        }
+
+        then:
+        countHistoryRows() == 6
+        service.getRanChangeSets().size() == 7
+
+        when:
+        service.flush()
+
+        then:
+        countHistoryRows() == 7
+        orderExecuted() == [1, 2, 3, 4, 5, 6, 7]
+    }
+
+    def "queued history rows are written before the history table is read or tagged"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setDatabaseChangeLogBatchSize(10)
+        def database = createH2Database()
+        def service = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database)
+        service.setExecType(new ChangeSet("1", "nvoxland", false, false, "com/example/changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+        service.setExecType(new ChangeSet("2", "nvoxland", false, false, "com/example/changelog.xml", null, null, null), ChangeSet.ExecType.MARK_RAN)
+        service.reset()
+        service.setExecType(new ChangeSet("3", "nvoxland", false, false, "com/example/changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+        service.tag("v1")
+
+        then: "reset discards queued rows, tag writes them first"
+        countHistoryRows() == 1
+        service.getRanChangeSets()*.id == ["3"]
+        service.getRanChangeSets()*.tag == ["v1"]
+    }
+
+    def "history rows are written one at a time without a batch size"() {
+        when:
+        def database = createH2Database()
+        def service = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database)
+        service.setExecType(new ChangeSet("1", "nvoxland", false, false, "com/example/changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+
+        then:
+        countHistoryRows() == 1
+    }
+
+    def "history rows written one at a time reuse one cached prepared statement"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setPreparedStatementCacheSize(5)
+        def database = createH2Database()
+        def service = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database)
+        for (int i = 1; i <= 3; i++) {
+            service.setExecType(new ChangeSet(String.valueOf(i), "nvoxland", false, false, "com/example/changelog.xml", null, null, null), ChangeSet.ExecType.EXECUTED)
+        }
+        def cache = ((JdbcConnection) database.getConnection()).getPreparedStatementCache()
+
+        then:
+        countHistoryRows() == 3
+        orderExecuted() == [1, 2, 3]
+        cache.getMisses() == 1
+        cache.getHits() == 2
+    }
+
+    def "batched update writes the history row in the transaction of the changeSet"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setDatabaseChangeLogBatchSize(batchSize)
+        def database = createH2Database()
+        connection.createStatement().execute("CREATE TABLE PERSON (ID INT)")
+        connection.commit()
+
+        def changeSet = new ChangeSet("x" * 300, "nvoxland", false, false, "com/example/changelog.xml", null, null, null)
+        changeSet.addChange(new InsertDataChange(tableName: "PERSON", columns: [new ColumnConfig(name: "ID", valueNumeric: 1)]))
+        def visitor = new UpdateVisitor(database, null)
+        try {
+            visitor.visit(changeSet, new DatabaseChangeLog("com/example/changelog.xml"), database, null)
+        } catch (DatabaseException ignored) {
+            //the id is too long for the history table
+        }
+        connection.rollback()
+
+        then:
+        countRows("PERSON") == expectedPersonRows
+
+        where:
+        batchSize | expectedPersonRows
+        1         | 1
+        5         | 0
+    }
+
+    def "upgradeChecksums updates all null checksums at once and keeps the cached history"() {
+        when:
+        def database = createH2Database()
+        def reads = 0
+        def service = new StandardChangeLogHistoryService() {
+            @Override
+            protected List<RanChangeSet> readDatabaseChangeLogTable(Database db) throws DatabaseException {
+                reads++
+                return super.readDatabaseChangeLogTable(db)
+            }
+        }
+        service.setDatabase(database)
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        for (int i = 1; i <= 5; i++) {
+            def changeSet = new ChangeSet(String.valueOf(i), "nvoxland", false, false, "com/example/changelog.xml", null, null, null)
+            changeSet.addChange(new InsertDataChange(tableName: "PERSON" + i))
+            changeLog.addChangeSet(changeSet)
+            service.setExecType(changeSet, ChangeSet.ExecType.EXECUTED)
+        }
+        service.clearAllCheckSums()
+        service.reset()
+
+        service.upgradeChecksums(changeLog, new Contexts(), new LabelExpression())
+
+        then:
+        reads == 1
+        service.getRanChangeSets()*.lastCheckSum == changeLog.getChangeSets()*.generateCheckSum()
+        service.getRunStatus(changeLog.getChangeSets()[0]) == ChangeSet.RunStatus.ALREADY_RAN
+        reads == 1
+        md5sums() == changeLog.getChangeSets()*.generateCheckSum()*.toString()
+    }
+
+    private Database createH2Database() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:changeloghistorybatch", "sa", "")
+        connection.setAutoCommit(false)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+        return database
+    }
+
+    private int countHistoryRows() {
+        return countRows("DATABASECHANGELOG")
+    }
+
+    private int countRows(String table) {
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM " + table)
+        resultSet.next()
+        return resultSet.getInt(1)
+    }
+
+    private List<String> md5sums() {
+        def resultSet = connection.createStatement().executeQuery("SELECT MD5SUM FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED")
+        def values = []
+        while (resultSet.next()) {
+            values.add(resultSet.getString(1))
+        }
+        return values
+    }
+
+    private List<Integer> orderExecuted() {
+        def resultSet = connection.createStatement().executeQuery("SELECT ORDEREXECUTED FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED")
+        def values = []
+        while (resultSet.next()) {
+            values.add(resultSet.getInt(1))
+        }
+        return values
+    }
+}
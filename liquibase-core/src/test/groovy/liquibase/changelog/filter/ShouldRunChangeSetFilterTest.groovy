@@ -83,6 +83,63 @@ public class ShouldRunChangeSetFilterTest extends Specification {
         assertFalse(filter.accepts(changeSet).isAccepted());
     }
 
+    public void does_NOT_accept_current_changeset_when_path_differs_only_by_case() throws DatabaseException {
+        when:
+        given_a_database_with_two_executed_changesets();
+        ChangeSet changeSet = new ChangeSet("1", "testAuthor", false, false, "PATH/Changelog", null, null, null);
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true);
+
+        then:
+        assertFalse(filter.accepts(changeSet).isAccepted());
+    }
+
+    def "accepts uses overridden idsAreEqual and authorsAreEqual"() {
+        when:
+        given_a_database_with_two_executed_changesets();
+
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database, true) {
+            @Override
+            protected boolean idsAreEqual(ChangeSet changeSet, RanChangeSet ranChangeSet) {
+                return ranChangeSet.getId().trim().equals(changeSet.getId().trim());
+            }
+
+            @Override
+            protected boolean authorsAreEqual(ChangeSet changeSet, RanChangeSet ranChangeSet) {
+                return ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor());
+            }
+        };
+
+        then:
+        !filter.accepts(new ChangeSet("1", "TESTAUTHOR", false, false, "path/changelog", null, null, null)).isAccepted()
+        !filter.accepts(new ChangeSet(" 2 ", "testAuthor", false, false, "path/changelog", null, null, null)).isAccepted()
+        filter.accepts(new ChangeSet("1", "otherAuthor", false, false, "path/changelog", null, null, null)).isAccepted()
+    }
+
+    def "accepts performance is reasonable with a large history"() {
+        when:
+        int size = 100000;
+        ArrayList<RanChangeSet> ranChanges = new ArrayList<RanChangeSet>();
+        for (int i = 0; i < size; i++) {
+            ranChanges.add(new RanChangeSet("classpath:path/changelog-" + (i % 100) + ".xml", String.valueOf(i), "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null, null, null, null));
+        }
+        mock_database(ranChanges);
+        ShouldRunChangeSetFilter filter = new ShouldRunChangeSetFilter(database);
+
+        int accepted = 0;
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < size * 2; i++) {
+            if (filter.accepts(new ChangeSet(String.valueOf(i), "testAuthor", false, false, "path/changelog-" + (i % 100) + ".xml", null, null, null)).isAccepted()) {
+                accepted++;
+            }
+        }
+        long end = System.currentTimeMillis();
+
+        then:
+        accepted == size
+        assert end - start <= 5000: "Did not complete within 5000ms, took "+(end-start)+"ms";
+    }
+
 //    public void should_decline_not_changed_changeset_when_has_run_on_change() throws DatabaseException {
 //        when:
 //        given_a_database_with_one_twice_executed_changeset();
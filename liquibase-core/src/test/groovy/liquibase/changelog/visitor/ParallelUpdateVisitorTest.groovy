@@ -0,0 +1,120 @@
+package liquibase.changelog.visitor
+
+import liquibase.change.AddColumnConfig
+import liquibase.change.Change
+import liquibase.change.ColumnConfig
+import liquibase.change.core.CreateIndexChange
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.RawSQLChange
+import liquibase.changelog.ChangeLogHistoryServiceFactory
+import liquibase.changelog.ChangeSet
+import liquibase.changelog.DatabaseChangeLog
+import liquibase.database.Database
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.MigrationFailedException
+import liquibase.executor.ExecutorService
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class ParallelUpdateVisitorTest extends Specification {
+
+    private static final String URL = "jdbc:h2:mem:parallelupdatevisitor;LOCK_TIMEOUT=10000"
+
+    List<Connection> connections = []
+    Database database
+    List<Database> workerDatabases = []
+    ParallelUpdateVisitor visitor
+    DatabaseChangeLog changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+
+    def setup() {
+        database = connect()
+        for (int i = 0; i < 3; i++) {
+            workerDatabases.add(connect())
+        }
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+        visitor = new ParallelUpdateVisitor(database, null, workerDatabases)
+    }
+
+    def cleanup() {
+        visitor.close()
+        ExecutorService.instance.reset()
+        ChangeLogHistoryServiceFactory.reset()
+        connections[0].createStatement().execute("DROP ALL OBJECTS")
+        for (def connection : connections) {
+            connection.close()
+        }
+    }
+
+    private Database connect() {
+        def connection = DriverManager.getConnection(URL, "sa", "")
+        connection.setAutoCommit(false)
+        connections.add(connection)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        return database
+    }
+
+    private List<String> values(String sql) {
+        def resultSet = connections[0].createStatement().executeQuery(sql)
+        def values = []
+        while (resultSet.next()) {
+            values.add(resultSet.getString(1))
+        }
+        return values
+    }
+
+    private void visit(String id, Change change) {
+        def changeSet = new ChangeSet(id, "nvoxland", false, false, "com/example/changelog.xml", null, null, null)
+        changeSet.addChange(change)
+        visitor.visit(changeSet, changeLog, database, null)
+    }
+
+    private static InsertDataChange insert(String tableName, int id) {
+        return new InsertDataChange(tableName: tableName, columns: [new ColumnConfig(name: "ID", valueNumeric: id)])
+    }
+
+    def "independent changeSets run on the worker databases and history is written in changeLog order"() {
+        when:
+        def expected = []
+        for (int i = 1; i <= 4; i++) {
+            visit("create" + i, new CreateTableChange(tableName: "TABLE" + i, columns: [new ColumnConfig(name: "ID", type: "int")]))
+            expected.add("create" + i)
+        }
+        for (int i = 1; i <= 4; i++) {
+            visit("insert" + i, insert("TABLE" + i, i))
+            visit("index" + i, new CreateIndexChange(tableName: "TABLE" + i, indexName: "IDX_TABLE" + i, columns: [new AddColumnConfig(name: "ID")]))
+            expected.addAll(["insert" + i, "index" + i])
+        }
+        visit("barrier", new RawSQLChange("INSERT INTO TABLE1 SELECT ID + 10 FROM TABLE2"))
+        visit("after", insert("TABLE1", 100))
+        expected.addAll(["barrier", "after"])
+        visitor.finish()
+
+        then:
+        values("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED") == expected
+        values("SELECT ID FROM TABLE1 ORDER BY ID") == ["1", "12", "100"]
+        values("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES WHERE INDEX_NAME LIKE 'IDX_TABLE_'") == ["4"]
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).getRanChangeSets()*.id == expected
+    }
+
+    def "a failed changeSet is thrown, changeSets that depend on it do not run and the ones that ran are recorded"() {
+        when:
+        visit("create", new CreateTableChange(tableName: "TABLE1", columns: [new ColumnConfig(name: "ID", type: "int")]))
+        visit("insertMissing", insert("MISSING", 1))
+        visit("createMissing", new CreateTableChange(tableName: "MISSING", columns: [new ColumnConfig(name: "ID", type: "int")]))
+        visit("insert", insert("TABLE1", 1))
+        visitor.finish()
+
+        then:
+        def e = thrown(MigrationFailedException)
+        e.message.contains("::insertMissing::")
+        !values("SELECT ID FROM DATABASECHANGELOG").contains("insertMissing")
+        !values("SELECT ID FROM DATABASECHANGELOG").contains("createMissing")
+        values("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'MISSING'") == ["0"]
+        values("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED").every { it == "create" || it == "insert" }
+    }
+}
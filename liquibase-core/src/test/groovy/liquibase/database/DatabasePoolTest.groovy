@@ -0,0 +1,157 @@
+package liquibase.database
+
+import liquibase.Liquibase
+import liquibase.change.ColumnConfig
+import liquibase.change.core.CreateTableChange
+import liquibase.changelog.ChangeLogHistoryServiceFactory
+import liquibase.changelog.ChangeSet
+import liquibase.changelog.DatabaseChangeLog
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import liquibase.executor.ExecutorService
+import liquibase.lockservice.LockServiceFactory
+import liquibase.resource.ClassLoaderResourceAccessor
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+class DatabasePoolTest extends Specification {
+
+    private static final String URL = "jdbc:h2:mem:databasepool;LOCK_TIMEOUT=10000"
+
+    Connection connection
+    H2Database database
+    DatabasePool pool
+
+    def setup() {
+        connection = DriverManager.getConnection(URL, "sa", "")
+        connection.setAutoCommit(false)
+        database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        pool = new DatabasePool(database, URL, "sa", "", new ClassLoaderResourceAccessor(), 2)
+    }
+
+    def cleanup() {
+        pool.close()
+        DatabasePoolService.instance.reset()
+        ExecutorService.instance.reset()
+        ChangeLogHistoryServiceFactory.reset()
+        LockServiceFactory.reset()
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        connection.close()
+    }
+
+    def "leased databases are the same implementation with the settings of the primary database"() {
+        when:
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.QUOTE_ALL_OBJECTS)
+        database.setOutputDefaultSchema(false)
+        database.setDatabaseChangeLogTableName("CHANGE_HISTORY")
+        def leased = pool.lease()
+
+        then:
+        leased instanceof H2Database
+        !leased.is(database)
+        !leased.connection.is(database.connection)
+        leased.objectQuotingStrategy == ObjectQuotingStrategy.QUOTE_ALL_OBJECTS
+        !leased.outputDefaultSchema
+        leased.defaultSchemaName == database.defaultSchemaName
+        leased.databaseChangeLogTableName == "CHANGE_HISTORY"
+
+        when:
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY)
+        pool.release(leased)
+
+        then:
+        pool.lease().is(leased)
+        leased.objectQuotingStrategy == ObjectQuotingStrategy.LEGACY
+    }
+
+    def "lease waits until a database is released once maxSize are open"() {
+        when:
+        def first = pool.lease()
+        def second = pool.lease()
+        def leased = new CountDownLatch(1)
+        Database third = null
+        def thread = Thread.start {
+            third = pool.lease()
+            leased.countDown()
+        }
+
+        then:
+        !first.is(second)
+        !leased.await(200, TimeUnit.MILLISECONDS)
+
+        when:
+        pool.release(second)
+        thread.join(10000)
+
+        then:
+        leased.count == 0
+        third.is(second)
+    }
+
+    def "tryLease returns null instead of waiting once maxSize are leased"() {
+        when:
+        def first = pool.tryLease()
+        def second = pool.tryLease()
+        def third = pool.tryLease()
+        pool.release(first)
+
+        then:
+        first != null
+        second != null
+        third == null
+        pool.tryLease().is(first)
+    }
+
+    def "close closes the opened connections and fails later leases"() {
+        when:
+        def leased = pool.lease()
+        pool.close()
+
+        then:
+        leased.connection.isClosed()
+        !database.connection.isClosed()
+
+        when:
+        pool.lease()
+
+        then:
+        thrown(DatabaseException)
+
+        when:
+        pool.release(leased)
+
+        then:
+        notThrown(Exception)
+        leased.connection.isClosed()
+    }
+
+    def "update runs changeSets on databases leased from the pool"() {
+        when:
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        for (int i = 1; i <= 4; i++) {
+            def changeSet = new ChangeSet(String.valueOf(i), "nvoxland", false, false, "com/example/changelog.xml", null, null, changeLog)
+            changeSet.addChange(new CreateTableChange(tableName: "TABLE" + i, columns: [new ColumnConfig(name: "ID", type: "int")]))
+            changeLog.addChangeSet(changeSet)
+        }
+        def liquibase = new Liquibase(changeLog, new ClassLoaderResourceAccessor(), database)
+        liquibase.setDatabasePool(pool)
+        liquibase.update("")
+
+        def resultSet = connection.createStatement().executeQuery("SELECT ID FROM DATABASECHANGELOG ORDER BY ORDEREXECUTED")
+        def ids = []
+        while (resultSet.next()) {
+            ids.add(resultSet.getString(1))
+        }
+
+        then:
+        ids == ["1", "2", "3", "4"]
+        pool.lease() != null
+        pool.lease() != null
+    }
+}
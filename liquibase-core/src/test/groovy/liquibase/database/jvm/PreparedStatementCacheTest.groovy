@@ -0,0 +1,132 @@
+package liquibase.database.jvm
+
+import liquibase.change.ColumnConfig
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.executor.ExecutorService
+import liquibase.statement.InsertExecutablePreparedStatement
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class PreparedStatementCacheTest extends Specification {
+
+    Connection connection
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:preparedstatementcache", "sa", "")
+        connection.createStatement().execute("CREATE TABLE PERSON (ID INT, NAME VARCHAR(50))")
+    }
+
+    def cleanup() {
+        ExecutorService.instance.reset()
+        LiquibaseConfiguration.getInstance().reset()
+        if (!connection.isClosed()) {
+            connection.createStatement().execute("DROP ALL OBJECTS")
+            connection.close()
+        }
+    }
+
+    def "released statements are reused for the same sql"() {
+        when:
+        def cache = new PreparedStatementCache(connection, 10)
+        def first = cache.acquire("SELECT ID FROM PERSON")
+        cache.release(first)
+        def second = cache.acquire("SELECT ID FROM PERSON")
+        def other = cache.acquire("SELECT NAME FROM PERSON")
+
+        then:
+        second.is(first)
+        !other.is(first)
+        cache.hits == 1
+        cache.misses == 2
+        cache.hitRate == 1d / 3
+    }
+
+    def "a statement in use is not handed out twice"() {
+        when:
+        def cache = new PreparedStatementCache(connection, 10)
+        def first = cache.acquire("SELECT ID FROM PERSON")
+        def second = cache.acquire("SELECT ID FROM PERSON")
+        cache.release(first)
+        cache.release(second)
+
+        then:
+        !second.is(first)
+        cache.size() == 2
+    }
+
+    def "the least recently used statements are closed when the cache is full"() {
+        when:
+        def cache = new PreparedStatementCache(connection, 2)
+        def statements = ["SELECT ID FROM PERSON", "SELECT NAME FROM PERSON", "SELECT ID, NAME FROM PERSON"].collect { cache.acquire(it) }
+        statements.each { cache.release(it) }
+
+        then:
+        cache.size() == 2
+        statements[0].isClosed()
+        !statements[1].isClosed()
+        !statements[2].isClosed()
+    }
+
+    def "a cache of size 0 closes statements as they are released"() {
+        when:
+        def cache = new PreparedStatementCache(connection, 0)
+        def statement = cache.acquire("SELECT ID FROM PERSON")
+        cache.release(statement)
+
+        then:
+        statement.isClosed()
+        cache.size() == 0
+    }
+
+    def "close closes cached statements and statements released later"() {
+        when:
+        def cache = new PreparedStatementCache(connection, 10)
+        def cached = cache.acquire("SELECT ID FROM PERSON")
+        def inUse = cache.acquire("SELECT NAME FROM PERSON")
+        cache.release(cached)
+        cache.close()
+
+        then:
+        cached.isClosed()
+        !inUse.isClosed()
+
+        when:
+        cache.release(inUse)
+
+        then:
+        inUse.isClosed()
+    }
+
+    def "executable prepared statements reuse the statement of the connection and it is closed with the database"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setPreparedStatementCacheSize(5)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def executor = ExecutorService.instance.getExecutor(database)
+        for (int i = 1; i <= 3; i++) {
+            executor.execute(new InsertExecutablePreparedStatement(database, null, null, "PERSON",
+                    [new ColumnConfig(name: "ID", valueNumeric: i), new ColumnConfig(name: "NAME", value: "Person " + i)], null, null))
+        }
+        def cache = ((JdbcConnection) database.connection).preparedStatementCache
+        def resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM PERSON")
+        resultSet.next()
+
+        then:
+        resultSet.getInt(1) == 3
+        cache.misses == 1
+        cache.hits == 2
+        cache.size() == 1
+
+        when:
+        connection.createStatement().execute("DROP ALL OBJECTS")
+        database.close()
+
+        then:
+        cache.size() == 0
+        connection.isClosed()
+    }
+}
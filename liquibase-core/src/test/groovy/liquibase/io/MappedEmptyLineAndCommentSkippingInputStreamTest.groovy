@@ -0,0 +1,96 @@
+package liquibase.io
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class MappedEmptyLineAndCommentSkippingInputStreamTest extends Specification {
+
+    private File file
+
+    def setup() {
+        file = File.createTempFile("liquibase-mapped", ".csv")
+    }
+
+    def cleanup() {
+        file.delete()
+    }
+
+    private byte[] readMapped(byte[] content, String commentLineStartsWith, int bufferSize = 8192) {
+        file.bytes = content
+        def output = new ByteArrayOutputStream()
+        def fileStream = new FileInputStream(file)
+        try {
+            def stream = new MappedEmptyLineAndCommentSkippingInputStream(fileStream.getChannel(), commentLineStartsWith)
+            byte[] buffer = new byte[bufferSize]
+            int read
+            while ((read = stream.read(buffer)) != -1) {
+                output.write(buffer, 0, read)
+            }
+        } finally {
+            fileStream.close()
+        }
+        return output.toByteArray()
+    }
+
+    private static byte[] readOneByteAtATime(byte[] content, String commentLineStartsWith) {
+        def stream = new EmptyLineAndCommentSkippingInputStream(new ByteArrayInputStream(content), commentLineStartsWith)
+        def output = new ByteArrayOutputStream()
+        int read
+        while ((read = stream.read()) != -1) {
+            output.write(read)
+        }
+        return output.toByteArray()
+    }
+
+    @Unroll("#featureName: #message")
+    def "returns the same bytes as EmptyLineAndCommentSkippingInputStream"() {
+        expect:
+        readMapped(input.getBytes(), "#") == readOneByteAtATime(input.getBytes(), "#")
+        new String(readMapped(input.getBytes(), "#")) == expected
+
+        where:
+        message                               | input                                                           | expected
+        "various line endings and comments"   | "Line1\nline2\n 1\n 2\r\n#comment\n#comment\r\n 3\n 4\n\r\n\rline3" | "Line1\nline2\n 1\n 2\n 3\n 4\nline3"
+        "comment at the end"                  | "Line1\n#I am a comment"                                        | "Line1"
+        "comment at the beginning"            | "#I am a comment\nLine1"                                        | "Line1"
+        "surrounding newlines"                | "\n\n\nLine1\n\n\n"                                             | "Line1"
+        "comment inside a line"               | "a,b#c\nd\ne"                                                   | "a,bd\ne"
+        "comment ended by a carriage return"  | "a#c\r\nb"                                                      | "a\nb"
+        "empty"                               | ""                                                              | ""
+    }
+
+    def "random content returns the same bytes as EmptyLineAndCommentSkippingInputStream"() {
+        when:
+        def random = new Random(11)
+        byte[] specialBytes = "\n\n\r##\u0000a ".getBytes("UTF-8")
+        for (int i = 0; i < 300; i++) {
+            int length = i % 50 == 0 ? random.nextInt(200000) : random.nextInt(100)
+            byte[] content = new byte[length]
+            for (int j = 0; j < length; j++) {
+                content[j] = random.nextInt(3) == 0 ? (byte) random.nextInt(256) : specialBytes[random.nextInt(specialBytes.length)]
+            }
+            for (String comment : ["#", "", null]) {
+                assert readMapped(content, comment, 1 + random.nextInt(10000)) == readOneByteAtATime(content, comment)
+            }
+        }
+
+        then:
+        notThrown(AssertionError)
+    }
+
+    def "single byte reads return the same bytes as block reads"() {
+        when:
+        file.bytes = "\n#comment\r\nLine1\r\n\r\nLine2\n".getBytes()
+        def fileStream = new FileInputStream(file)
+        def stream = new MappedEmptyLineAndCommentSkippingInputStream(fileStream.getChannel(), "#")
+        def output = new StringBuilder()
+        int read
+        while ((read = stream.read()) != -1) {
+            output.append((char) read)
+        }
+        fileStream.close()
+
+        then:
+        output.toString() == "Line1\nLine2"
+    }
+}
@@ -0,0 +1,73 @@
+package liquibase.lockservice
+
+import liquibase.configuration.GlobalConfiguration
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class StandardLockServiceCacheTest extends Specification {
+
+    Connection connection
+
+    def cleanup() {
+        ExecutorService.instance.reset()
+        LockServiceFactory.getInstance().resetAll()
+        LiquibaseConfiguration.getInstance().reset()
+        if (connection != null) {
+            connection.createStatement().execute("DROP ALL OBJECTS")
+            connection.close()
+        }
+    }
+
+    def "lock and release reuse cached prepared statements"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).setPreparedStatementCacheSize(5)
+        connection = DriverManager.getConnection("jdbc:h2:mem:lockservicecache", "sa", "")
+        connection.setAutoCommit(false)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def lockService = new StandardLockService()
+        lockService.setDatabase(database)
+
+        def acquired = []
+        for (int i = 0; i < 3; i++) {
+            acquired.add(lockService.acquireLock())
+            lockService.releaseLock()
+        }
+        def cache = ((JdbcConnection) database.getConnection()).getPreparedStatementCache()
+
+        then:
+        acquired == [true, true, true]
+        !lockService.hasChangeLogLock()
+        cache.getMisses() == 2
+        cache.getHits() == 4
+    }
+
+    def "a held lock is not acquired again"() {
+        when:
+        connection = DriverManager.getConnection("jdbc:h2:mem:lockservicecache", "sa", "")
+        connection.setAutoCommit(false)
+        def database = new H2Database()
+        database.setConnection(new JdbcConnection(connection))
+        def lockService = new StandardLockService()
+        lockService.setDatabase(database)
+        lockService.acquireLock()
+
+        def otherService = new StandardLockService()
+        otherService.setDatabase(database)
+
+        then:
+        !otherService.acquireLock()
+
+        when:
+        lockService.releaseLock()
+
+        then:
+        otherService.acquireLock()
+    }
+}
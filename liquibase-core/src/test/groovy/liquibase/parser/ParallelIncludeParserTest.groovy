@@ -0,0 +1,117 @@
+package liquibase.parser
+
+import liquibase.changelog.ChangeLogParameters
+import liquibase.changelog.DatabaseChangeLog
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.exception.ChangeLogParseException
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
+import liquibase.parser.core.yaml.YamlChangeLogParser
+import liquibase.sdk.resource.MockResourceAccessor
+import liquibase.test.JUnitResourceAccessor
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ParallelIncludeParserTest extends Specification {
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().reset()
+        ParallelIncludeParser.reset()
+    }
+
+    private DatabaseChangeLog parse(ChangeLogParser parser, String path, int threads, resourceAccessor = new JUnitResourceAccessor()) {
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setIncludeParseThreads(threads)
+        ParallelIncludeParser.reset()
+        return parser.parse(path, new ChangeLogParameters(), resourceAccessor)
+    }
+
+    private String changeLogXml(String body) {
+        return """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.5.xsd">
+$body
+</databaseChangeLog>"""
+    }
+
+    @Unroll("#featureName #path")
+    def "parallel parse returns the same changeLog as a sequential parse"() {
+        when:
+        def sequential = parse(parser, path, 1)
+        def parallel = parse(parser, path, 4)
+
+        then:
+        parallel.changeSets*.toString() == sequential.changeSets*.toString()
+        parallel.changeSets*.generateCheckSum() == sequential.changeSets*.generateCheckSum()
+        parallel.changeSets*.changeLog*.physicalFilePath == sequential.changeSets*.changeLog*.physicalFilePath
+
+        where:
+        parser                      | path
+        new XMLChangeLogSAXParser() | "liquibase/parser/core/xml/nestedChangeLog.xml"
+        new XMLChangeLogSAXParser() | "liquibase/parser/core/xml/doubleNestedChangeLog.xml"
+        new XMLChangeLogSAXParser() | "liquibase/parser/core/xml/ignoreDuplicatedChangeLogs/master.changelog.xml"
+        new YamlChangeLogParser()   | "liquibase/parser/core/yaml/nestedChangeLog.yaml"
+        new YamlChangeLogParser()   | "liquibase/parser/core/yaml/doubleNestedChangeLog.yaml"
+    }
+
+    def "parameters defined by one included file are visible to the files included after it"() {
+        when:
+        def resourceAccessor = new MockResourceAccessor([
+                "com/example/master.xml": changeLogXml("""
+    <include file="com/example/properties.xml"/>
+    <include file="com/example/first.xml"/>
+    <include file="com/example/first.xml"/>
+    <include file="com/example/second.xml"/>"""),
+                "com/example/properties.xml": changeLogXml("""<property name="table.name" value="person"/>"""),
+                "com/example/first.xml": changeLogXml("""
+    <changeSet id="1" author="test"><createTable tableName="\${table.name}"><column name="id" type="int"/></createTable></changeSet>"""),
+                "com/example/second.xml": changeLogXml("""
+    <property name="table.name" value="address" global="false"/>
+    <changeSet id="2" author="test"><createTable tableName="\${table.name}"><column name="id" type="int"/></createTable></changeSet>"""),
+        ])
+        def changeLog = parse(new XMLChangeLogSAXParser(), "com/example/master.xml", 4, resourceAccessor)
+
+        then:
+        changeLog.changeSets*.toString(false) == ["com/example/first.xml::1::test", "com/example/first.xml::1::test", "com/example/second.xml::2::test"]
+        changeLog.changeSets*.changes*.tableName.flatten() == ["person", "person", "address"]
+    }
+
+    def "parse errors in included files are reported when the file is included"() {
+        when:
+        def resourceAccessor = new MockResourceAccessor([
+                "com/example/master.xml": changeLogXml("""
+    <include file="com/example/valid.xml"/>
+    <include file="com/example/invalid.xml"/>"""),
+                "com/example/valid.xml": changeLogXml(""),
+                "com/example/invalid.xml": "<databaseChangeLog><not closed",
+        ])
+        parse(new XMLChangeLogSAXParser(), "com/example/master.xml", 4, resourceAccessor)
+
+        then:
+        thrown(ChangeLogParseException)
+    }
+
+    def "parse ahead is disabled by default"() {
+        expect:
+        !ParallelIncludeParser.getInstance().isEnabled()
+        ParallelIncludeParser.getInstance().parseAhead(["a.xml", "b.xml"], new ChangeLogParameters(), new MockResourceAccessor()) == null
+    }
+
+    def "finish reports the used parses"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setIncludeParseThreads(2)
+        def resourceAccessor = new MockResourceAccessor([
+                "com/example/a.xml": changeLogXml(""),
+                "com/example/b.xml": changeLogXml(""),
+                "com/example/c.sql": "create table test (id int)",
+        ])
+        def parser = new XMLChangeLogSAXParser()
+        def includeParser = ParallelIncludeParser.getInstance()
+        def batch = includeParser.parseAhead(["com/example/a.xml", "com/example/b.xml", "com/example/c.sql"], new ChangeLogParameters(), resourceAccessor)
+        includeParser.parseToTree(parser, "com/example/a.xml", new ChangeLogParameters(), resourceAccessor)
+        includeParser.finish(batch)
+
+        then:
+        batch.usedCount == 1
+        batch.savedTime >= 0
+        includeParser.savedTime >= 0
+    }
+}
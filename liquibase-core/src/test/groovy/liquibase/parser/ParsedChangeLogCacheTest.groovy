@@ -0,0 +1,97 @@
+package liquibase.parser
+
+import liquibase.changelog.ChangeLogParameters
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.parser.core.ParsedNode
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
+import liquibase.parser.core.yaml.YamlChangeLogParser
+import liquibase.sdk.resource.MockResourceAccessor
+import liquibase.test.JUnitResourceAccessor
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ParsedChangeLogCacheTest extends Specification {
+
+    File cacheDirectory
+
+    def setup() {
+        cacheDirectory = File.createTempFile("liquibase-parse-cache", "")
+        cacheDirectory.delete()
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserCofiguration.class).setChangeLogCacheDirectory(cacheDirectory.getAbsolutePath())
+        ParsedChangeLogCache.reset()
+    }
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().reset()
+        ParsedChangeLogCache.reset()
+        cacheDirectory.deleteDir()
+    }
+
+    @Unroll("#featureName #path")
+    def "cached parse returns the same changeLog as a fresh parse"() {
+        when:
+        def firstParse = parser.parse(path, new ChangeLogParameters(), new JUnitResourceAccessor())
+        def misses = ParsedChangeLogCache.getInstance().getMisses()
+        def secondParse = parser.parse(path, new ChangeLogParameters(), new JUnitResourceAccessor())
+
+        then:
+        misses > 0
+        ParsedChangeLogCache.getInstance().getHits() == misses
+        secondParse.changeSets*.toString() == firstParse.changeSets*.toString()
+        secondParse.changeSets*.generateCheckSum() == firstParse.changeSets*.generateCheckSum()
+
+        where:
+        parser                      | path
+        new XMLChangeLogSAXParser() | "liquibase/parser/core/xml/nestedChangeLog.xml"
+        new YamlChangeLogParser()   | "liquibase/parser/core/yaml/nestedChangeLog.yaml"
+    }
+
+    def "changed file contents are parsed again"() {
+        when:
+        def changeLog = '''<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+        xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+        xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.5.xsd">
+    <changeSet id="1" author="nvoxland">
+        <createTable tableName="person"><column name="id" type="int"/></createTable>
+    </changeSet>
+</databaseChangeLog>'''
+        def parser = new XMLChangeLogSAXParser()
+        parser.parse("com/example/changelog.xml", new ChangeLogParameters(), new MockResourceAccessor(["com/example/changelog.xml": changeLog]))
+        def changed = parser.parse("com/example/changelog.xml", new ChangeLogParameters(), new MockResourceAccessor(["com/example/changelog.xml": changeLog.replace("person", "address")]))
+
+        then:
+        ParsedChangeLogCache.getInstance().getHits() == 0
+        ParsedChangeLogCache.getInstance().getMisses() == 2
+        changed.changeSets[0].changes[0].tableName == "address"
+    }
+
+    def "values round trip through the binary form"() {
+        when:
+        def node = new ParsedNode(null, "changeSet")
+        node.addChild(null, "id", "1")
+        node.addChild(null, "sql", "x" * 70000)
+        node.addChild(null, "values", ["a", "b"])
+        node.addChild(null, "number", 12)
+
+        def output = new ByteArrayOutputStream()
+        def cache = ParsedChangeLogCache.getInstance()
+        cache.writeValue(new DataOutputStream(output), node)
+        ParsedNode read = cache.readValue(new DataInputStream(new ByteArrayInputStream(output.toByteArray())))
+
+        then:
+        read.name == "changeSet"
+        read.getChildValue(null, "id", String) == "1"
+        read.getChildValue(null, "sql", String).length() == 70000
+        read.getChild(null, "values").value == ["a", "b"]
+        read.getChildValue(null, "number", Integer) == 12
+    }
+
+    def "cache is disabled without a cache directory"() {
+        when:
+        LiquibaseConfiguration.getInstance().reset()
+
+        then:
+        !ParsedChangeLogCache.getInstance().isEnabled()
+        ParsedChangeLogCache.getInstance().computeContentHash("liquibase/parser/core/xml/nestedChangeLog.xml", new JUnitResourceAccessor()) == null
+    }
+}
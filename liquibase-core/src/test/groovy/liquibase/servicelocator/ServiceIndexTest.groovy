@@ -0,0 +1,136 @@
+package liquibase.servicelocator
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ServiceIndexTest extends Specification {
+
+    File tempDirectory
+
+    def setup() {
+        tempDirectory = File.createTempFile("liquibase-service-index", "")
+        tempDirectory.delete()
+        tempDirectory.mkdirs()
+    }
+
+    def cleanup() {
+        tempDirectory.deleteDir()
+        System.clearProperty("liquibase.scan.useIndex")
+    }
+
+    private File createLocation(String name, boolean indexed) {
+        def location = new File(tempDirectory, name)
+        new File(location, "com/example/ext").mkdirs()
+        if (indexed) {
+            def indexFile = new File(location, ServiceIndex.INDEX_FILE)
+            indexFile.parentFile.mkdirs()
+            indexFile.text = "java.lang.Runnable=com.example.ext.FirstRunnable,\\\n    com.example.other.SecondRunnable\n"
+        }
+        return location
+    }
+
+    private DefaultPackageScanClassResolver createResolver(ClassLoader classLoader) {
+        def resolver = new DefaultPackageScanClassResolver()
+        resolver.setClassLoaders([classLoader] as Set)
+        return resolver
+    }
+
+    def "packages are indexed only if every location containing them has an index"() {
+        when:
+        def indexedLoader = new URLClassLoader([createLocation("indexed", true).toURI().toURL()] as URL[], (ClassLoader) null)
+        def mixedLoader = new URLClassLoader([createLocation("unindexed", false).toURI().toURL()] as URL[], indexedLoader)
+
+        def index = new ServiceIndex(createResolver(indexedLoader))
+        def mixedIndex = new ServiceIndex(createResolver(mixedLoader))
+
+        then:
+        !index.isEmpty()
+        index.isIndexed("com.example")
+        index.isIndexed("com.example.ext")
+        index.isIndexed("com.missing")
+
+        !mixedIndex.isEmpty()
+        !mixedIndex.isIndexed("com.example.ext")
+
+        index.getClassNames(Runnable, "com.example") == ["com.example.ext.FirstRunnable", "com.example.other.SecondRunnable"] as Set
+        index.getClassNames(Runnable, "com.example.ext") == ["com.example.ext.FirstRunnable"] as Set
+        index.getClassNames(Comparable, "com.example").isEmpty()
+    }
+
+    def "no index files"() {
+        when:
+        def index = new ServiceIndex(createResolver(new URLClassLoader([createLocation("unindexed", false).toURI().toURL()] as URL[], (ClassLoader) null)))
+
+        then:
+        index.isEmpty()
+        !index.isIndexed("com.example")
+    }
+
+    def "package locations are looked up through the resolver"() {
+        when:
+        def indexedLoader = new URLClassLoader([createLocation("indexed", true).toURI().toURL()] as URL[], (ClassLoader) null)
+        def unindexedPackage = new File(createLocation("unindexed", false), "com/example/ext/").toURI().toURL()
+
+        def resolver = new DefaultPackageScanClassResolver() {
+            @Override
+            protected Enumeration<URL> getResources(ClassLoader loader, String packageName) throws IOException {
+                def urls = Collections.list(super.getResources(loader, packageName))
+                if (packageName == "com/example/ext/") {
+                    urls.add(unindexedPackage)
+                }
+                return Collections.enumeration(urls)
+            }
+        }
+        resolver.setClassLoaders([indexedLoader] as Set)
+        def index = new ServiceIndex(resolver)
+
+        then:
+        index.isIndexed("com.example")
+        !index.isIndexed("com.example.ext")
+    }
+
+    def "generator indexes every concrete class by all of its parents"() {
+        when:
+        def index = new ServiceIndexGenerator(this.getClass().getClassLoader()).createIndex(new File(ServiceIndex.class.protectionDomain.codeSource.location.toURI()))
+
+        then:
+        index["liquibase.change.Change"].contains("liquibase.change.core.CreateTableChange")
+        index["liquibase.change.AbstractChange"].contains("liquibase.change.core.CreateTableChange")
+        index["liquibase.change.core.CreateTableChange"].contains("liquibase.change.core.CreateTableChange")
+        !index["liquibase.change.Change"].contains("liquibase.change.AbstractChange")
+        !index.containsKey("java.lang.Object")
+    }
+
+    @Unroll("#featureName #parent.simpleName in #packageName")
+    def "indexed lookups find the same classes as a package scan"() {
+        when:
+        def classesLocation = ServiceIndex.class.protectionDomain.codeSource.location
+        def loader = new URLClassLoader([classesLocation] as URL[], (ClassLoader) null)
+        def indexedParent = loader.loadClass(parent.name)
+
+        def indexedResolver = new DefaultPackageScanClassResolver()
+        indexedResolver.setClassLoaders([loader] as Set)
+        def indexed = indexedResolver.findImplementations(indexedParent, packageName)*.name as Set
+        def packageIndexed = indexedResolver.getServiceIndex().isIndexed(packageName)
+
+        System.setProperty("liquibase.scan.useIndex", "false")
+        def scanningResolver = new DefaultPackageScanClassResolver()
+        scanningResolver.setClassLoaders([loader] as Set)
+        def scanned = scanningResolver.findImplementations(indexedParent, packageName)*.name as Set
+
+        then:
+        packageIndexed
+        scanningResolver.getServiceIndex() == null
+        indexed.size() > 0
+        indexed == scanned
+
+        where:
+        parent                                      | packageName
+        liquibase.change.Change                     | "liquibase.change"
+        liquibase.sqlgenerator.SqlGenerator         | "liquibase.sqlgenerator"
+        liquibase.datatype.LiquibaseDataType        | "liquibase.datatype"
+        liquibase.database.Database                 | "liquibase.database"
+        liquibase.snapshot.SnapshotGenerator        | "liquibase.snapshot"
+        liquibase.parser.ChangeLogParser            | "liquibase.parser"
+    }
+}
@@ -0,0 +1,108 @@
+package liquibase.statement
+
+import liquibase.change.ColumnConfig
+import liquibase.database.PreparedStatementFactory
+import liquibase.database.core.H2Database
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class CopyExecutablePreparedStatementTest extends Specification {
+
+    private static List<ColumnConfig> row(String name, Object value) {
+        def nameColumn = new ColumnConfig(name: "name")
+        nameColumn.setValue(name)
+        def valueColumn = new ColumnConfig(name: "value")
+        if (value instanceof Number) {
+            valueColumn.setValueNumeric((Number) value)
+        } else if (value instanceof Boolean) {
+            valueColumn.setValueBoolean((Boolean) value)
+        } else {
+            valueColumn.setValue((String) value)
+        }
+        return [nameColumn, valueColumn]
+    }
+
+    def "copy sql and csv data"() {
+        when:
+        def statement = new CopyExecutablePreparedStatement(new PostgresDatabase(), null, "data", "person",
+                [row("Bob", "says \"hi\", twice"), row("Line\nbreak", null), row("Ann", "NULL"), row("", 42), row("Joe", true)])
+
+        then:
+        statement.getCopySql() == "COPY data.person (name, value) FROM STDIN WITH CSV"
+        statement.getCopyData() == '"Bob","says ""hi"", twice"\n' +
+                '"Line\nbreak",\n' +
+                '"Ann",\n' +
+                '"",\"42"\n' +
+                '"Joe","true"\n'
+    }
+
+    def "copy reader encodes the rows as they are read"() {
+        when:
+        def statement = new CopyExecutablePreparedStatement(new PostgresDatabase(), null, "data", "person",
+                [row("Bob", "says \"hi\", twice"), row("Ann", null), row("Joe", 42)])
+        def reader = statement.getCopyReader()
+        def read = new StringBuilder()
+        def buffer = new char[3]
+        int count
+        while ((count = reader.read(buffer, 0, buffer.length)) != -1) {
+            read.append(buffer, 0, count)
+        }
+
+        then:
+        read.toString() == statement.getCopyData()
+        read.toString() == '"Bob","says ""hi"", twice"\n"Ann",\n"Joe","42"\n'
+        statement.getCopyReader().read(new char[10], 0, 0) == 0
+    }
+
+    def "rows are copied through the copy API"() {
+        when:
+        def connection = DriverManager.getConnection("jdbc:h2:mem:copystatement", "sa", "")
+        def database = new PostgresDatabase()
+        database.setConnection(new JdbcConnection(connection))
+        database.setDefaultSchemaName("public")
+        def copied = []
+        def statement = new CopyExecutablePreparedStatement(database, null, "data", "person", [row("Bob", 1), row("Ann", 2)]) {
+            @Override
+            protected long copyIn(Connection con, String sql, Reader data) throws DatabaseException {
+                copied.add(sql)
+                copied.add(data.text)
+                return 2
+            }
+        }
+        statement.execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()))
+        connection.close()
+
+        then:
+        copied == ["COPY data.person (name, value) FROM STDIN WITH CSV", '"Bob","1"\n"Ann","2"\n']
+    }
+
+    def "copy is only supported by postgresql drivers with the copy API"() {
+        when:
+        def connection = DriverManager.getConnection("jdbc:h2:mem:copysupported", "sa", "")
+        def postgres = new PostgresDatabase()
+        postgres.setConnection(new JdbcConnection(connection))
+        postgres.setDefaultSchemaName("public")
+        def h2 = new H2Database()
+        h2.setConnection(new JdbcConnection(connection))
+
+        def statement = new CopyExecutablePreparedStatement(postgres, null, null, "person", [row("Bob", 1)])
+        def message = null
+        try {
+            statement.execute(new PreparedStatementFactory((JdbcConnection) postgres.getConnection()))
+        } catch (DatabaseException e) {
+            message = e.message
+        }
+        connection.close()
+
+        then:
+        !CopyExecutablePreparedStatement.isSupported(new PostgresDatabase())
+        !CopyExecutablePreparedStatement.isSupported(postgres)
+        !CopyExecutablePreparedStatement.isSupported(h2)
+        message.contains("does not offer the PostgreSQL copy API")
+    }
+}
@@ -0,0 +1,75 @@
+package liquibase.statement
+
+import liquibase.change.ColumnConfig
+import liquibase.database.PreparedStatementFactory
+import liquibase.database.core.H2Database
+import liquibase.database.core.PostgresDatabase
+import liquibase.database.jvm.JdbcConnection
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.sql.Connection
+import java.sql.DatabaseMetaData
+import java.sql.PreparedStatement
+import java.sql.Types
+
+class InsertBatchExecutablePreparedStatementTest extends Specification {
+
+    private static List<ColumnConfig> row(String name, String age) {
+        def nameColumn = new ColumnConfig(name: "name")
+        nameColumn.setValue(name)
+        def ageColumn = new ColumnConfig(name: "age")
+        ageColumn.setValue(age)
+        return [nameColumn, ageColumn]
+    }
+
+    private PreparedStatementFactory factory(PreparedStatement stmt) {
+        def metaData = Mock(DatabaseMetaData)
+        metaData.supportsBatchUpdates() >> true
+        def connection = Mock(Connection)
+        connection.prepareStatement(_) >> stmt
+        connection.getMetaData() >> metaData
+        stmt.getConnection() >> connection
+        return new PreparedStatementFactory(new JdbcConnection(connection))
+    }
+
+    def "untyped values are bound with an unspecified type on postgresql"() {
+        given:
+        def stmt = Mock(PreparedStatement)
+
+        when:
+        def statement = new InsertBatchExecutablePreparedStatement(new PostgresDatabase(), null, null, "person",
+                [row("Bob", "42"), row("Ann", "NULL")], null, null, 10, 0, ["age"] as Set)
+        statement.execute(factory(stmt))
+
+        then:
+        1 * stmt.setString(1, "Bob")
+        1 * stmt.setObject(2, "42", Types.OTHER)
+        1 * stmt.setString(1, "Ann")
+        1 * stmt.setNull(2, Types.NULL)
+        0 * stmt.setString(2, _)
+        2 * stmt.addBatch()
+        1 * stmt.executeBatch()
+    }
+
+    @Unroll("#featureName: #database.shortName")
+    def "untyped values are bound as strings on other databases"() {
+        given:
+        def stmt = Mock(PreparedStatement)
+
+        when:
+        def statement = new InsertBatchExecutablePreparedStatement(database, null, null, "person",
+                [row("Bob", "42")], null, null, 10, 0, untypedColumns as Set)
+        statement.execute(factory(stmt))
+
+        then:
+        1 * stmt.setString(1, "Bob")
+        1 * stmt.setString(2, "42")
+        0 * stmt.setObject(_, _, _)
+
+        where:
+        database               | untypedColumns
+        new H2Database()       | ["age"]
+        new PostgresDatabase() | []
+    }
+}
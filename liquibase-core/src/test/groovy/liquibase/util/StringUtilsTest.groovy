@@ -129,4 +129,17 @@ class StringUtilsTest extends Specification {
         "abc"   | 5   | "abc  "
         "abc "  | 5   | "abc  "
     }
+
+    def "toCaseInsensitiveKey"() {
+        expect:
+        StringUtils.toCaseInsensitiveKey(left) == StringUtils.toCaseInsensitiveKey(right)
+        left.equalsIgnoreCase(right)
+
+        where:
+        left               | right
+        "path/changelog"   | "PATH/Changelog"
+        "abc"              | "abc"
+        "\u0130"           | "\u0069"
+        "\u03a3"           | "\u03c2"
+    }
 }
@@ -0,0 +1,65 @@
+package liquibase;
+
+/**
+ * Measures evaluating context and label expressions the way change set filters do, 100,000 evaluations per round.
+ * Not run as part of the test suite; run the main method with the test classpath. The optional argument is the number of rounds.
+ */
+public class ExpressionBenchmark {
+
+    private static final int EVALUATIONS = 100000;
+
+    private final ContextExpression[] contextExpressions = new ContextExpression[] {
+            new ContextExpression("test"),
+            new ContextExpression("test, prod"),
+            new ContextExpression("!test"),
+            new ContextExpression("test and !prod"),
+            new ContextExpression("qa or (test and !prod)"),
+    };
+    private final LabelExpression[] labelExpressions = new LabelExpression[] {
+            new LabelExpression("v1"),
+            new LabelExpression("v1, v2"),
+            new LabelExpression("not v1"),
+            new LabelExpression("(v1 or v2) and !v3"),
+            new LabelExpression("v1 and (v2 or (v3 and !v4))"),
+    };
+    private final Contexts contexts = new Contexts("test, qa");
+    private final Labels labels = new Labels("v1, v3");
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+
+        ExpressionBenchmark benchmark = new ExpressionBenchmark();
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            int matched = benchmark.evaluateContexts();
+            long contextTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            matched += benchmark.evaluateLabels();
+            long labelTime = System.nanoTime() - start;
+
+            System.out.println("Round " + (i + 1) + ": " + EVALUATIONS + " context expressions in " + (contextTime / 1000000) + "ms, "
+                    + EVALUATIONS + " label expressions in " + (labelTime / 1000000) + "ms (" + matched + " matched)");
+        }
+    }
+
+    public int evaluateContexts() {
+        int matched = 0;
+        for (int i = 0; i < EVALUATIONS; i++) {
+            if (contextExpressions[i % contextExpressions.length].matches(contexts)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    public int evaluateLabels() {
+        int matched = 0;
+        for (int i = 0; i < EVALUATIONS; i++) {
+            if (labelExpressions[i % labelExpressions.length].matches(labels)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
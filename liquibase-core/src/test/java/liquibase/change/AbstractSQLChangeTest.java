@@ -6,11 +6,17 @@ import liquibase.database.core.MSSQLDatabase;
 import liquibase.exception.DatabaseException;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.MD5Util;
 import liquibase.util.StreamUtil;
 import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
@@ -232,6 +238,43 @@ public class AbstractSQLChangeTest {
         assertEquals("x:true:false:"+expected, StreamUtil.getStreamContents(normalizingStream));
     }
 
+    @Test
+    public void normalizingStream_checkSumMatchesReadingOneByteAtATime() throws IOException {
+        byte[] specialBytes = new byte[] {' ', ' ', '\n', '\r', '\t', (byte) 0xFF, 'a', ';'};
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            int length = i % 30 == 0 ? random.nextInt(70000) : random.nextInt(200);
+            byte[] sql = new byte[length];
+            for (int j = 0; j < length; j++) {
+                sql[j] = random.nextBoolean() ? specialBytes[random.nextInt(specialBytes.length)] : (byte) random.nextInt(256);
+            }
+            assertNormalizingStreamCheckSumCorrect(sql);
+        }
+    }
+
+    @Test
+    public void normalizingStream_whitespaceAndFFAtChunkStartEndsCheckSum() throws IOException {
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < 20480 - "x:true:false:".length(); i++) {
+            sql.append('a');
+        }
+        byte[] start = sql.toString().getBytes("UTF-8");
+        byte[] bytes = new byte[start.length + 3];
+        System.arraycopy(start, 0, bytes, 0, start.length);
+        bytes[start.length] = ' ';
+        bytes[start.length + 1] = (byte) 0xFF;
+        bytes[start.length + 2] = 'b';
+
+        assertNormalizingStreamCheckSumCorrect(bytes);
+        assertEquals(CheckSum.compute(new AbstractSQLChange.NormalizingStream("x", true, false, new ByteArrayInputStream(start)), false),
+                CheckSum.compute(new AbstractSQLChange.NormalizingStream("x", true, false, new ByteArrayInputStream(bytes)), false));
+    }
+
+    private void assertNormalizingStreamCheckSumCorrect(byte[] sql) {
+        String expected = "7:" + MD5Util.computeMD5(new LegacyNormalizingStream("x", true, false, new ByteArrayInputStream(sql)));
+        assertEquals(expected, CheckSum.compute(new AbstractSQLChange.NormalizingStream("x", true, false, new ByteArrayInputStream(sql)), false).toString());
+    }
+
     @Test
     public void generateStatements_willCallNativeSqlIfPossible() throws DatabaseException {
         ExampleAbstractSQLChange change = new ExampleAbstractSQLChange("SOME SQL");
@@ -274,4 +317,95 @@ public class AbstractSQLChangeTest {
         }
 
     }
+
+    /**
+     * NormalizingStream as it read one byte at a time through a PushbackInputStream before it was buffered.
+     */
+    private static class LegacyNormalizingStream extends InputStream {
+        private ByteArrayInputStream headerStream;
+        private PushbackInputStream stream;
+
+        private byte[] quickBuffer = new byte[100];
+        private List<Byte> resizingBuffer = new ArrayList<Byte>();
+
+        private int lastChar = 'X';
+        private boolean seenNonSpace = false;
+
+        private LegacyNormalizingStream(String endDelimiter, Boolean splitStatements, Boolean stripComments, InputStream stream) {
+            this.stream = new PushbackInputStream(stream, 2048);
+            this.headerStream = new ByteArrayInputStream((endDelimiter+":"+splitStatements+":"+stripComments+":").getBytes());
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (headerStream != null) {
+                int returnChar = headerStream.read();
+                if (returnChar != -1) {
+                    return returnChar;
+                }
+                headerStream = null;
+            }
+
+            int returnChar = stream.read();
+            if (isWhiteSpace(returnChar)) {
+                returnChar = ' ';
+            }
+
+            while (returnChar == ' ' && (!seenNonSpace || lastChar == ' ')) {
+                returnChar = stream.read();
+
+                if (isWhiteSpace(returnChar)) {
+                    returnChar = ' ';
+                }
+            }
+
+            seenNonSpace = true;
+
+            lastChar = returnChar;
+
+            if (lastChar == ' ' && isOnlyWhitespaceRemaining()) {
+                return -1;
+            }
+
+            return returnChar;
+        }
+
+        private boolean isOnlyWhitespaceRemaining() throws IOException {
+            try {
+                int quickBufferUsed = 0;
+                while (true) {
+                    byte read = (byte) stream.read();
+                    if (quickBufferUsed >= quickBuffer.length) {
+                        resizingBuffer.add(read);
+                    } else {
+                        quickBuffer[quickBufferUsed++] = read;
+                    }
+
+                    if (read == -1) {
+                        return true;
+                    }
+                    if (!isWhiteSpace(read)) {
+                        if (resizingBuffer.size() > 0) {
+
+                            byte[] buf = new byte[resizingBuffer.size()];
+                            for (int i=0; i< resizingBuffer.size(); i++) {
+                                buf[i] = resizingBuffer.get(i);
+                            }
+
+                            stream.unread(buf);
+                        }
+
+                        stream.unread(quickBuffer, 0, quickBufferUsed);
+                        return false;
+                    }
+                }
+            } finally {
+                resizingBuffer.clear();
+            }
+        }
+
+        private boolean isWhiteSpace(int read) {
+            return read == ' ' || read == '\n' || read == '\r' || read == '\t';
+        }
+    }
 }
@@ -3,7 +3,14 @@ package liquibase.change;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import liquibase.util.MD5Util;
+import liquibase.util.StringUtils;
+
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.Normalizer;
+import java.util.Random;
 
 public class CheckSumTest {
 
@@ -84,4 +91,109 @@ public class CheckSumTest {
         assertEquals(checkSum, CheckSum.compute(new ByteArrayInputStream("a string\r\nwith\r\nlines".getBytes()), true).toString());
         assertEquals(checkSum, CheckSum.compute(new ByteArrayInputStream("a string\rwith\r\nlines".getBytes()), true).toString());
     }
+
+    @Test
+    public void compute_String_matchesLegacyNormalization() throws Exception {
+        String[] values = new String[] {
+                "",
+                "a",
+                "\r",
+                "\r\n",
+                "\r\r\n\n\r",
+                "a\r\uFFFD\nb",
+                "\uFFFD\uFFFD",
+                "e\u0301",
+                "e\uFFFD\u0301",
+                "\u1100\u1161\u11A8",
+                "A\u030A\u0323 \u212B \u0041\u0301\u0302",
+                "\uD83D\uDE00 \uD83D x \uDE00",
+                "caf\u00E9 na\u0308ive",
+        };
+        for (String value : values) {
+            assertEquals(value, legacyCompute(value), CheckSum.compute(value).toString());
+        }
+    }
+
+    @Test
+    public void compute_String_matchesLegacyNormalization_randomValues() throws Exception {
+        char[] specialChars = new char[] {'\r', '\n', '\uFFFD', '\u0301', '\u0308', '\u0323', '\u0345', '\u1100', '\u1161', '\u11A8', '\uAC00',
+                '\u212B', '\u0958', '\u093C', '\uD83D', '\uDE00', '\u00E9', '\u0390', 'e', 'a', ' '};
+        Random random = new Random(12);
+        for (int i = 0; i < 500; i++) {
+            int length = i % 50 == 0 ? random.nextInt(30000) : random.nextInt(200);
+            StringBuilder value = new StringBuilder();
+            for (int j = 0; j < length; j++) {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        value.append(specialChars[random.nextInt(specialChars.length)]);
+                        break;
+                    case 1:
+                        value.append((char) random.nextInt(0x400));
+                        break;
+                    default:
+                        value.append((char) random.nextInt(0x10000));
+                }
+            }
+            assertEquals(legacyCompute(value.toString()), CheckSum.compute(value.toString()).toString());
+        }
+    }
+
+    @Test
+    public void compute_String_longValueWithoutSegmentBoundaries() throws Exception {
+        StringBuilder value = new StringBuilder("x");
+        for (int i = 0; i < 50000; i++) {
+            value.append(i % 2 == 0 ? '\u4E2D' : '\u0301');
+        }
+        assertEquals(legacyCompute(value.toString()), CheckSum.compute(value.toString()).toString());
+    }
+
+    @Test
+    public void compute_Stream_matchesLegacyLineEndings() throws Exception {
+        byte[] specialBytes = new byte[] {'\r', '\n', 'a', (byte) 0xC3, (byte) 0xA9};
+        Random random = new Random(7);
+        for (int i = 0; i < 500; i++) {
+            int length = i % 50 == 0 ? random.nextInt(30000) : random.nextInt(100);
+            byte[] value = new byte[length];
+            for (int j = 0; j < length; j++) {
+                value[j] = random.nextBoolean() ? specialBytes[random.nextInt(specialBytes.length)] : (byte) random.nextInt(256);
+            }
+            assertEquals(legacyCompute(new ByteArrayInputStream(value), true), CheckSum.compute(new ByteArrayInputStream(value), true).toString());
+            assertEquals(legacyCompute(new ByteArrayInputStream(value), false), CheckSum.compute(new ByteArrayInputStream(value), false).toString());
+        }
+    }
+
+    /**
+     * The version 7 string checksum as computed before the normalization was streamed.
+     */
+    private String legacyCompute(String value) {
+        return "7:" + MD5Util.computeMD5(Normalizer.normalize(StringUtils.standardizeLineEndings(value).replaceAll("\\uFFFD", ""), Normalizer.Form.NFC));
+    }
+
+    /**
+     * The version 7 stream checksum as computed before the stream was read through a buffer.
+     */
+    private String legacyCompute(final InputStream stream, boolean standardizeLineEndings) {
+        InputStream newStream = stream;
+        if (standardizeLineEndings) {
+            newStream = new InputStream() {
+                int lastChar = 'X';
+
+                @Override
+                public int read() throws IOException {
+                    int read = stream.read();
+                    int returnChar = read;
+                    if (returnChar == '\r') {
+                        returnChar = '\n';
+                    }
+                    if (lastChar == '\r' && returnChar == '\n') {
+                        returnChar = stream.read(); //read next char
+                    }
+
+                    lastChar = read;
+                    return returnChar;
+                }
+            };
+        }
+        return "7:" + MD5Util.computeMD5(newStream);
+    }
 }
@@ -0,0 +1,86 @@
+package liquibase.change.core;
+
+import liquibase.change.CheckSum;
+import liquibase.io.EmptyLineAndCommentSkippingInputStream;
+import liquibase.resource.FileSystemResourceAccessor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Measures {@link LoadDataChange#generateCheckSum()} on a generated CSV file read through a memory mapped file, compared to reading the
+ * same file one byte at a time through {@link EmptyLineAndCommentSkippingInputStream}.
+ * Not run as part of the test suite; run the main method with the test classpath. Optional arguments are the file size in megabytes (default 1024) and the number of rounds.
+ */
+public class LoadDataCheckSumBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int megabytes = args.length > 0 ? Integer.parseInt(args[0]) : 1024;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        File directory = File.createTempFile("liquibase-benchmark", "");
+        directory.delete();
+        directory.mkdirs();
+        File file = new File(directory, "data.csv");
+        try {
+            writeCsv(file, megabytes * 1024L * 1024L);
+
+            LoadDataChange change = new LoadDataChange();
+            change.setTableName("person");
+            change.setFile(file.getName());
+            change.setResourceAccessor(new FileSystemResourceAccessor(directory.getAbsolutePath()));
+
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                CheckSum mapped = change.generateCheckSum();
+                long mappedTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                CheckSum byteAtATime = computeByteAtATime(file, change.getTableName(), change.getCommentLineStartsWith());
+                long byteAtATimeTime = System.nanoTime() - start;
+
+                System.out.println("Round " + (i + 1) + ": " + megabytes + "MB memory mapped in " + (mappedTime / 1000000) + "ms, one byte at a time in "
+                        + (byteAtATimeTime / 1000000) + "ms" + (mapped.equals(byteAtATime) ? "" : " CHECKSUMS DIFFER: " + mapped + " " + byteAtATime));
+            }
+        } finally {
+            file.delete();
+            directory.delete();
+        }
+    }
+
+    private static CheckSum computeByteAtATime(File file, String tableName, String commentLineStartsWith) throws IOException {
+        InputStream stream = new EmptyLineAndCommentSkippingInputStream(new BufferedInputStream(new FileInputStream(file)), commentLineStartsWith);
+        try {
+            return CheckSum.compute(tableName + ":" + CheckSum.compute(stream, true));
+        } finally {
+            stream.close();
+        }
+    }
+
+    private static void writeCsv(File file, long size) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1024 * 1024);
+        try {
+            out.write("id,name,email,created\r\n".getBytes("UTF-8"));
+            long written = 0;
+            for (int row = 0; written < size; row++) {
+                String line;
+                if (row % 100 == 0) {
+                    line = "# batch " + row + "\r\n\r\n";
+                } else {
+                    line = row + ",Person " + row + ",person" + row + "@example.com,2016-01-01 12:00:00\r\n";
+                }
+                byte[] bytes = line.getBytes("UTF-8");
+                out.write(bytes);
+                written += bytes.length;
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -12,4 +12,16 @@ public class RanChangeSetTest {
         ChangeSet incomingChangeSet = new ChangeSet("1", "author", false, false, "classpath:/db/file.log", null, null, null);
         assertTrue(ranChangeSet.isSameAs(incomingChangeSet));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void identity_key_matches_is_same_as() throws Exception {
+        RanChangeSet ranChangeSet = new RanChangeSet("classpath:db\\File.log", "ID", "Author", null, null, null, null, null, null, null, null, null);
+        ChangeSet sameChangeSet = new ChangeSet("id", "author", false, false, "db/file.log", null, null, null);
+        ChangeSet otherChangeSet = new ChangeSet("id2", "author", false, false, "db/file.log", null, null, null);
+
+        assertTrue(ranChangeSet.isSameAs(sameChangeSet));
+        assertEquals(ranChangeSet.getIdentityKey(), RanChangeSet.getIdentityKey(sameChangeSet));
+        assertFalse(ranChangeSet.isSameAs(otherChangeSet));
+        assertFalse(ranChangeSet.getIdentityKey().equals(RanChangeSet.getIdentityKey(otherChangeSet)));
+    }
+}
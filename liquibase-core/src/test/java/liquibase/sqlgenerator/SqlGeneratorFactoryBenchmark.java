@@ -0,0 +1,85 @@
+package liquibase.sqlgenerator;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.datatype.core.IntType;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.AddColumnStatement;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.statement.core.DropTableStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.SelectFromDatabaseChangeLogStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SQL generation throughput through {@link SqlGeneratorFactory} with one and with several threads generating at the same time.
+ * Not run as part of the test suite; run the main method with the test classpath. Optional arguments are the number of threads and seconds per measurement.
+ */
+public class SqlGeneratorFactoryBenchmark {
+
+    private final SqlStatement[] statements = new SqlStatement[] {
+            new AddColumnStatement(null, null, "person", "name", "varchar(255)", null),
+            new CreateTableStatement(null, null, "person").addColumn("id", new IntType()),
+            new DropTableStatement(null, null, "person", false),
+            new InsertStatement(null, null, "person").addColumnValue("id", 1).addColumnValue("name", "Bob"),
+            new SelectFromDatabaseChangeLogStatement("ID"),
+    };
+    private final Database[] databases = new Database[] {new H2Database(), new MySQLDatabase(), new OracleDatabase(), new PostgresDatabase()};
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+        SqlGeneratorFactoryBenchmark benchmark = new SqlGeneratorFactoryBenchmark();
+        benchmark.run(1, seconds); //warm up
+        System.out.println("1 thread: " + benchmark.run(1, seconds) + " statements/ms");
+        System.out.println(threads + " threads: " + benchmark.run(threads, seconds) + " statements/ms");
+    }
+
+    /**
+     * Generates SQL on the given number of threads for the given time and returns the number of statements generated per millisecond.
+     */
+    public long run(int threads, int seconds) throws Exception {
+        final long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Long>> results = new ArrayList<Future<Long>>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(new Callable<Long>() {
+                    @Override
+                    public Long call() throws Exception {
+                        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+                        long generated = 0;
+                        while (System.nanoTime() < end) {
+                            for (SqlStatement statement : statements) {
+                                for (Database database : databases) {
+                                    factory.generateSql(statement, database);
+                                    generated++;
+                                }
+                            }
+                        }
+                        return generated;
+                    }
+                }));
+            }
+
+            long generated = 0;
+            for (Future<Long> result : results) {
+                generated += result.get();
+            }
+            return generated / TimeUnit.SECONDS.toMillis(seconds);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package liquibase.sqlgenerator;
 
 import liquibase.database.Database;
 import liquibase.database.core.H2Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
+import liquibase.servicelocator.FactoryTimingReport;
 import liquibase.sql.Sql;
 import liquibase.sqlgenerator.core.AddAutoIncrementGenerator;
 import liquibase.sqlgenerator.core.AddAutoIncrementGeneratorDB2;
@@ -11,12 +15,22 @@ import liquibase.sqlgenerator.core.AddAutoIncrementGeneratorHsqlH2;
 import liquibase.sqlgenerator.core.AddColumnGenerator;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.AddAutoIncrementStatement;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.statement.core.DropTableStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.SelectFromDatabaseChangeLogStatement;
 import org.junit.After;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.SortedSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class SqlGeneratorFactoryTest {
 
@@ -125,6 +139,86 @@ public class SqlGeneratorFactoryTest {
         assertEquals(1, allGenerators.size());        
     }
 
+    @Test
+    public void getGenerators_onlyCreatesCandidateGenerators() {
+        FactoryTimingReport.reset();
+        SqlGeneratorFactory.reset();
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+
+        FactoryTimingReport.FactoryTiming timing = FactoryTimingReport.getInstance().getTiming(SqlGeneratorFactory.class);
+        assertTrue(timing.getClassesFound() > 10);
+        assertEquals(0, timing.getInstancesCreated());
+
+        SortedSet<SqlGenerator> generators = factory.getGenerators(new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null), new H2Database());
+        assertEquals(1, generators.size());
+        assertTrue(generators.first() instanceof AddAutoIncrementGeneratorHsqlH2);
+        assertTrue(timing.getInstancesCreated() < timing.getClassesFound());
+
+        assertEquals(timing.getClassesFound(), factory.getGenerators().size());
+        assertEquals(timing.getClassesFound(), timing.getInstancesCreated());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void getGenerators_returnsUnmodifiableSet() {
+        SortedSet<SqlGenerator> generators = SqlGeneratorFactory.getInstance().getGenerators(new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null), new H2Database());
+        generators.clear();
+    }
+
+    @Test
+    public void getGenerators_registerClearsCache() {
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        AddAutoIncrementStatement statement = new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null);
+        assertEquals(1, factory.getGenerators(statement, new H2Database()).size());
+
+        SqlGenerator generator = addGenerator(AddAutoIncrementStatement.class, H2Database.class, 100);
+        assertEquals(2, factory.getGenerators(statement, new H2Database()).size());
+        assertSame(generator, factory.getGenerators(statement, new H2Database()).first());
+
+        factory.unregister(generator);
+        assertEquals(1, factory.getGenerators(statement, new H2Database()).size());
+    }
+
+    @Test
+    public void getGenerators_concurrentLookups() throws Exception {
+        final SqlStatement[] statements = new SqlStatement[] {
+                new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null),
+                new CreateTableStatement(null, null, "person"),
+                new DropTableStatement(null, null, "person", false),
+                new InsertStatement(null, null, "person"),
+                new SelectFromDatabaseChangeLogStatement("ID"),
+        };
+        final Database[] databases = new Database[] {new H2Database(), new MySQLDatabase(), new OracleDatabase(), new PostgresDatabase()};
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<SortedSet<SqlGenerator>>>> results = new ArrayList<Future<List<SortedSet<SqlGenerator>>>>();
+            for (int i = 0; i < 16; i++) {
+                results.add(executor.submit(new Callable<List<SortedSet<SqlGenerator>>>() {
+                    @Override
+                    public List<SortedSet<SqlGenerator>> call() throws Exception {
+                        List<SortedSet<SqlGenerator>> found = new ArrayList<SortedSet<SqlGenerator>>();
+                        for (SqlStatement statement : statements) {
+                            for (Database database : databases) {
+                                found.add(SqlGeneratorFactory.getInstance().getGenerators(statement, database));
+                            }
+                        }
+                        return found;
+                    }
+                }));
+            }
+
+            List<SortedSet<SqlGenerator>> expected = results.get(0).get();
+            for (Future<List<SortedSet<SqlGenerator>>> result : results) {
+                List<SortedSet<SqlGenerator>> found = result.get();
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(new ArrayList<SqlGenerator>(expected.get(i)), new ArrayList<SqlGenerator>(found.get(i)));
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private SqlGenerator addGenerator(final Class<? extends SqlStatement> sqlStatementClass, final Class<? extends Database> sqlDatabaseClass, final int level) {
     	
         SqlGenerator generator = new SqlGenerator() {
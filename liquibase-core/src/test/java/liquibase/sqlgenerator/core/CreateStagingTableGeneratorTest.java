@@ -0,0 +1,108 @@
+package liquibase.sqlgenerator.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import liquibase.database.core.DB2Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.CreateStagingTableStatement;
+import liquibase.statement.core.CreateTemporaryStagingTableStatement;
+import liquibase.statement.core.DropTemporaryStagingTableStatement;
+import liquibase.statement.core.InsertFromStagingTableStatement;
+import org.junit.Test;
+
+public class CreateStagingTableGeneratorTest {
+    private static final String SCHEMA_NAME = "myschema";
+    private static final String TABLE_NAME = "mytable";
+    private static final String STAGING_TABLE_NAME = "mystage";
+
+    private CreateStagingTableStatement createStatement() {
+        return new CreateStagingTableStatement(null, SCHEMA_NAME, TABLE_NAME, STAGING_TABLE_NAME, Arrays.asList("id", "name"));
+    }
+
+    @Test
+    public void createTableAsSelect() {
+        Sql[] sql = new CreateStagingTableGenerator().generateSql(createStatement(), new PostgresDatabase(), null);
+        assertEquals("CREATE TABLE myschema.mystage AS SELECT id, name FROM myschema.mytable WHERE 1=0", sql[0].toSql());
+    }
+
+    @Test
+    public void selectIntoOnMSSQL() {
+        Sql[] sql = new CreateStagingTableGeneratorMSSQL().generateSql(createStatement(), new MSSQLDatabase(), null);
+        assertEquals("SELECT [id], [name] INTO [myschema].[mystage] FROM [myschema].[mytable] WHERE 1=0", sql[0].toSql());
+    }
+
+    @Test
+    public void withNoDataOnDB2() {
+        Sql[] sql = new CreateStagingTableGeneratorDB2().generateSql(createStatement(), new DB2Database(), null);
+        assertEquals("CREATE TABLE myschema.mystage AS (SELECT id, name FROM myschema.mytable) WITH NO DATA", sql[0].toSql());
+    }
+
+    private CreateTemporaryStagingTableStatement createTemporaryStatement(String stagingSchemaName, String stagingTableName) {
+        return new CreateTemporaryStagingTableStatement(null, SCHEMA_NAME, TABLE_NAME, null, stagingSchemaName, stagingTableName, Arrays.asList("id", "name"));
+    }
+
+    @Test
+    public void temporaryTableOnPostgres() {
+        Sql[] sql = new CreateStagingTableGeneratorTemporary().generateSql(createTemporaryStatement("pg_temp", STAGING_TABLE_NAME), new PostgresDatabase(), null);
+        assertEquals("CREATE TEMPORARY TABLE pg_temp.mystage AS SELECT id, name FROM myschema.mytable WHERE 1=0", sql[0].toSql());
+
+        sql = new DropTemporaryStagingTableGenerator().generateSql(new DropTemporaryStagingTableStatement(null, "pg_temp", STAGING_TABLE_NAME), new PostgresDatabase(), null);
+        assertEquals("DROP TABLE IF EXISTS pg_temp.mystage", sql[0].toSql());
+    }
+
+    @Test
+    public void temporaryTableOnMySQL() {
+        Sql[] sql = new CreateStagingTableGeneratorTemporary().generateSql(createTemporaryStatement(SCHEMA_NAME, STAGING_TABLE_NAME), new MySQLDatabase(), null);
+        assertEquals("CREATE TEMPORARY TABLE myschema.mystage AS SELECT id, name FROM myschema.mytable WHERE 1=0", sql[0].toSql());
+
+        sql = new DropTemporaryStagingTableGenerator().generateSql(new DropTemporaryStagingTableStatement(null, SCHEMA_NAME, STAGING_TABLE_NAME), new MySQLDatabase(), null);
+        assertEquals("DROP TEMPORARY TABLE IF EXISTS myschema.mystage", sql[0].toSql());
+    }
+
+    @Test
+    public void temporaryTableOnH2IsDroppedWithTheTransaction() {
+        Sql[] sql = new CreateStagingTableGeneratorTemporary().generateSql(createTemporaryStatement("PUBLIC", "MYSTAGE"), new H2Database(), null);
+        assertEquals("CREATE LOCAL TEMPORARY TABLE PUBLIC.MYSTAGE ON COMMIT DROP TRANSACTIONAL AS SELECT id, name FROM myschema.mytable WHERE 1=0", sql[0].toSql());
+
+        sql = new DropTemporaryStagingTableGenerator().generateSql(new DropTemporaryStagingTableStatement(null, "PUBLIC", "MYSTAGE"), new H2Database(), null);
+        assertEquals(0, sql.length);
+    }
+
+    @Test
+    public void temporaryTableOnMSSQL() {
+        Sql[] sql = new CreateStagingTableGeneratorMSSQL().generateSql(createTemporaryStatement(null, "#mystage"), new MSSQLDatabase(), null);
+        assertEquals("SELECT [id], [name] INTO [#mystage] FROM [myschema].[mytable] WHERE 1=0", sql[0].toSql());
+
+        sql = new DropTemporaryStagingTableGenerator().generateSql(new DropTemporaryStagingTableStatement(null, null, "#mystage"), new MSSQLDatabase(), null);
+        assertEquals("IF OBJECT_ID('tempdb..#mystage') IS NOT NULL DROP TABLE [#mystage]", sql[0].toSql());
+    }
+
+    @Test
+    public void temporaryTableOnlyWhereCreatingItDoesNotCommit() {
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        assertTrue(factory.supports(createTemporaryStatement(null, STAGING_TABLE_NAME), new H2Database()));
+        assertTrue(factory.supports(createTemporaryStatement(null, STAGING_TABLE_NAME), new PostgresDatabase()));
+        assertTrue(factory.supports(createTemporaryStatement(null, STAGING_TABLE_NAME), new MySQLDatabase()));
+        assertTrue(factory.supports(createTemporaryStatement(null, "#" + STAGING_TABLE_NAME), new MSSQLDatabase()));
+        assertFalse(factory.supports(createTemporaryStatement(null, STAGING_TABLE_NAME), new OracleDatabase()));
+        assertFalse(factory.supports(createTemporaryStatement(null, STAGING_TABLE_NAME), new DB2Database()));
+        assertTrue(factory.supports(createStatement(), new OracleDatabase()));
+    }
+
+    @Test
+    public void insertFromStagingTable() {
+        InsertFromStagingTableStatement statement = new InsertFromStagingTableStatement(null, SCHEMA_NAME, TABLE_NAME, STAGING_TABLE_NAME, Arrays.asList("id", "name"));
+        Sql[] sql = new InsertFromStagingTableGenerator().generateSql(statement, new PostgresDatabase(), null);
+        assertEquals("INSERT INTO myschema.mytable (id, name) SELECT id, name FROM myschema.mystage", sql[0].toSql());
+    }
+}
@@ -0,0 +1,67 @@
+package liquibase.sqlgenerator.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.sql.Sql;
+import liquibase.statement.core.InsertOrUpdateFromStagingTableStatement;
+import org.junit.Test;
+
+public class InsertOrUpdateFromStagingTableGeneratorTest {
+    private static final String SCHEMA_NAME = "myschema";
+    private static final String TABLE_NAME = "mytable";
+    private static final String STAGING_TABLE_NAME = "mystage";
+
+    private InsertOrUpdateFromStagingTableStatement createStatement(boolean onlyUpdate, String... columnNames) {
+        return new InsertOrUpdateFromStagingTableStatement(null, SCHEMA_NAME, TABLE_NAME, STAGING_TABLE_NAME, Arrays.asList(columnNames), "id", onlyUpdate);
+    }
+
+    @Test
+    public void updateThenInsertMissingRows() {
+        Sql[] sql = new InsertOrUpdateFromStagingTableGenerator().generateSql(createStatement(false, "id", "name"), new PostgresDatabase(), null);
+        assertEquals(2, sql.length);
+        assertEquals("UPDATE myschema.mytable SET name = (SELECT src.name FROM myschema.mystage src WHERE src.id = myschema.mytable.id)"
+                + " WHERE EXISTS (SELECT 1 FROM myschema.mystage src WHERE src.id = myschema.mytable.id)", sql[0].toSql());
+        assertEquals("INSERT INTO myschema.mytable (id, name) SELECT src.id, src.name FROM myschema.mystage src"
+                + " WHERE NOT EXISTS (SELECT 1 FROM myschema.mytable tgt WHERE src.id = tgt.id)", sql[1].toSql());
+    }
+
+    @Test
+    public void onlyUpdateDoesNotInsert() {
+        Sql[] sql = new InsertOrUpdateFromStagingTableGenerator().generateSql(createStatement(true, "id", "name"), new PostgresDatabase(), null);
+        assertEquals(1, sql.length);
+        assertEquals(0, new InsertOrUpdateFromStagingTableGenerator().generateSql(createStatement(true, "id"), new PostgresDatabase(), null).length);
+    }
+
+    @Test
+    public void onDuplicateKeyUpdateOnMySQL() {
+        Sql[] sql = new InsertOrUpdateFromStagingTableGeneratorMySQL().generateSql(createStatement(false, "id", "name"), new MySQLDatabase(), null);
+        assertEquals("INSERT INTO myschema.mytable (id, name) SELECT id, name FROM myschema.mystage ON DUPLICATE KEY UPDATE name = VALUES(name)", sql[0].toSql());
+
+        sql = new InsertOrUpdateFromStagingTableGeneratorMySQL().generateSql(createStatement(false, "id"), new MySQLDatabase(), null);
+        assertEquals("INSERT IGNORE INTO myschema.mytable (id) SELECT id FROM myschema.mystage", sql[0].toSql());
+    }
+
+    @Test
+    public void mergeOnOracle() {
+        Sql[] sql = new InsertOrUpdateFromStagingTableGeneratorOracle().generateSql(createStatement(false, "id", "name"), new OracleDatabase(), null);
+        assertEquals("MERGE INTO myschema.mytable tgt USING myschema.mystage src ON (tgt.id = src.id)"
+                + " WHEN MATCHED THEN UPDATE SET name = src.name"
+                + " WHEN NOT MATCHED THEN INSERT (id, name) VALUES (src.id, src.name)", sql[0].toSql());
+
+        sql = new InsertOrUpdateFromStagingTableGeneratorOracle().generateSql(createStatement(true, "id", "name"), new OracleDatabase(), null);
+        assertEquals("MERGE INTO myschema.mytable tgt USING myschema.mystage src ON (tgt.id = src.id) WHEN MATCHED THEN UPDATE SET name = src.name", sql[0].toSql());
+    }
+
+    @Test
+    public void mergeOnMSSQLIsTerminated() {
+        Sql[] sql = new InsertOrUpdateFromStagingTableGeneratorMSSQL().generateSql(createStatement(false, "id"), new MSSQLDatabase(), null);
+        assertEquals("MERGE INTO [myschema].[mytable] tgt USING [myschema].[mystage] src ON (tgt.[id] = src.[id])"
+                + " WHEN NOT MATCHED THEN INSERT ([id]) VALUES (src.[id]);", sql[0].toSql());
+    }
+}